@@ -0,0 +1,37 @@
+package backend.authservice.cache;
+
+import backend.authservice.models.entity.Rol;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+//authorities de cada rol (ROLE_ + permisos); los roles son pocos y cambian rara vez
+@Component
+public class RolAuthorityCache {
+    private final Map<Long, List<GrantedAuthority>> authoritiesByRol = new ConcurrentHashMap<>();
+
+    public List<GrantedAuthority> get(Long rolId, Function<Long, Rol> loader) {
+        return authoritiesByRol.computeIfAbsent(rolId, id -> toAuthorities(loader.apply(id)));
+    }
+
+    public void evict(Long rolId) {
+        authoritiesByRol.remove(rolId);
+    }
+
+    public void evictAll() {
+        authoritiesByRol.clear();
+    }
+
+    private static List<GrantedAuthority> toAuthorities(Rol rol) {
+        List<GrantedAuthority> authorities = new ArrayList<>();
+        authorities.add(new SimpleGrantedAuthority("ROLE_" + rol.getNombre().name()));
+        rol.getPermisos().forEach(permiso -> authorities.add(new SimpleGrantedAuthority(permiso.getNombre())));
+        return List.copyOf(authorities);
+    }
+}
@@ -0,0 +1,77 @@
+package backend.authservice.cache;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+//datos de usuario por username, con tiempo de vida y tamaño maximo
+@Component
+public class UserDetailsCache {
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    @Autowired
+    public UserDetailsCache(@Value("${security.user-cache.max-size}") int maxSize,
+                            @Value("${security.user-cache.ttl-ms}") long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    UserDetailsCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    //devuelve una copia nueva cada vez, porque Spring Security borra el password del User despues de autenticar
+    public UserDetails get(String username) {
+        Entry entry = entries.get(username);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.getAsLong()) {
+            entries.remove(username, entry);
+            return null;
+        }
+        return entry.toUserDetails();
+    }
+
+    public void put(UserDetails user) {
+        long now = clock.getAsLong();
+        if (entries.size() >= maxSize) {
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        entries.put(user.getUsername(), new Entry(user.getUsername(), user.getPassword(), user.isEnabled(),
+                user.isAccountNonExpired(), user.isCredentialsNonExpired(), user.isAccountNonLocked(),
+                user.getAuthorities(), now + ttlMillis));
+    }
+
+    public void evict(String username) {
+        entries.remove(username);
+    }
+
+    public void evictAll() {
+        entries.clear();
+    }
+
+    private record Entry(String username, String password, boolean enabled, boolean accountNonExpired,
+                         boolean credentialsNonExpired, boolean accountNonLocked,
+                         Collection<? extends GrantedAuthority> authorities, long expiresAt) {
+
+        UserDetails toUserDetails() {
+            return new User(username, password, enabled, accountNonExpired, credentialsNonExpired, accountNonLocked, authorities);
+        }
+    }
+}
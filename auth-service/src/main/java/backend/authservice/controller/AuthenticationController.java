@@ -4,6 +4,7 @@ import backend.authservice.models.dto.AuthLoginRequest;
 import backend.authservice.models.dto.AuthResponse;
 import backend.authservice.models.dto.UsuarioDtoRequest;
 import backend.authservice.models.dto.UsuarioDtoResponse;
+import backend.authservice.security.BoundedPasswordEncoder;
 import backend.authservice.service.UsuarioService;
 import backend.authservice.service.impl.UsuarioServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
@@ -12,6 +13,8 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -23,10 +26,12 @@ public class AuthenticationController {
 
     private final UsuarioServiceImpl userDetailsService;
     private final UsuarioService usuarioService;
+    private final BoundedPasswordEncoder passwordEncoder;
 
-    public AuthenticationController(UsuarioServiceImpl userDetailsService, UsuarioService usuarioService) {
+    public AuthenticationController(UsuarioServiceImpl userDetailsService, UsuarioService usuarioService, BoundedPasswordEncoder passwordEncoder) {
         this.userDetailsService = userDetailsService;
         this.usuarioService = usuarioService;
+        this.passwordEncoder = passwordEncoder;
     }
 
     @Operation(summary = "Iniciar sesión", description = "Inicia sesión en el sistema")
@@ -52,4 +57,15 @@ public class AuthenticationController {
     public ResponseEntity<UsuarioDtoResponse> registrarUsuario(@RequestBody UsuarioDtoRequest userRequest) {
         return new ResponseEntity<>(usuarioService.crearUsuario(userRequest), HttpStatus.OK);
     }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Metricas de BCrypt", description = "Muestra la cola, los rechazos y la latencia del pool de BCrypt")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Metricas obtenidas"),
+            @ApiResponse(responseCode = "401", description = "No autorizado")
+    })
+    @GetMapping("/password-hashing/stats")
+    public ResponseEntity<BoundedPasswordEncoder.Stats> passwordHashingStats() {
+        return new ResponseEntity<>(passwordEncoder.stats(), HttpStatus.OK);
+    }
 }
@@ -6,6 +6,7 @@ public class AuthException extends RuntimeException {
     public static final String NOMBRE_USUARIO_VACIO = "El nombre de usuario no puede estar vacío";
     public static final String PASSWORD_VACIO = "La contraseña no puede estar vacía";
     public static final String ID_INVALIDO = "El id no puede ser nulo o menor o igual a 0";
+    public static final String SERVICIO_SATURADO = "Demasiadas solicitudes de inicio de sesión, intente nuevamente";
 
     public AuthException(String message) {
         super(message);
@@ -2,9 +2,14 @@ package backend.authservice.repository;
 
 import backend.authservice.models.entity.Rol;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface RolRepository extends JpaRepository<Rol, Long> {
     Optional<Rol> findById(Long id);
+
+    @Query("SELECT r FROM Rol r LEFT JOIN FETCH r.permisos WHERE r.id = :id")
+    Optional<Rol> findByIdWithPermisos(@Param("id") Long id);
 }
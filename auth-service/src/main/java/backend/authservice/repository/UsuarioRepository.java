@@ -2,9 +2,15 @@ package backend.authservice.repository;
 
 import backend.authservice.models.entity.Usuario;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.Optional;
 
 public interface UsuarioRepository extends JpaRepository<Usuario, Long> {
     Optional<Usuario> findByUsername(String username);
+
+    //trae el usuario con sus roles en una sola consulta; los permisos salen de la cache de roles
+    @Query("SELECT u FROM Usuario u LEFT JOIN FETCH u.roles WHERE u.username = :username")
+    Optional<Usuario> findByUsernameWithRoles(@Param("username") String username);
 }
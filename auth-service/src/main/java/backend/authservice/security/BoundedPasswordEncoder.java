@@ -0,0 +1,103 @@
+package backend.authservice.security;
+
+import backend.authservice.exception.AuthException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+//ejecuta BCrypt en un pool propio del tamaño de los nucleos con cola acotada;
+//si la cola esta llena se rechaza enseguida en vez de ocupar los hilos de Tomcat
+public class BoundedPasswordEncoder implements PasswordEncoder {
+    private final PasswordEncoder delegate;
+    private final ThreadPoolExecutor executor;
+
+    private final LongAdder operations = new LongAdder();
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+    public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("bcrypt-");
+        threadFactory.setDaemon(true);
+
+        this.delegate = delegate;
+        this.executor = new ThreadPoolExecutor(threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                threadFactory,
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        return delegate.upgradeEncoding(encodedPassword);
+    }
+
+    public Stats stats() {
+        long count = operations.sum();
+        return new Stats(executor.getQueue().size(),
+                executor.getActiveCount(),
+                count,
+                rejected.sum(),
+                count == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(totalNanos.sum() / count),
+                TimeUnit.NANOSECONDS.toMillis(maxNanos.get()));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private <T> T run(Supplier<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(() -> measure(task));
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new AuthException(AuthException.SERVICIO_SATURADO);
+        }
+
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new AuthException(AuthException.SERVICIO_SATURADO);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    private <T> T measure(Supplier<T> task) {
+        long start = System.nanoTime();
+        try {
+            return task.get();
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            operations.increment();
+            totalNanos.add(elapsed);
+            maxNanos.accumulate(elapsed);
+        }
+    }
+
+    public record Stats(int queueDepth, int active, long operations, long rejected, long avgMillis, long maxMillis) {
+    }
+}
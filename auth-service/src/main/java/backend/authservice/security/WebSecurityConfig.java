@@ -3,6 +3,7 @@ package backend.authservice.security;
 import backend.authservice.filter.JwtTokenValidator;
 import backend.authservice.service.impl.UsuarioServiceImpl;
 import backend.authservice.util.JwtUtils;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -53,8 +54,11 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    public BoundedPasswordEncoder passwordEncoder(@Value("${security.bcrypt.threads}") int threads,
+                                                  @Value("${security.bcrypt.queue-capacity}") int queueCapacity) {
+        //con 0 se usa un hilo por nucleo
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        return new BoundedPasswordEncoder(new BCryptPasswordEncoder(), poolSize, queueCapacity);
     }
 
     @Bean
@@ -63,9 +67,9 @@ public class WebSecurityConfig {
     }
 
     @Bean
-    public AuthenticationProvider authenticationProvider(UsuarioServiceImpl usuarioService) {
+    public AuthenticationProvider authenticationProvider(UsuarioServiceImpl usuarioService, PasswordEncoder passwordEncoder) {
         DaoAuthenticationProvider provider = new DaoAuthenticationProvider();
-        provider.setPasswordEncoder(passwordEncoder());
+        provider.setPasswordEncoder(passwordEncoder);
         provider.setUserDetailsService(usuarioService);
         return provider;
     }
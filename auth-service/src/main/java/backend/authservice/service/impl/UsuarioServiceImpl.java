@@ -1,5 +1,7 @@
 package backend.authservice.service.impl;
 
+import backend.authservice.cache.RolAuthorityCache;
+import backend.authservice.cache.UserDetailsCache;
 import backend.authservice.exception.AuthException;
 import backend.authservice.mappers.UsuarioMapper;
 import backend.authservice.models.dto.AuthLoginRequest;
@@ -16,7 +18,7 @@ import jakarta.transaction.Transactional;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
@@ -25,9 +27,7 @@ import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Optional;
+import java.util.LinkedHashSet;
 import java.util.Set;
 
 @Service
@@ -37,45 +37,50 @@ public class UsuarioServiceImpl implements UserDetailsService, UsuarioService {
     private final RolRepository rolRepository;
     private final JwtUtils jwtUtils;
     private final PasswordEncoder passwordEncoder;
+    private final UserDetailsCache userDetailsCache;
+    private final RolAuthorityCache rolAuthorityCache;
     private final UsuarioMapper usuarioMapper = UsuarioMapper.INSTANCE;
 
-    public UsuarioServiceImpl(UsuarioRepository usuarioRepository, RolRepository rolRepository, JwtUtils jwtUtils, PasswordEncoder passwordEncoder) {
+    public UsuarioServiceImpl(UsuarioRepository usuarioRepository, RolRepository rolRepository, JwtUtils jwtUtils, PasswordEncoder passwordEncoder,
+                              UserDetailsCache userDetailsCache, RolAuthorityCache rolAuthorityCache) {
         this.usuarioRepository = usuarioRepository;
         this.rolRepository = rolRepository;
         this.jwtUtils = jwtUtils;
         this.passwordEncoder = passwordEncoder;
+        this.userDetailsCache = userDetailsCache;
+        this.rolAuthorityCache = rolAuthorityCache;
     }
 
     @Override
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-        Optional<Usuario> usuarioEncontrado = usuarioRepository.findByUsername(username);
-        if (usuarioEncontrado.isEmpty()) {
-            throw new UsernameNotFoundException("Usuario no encontrado");
+        UserDetails cached = userDetailsCache.get(username);
+        if (cached != null) {
+            return cached;
         }
 
-        List<SimpleGrantedAuthority> authorityList = new ArrayList<>();
+        Usuario usuario = usuarioRepository.findByUsernameWithRoles(username)
+                .orElseThrow(() -> new UsernameNotFoundException("Usuario no encontrado"));
 
-        // Añadir roles y permisos al usuario encontrado en la base de datos
-
-        usuarioEncontrado.get().getRoles().forEach(rol -> {
-            authorityList.add(new SimpleGrantedAuthority("ROLE_" + rol.getNombre().name()));
-        });
-
-        // Añadir permisos al usuario encontrado en la base de datos (opcional)
-        usuarioEncontrado.get().getRoles().stream()
-                .flatMap(rol -> rol.getPermisos().stream())
-                .forEach(permiso -> authorityList.add(new SimpleGrantedAuthority(permiso.getNombre())));
+        // Añadir roles y permisos del usuario, tomados de la cache de roles
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        usuario.getRoles().forEach(rol -> authorities.addAll(rolAuthorityCache.get(rol.getId(), this::obtenerRolConPermisos)));
 
         // Crear un objeto User con los datos del usuario encontrado en la base de datos
+        UserDetails user = new User(usuario.getUsername(),
+                usuario.getPassword(),
+                usuario.isEnabled(),
+                usuario.isAccountNoExpired(),
+                usuario.isCredentialsNoExpired(),
+                usuario.isAccountNoLocked(),
+                authorities);
+
+        userDetailsCache.put(user);
+        return user;
+    }
 
-        return new User(usuarioEncontrado.get().getUsername(),
-                usuarioEncontrado.get().getPassword(),
-                usuarioEncontrado.get().isEnabled(),
-                usuarioEncontrado.get().isAccountNoExpired(),
-                usuarioEncontrado.get().isCredentialsNoExpired(),
-                usuarioEncontrado.get().isAccountNoLocked(),
-                authorityList);
-
+    private Rol obtenerRolConPermisos(Long rolId) {
+        return rolRepository.findByIdWithPermisos(rolId)
+                .orElseThrow(() -> new AuthException(AuthException.ROL_NO_ENCONTRADO));
     }
 
     public AuthResponse loginUser(AuthLoginRequest userRequest) {
@@ -124,6 +129,7 @@ public class UsuarioServiceImpl implements UserDetailsService, UsuarioService {
                 .build();
 
         Usuario usuarioGuardado = usuarioRepository.save(usuario);
+        userDetailsCache.evict(usuarioGuardado.getUsername());
         UsuarioDtoResponse usuarioDtoResponse = usuarioMapper.toDto(usuarioGuardado);
         return usuarioDtoResponse;
     }
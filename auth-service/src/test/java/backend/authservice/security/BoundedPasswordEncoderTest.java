@@ -0,0 +1,67 @@
+package backend.authservice.security;
+
+import backend.authservice.exception.AuthException;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class BoundedPasswordEncoderTest {
+
+    @Test
+    void testMatches_DadoPasswordCorrecto_RetornaTrue() {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(new BCryptPasswordEncoder(4), 2, 4);
+
+        String hash = encoder.encode("1234");
+
+        assertThat(encoder.matches("1234", hash)).isTrue();
+        assertThat(encoder.matches("4321", hash)).isFalse();
+        assertThat(encoder.stats().operations()).isEqualTo(3);
+        encoder.shutdown();
+    }
+
+    @Test
+    void testMatches_DadoPoolYColaLlenos_RechazaEnseguida() {
+        CountDownLatch liberar = new CountDownLatch(1);
+        PasswordEncoder lento = new PasswordEncoder() {
+            @Override
+            public String encode(CharSequence rawPassword) {
+                return rawPassword.toString();
+            }
+
+            @Override
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                try {
+                    liberar.await(5, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return true;
+            }
+        };
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(lento, 1, 1);
+
+        //uno ocupa el hilo y otro la unica posicion de la cola
+        CompletableFuture<Boolean> enEjecucion = CompletableFuture.supplyAsync(() -> encoder.matches("a", "a"));
+        await().until(() -> encoder.stats().active() == 1);
+        CompletableFuture<Boolean> enCola = CompletableFuture.supplyAsync(() -> encoder.matches("b", "b"));
+        await().until(() -> encoder.stats().queueDepth() == 1);
+
+        AuthException exception = assertThrows(AuthException.class, () -> encoder.matches("c", "c"));
+
+        assertThat(exception.getMessage()).isEqualTo(AuthException.SERVICIO_SATURADO);
+        assertThat(encoder.stats().rejected()).isEqualTo(1);
+
+        liberar.countDown();
+        assertThat(enEjecucion.join()).isTrue();
+        assertThat(enCola.join()).isTrue();
+        encoder.shutdown();
+    }
+}
@@ -0,0 +1,136 @@
+package backend.authservice.service.impl;
+
+import backend.authservice.cache.RolAuthorityCache;
+import backend.authservice.cache.UserDetailsCache;
+import backend.authservice.models.dto.UsuarioDtoRequest;
+import backend.authservice.models.entity.Permiso;
+import backend.authservice.models.entity.Rol;
+import backend.authservice.models.entity.RolEnum;
+import backend.authservice.models.entity.Usuario;
+import backend.authservice.repository.RolRepository;
+import backend.authservice.repository.UsuarioRepository;
+import backend.authservice.util.JwtUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UsuarioServiceImplTest {
+
+    @Mock
+    private UsuarioRepository usuarioRepository;
+
+    @Mock
+    private RolRepository rolRepository;
+
+    @Mock
+    private JwtUtils jwtUtils;
+
+    @Mock
+    private PasswordEncoder passwordEncoder;
+
+    @Spy
+    private UserDetailsCache userDetailsCache = new UserDetailsCache(100, 60_000);
+
+    @Spy
+    private RolAuthorityCache rolAuthorityCache = new RolAuthorityCache();
+
+    @InjectMocks
+    private UsuarioServiceImpl service;
+
+    @Test
+    void testLoadUserByUsername_DadoUsuarioRepetido_ConsultaUnaSolaVez() {
+        Rol rol = crearRolAdmin();
+        when(usuarioRepository.findByUsernameWithRoles("admin")).thenReturn(Optional.of(crearUsuario("admin", rol)));
+        when(rolRepository.findByIdWithPermisos(1L)).thenReturn(Optional.of(rol));
+
+        UserDetails primero = service.loadUserByUsername("admin");
+        UserDetails segundo = service.loadUserByUsername("admin");
+
+        assertThat(primero.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactlyInAnyOrder("ROLE_ADMIN", "READ");
+        assertThat(segundo.getAuthorities()).isEqualTo(primero.getAuthorities());
+        verify(usuarioRepository, times(1)).findByUsernameWithRoles("admin");
+    }
+
+    @Test
+    void testLoadUserByUsername_DadoVariosUsuariosConMismoRol_ConsultaRolUnaVez() {
+        Rol rol = crearRolAdmin();
+        when(usuarioRepository.findByUsernameWithRoles("admin")).thenReturn(Optional.of(crearUsuario("admin", rol)));
+        when(usuarioRepository.findByUsernameWithRoles("victor")).thenReturn(Optional.of(crearUsuario("victor", rol)));
+        when(rolRepository.findByIdWithPermisos(1L)).thenReturn(Optional.of(rol));
+
+        service.loadUserByUsername("admin");
+        service.loadUserByUsername("victor");
+
+        verify(rolRepository, times(1)).findByIdWithPermisos(1L);
+    }
+
+    @Test
+    void testLoadUserByUsername_DadoPasswordBorradoTrasAutenticar_CacheConservaPassword() {
+        Rol rol = crearRolAdmin();
+        when(usuarioRepository.findByUsernameWithRoles("admin")).thenReturn(Optional.of(crearUsuario("admin", rol)));
+        when(rolRepository.findByIdWithPermisos(1L)).thenReturn(Optional.of(rol));
+
+        ((User) service.loadUserByUsername("admin")).eraseCredentials();
+
+        assertThat(service.loadUserByUsername("admin").getPassword()).isEqualTo("hash");
+    }
+
+    @Test
+    void testLoadUserByUsername_DadoUsuarioNoExiste_RetornaError() {
+        when(usuarioRepository.findByUsernameWithRoles("nadie")).thenReturn(Optional.empty());
+
+        assertThrows(UsernameNotFoundException.class, () -> service.loadUserByUsername("nadie"));
+    }
+
+    @Test
+    void testCrearUsuario_DadoUsuarioCacheado_LimpiaCache() {
+        Rol rol = crearRolAdmin();
+        Usuario usuario = crearUsuario("admin", rol);
+        when(rolRepository.findById(1L)).thenReturn(Optional.of(rol));
+        when(passwordEncoder.encode("1234")).thenReturn("hash");
+        when(usuarioRepository.save(any(Usuario.class))).thenReturn(usuario);
+
+        service.crearUsuario(new UsuarioDtoRequest("admin", "1234", 1L));
+
+        verify(userDetailsCache).evict("admin");
+    }
+
+    private Rol crearRolAdmin() {
+        return Rol.builder()
+                .id(1L)
+                .nombre(RolEnum.ADMIN)
+                .permisos(Set.of(Permiso.builder().id(1L).nombre("READ").build()))
+                .build();
+    }
+
+    private Usuario crearUsuario(String username, Rol rol) {
+        return Usuario.builder()
+                .id(1L)
+                .username(username)
+                .password("hash")
+                .isEnabled(true)
+                .accountNoExpired(true)
+                .accountNoLocked(true)
+                .credentialsNoExpired(true)
+                .roles(Set.of(rol))
+                .build();
+    }
+}
@@ -2,16 +2,19 @@ package backend.clientservice.controllers;
 
 import backend.dto.request.ClientDtoRequest;
 import backend.dto.response.ClientDtoResponse;
+import backend.pageable.CursorPage;
 import backend.clientservice.services.ClientService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/clients")
 public class ClienteController {
@@ -22,7 +25,7 @@ public class ClienteController {
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    @Operation(summary = "Listar Clientes", description = "Lista todos los clientes")
+    @Operation(summary = "Listar Clientes", description = "Lista todos los clientes; con withTotal=false no se calcula el total")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Clientes listados"),
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
@@ -30,10 +33,29 @@ public class ClienteController {
             @ApiResponse(responseCode = "500", description = "Error interno")
     })
     @GetMapping
-    public ResponseEntity<Page<ClientDtoResponse>> listAll(@RequestParam Integer page,
-                                                           @RequestParam Integer size,
-                                                           @RequestParam String orderBy) {
-        return new ResponseEntity<>(clientService.listAll(page, size, orderBy), HttpStatus.OK);
+    public ResponseEntity<Slice<ClientDtoResponse>> listAll(@RequestParam Integer page,
+                                                            @RequestParam Integer size,
+                                                            @RequestParam String orderBy,
+                                                            @RequestParam(defaultValue = "true") boolean withTotal) {
+        Slice<ClientDtoResponse> clientes = withTotal
+                ? clientService.listAll(page, size, orderBy)
+                : clientService.listAllWithoutTotal(page, size, orderBy);
+        return new ResponseEntity<>(clientes, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Listar Clientes por cursor", description = "Lista clientes sin contar el total; se usa el cursor devuelto para pedir la siguiente pagina")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Clientes listados"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "500", description = "Error interno")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<ClientDtoResponse>> listAllByCursor(@RequestParam Integer size,
+                                                                         @RequestParam String orderBy,
+                                                                         @RequestParam(required = false) String cursor) {
+        return new ResponseEntity<>(clientService.listAllByCursor(size, orderBy, cursor), HttpStatus.OK);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
@@ -62,6 +84,19 @@ public class ClienteController {
         return new ResponseEntity<>(clientService.getById(id), HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Buscar clientes por IDs", description = "Busca varios clientes por sus IDs en una sola consulta")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Clientes encontrados"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "500", description = "Error interno")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<ClientDtoResponse>> getByIds(@RequestBody List<Long> ids) {
+        return new ResponseEntity<>(clientService.getByIds(ids), HttpStatus.OK);
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Buscar cliente por número de documento", description = "Buscar cliente por número de documento")
     @ApiResponses(value = {
@@ -1,6 +1,7 @@
 package backend.clientservice.exceptions.advice;
 
 import backend.clientservice.exceptions.ClienteException;
+import backend.exception.UtilException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -21,11 +22,16 @@ public class ExceptionAdvice {
             ClienteException.INVALID_DOCUMENT_NUMBER,
             ClienteException.INVALID_DOCUMENT_TYPE,
             ClienteException.CLIENT_NOT_FOUND,
-            ClienteException.DOCUMENT_NUMBER_EXISTS
+            ClienteException.DOCUMENT_NUMBER_EXISTS,
+            UtilException.PAGE_NUMBER_INVALID,
+            UtilException.SIZE_NUMBER_INVALID,
+            UtilException.SORT_NAME_INVALID,
+            UtilException.SORT_DIRECTION_INVALID,
+            UtilException.CURSOR_INVALID
     );
 
-    @ExceptionHandler(ClienteException.class)
-    public ResponseEntity<String> handleClienteException(ClienteException e) {
+    @ExceptionHandler({ClienteException.class, UtilException.class})
+    public ResponseEntity<String> handleClienteException(RuntimeException e) {
         log.error(e.getMessage(), e);
 
         HttpStatus status = ERRORES_VALIDACION.contains(e.getMessage()) ?
@@ -1,18 +1,30 @@
 package backend.clientservice.models.entities;
 
+import backend.pageable.SortRegistry;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDate;
 
+import static backend.pageable.SortRegistry.field;
+
 @Entity
-@Table(name = "clientes")
+@Table(name = "clientes", indexes = {
+        @Index(name = "idx_clientes_apellido_id", columnList = "apellido, id"),
+        @Index(name = "idx_clientes_fecha_nacimiento_id", columnList = "fecha_nacimiento, id"),
+        @Index(name = "idx_clientes_numero_documento_id", columnList = "numero_documento, id")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Setter
 @Getter
 @Builder
 public class Cliente {
+    public static final SortRegistry SORTS = SortRegistry.of(
+            field("id", Long.class),
+            field("apellido", String.class),
+            field("fechaNacimiento", LocalDate.class),
+            field("numeroDocumento", String.class));
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
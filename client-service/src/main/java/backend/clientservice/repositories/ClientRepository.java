@@ -1,11 +1,21 @@
 package backend.clientservice.repositories;
 
 import backend.clientservice.models.entities.Cliente;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.util.Optional;
 
 public interface ClientRepository extends JpaRepository<Cliente, Long> {
+    Window<Cliente> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Slice<Cliente> findSliceBy(Pageable pageable);
+
     boolean existsByNumeroDocumento(String numeroDocumento);
 
     Optional<Cliente> findByNumeroDocumento(String numeroDocumento);
@@ -1,5 +1,8 @@
 package backend.clientservice.security;
 
+import backend.security.HeaderAuthenticationCache;
+import backend.security.JwtValidator;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
@@ -15,7 +18,8 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
 public class SecurityConfig {
 
     @Bean
-    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity) throws Exception {
+    public SecurityFilterChain securityFilterChain(HttpSecurity httpSecurity, JwtValidator jwtValidator,
+                                                   HeaderAuthenticationCache headerAuthenticationCache) throws Exception {
         httpSecurity
                 .csrf(csrf -> csrf.disable())
                 .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -27,8 +31,20 @@ public class SecurityConfig {
                         ).permitAll()  // Permitir Swagger sin autenticación
                         .anyRequest().authenticated()
                 )
-                .addFilterBefore(new JwtFilter(), UsernamePasswordAuthenticationFilter.class);
+                .addFilterBefore(new JwtFilter(jwtValidator, headerAuthenticationCache), UsernamePasswordAuthenticationFilter.class);
 
         return httpSecurity.build();
     }
+
+    @Bean
+    public JwtValidator jwtValidator(@Value("${security.jwt.key.private}") String key,
+                                     @Value("${security.jwt.user.generator}") String userGenerator,
+                                     @Value("${security.jwt.cache.max-size}") int maxCacheSize) {
+        return new JwtValidator(key, userGenerator, maxCacheSize);
+    }
+
+    @Bean
+    public HeaderAuthenticationCache headerAuthenticationCache(@Value("${security.roles-cache.max-size}") int maxSize) {
+        return new HeaderAuthenticationCache(maxSize);
+    }
 }
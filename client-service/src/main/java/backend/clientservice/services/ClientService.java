@@ -2,15 +2,25 @@ package backend.clientservice.services;
 
 import backend.dto.request.ClientDtoRequest;
 import backend.dto.response.ClientDtoResponse;
+import backend.pageable.CursorPage;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 public interface ClientService {
     ClientDtoResponse add(ClientDtoRequest cliente);
 
     Page<ClientDtoResponse> listAll(Integer page, Integer size, String orderBy);
 
+    Slice<ClientDtoResponse> listAllWithoutTotal(Integer page, Integer size, String orderBy);
+
+    CursorPage<ClientDtoResponse> listAllByCursor(Integer size, String orderBy, String cursor);
+
     ClientDtoResponse getById(Long id);
 
+    List<ClientDtoResponse> getByIds(List<Long> ids);
+
     ClientDtoResponse getByDocumentNumber(String documentNumber, String documentType);
 
 }
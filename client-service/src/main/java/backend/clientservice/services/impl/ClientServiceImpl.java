@@ -8,28 +8,38 @@ import backend.clientservice.models.entities.TipoDocumento;
 import backend.clientservice.models.mappers.ClienteMapper;
 import backend.clientservice.repositories.ClientRepository;
 import backend.clientservice.services.ClientService;
+import backend.pageable.CountCache;
+import backend.pageable.CursorPage;
 import backend.pageable.PageableUtils;
 import backend.pageable.Paginado;
 import backend.utils.Utils;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 
 @Service
 public class ClientServiceImpl implements ClientService {
+    private static final String COUNT_KEY_ALL = "clientes";
 
     private final ClientRepository clientRepository;
     private final ClienteMapper clienteMapper = ClienteMapper.INSTANCE;
+    private final CountCache countCache;
 
-    public ClientServiceImpl(ClientRepository clientRepository) {
+    public ClientServiceImpl(ClientRepository clientRepository, CountCache countCache) {
         this.clientRepository = clientRepository;
+        this.countCache = countCache;
     }
 
     @Override
@@ -61,6 +71,7 @@ public class ClientServiceImpl implements ClientService {
         Cliente cliente = clienteMapper.toEntity(dto);
 
         Cliente clientSaved = clientRepository.save(cliente);
+        countCache.invalidateAll();
 
         ClientDtoResponse response = clienteMapper.toResponseDTO(clientSaved);
 
@@ -71,9 +82,17 @@ public class ClientServiceImpl implements ClientService {
     public Page<ClientDtoResponse> listAll(Integer page, Integer size, String orderBy) {
         Paginado paginado = new Paginado(page, size, orderBy);
         PageableUtils.validatePagination(paginado);
-        Pageable pageable = PageableUtils.constructPageable(paginado);
+        Pageable pageable = PageableUtils.constructPageable(paginado, Cliente.SORTS);
+
+        //con el total en cache solo se pide la pagina; si no, la consulta con COUNT lo vuelve a llenar
+        Long total = countCache.get(COUNT_KEY_ALL);
+        if (total != null) {
+            Slice<Cliente> clientes = clientRepository.findSliceBy(pageable);
+            return new PageImpl<>(clienteMapper.toListResponseDTO(clientes.getContent()), pageable, total);
+        }
 
         Page<Cliente> clientes = clientRepository.findAll(pageable);
+        countCache.put(COUNT_KEY_ALL, clientes.getTotalElements());
 
         List<ClientDtoResponse> response = clientes.getContent().stream()
                 .map(clienteMapper::toResponseDTO).toList();
@@ -81,6 +100,30 @@ public class ClientServiceImpl implements ClientService {
         return new PageImpl<>(response, pageable, clientes.getTotalElements());
     }
 
+    @Override
+    public Slice<ClientDtoResponse> listAllWithoutTotal(Integer page, Integer size, String orderBy) {
+        Paginado paginado = new Paginado(page, size, orderBy);
+        PageableUtils.validatePagination(paginado);
+        Pageable pageable = PageableUtils.constructPageable(paginado, Cliente.SORTS);
+
+        Slice<Cliente> clientes = clientRepository.findSliceBy(pageable);
+
+        return new SliceImpl<>(clienteMapper.toListResponseDTO(clientes.getContent()), pageable, clientes.hasNext());
+    }
+
+    @Override
+    public CursorPage<ClientDtoResponse> listAllByCursor(Integer size, String orderBy, String cursor) {
+        PageableUtils.validateCursor(size, orderBy);
+
+        Sort sort = PageableUtils.constructSort(orderBy, Cliente.SORTS);
+        Window<Cliente> clientes = clientRepository.findAllBy(
+                PageableUtils.constructScrollPosition(cursor, sort, Cliente.SORTS),
+                sort,
+                PageableUtils.constructLimit(size));
+
+        return PageableUtils.toCursorPage(clientes, clienteMapper::toListResponseDTO);
+    }
+
     @Override
     public ClientDtoResponse getById(Long id) {
         validateId(id);
@@ -89,8 +132,21 @@ public class ClientServiceImpl implements ClientService {
         return clienteMapper.toResponseDTO(cliente);
     }
 
+    @Override
+    public List<ClientDtoResponse> getByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        ids.forEach(this::validateId);
+
+        List<Cliente> clientes = clientRepository.findAllById(new HashSet<>(ids));
+
+        return clienteMapper.toListResponseDTO(clientes);
+    }
+
     private void validateId(Long id) {
-        if (Utils.isNotPositive(id.intValue())) {
+        //un id nulo en el lote llega sin pasar por el path
+        if (id == null || Utils.isNotPositive(id.intValue())) {
             throw new ClienteException(ClienteException.ID_INVALID);
         }
     }
@@ -5,6 +5,7 @@ import backend.dto.response.ClientDtoResponse;
 import backend.clientservice.models.entities.TipoDocumento;
 import backend.clientservice.security.TestSecurityConfig;
 import backend.clientservice.services.ClientService;
+import backend.pageable.CursorPage;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,7 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -117,6 +119,38 @@ class ClienteControllerTest {
         verify(service, times(1)).getById(1L);
     }
 
+    @Test
+    void testGetByIds_whenClientsFound_returnClients() throws Exception {
+        ClientDtoResponse cliente1 = new ClientDtoResponse(
+                1L,
+                "Victor",
+                "Orbegozo",
+                "DNI",
+                "1994-05-04",
+                "12345678"
+        );
+
+        ClientDtoResponse cliente2 = new ClientDtoResponse(
+                2L,
+                "Maria",
+                "Martinez",
+                "DNI",
+                "1994-05-04",
+                "11111111"
+        );
+
+        when(service.getByIds(List.of(1L, 2L))).thenReturn(List.of(cliente1, cliente2));
+        // Act
+        mockMvc.perform(post("/api/clients/batch")
+                        .content(objectMapper.writeValueAsString(List.of(1L, 2L)))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[1].nombre").value("Maria"));
+
+        verify(service, times(1)).getByIds(List.of(1L, 2L));
+    }
+
     @Test
     void testListAll_whenDataNotFound_returnEmpty() throws Exception {
         when(service.listAll(1, 10, "id")).thenReturn(Page.empty());
@@ -166,4 +200,43 @@ class ClienteControllerTest {
                 .andExpect(jsonPath("$.content[1].id").value(2));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testListAllByCursor_returnsNextCursorWithoutTotal() throws Exception {
+        ClientDtoResponse cliente = new ClientDtoResponse(
+                2L,
+                "Maria",
+                "Martinez",
+                "DNI",
+                "1994-05-04",
+                "11111111"
+        );
+
+        when(service.listAllByCursor(1, "id", null)).thenReturn(new CursorPage<>(List.of(cliente), 1, true, "abc"));
+
+        mockMvc.perform(get("/api/clients/cursor")
+                        .param("size", "1")
+                        .param("orderBy", "id")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(2))
+                .andExpect(jsonPath("$.nextCursor").value("abc"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void testListAll_whenWithTotalIsFalse_returnSlice() throws Exception {
+        when(service.listAllWithoutTotal(1, 10, "id")).thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 10), true));
+
+        mockMvc.perform(get("/api/clients")
+                        .param("page", "1")
+                        .param("size", "10")
+                        .param("orderBy", "id")
+                        .param("withTotal", "false")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.last").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(service, never()).listAll(1, 10, "id");
+    }
+}
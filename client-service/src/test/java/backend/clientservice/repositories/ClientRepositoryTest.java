@@ -2,6 +2,8 @@ package backend.clientservice.repositories;
 
 import backend.clientservice.models.entities.Cliente;
 import backend.clientservice.models.entities.TipoDocumento;
+import backend.pageable.CursorPage;
+import backend.pageable.PageableUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,10 +13,15 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.jdbc.core.JdbcTemplate;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -70,6 +77,50 @@ class ClientRepositoryTest {
 
     }
 
+    @Test
+    void testListAllByCursor_whenBirthDatesRepeat_walksEveryClientOnce() {
+        for (int i = 1; i <= 7; i++) {
+            clientRepository.save(Cliente.builder()
+                    .nombre("Cliente " + i)
+                    .apellido("Apellido " + i)
+                    .numeroDocumento("1000000" + i)
+                    .tipoDocumento(TipoDocumento.DNI)
+                    .fechaNacimiento(LocalDate.of(1990 + i % 2, 1, 1))
+                    .build());
+        }
+
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            Sort sort = PageableUtils.constructSort("fechaNacimiento", Cliente.SORTS);
+            Window<Cliente> window = clientRepository.findAllBy(
+                    PageableUtils.constructScrollPosition(cursor, sort, Cliente.SORTS),
+                    sort,
+                    PageableUtils.constructLimit(3));
+            CursorPage<Cliente> page = PageableUtils.toCursorPage(window, list -> list);
+            page.content().forEach(cliente -> ids.add(cliente.getId()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        assertThat(ids).containsExactly(7L, 5L, 3L, 1L, 6L, 4L, 2L);
+    }
+
+    @Test
+    void testQueryPlan_whenSortIsAllowed_usesIndex() {
+        for (String field : Cliente.SORTS.fields()) {
+            for (String direction : List.of("asc", "desc")) {
+                Sort sort = PageableUtils.constructSort(field + "," + direction, Cliente.SORTS);
+                String plan = jdbcTemplate.queryForObject(
+                        "EXPLAIN SELECT * FROM clientes ORDER BY " + toOrderBy(sort) + " LIMIT 10",
+                        String.class);
+                assertThat(plan).as("sort by %s %s", field, direction).contains("/* index sorted */");
+            }
+        }
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM clientes ORDER BY nombre DESC, id DESC LIMIT 10", String.class);
+        assertThat(plan).doesNotContain("/* index sorted */");
+    }
+
     @Test
     void testAdd() {
         Cliente cliente1 = Cliente.builder()
@@ -104,4 +155,10 @@ class ClientRepositoryTest {
         assertNotNull(clientFound.get().getId());
         assertEquals("Victor", clientFound.get().getNombre());
     }
-}
\ No newline at end of file
+
+    private String toOrderBy(Sort sort) {
+        return sort.stream()
+                .map(order -> order.getProperty().replaceAll("([A-Z])", "_$1").toLowerCase() + " " + order.getDirection())
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -3,6 +3,9 @@ package backend.clientservice.services.impl;
 import backend.clientservice.exceptions.ClienteException;
 import backend.dto.request.ClientDtoRequest;
 import backend.dto.response.ClientDtoResponse;
+import backend.exception.UtilException;
+import backend.pageable.CountCache;
+import backend.pageable.CursorPage;
 import backend.clientservice.models.entities.Cliente;
 import backend.clientservice.models.entities.TipoDocumento;
 import backend.clientservice.repositories.ClientRepository;
@@ -10,20 +13,30 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Window;
 
 import java.time.LocalDate;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -33,6 +46,9 @@ class ClientServiceImplTest {
     @Mock
     private ClientRepository repository;
 
+    @Spy
+    private CountCache countCache = new CountCache(100, 60_000);
+
     @InjectMocks
     private ClientServiceImpl service;
 
@@ -111,6 +127,48 @@ class ClientServiceImplTest {
 
     }
 
+    @Test
+    void testGetByIds_whenIdsAreValid_returnClients() {
+        Cliente cliente1 = Cliente.builder()
+                .id(1L)
+                .nombre("Victor")
+                .apellido("Orbegozo")
+                .build();
+        Cliente cliente2 = Cliente.builder()
+                .id(2L)
+                .nombre("Juan")
+                .apellido("Perez")
+                .build();
+
+        when(repository.findAllById(any())).thenReturn(List.of(cliente1, cliente2));
+
+        List<ClientDtoResponse> clientes = service.getByIds(List.of(1L, 2L, 1L));
+
+        assertThat(clientes).hasSize(2);
+        verify(repository).findAllById(Set.of(1L, 2L));
+    }
+
+    @Test
+    void testGetByIds_whenIdIsZero_returnError() {
+        assertThrows(ClienteException.class, () -> service.getByIds(List.of(1L, 0L)));
+    }
+
+    @Test
+    void testGetByIds_whenIdIsNull_returnError() {
+        ClienteException exception = assertThrows(ClienteException.class, () -> service.getByIds(Arrays.asList(1L, null)));
+
+        assertThat(exception.getMessage()).isEqualTo(ClienteException.ID_INVALID);
+        verify(repository, never()).findAllById(any());
+    }
+
+    @Test
+    void testGetByIds_whenIdsAreEmpty_returnEmptyList() {
+        List<ClientDtoResponse> clientes = service.getByIds(List.of());
+
+        assertThat(clientes).isEmpty();
+        verify(repository, never()).findAllById(any());
+    }
+
     @Test
     void testAdd_whenFechaNacimientoIsInvalid_returnError() {
         ClientDtoRequest dto = new ClientDtoRequest(
@@ -325,4 +383,66 @@ class ClientServiceImplTest {
 
         assertThat(clientes).hasSize(2);
     }
-}
\ No newline at end of file
+
+    @Test
+    void testListAllByCursor_whenLastPage_returnNoCursor() {
+        Cliente cliente = Cliente.builder()
+                .id(1L)
+                .nombre("Victor")
+                .apellido("Orbegozo")
+                .numeroDocumento("12345678")
+                .tipoDocumento(TipoDocumento.DNI)
+                .fechaNacimiento(LocalDate.of(1994, 5, 4))
+                .build();
+
+        when(repository.findAllBy(any(ScrollPosition.class), any(), any()))
+                .thenReturn(Window.from(List.of(cliente), i -> ScrollPosition.forward(Map.of("id", 1L)), false));
+
+        CursorPage<ClientDtoResponse> clientes = service.listAllByCursor(10, "id", null);
+
+        assertThat(clientes.content()).hasSize(1);
+        assertThat(clientes.hasNext()).isFalse();
+        assertThat(clientes.nextCursor()).isNull();
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void testListAllByCursor_whenSizeIsInvalid_returnError() {
+        UtilException exception = assertThrows(UtilException.class, () -> service.listAllByCursor(0, "id", null));
+
+        assertEquals(UtilException.SIZE_NUMBER_INVALID, exception.getMessage());
+    }
+
+    @Test
+    void testListAll_whenTotalIsCached_skipsCount() {
+        Cliente cliente = Cliente.builder()
+                .id(1L)
+                .nombre("Victor")
+                .apellido("Orbegozo")
+                .numeroDocumento("12345678")
+                .tipoDocumento(TipoDocumento.DNI)
+                .fechaNacimiento(LocalDate.of(1994, 5, 4))
+                .build();
+
+        when(repository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(cliente), PageRequest.of(0, 1), 20));
+        when(repository.findSliceBy(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(cliente), PageRequest.of(1, 1), true));
+
+        service.listAll(1, 1, "id");
+        Page<ClientDtoResponse> clientes = service.listAll(2, 1, "id");
+
+        assertThat(clientes.getTotalElements()).isEqualTo(20);
+        verify(repository, times(1)).findAll(any(Pageable.class));
+        verify(repository, times(1)).findSliceBy(any(Pageable.class));
+    }
+
+    @Test
+    void testListAllWithoutTotal_returnSliceWithoutCount() {
+        when(repository.findSliceBy(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 10), false));
+
+        Slice<ClientDtoResponse> clientes = service.listAllWithoutTotal(1, 10, "id");
+
+        assertThat(clientes.hasNext()).isFalse();
+        verify(repository, never()).findAll(any(Pageable.class));
+        verify(repository, never()).count();
+    }
+}
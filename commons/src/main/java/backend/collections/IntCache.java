@@ -0,0 +1,183 @@
+package backend.collections;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+//cache de clave int acotada por tamaño y por tiempo de vida sobre IntObjectMap: las claves no se convierten a Integer
+//y las lecturas no toman el lock. al llenarse se descarta con el algoritmo del reloj (segunda oportunidad),
+//una aproximacion de LRU; las entradas vencidas que encuentra el reloj se descartan primero
+public class IntCache<V> {
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    private final IntObjectMap<Entry<V>> entries;
+    //serializa las escrituras y protege el reloj
+    private final ReentrantLock lock = new ReentrantLock();
+
+    //posiciones del reloj: clave de cada una y si esta ocupada; las libres se reutilizan desde free
+    private final int[] keys;
+    private final boolean[] used;
+    private final int[] free;
+    private int freeCount;
+    private int hand;
+    private long evictions;
+
+    public IntCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    public IntCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        if (maxSize <= 0) {
+            throw new IllegalArgumentException("maxSize must be positive");
+        }
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+
+        //el doble de lo necesario deja lugar a las claves borradas antes de reconstruir la tabla
+        this.entries = new IntObjectMap<>(maxSize * 2);
+        this.keys = new int[maxSize];
+        this.used = new boolean[maxSize];
+        this.free = new int[maxSize];
+        resetFree();
+    }
+
+    //null si no esta o ya vencio; la vencida se descarta si el lock esta libre, si no la descarta el reloj despues
+    public V get(int key) {
+        Entry<V> entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+
+        if (entry.expiresAt <= clock.getAsLong()) {
+            if (lock.tryLock()) {
+                try {
+                    if (entries.get(key) == entry) {
+                        remove(key, entry);
+                        evictions++;
+                    }
+                } finally {
+                    lock.unlock();
+                }
+            }
+            return null;
+        }
+
+        //se escribe solo si cambia para no invalidar la linea de cache en cada acierto
+        if (!entry.referenced) {
+            entry.referenced = true;
+        }
+        return entry.value;
+    }
+
+    public void put(int key, V value) {
+        lock.lock();
+        try {
+            long expires = clock.getAsLong() + ttlMillis;
+
+            Entry<V> current = entries.get(key);
+            if (current != null) {
+                entries.put(key, new Entry<>(value, expires, current.slot, current.referenced));
+                return;
+            }
+
+            if (freeCount == 0) {
+                evictOne();
+            }
+
+            int slot = free[--freeCount];
+            keys[slot] = key;
+            used[slot] = true;
+            entries.put(key, new Entry<>(value, expires, slot, false));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidate(int key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.get(key);
+            if (entry != null) {
+                remove(key, entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void invalidateAll() {
+        lock.lock();
+        try {
+            entries.clear();
+            Arrays.fill(used, false);
+            resetFree();
+            hand = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    //entradas descartadas por vencidas o por falta de espacio
+    public long evictions() {
+        lock.lock();
+        try {
+            return evictions;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void evictOne() {
+        long now = clock.getAsLong();
+        while (true) {
+            int slot = hand;
+            hand = (hand + 1) % maxSize;
+            if (!used[slot]) {
+                continue;
+            }
+            Entry<V> entry = entries.get(keys[slot]);
+            if (entry.referenced && entry.expiresAt > now) {
+                entry.referenced = false;
+                continue;
+            }
+            remove(keys[slot], entry);
+            evictions++;
+            return;
+        }
+    }
+
+    private void remove(int key, Entry<V> entry) {
+        entries.remove(key);
+        used[entry.slot] = false;
+        free[freeCount++] = entry.slot;
+    }
+
+    private void resetFree() {
+        //se entregan en orden 0, 1, 2... para que el reloj recorra en orden de llegada
+        for (int i = 0; i < maxSize; i++) {
+            free[i] = maxSize - 1 - i;
+        }
+        freeCount = maxSize;
+    }
+
+    private static final class Entry<V> {
+        private final V value;
+        private final long expiresAt;
+        private final int slot;
+        private volatile boolean referenced;
+
+        private Entry(V value, long expiresAt, int slot, boolean referenced) {
+            this.value = value;
+            this.expiresAt = expiresAt;
+            this.slot = slot;
+            this.referenced = referenced;
+        }
+    }
+}
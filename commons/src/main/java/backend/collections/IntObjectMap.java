@@ -0,0 +1,158 @@
+package backend.collections;
+
+//mapa de clave int con direccionamiento abierto: las claves se guardan como int, sin Integer ni nodos por entrada.
+//las lecturas no bloquean; las escrituras se serializan y al crecer se publica una tabla nueva completa.
+//una lectura concurrente a una escritura puede no ver el valor nuevo y devolver el anterior o null.
+//no guarda valores null: put con null equivale a remove
+public class IntObjectMap<V> {
+    private static final int MIN_CAPACITY = 16;
+
+    private volatile Table table;
+    //la clave 0 marca las posiciones vacias de la tabla, su valor se guarda aparte
+    private volatile Object zeroValue;
+    private int size;
+    //posiciones que remove dejo con la clave y sin valor; se limpian al reconstruir la tabla
+    private int removed;
+
+    public IntObjectMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntObjectMap(int expectedSize) {
+        this.table = new Table(capacityFor(expectedSize));
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(int key) {
+        if (key == 0) {
+            return (V) zeroValue;
+        }
+
+        Table current = table;
+        int mask = current.keys.length - 1;
+        for (int i = mix(key) & mask; ; i = (i + 1) & mask) {
+            int stored = current.keys[i];
+            if (stored == key) {
+                return (V) current.values[i];
+            }
+            if (stored == 0) {
+                return null;
+            }
+        }
+    }
+
+    public synchronized void put(int key, V value) {
+        if (value == null) {
+            remove(key);
+            return;
+        }
+        if (key == 0) {
+            if (zeroValue == null) {
+                size++;
+            }
+            zeroValue = value;
+            return;
+        }
+
+        Table current = table;
+        int i = indexOf(current, key);
+        if (current.keys[i] == key) {
+            if (current.values[i] == null) {
+                removed--;
+                size++;
+            }
+            current.values[i] = value;
+            return;
+        }
+
+        //factor de carga 0.5, contando las borradas, para que las busquedas fallidas terminen pronto
+        if ((size + removed + 1) * 2 > current.keys.length) {
+            current = rebuild(current, size + 1);
+            i = indexOf(current, key);
+        }
+        current.values[i] = value;
+        current.keys[i] = key;
+        size++;
+    }
+
+    //la clave queda en la tabla con valor null para que las lecturas en curso no salten a otra posicion
+    public synchronized void remove(int key) {
+        if (key == 0) {
+            if (zeroValue != null) {
+                zeroValue = null;
+                size--;
+            }
+            return;
+        }
+
+        Table current = table;
+        int i = indexOf(current, key);
+        if (current.keys[i] == key && current.values[i] != null) {
+            current.values[i] = null;
+            removed++;
+            size--;
+        }
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    //conserva la capacidad para no volver a crecer cuando se llena de nuevo
+    public synchronized void clear() {
+        table = new Table(table.keys.length);
+        zeroValue = null;
+        size = 0;
+        removed = 0;
+    }
+
+    //copia solo las claves con valor; crece si hace falta y nunca achica
+    private Table rebuild(Table current, int needed) {
+        Table next = new Table(Math.max(current.keys.length, capacityFor(needed)));
+        for (int i = 0; i < current.keys.length; i++) {
+            int key = current.keys[i];
+            Object value = current.values[i];
+            if (key != 0 && value != null) {
+                int j = indexOf(next, key);
+                next.keys[j] = key;
+                next.values[j] = value;
+            }
+        }
+        removed = 0;
+        table = next;
+        return next;
+    }
+
+    private static int indexOf(Table table, int key) {
+        int mask = table.keys.length - 1;
+        int i = mix(key) & mask;
+        while (table.keys[i] != 0 && table.keys[i] != key) {
+            i = (i + 1) & mask;
+        }
+        return i;
+    }
+
+    //los ids son consecutivos; se dispersan para que no formen bloques contiguos en la tabla
+    private static int mix(int key) {
+        int h = key * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < expectedSize * 2L) {
+            capacity <<= 1;
+        }
+        return capacity;
+    }
+
+    private static final class Table {
+        private final int[] keys;
+        private final Object[] values;
+
+        private Table(int capacity) {
+            this.keys = new int[capacity];
+            this.values = new Object[capacity];
+        }
+    }
+}
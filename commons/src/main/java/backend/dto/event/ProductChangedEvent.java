@@ -0,0 +1,7 @@
+package backend.dto.event;
+
+import java.util.List;
+
+//stockDecreaseOnly marca los cambios que solo bajaron stock, sin tocar nombre, precio ni estado
+public record ProductChangedEvent(List<Integer> productIds, boolean stockDecreaseOnly) {
+}
@@ -0,0 +1,9 @@
+package backend.dto.response;
+
+public record SaleStatsDtoResponse(
+        String date,
+        Integer key,
+        Long sales,
+        Long units,
+        Double revenue) {
+}
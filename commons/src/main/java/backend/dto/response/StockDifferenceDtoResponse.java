@@ -0,0 +1,8 @@
+package backend.dto.response;
+
+public record StockDifferenceDtoResponse(Integer productoId,
+                                         Long stockEsperado,
+                                         Long stockRegistrado,
+                                         Long movimientosEsperados,
+                                         Long movimientosRegistrados) {
+}
@@ -0,0 +1,9 @@
+package backend.dto.response;
+
+public record StockDtoResponse(Integer productoId,
+                               Long stock,
+                               Long entradas,
+                               Long salidas,
+                               Long movimientos,
+                               String fecha) {
+}
@@ -5,6 +5,8 @@ public class UtilException extends RuntimeException {
     public static final String PAGE_NUMBER_INVALID = "Page number is invalid";
     public static final String SIZE_NUMBER_INVALID = "Size number is invalid";
     public static final String SORT_NAME_INVALID = "Sort name is invalid";
+    public static final String SORT_DIRECTION_INVALID = "Sort direction is invalid";
+    public static final String CURSOR_INVALID = "Cursor is invalid";
 
     public UtilException(String message) {
         super(message);
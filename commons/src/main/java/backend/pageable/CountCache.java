@@ -0,0 +1,54 @@
+package backend.pageable;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+//guarda el total de elementos por filtro durante un tiempo corto para no repetir el COUNT en cada pagina;
+//si se llega al maximo se purgan los vencidos y, si sigue lleno, no se guarda
+public class CountCache {
+    private final int maxSize;
+    private final long ttlMillis;
+    private final LongSupplier clock;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public CountCache(int maxSize, long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    CountCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.maxSize = maxSize;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    public Long get(String key) {
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.expiresAt() <= clock.getAsLong()) {
+            entries.remove(key, entry);
+            return null;
+        }
+        return entry.total();
+    }
+
+    public void put(String key, long total) {
+        long now = clock.getAsLong();
+        if (entries.size() >= maxSize && !entries.containsKey(key)) {
+            entries.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (entries.size() >= maxSize) {
+                return;
+            }
+        }
+        entries.put(key, new Entry(total, now + ttlMillis));
+    }
+
+    public void invalidateAll() {
+        entries.clear();
+    }
+
+    private record Entry(long total, long expiresAt) {
+    }
+}
@@ -0,0 +1,111 @@
+package backend.pageable;
+
+import backend.exception.UtilException;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+//codifica las claves del ultimo elemento de la pagina (campo de orden + id) en un cursor opaco;
+//cada clave lleva su tipo para que la siguiente consulta compare con el mismo tipo que la columna
+public final class CursorCodec {
+    private static final int MAX_LENGTH = 2048;
+
+    private CursorCodec() {
+    }
+
+    public static String encode(Map<String, ?> keys) {
+        StringBuilder raw = new StringBuilder();
+        keys.forEach((name, value) -> raw.append(escape(name))
+                .append('=')
+                .append(tag(value))
+                .append(':')
+                .append(escape(format(value)))
+                .append('&'));
+
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static Map<String, Object> decode(String cursor) {
+        if (cursor == null || cursor.isBlank() || cursor.length() > MAX_LENGTH) {
+            throw new UtilException(UtilException.CURSOR_INVALID);
+        }
+
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            Map<String, Object> keys = new LinkedHashMap<>();
+
+            for (String entry : raw.split("&")) {
+                if (entry.isEmpty()) {
+                    continue;
+                }
+                int equals = entry.indexOf('=');
+                int colon = entry.indexOf(':', equals);
+                String name = unescape(entry.substring(0, equals));
+                String tag = entry.substring(equals + 1, colon);
+                String value = unescape(entry.substring(colon + 1));
+
+                keys.put(name, parse(tag, value));
+            }
+
+            if (keys.isEmpty()) {
+                throw new UtilException(UtilException.CURSOR_INVALID);
+            }
+            return keys;
+        } catch (UtilException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new UtilException(UtilException.CURSOR_INVALID);
+        }
+    }
+
+    private static String tag(Object value) {
+        if (value == null) return "n";
+        if (value instanceof Integer) return "i";
+        if (value instanceof Long) return "l";
+        if (value instanceof Double) return "d";
+        if (value instanceof Boolean) return "b";
+        if (value instanceof LocalDate) return "ld";
+        if (value instanceof LocalDateTime) return "ldt";
+        if (value instanceof Date) return "dt";
+        //cualquier otro tipo (ObjectId, enums) viaja como texto y lo convierte el repositorio
+        return "s";
+    }
+
+    private static String format(Object value) {
+        if (value == null) return "";
+        if (value instanceof Date date) return String.valueOf(date.getTime());
+        if (value instanceof Enum<?> constant) return constant.name();
+        return value.toString();
+    }
+
+    private static Object parse(String tag, String value) {
+        return switch (tag) {
+            case "n" -> null;
+            case "i" -> Integer.valueOf(value);
+            case "l" -> Long.valueOf(value);
+            case "d" -> Double.valueOf(value);
+            case "b" -> Boolean.valueOf(value);
+            case "ld" -> LocalDate.parse(value);
+            case "ldt" -> LocalDateTime.parse(value);
+            case "dt" -> new Date(Long.parseLong(value));
+            case "s" -> value;
+            default -> throw new UtilException(UtilException.CURSOR_INVALID);
+        };
+    }
+
+    private static String escape(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private static String unescape(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+}
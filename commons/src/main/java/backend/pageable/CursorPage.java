@@ -0,0 +1,7 @@
+package backend.pageable;
+
+import java.util.List;
+
+//pagina por cursor: sin total de elementos, solo si hay mas y el cursor para pedirlos
+public record CursorPage<T>(List<T> content, Integer size, boolean hasNext, String nextCursor) {
+}
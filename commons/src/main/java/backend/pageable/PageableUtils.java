@@ -1,16 +1,26 @@
 package backend.pageable;
 
 import backend.exception.UtilException;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import static backend.utils.Utils.isBlank;
 import static backend.utils.Utils.isNotPositive;
 
 public class PageableUtils {
+    private static final String ID = "id";
 
-    public static PageRequest constructPageable(Paginado paginado) {
-        return PageRequest.of(paginado.page() - 1, paginado.size(), Sort.by(paginado.orderBy()).descending());
+    //el orden se valida contra los campos permitidos de la entidad antes de armar la consulta
+    public static PageRequest constructPageable(Paginado paginado, SortRegistry sorts) {
+        return PageRequest.of(paginado.page() - 1, paginado.size(), sorts.resolve(paginado.orderBy()));
     }
 
     public static void validatePagination(Paginado paginado) {
@@ -26,4 +36,47 @@ public class PageableUtils {
             throw new UtilException(UtilException.SORT_NAME_INVALID);
         }
     }
+
+    public static void validateCursor(Integer size, String orderBy) {
+        if (isNotPositive(size)) {
+            throw new UtilException(UtilException.SIZE_NUMBER_INVALID);
+        }
+
+        if (isBlank(orderBy)) {
+            throw new UtilException(UtilException.SORT_NAME_INVALID);
+        }
+    }
+
+    //mismo orden que constructPageable, con el id en la misma direccion como desempate para que el cursor sea unico
+    public static Sort constructSort(String orderBy, SortRegistry sorts) {
+        Sort sort = sorts.resolve(orderBy);
+        Sort.Order order = sort.iterator().next();
+        return ID.equals(order.getProperty()) ? sort : sort.and(Sort.by(order.getDirection(), ID));
+    }
+
+    public static Limit constructLimit(Integer size) {
+        return Limit.of(size);
+    }
+
+    //el sort es el de constructSort, con el id de desempate incluido
+    public static ScrollPosition constructScrollPosition(String cursor, Sort sort, SortRegistry sorts) {
+        if (isBlank(cursor)) {
+            return ScrollPosition.keyset();
+        }
+        Map<String, Object> keys = CursorCodec.decode(cursor);
+        sorts.validateCursorKeys(sort, keys);
+        return ScrollPosition.forward(keys);
+    }
+
+    public static <T, R> CursorPage<R> toCursorPage(Window<T> window, Function<List<T>, List<R>> mapper) {
+        List<R> content = mapper.apply(window.getContent());
+
+        String nextCursor = null;
+        if (window.hasNext() && !window.isEmpty()
+                && window.positionAt(window.size() - 1) instanceof KeysetScrollPosition position) {
+            nextCursor = CursorCodec.encode(position.getKeys());
+        }
+
+        return new CursorPage<>(content, content.size(), nextCursor != null, nextCursor);
+    }
 }
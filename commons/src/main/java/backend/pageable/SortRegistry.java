@@ -0,0 +1,93 @@
+package backend.pageable;
+
+import backend.exception.UtilException;
+import org.springframework.data.domain.Sort;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+//campos por los que se permite ordenar una entidad, cada uno con indice en la base;
+//el orderBy es "campo" o "campo,asc|desc" y sin direccion se ordena descendente
+public final class SortRegistry {
+    private final Map<String, Field> fields;
+
+    private SortRegistry(Map<String, Field> fields) {
+        this.fields = fields;
+    }
+
+    public static SortRegistry of(Field... fields) {
+        Map<String, Field> byName = new LinkedHashMap<>();
+        for (Field field : fields) {
+            byName.put(field.name(), field);
+        }
+        return new SortRegistry(Collections.unmodifiableMap(byName));
+    }
+
+    //la clave del cursor es el nombre del campo, salvo que la base la guarde con otro nombre (por ejemplo _id en Mongo)
+    public static Field field(String name, Class<?> type) {
+        return new Field(name, name, type);
+    }
+
+    public static Field field(String name, String cursorKey, Class<?> type) {
+        return new Field(name, cursorKey, type);
+    }
+
+    public Set<String> fields() {
+        return fields.keySet();
+    }
+
+    //el cursor debe traer exactamente las claves del orden pedido y cada una con el tipo del campo;
+    //un cursor de otro orden termina en CURSOR_INVALID y no en un error de la consulta
+    public void validateCursorKeys(Sort sort, Map<String, Object> keys) {
+        int expected = 0;
+        for (Sort.Order order : sort) {
+            Field field = fields.get(order.getProperty());
+            if (field == null || !keys.containsKey(field.cursorKey())) {
+                throw new UtilException(UtilException.CURSOR_INVALID);
+            }
+            Object value = keys.get(field.cursorKey());
+            if (value != null && !field.type().isInstance(value)) {
+                throw new UtilException(UtilException.CURSOR_INVALID);
+            }
+            expected++;
+        }
+        if (keys.size() != expected) {
+            throw new UtilException(UtilException.CURSOR_INVALID);
+        }
+    }
+
+    public Sort resolve(String orderBy) {
+        if (orderBy == null || orderBy.isBlank()) {
+            throw new UtilException(UtilException.SORT_NAME_INVALID);
+        }
+
+        String[] parts = orderBy.split(",", -1);
+        if (parts.length > 2) {
+            throw new UtilException(UtilException.SORT_NAME_INVALID);
+        }
+
+        String field = parts[0].trim();
+        if (!fields.containsKey(field)) {
+            throw new UtilException(UtilException.SORT_NAME_INVALID);
+        }
+
+        return Sort.by(direction(parts), field);
+    }
+
+    private Sort.Direction direction(String[] parts) {
+        if (parts.length == 1) {
+            return Sort.Direction.DESC;
+        }
+        return switch (parts[1].trim().toLowerCase(Locale.ROOT)) {
+            case "asc" -> Sort.Direction.ASC;
+            case "desc" -> Sort.Direction.DESC;
+            default -> throw new UtilException(UtilException.SORT_DIRECTION_INVALID);
+        };
+    }
+
+    public record Field(String name, String cursorKey, Class<?> type) {
+    }
+}
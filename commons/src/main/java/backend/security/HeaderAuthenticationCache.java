@@ -0,0 +1,47 @@
+package backend.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+//convierte la cabecera roles una sola vez por valor distinto y reutiliza el Authentication por usuario;
+//si se llega al maximo se construye sin guardar
+public class HeaderAuthenticationCache {
+    private final int maxSize;
+    private final Map<String, RolesEntry> entries = new ConcurrentHashMap<>();
+
+    public HeaderAuthenticationCache(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Authentication get(String user, String roles) {
+        RolesEntry entry = entries.get(roles);
+        if (entry == null) {
+            List<GrantedAuthority> authorities = List.copyOf(AuthorityUtils.commaSeparatedStringToAuthorityList(roles));
+            if (entries.size() >= maxSize) {
+                return new PreAuthenticatedUser(user, authorities);
+            }
+            entry = entries.computeIfAbsent(roles, key -> new RolesEntry(authorities, new ConcurrentHashMap<>()));
+        }
+
+        Authentication authentication = entry.byUser().get(user);
+        if (authentication == null) {
+            authentication = new PreAuthenticatedUser(user, entry.authorities());
+            if (entry.byUser().size() < maxSize) {
+                entry.byUser().putIfAbsent(user, authentication);
+            }
+        }
+        return authentication;
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private record RolesEntry(List<GrantedAuthority> authorities, Map<String, Authentication> byUser) {
+    }
+}
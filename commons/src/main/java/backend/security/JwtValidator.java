@@ -0,0 +1,99 @@
+package backend.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.AuthorityUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+//valida los tokens emitidos por auth-service; el verificador se crea una sola vez
+//y los claims ya convertidos se guardan por token hasta que expira
+public class JwtValidator {
+    private final JWTVerifier verifier;
+    private final int maxCacheSize;
+    private final LongSupplier clock;
+    private final Map<String, ValidatedToken> cache = new ConcurrentHashMap<>();
+
+    public JwtValidator(String key, String userGenerator, int maxCacheSize) {
+        this(JWT.require(Algorithm.HMAC256(key)).withIssuer(userGenerator).build(), maxCacheSize, System::currentTimeMillis);
+    }
+
+    JwtValidator(JWTVerifier verifier, int maxCacheSize, LongSupplier clock) {
+        this.verifier = verifier;
+        this.maxCacheSize = maxCacheSize;
+        this.clock = clock;
+    }
+
+    //lanza JWTVerificationException si el token no es valido
+    public ValidatedToken validate(String token) {
+        String key = hash(token);
+        long now = clock.getAsLong();
+
+        ValidatedToken cached = cache.get(key);
+        if (cached != null) {
+            if (cached.expiresAt() > now) {
+                return cached;
+            }
+            cache.remove(key);
+        }
+
+        DecodedJWT decodedJWT;
+        try {
+            decodedJWT = verifier.verify(token);
+        } catch (JWTVerificationException e) {
+            throw new JWTVerificationException("Token invalido");
+        }
+
+        String authorities = decodedJWT.getClaim("authorities").asString();
+        List<GrantedAuthority> authorityList = AuthorityUtils.commaSeparatedStringToAuthorityList(authorities == null ? "" : authorities);
+        ValidatedToken validated = new ValidatedToken(
+                decodedJWT.getSubject(),
+                List.copyOf(authorityList),
+                decodedJWT.getExpiresAtAsInstant() == null ? now : decodedJWT.getExpiresAtAsInstant().toEpochMilli(),
+                new PreAuthenticatedUser(decodedJWT.getSubject(), authorityList));
+
+        put(key, validated, now);
+        return validated;
+    }
+
+    int cacheSize() {
+        return cache.size();
+    }
+
+    private void put(String key, ValidatedToken validated, long now) {
+        if (validated.expiresAt() <= now) {
+            return;
+        }
+        if (cache.size() >= maxCacheSize) {
+            cache.values().removeIf(token -> token.expiresAt() <= now);
+            if (cache.size() >= maxCacheSize) {
+                return;
+            }
+        }
+        cache.put(key, validated);
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return Base64.getEncoder().encodeToString(digest.digest(token.getBytes(StandardCharsets.US_ASCII)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public record ValidatedToken(String subject, List<GrantedAuthority> authorities, long expiresAt, Authentication authentication) {
+    }
+}
@@ -0,0 +1,59 @@
+package backend.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.List;
+
+//Authentication inmutable, se puede reutilizar entre peticiones del mismo usuario con los mismos roles
+public final class PreAuthenticatedUser implements Authentication {
+    private final String name;
+    private final List<GrantedAuthority> authorities;
+
+    public PreAuthenticatedUser(String name, List<GrantedAuthority> authorities) {
+        this.name = name;
+        this.authorities = List.copyOf(authorities);
+    }
+
+    @Override
+    public List<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public Object getCredentials() {
+        return null;
+    }
+
+    @Override
+    public Object getDetails() {
+        return null;
+    }
+
+    @Override
+    public Object getPrincipal() {
+        return name;
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return true;
+    }
+
+    @Override
+    public void setAuthenticated(boolean isAuthenticated) {
+        if (!isAuthenticated) {
+            throw new IllegalArgumentException("PreAuthenticatedUser es inmutable");
+        }
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String toString() {
+        return "PreAuthenticatedUser[name=" + name + ", authorities=" + authorities + "]";
+    }
+}
@@ -4,4 +4,5 @@ public class ApiConstants {
     public static final String PRODUCT_BASE = "/api/products/";
     public static final String CLIENT_BASE = "/api/clients/";
     public static final String INVENTORY_BASE = "/api/inventory/";
+    public static final String SALE_BASE = "/api/sales/";
 }
@@ -0,0 +1,98 @@
+package backend.collections;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntCacheTest {
+
+    private final AtomicLong now = new AtomicLong(0);
+
+    @Test
+    void testGet_DadoValorGuardado_RetornaHastaQueVence() {
+        IntCache<String> cache = new IntCache<>(10, 1_000, now::get);
+        cache.put(1, "uno");
+
+        now.set(999);
+        assertThat(cache.get(1)).isEqualTo("uno");
+
+        now.set(1_000);
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.size()).isZero();
+        assertThat(cache.evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void testPut_DadoCacheLleno_DescartaElNoUsadoRecientemente() {
+        IntCache<String> cache = new IntCache<>(2, 1_000, now::get);
+        cache.put(1, "uno");
+        cache.put(2, "dos");
+        cache.get(1);
+
+        cache.put(3, "tres");
+
+        assertThat(cache.get(1)).isEqualTo("uno");
+        assertThat(cache.get(2)).isNull();
+        assertThat(cache.get(3)).isEqualTo("tres");
+        assertThat(cache.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testPut_DadoCacheLlenoConVencidos_DescartaVencidoAunqueSeaReciente() {
+        IntCache<String> cache = new IntCache<>(2, 1_000, now::get);
+        cache.put(1, "uno");
+        now.set(500);
+        cache.put(2, "dos");
+        cache.get(1);
+        cache.get(2);
+
+        now.set(1_200);
+        cache.put(3, "tres");
+
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.get(2)).isEqualTo("dos");
+    }
+
+    @Test
+    void testInvalidate_DadaClaveGuardada_LaBorraSinAfectarAOtras() {
+        IntCache<String> cache = new IntCache<>(10, 1_000, now::get);
+        cache.put(0, "cero");
+        cache.put(1, "uno");
+
+        cache.invalidate(0);
+
+        assertThat(cache.get(0)).isNull();
+        assertThat(cache.get(1)).isEqualTo("uno");
+
+        cache.invalidateAll();
+        assertThat(cache.get(1)).isNull();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testOperaciones_DadasClavesAleatorias_CoincideConHashMap() {
+        //con maxSize mayor que las claves posibles no hay descartes y debe comportarse como un mapa
+        IntCache<Integer> cache = new IntCache<>(600, Long.MAX_VALUE / 2, now::get);
+        Map<Integer, Integer> esperado = new HashMap<>();
+        Random random = new Random(42);
+
+        for (int i = 0; i < 50_000; i++) {
+            int key = random.nextInt(512) - 256;
+            if (random.nextInt(3) == 0) {
+                cache.invalidate(key);
+                esperado.remove(key);
+            } else {
+                cache.put(key, i);
+                esperado.put(key, i);
+            }
+            int consulta = random.nextInt(512) - 256;
+            assertThat(cache.get(consulta)).isEqualTo(esperado.get(consulta));
+        }
+        assertThat(cache.size()).isEqualTo(esperado.size());
+    }
+}
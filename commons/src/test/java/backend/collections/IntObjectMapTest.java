@@ -0,0 +1,103 @@
+package backend.collections;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class IntObjectMapTest {
+
+    @Test
+    void testGet_DadoClaveNoGuardada_RetornaNull() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(1, "uno");
+
+        assertThat(map.get(2)).isNull();
+        assertThat(map.get(0)).isNull();
+    }
+
+    @Test
+    void testPut_DadaClaveExistente_ReemplazaSinCrecer() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(7, "siete");
+        map.put(7, "SIETE");
+
+        assertThat(map.get(7)).isEqualTo("SIETE");
+        assertThat(map.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testPut_DadasMuchasClaves_CreceYConservaTodas() {
+        IntObjectMap<Integer> map = new IntObjectMap<>(4);
+        for (int id = 1; id <= 10_000; id++) {
+            map.put(id, id * 10);
+        }
+        map.put(-5, -50);
+
+        assertThat(map.size()).isEqualTo(10_001);
+        for (int id = 1; id <= 10_000; id++) {
+            assertThat(map.get(id)).isEqualTo(id * 10);
+        }
+        assertThat(map.get(-5)).isEqualTo(-50);
+        assertThat(map.get(10_001)).isNull();
+    }
+
+    @Test
+    void testPut_DadaClaveCero_LaGuarda() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(0, "cero");
+
+        assertThat(map.get(0)).isEqualTo("cero");
+        assertThat(map.size()).isEqualTo(1);
+
+        map.remove(0);
+
+        assertThat(map.get(0)).isNull();
+        assertThat(map.size()).isZero();
+    }
+
+    @Test
+    void testRemove_DadaClaveGuardada_LaBorraSinAfectarAOtras() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(1, "uno");
+        map.put(17, "diecisiete");
+
+        map.remove(1);
+        map.remove(99);
+
+        assertThat(map.get(1)).isNull();
+        assertThat(map.get(17)).isEqualTo("diecisiete");
+        assertThat(map.size()).isEqualTo(1);
+
+        map.put(1, "UNO");
+
+        assertThat(map.get(1)).isEqualTo("UNO");
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    void testRemove_DadasAltasYBajasRepetidas_ConservaLasVigentes() {
+        IntObjectMap<Integer> map = new IntObjectMap<>(8);
+        for (int id = 1; id <= 10_000; id++) {
+            map.put(id, id);
+            if (id > 8) {
+                map.remove(id - 8);
+            }
+        }
+
+        assertThat(map.size()).isEqualTo(8);
+        for (int id = 1; id <= 10_000; id++) {
+            assertThat(map.get(id)).isEqualTo(id > 10_000 - 8 ? id : null);
+        }
+    }
+
+    @Test
+    void testClear_BorraTodasLasClaves() {
+        IntObjectMap<String> map = new IntObjectMap<>();
+        map.put(1, "uno");
+
+        map.clear();
+
+        assertThat(map.get(1)).isNull();
+        assertThat(map.size()).isZero();
+    }
+}
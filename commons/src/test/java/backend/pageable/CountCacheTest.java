@@ -0,0 +1,48 @@
+package backend.pageable;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CountCacheTest {
+
+    private final AtomicLong now = new AtomicLong(1_000);
+
+    @Test
+    void testGet_DadoTotalGuardado_RetornaTotalHastaQueVence() {
+        CountCache cache = new CountCache(10, 5_000, now::get);
+        cache.put("productos", 42);
+
+        now.addAndGet(4_999);
+        assertThat(cache.get("productos")).isEqualTo(42L);
+
+        now.addAndGet(1);
+        assertThat(cache.get("productos")).isNull();
+    }
+
+    @Test
+    void testPut_DadoCacheLleno_PurgaVencidosOIgnora() {
+        CountCache cache = new CountCache(2, 5_000, now::get);
+        cache.put("a", 1);
+        cache.put("b", 2);
+
+        cache.put("c", 3);
+        assertThat(cache.get("c")).isNull();
+
+        now.addAndGet(5_000);
+        cache.put("c", 3);
+        assertThat(cache.get("c")).isEqualTo(3L);
+    }
+
+    @Test
+    void testInvalidateAll_BorraTodosLosTotales() {
+        CountCache cache = new CountCache(10, 5_000, now::get);
+        cache.put("productos", 42);
+
+        cache.invalidateAll();
+
+        assertThat(cache.get("productos")).isNull();
+    }
+}
@@ -0,0 +1,77 @@
+package backend.pageable;
+
+import backend.exception.UtilException;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+import static backend.pageable.SortRegistry.field;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SortRegistryTest {
+    private static final SortRegistry SORTS = SortRegistry.of(
+            field("id", Integer.class),
+            field("nombre", String.class),
+            field("fechaCreacion", LocalDate.class));
+
+    @Test
+    void resolve_whenDirectionIsMissing_sortsDescending() {
+        assertThat(SORTS.resolve("nombre")).isEqualTo(Sort.by(Sort.Direction.DESC, "nombre"));
+        assertThat(SORTS.fields()).containsExactly("id", "nombre", "fechaCreacion");
+    }
+
+    @Test
+    void validateCursorKeys_whenKeysMatchSort_accepts() {
+        Sort sort = PageableUtils.constructSort("fechaCreacion,asc", SORTS);
+        Map<String, Object> keys = new HashMap<>();
+        keys.put("fechaCreacion", null);
+        keys.put("id", 7);
+
+        assertThatCode(() -> SORTS.validateCursorKeys(sort, keys)).doesNotThrowAnyException();
+    }
+
+    @Test
+    void validateCursorKeys_whenCursorIsFromAnotherSort_throwsCursorInvalid() {
+        Sort sort = PageableUtils.constructSort("fechaCreacion", SORTS);
+
+        UtilException exception = assertThrows(UtilException.class,
+                () -> SORTS.validateCursorKeys(sort, Map.of("nombre", "a", "id", 7)));
+
+        assertThat(exception.getMessage()).isEqualTo(UtilException.CURSOR_INVALID);
+    }
+
+    @Test
+    void validateCursorKeys_whenKeyHasAnotherType_throwsCursorInvalid() {
+        Sort sort = PageableUtils.constructSort("nombre", SORTS);
+
+        UtilException exception = assertThrows(UtilException.class,
+                () -> SORTS.validateCursorKeys(sort, Map.of("nombre", 5, "id", 7)));
+
+        assertThat(exception.getMessage()).isEqualTo(UtilException.CURSOR_INVALID);
+    }
+
+    @Test
+    void validateCursorKeys_whenCursorHasExtraKeys_throwsCursorInvalid() {
+        Sort sort = PageableUtils.constructSort("id", SORTS);
+
+        UtilException exception = assertThrows(UtilException.class,
+                () -> SORTS.validateCursorKeys(sort, Map.of("id", 7, "nombre", "a")));
+
+        assertThat(exception.getMessage()).isEqualTo(UtilException.CURSOR_INVALID);
+    }
+
+    @Test
+    void validateCursorKeys_whenCursorKeyIsRenamed_usesStoredName() {
+        SortRegistry mongoSorts = SortRegistry.of(field("id", "_id", String.class), field("date", Date.class));
+        Sort sort = PageableUtils.constructSort("date", mongoSorts);
+
+        assertThatCode(() -> mongoSorts.validateCursorKeys(sort, Map.of("date", new Date(0), "_id", "665f1c2e")))
+                .doesNotThrowAnyException();
+    }
+}
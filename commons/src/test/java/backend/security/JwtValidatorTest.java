@@ -0,0 +1,100 @@
+package backend.security;
+
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import com.auth0.jwt.interfaces.JWTVerifier;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtValidatorTest {
+    private static final String KEY = "clave-de-prueba";
+    private static final String ISSUER = "AUTH0JWT-BACKEND";
+
+    private final AtomicInteger verifications = new AtomicInteger();
+    private final AtomicLong now = new AtomicLong(System.currentTimeMillis());
+
+    private final JWTVerifier delegate = JWT.require(Algorithm.HMAC256(KEY)).withIssuer(ISSUER).build();
+    private final JWTVerifier countingVerifier = new JWTVerifier() {
+        @Override
+        public DecodedJWT verify(String token) {
+            verifications.incrementAndGet();
+            return delegate.verify(token);
+        }
+
+        @Override
+        public DecodedJWT verify(DecodedJWT jwt) {
+            verifications.incrementAndGet();
+            return delegate.verify(jwt);
+        }
+    };
+
+    @Test
+    void validate_whenTokenIsRepeated_verifiesOnlyOnce() {
+        JwtValidator validator = new JwtValidator(countingVerifier, 10, now::get);
+        String token = createToken("victor", "ROLE_ADMIN,ROLE_USER", 60_000);
+
+        JwtValidator.ValidatedToken first = validator.validate(token);
+        JwtValidator.ValidatedToken second = validator.validate(token);
+
+        assertThat(first.subject()).isEqualTo("victor");
+        assertThat(first.authorities()).extracting(GrantedAuthority::getAuthority).containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(second).isEqualTo(first);
+        assertThat(verifications.get()).isEqualTo(1);
+    }
+
+    @Test
+    void validate_whenCachedTokenExpires_verifiesAgain() {
+        JwtValidator validator = new JwtValidator(countingVerifier, 10, now::get);
+        String token = createToken("victor", "ROLE_USER", 60_000);
+
+        validator.validate(token);
+        now.addAndGet(120_000);
+
+        validator.validate(token);
+
+        assertThat(verifications.get()).isEqualTo(2);
+        assertThat(validator.cacheSize()).isZero();
+    }
+
+    @Test
+    void validate_whenSignatureIsInvalid_throwsAndDoesNotCache() {
+        JwtValidator validator = new JwtValidator(countingVerifier, 10, now::get);
+        String token = JWT.create()
+                .withSubject("victor")
+                .withIssuer(ISSUER)
+                .withExpiresAt(new Date(now.get() + 60_000))
+                .sign(Algorithm.HMAC256("otra-clave"));
+
+        assertThrows(JWTVerificationException.class, () -> validator.validate(token));
+        assertThat(validator.cacheSize()).isZero();
+    }
+
+    @Test
+    void validate_whenCacheIsFull_doesNotGrow() {
+        JwtValidator validator = new JwtValidator(countingVerifier, 2, now::get);
+
+        validator.validate(createToken("a", "ROLE_USER", 60_000));
+        validator.validate(createToken("b", "ROLE_USER", 60_000));
+        validator.validate(createToken("c", "ROLE_USER", 60_000));
+
+        assertThat(validator.cacheSize()).isEqualTo(2);
+    }
+
+    private String createToken(String subject, String authorities, long ttlMillis) {
+        return JWT.create()
+                .withSubject(subject)
+                .withIssuer(ISSUER)
+                .withClaim("authorities", authorities)
+                .withExpiresAt(new Date(now.get() + ttlMillis))
+                .sign(Algorithm.HMAC256(KEY));
+    }
+}
@@ -1,31 +1,42 @@
 package backend.gatewayservice.filters;
 
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.interfaces.DecodedJWT;
-import com.auth0.jwt.interfaces.JWTVerifier;
+import backend.security.JwtValidator;
+import org.springframework.cloud.gateway.event.RefreshRoutesEvent;
 import org.springframework.cloud.gateway.filter.GatewayFilterChain;
 import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.context.event.EventListener;
 import org.springframework.core.Ordered;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.stereotype.Component;
 import org.springframework.web.server.ServerWebExchange;
 import reactor.core.publisher.Mono;
 
 import java.nio.charset.StandardCharsets;
-
-import static java.security.KeyRep.Type.SECRET;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Component
 public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
+    private static final String PUBLIC_METADATA = "public";
+
+    private final JwtValidator jwtValidator;
+    private final Map<String, Boolean> publicRoutes = new ConcurrentHashMap<>();
+
+    public JwtAuthenticationFilter(JwtValidator jwtValidator) {
+        this.jwtValidator = jwtValidator;
+    }
 
     @Override
     public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
         ServerHttpRequest request = exchange.getRequest();
-        if (request.getURI().getPath().contains("auth")) {
+        if (isPublic(exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR))) {
             return chain.filter(exchange);
         }
 
@@ -36,16 +47,18 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
 
         String token = authHeader.substring(7);
         try {
-            Algorithm algorithm = Algorithm.HMAC256("2dd57dfe27e671d7fad1d9517900518607dfb1d0a4718105b2e69986349d0a83");
-            JWTVerifier verifier = JWT.require(algorithm).build();
-            DecodedJWT decodedJWT = verifier.verify(token);
-            String roles = decodedJWT.getClaim("authorities").toString();
+            JwtValidator.ValidatedToken validated = jwtValidator.validate(token);
+            String roles = validated.authorities().stream()
+                    .map(GrantedAuthority::getAuthority)
+                    .collect(Collectors.joining(","));
 
-            ServerHttpRequest newRequest = exchange.getRequest()
+            //el Authorization ya viene en la peticion, solo se agregan los datos del usuario
+            ServerHttpRequest newRequest = request
                     .mutate()
-                    .header("Authorization", "Bearer " + token)
-                    .header("roles", roles)
-                    .header("user", decodedJWT.getSubject())
+                    .headers(headers -> {
+                        headers.set("roles", roles);
+                        headers.set("user", validated.subject());
+                    })
                     .build();
 
             return chain.filter(exchange.mutate().request(newRequest).build());
@@ -55,6 +68,20 @@ public class JwtAuthenticationFilter implements GlobalFilter, Ordered {
         }
     }
 
+    //la metadata "public" de cada ruta se lee una vez y se guarda por id de ruta; sin metadata la ruta es protegida
+    private boolean isPublic(Route route) {
+        if (route == null) {
+            return false;
+        }
+        return publicRoutes.computeIfAbsent(route.getId(),
+                id -> Boolean.parseBoolean(String.valueOf(route.getMetadata().get(PUBLIC_METADATA))));
+    }
+
+    @EventListener(RefreshRoutesEvent.class)
+    public void onRefreshRoutes() {
+        publicRoutes.clear();
+    }
+
     @Override
     public int getOrder() {
         return -1;
@@ -0,0 +1,17 @@
+package backend.gatewayservice.security;
+
+import backend.security.JwtValidator;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+//el gateway valida con el mismo JwtValidator y la misma cache que los servicios
+@Configuration
+public class JwtConfiguration {
+    @Bean
+    public JwtValidator jwtValidator(@Value("${security.jwt.key.private}") String key,
+                                     @Value("${security.jwt.user.generator}") String userGenerator,
+                                     @Value("${security.jwt.cache.max-size}") int maxCacheSize) {
+        return new JwtValidator(key, userGenerator, maxCacheSize);
+    }
+}
@@ -0,0 +1,111 @@
+package backend.gatewayservice.filters;
+
+import backend.security.JwtValidator;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.util.Date;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtAuthenticationFilterTest {
+    private static final String KEY = "clave-de-prueba";
+    private static final String ISSUER = "AUTH0JWT-BACKEND";
+
+    private final JwtAuthenticationFilter filter = new JwtAuthenticationFilter(new JwtValidator(KEY, ISSUER, 100));
+
+    private static final Route PUBLIC_ROUTE = route("auth-service", true);
+    private static final Route PROTECTED_ROUTE = route("product-service", false);
+
+    private final AtomicReference<ServerWebExchange> forwarded = new AtomicReference<>();
+    private final GatewayFilterChain chain = exchange -> {
+        forwarded.set(exchange);
+        return Mono.empty();
+    };
+
+    @Test
+    void filter_whenTokenIsValid_addsUserAndRolesHeaders() {
+        String token = JWT.create()
+                .withSubject("victor")
+                .withIssuer(ISSUER)
+                .withClaim("authorities", "ROLE_ADMIN,ROLE_USER")
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60_000))
+                .sign(Algorithm.HMAC256(KEY));
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/products")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+                .header("user", "otro"), PROTECTED_ROUTE);
+
+        filter.filter(exchange, chain).block();
+
+        HttpHeaders headers = forwarded.get().getRequest().getHeaders();
+        assertThat(headers.get("user")).containsExactly("victor");
+        assertThat(headers.getFirst("roles")).isEqualTo("ROLE_ADMIN,ROLE_USER");
+        assertThat(headers.get(HttpHeaders.AUTHORIZATION)).containsExactly("Bearer " + token);
+    }
+
+    @Test
+    void filter_whenRouteIsPublic_skipsToken() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/auth/log-in"), PUBLIC_ROUTE);
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(forwarded.get()).isSameAs(exchange);
+    }
+
+    @Test
+    void filter_whenProtectedPathContainsAuth_returnsUnauthorized() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/products/author"), PROTECTED_ROUTE);
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    void filter_whenTokenIsMissing_returnsUnauthorized() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/products"), PROTECTED_ROUTE);
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(forwarded.get()).isNull();
+    }
+
+    @Test
+    void filter_whenTokenIsInvalid_returnsUnauthorized() {
+        MockServerWebExchange exchange = exchange(MockServerHttpRequest.get("/api/products")
+                .header(HttpHeaders.AUTHORIZATION, "Bearer token-invalido"), PROTECTED_ROUTE);
+
+        filter.filter(exchange, chain).block();
+
+        assertThat(exchange.getResponse().getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(forwarded.get()).isNull();
+    }
+
+    private MockServerWebExchange exchange(MockServerHttpRequest.BaseBuilder<?> request, Route route) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR, route);
+        return exchange;
+    }
+
+    private static Route route(String id, boolean isPublic) {
+        return Route.async()
+                .id(id)
+                .uri("lb://" + id)
+                .predicate(exchange -> true)
+                .metadata("public", isPublic)
+                .build();
+    }
+}
@@ -0,0 +1,43 @@
+package backend.inventoryservice.client;
+
+import backend.collections.IntCache;
+import backend.dto.response.ProductDtoResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.function.IntFunction;
+import java.util.function.LongSupplier;
+
+//cache corta de productos delante de ProductClient para no pedir el mismo producto en cada movimiento;
+//solo se usa para saber si el producto existe, el stock se valida contra el libro de saldos
+@Component
+public class ProductCache {
+    private final IntCache<ProductDtoResponse> entries;
+
+    @Autowired
+    public ProductCache(@Value("${inventory.product-cache.max-size}") int maxSize,
+                        @Value("${inventory.product-cache.ttl-ms}") long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    ProductCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.entries = new IntCache<>(maxSize, ttlMillis, clock);
+    }
+
+    //si no esta se carga; un producto inexistente (null) no se guarda
+    public ProductDtoResponse get(int id, IntFunction<ProductDtoResponse> loader) {
+        ProductDtoResponse product = entries.get(id);
+        if (product == null) {
+            product = loader.apply(id);
+            if (product != null) {
+                entries.put(id, product);
+            }
+        }
+        return product;
+    }
+
+    public void invalidate(int id) {
+        entries.invalidate(id);
+    }
+}
@@ -1,11 +1,16 @@
 package backend.inventoryservice.client;
 
+import backend.dto.request.MovementDtoRequest;
 import backend.dto.response.ProductDtoResponse;
 import backend.utils.ApiConstants;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @FeignClient(name = "${product.service.name}")
 public interface ProductClient {
@@ -13,6 +18,12 @@ public interface ProductClient {
     @GetMapping(ApiConstants.PRODUCT_BASE + "{id}")
     ProductDtoResponse getProduct(@PathVariable Integer id);
 
+    @PostMapping(ApiConstants.PRODUCT_BASE + "batch")
+    List<ProductDtoResponse> getProducts(@RequestBody List<Integer> ids);
+
     @PutMapping(ApiConstants.PRODUCT_BASE + "stock/{id}/{cantidad}/{tipoMovimiento}")
     void updateStock(@PathVariable Integer id, @PathVariable Integer cantidad, @PathVariable String tipoMovimiento);
+
+    @PutMapping(ApiConstants.PRODUCT_BASE + "stock/batch")
+    void updateStockBatch(@RequestBody List<MovementDtoRequest> movimientos);
 }
@@ -3,6 +3,7 @@ package backend.inventoryservice.controllers;
 import backend.dto.request.MovementDtoRequest;
 import backend.dto.response.MovementDtoResponse;
 import backend.inventoryservice.services.MovimientoService;
+import backend.pageable.CursorPage;
 import backend.pageable.Paginado;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
@@ -14,6 +15,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/inventory")
 @SecurityRequirement(name = "BearerAuth")
@@ -39,6 +42,20 @@ public class InventoryController {
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
 
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Registrar movimientos en lote", description = "Registra varios movimientos en una sola transacción")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Movimientos registrados"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "500", description = "Error interno")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<Void> addAll(@RequestBody List<MovementDtoRequest> dtos) {
+        movimientoService.addAll(dtos);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
     @Operation(summary = "Listar movimientos por producto", description = "Lista los movimientos de un producto")
     @ApiResponses(value = {
@@ -52,4 +69,21 @@ public class InventoryController {
         Page<MovementDtoResponse> response = movimientoService.listByIdProducto(idProducto, paginado);
         return new ResponseEntity<>(response, HttpStatus.OK);
     }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Listar movimientos por producto con cursor", description = "Lista los movimientos de un producto sin contar el total; se usa el cursor devuelto para pedir la siguiente pagina")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Movimientos listados"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "500", description = "Error interno")
+    })
+    @GetMapping("/{idProducto}/cursor")
+    public ResponseEntity<CursorPage<MovementDtoResponse>> listByIdProductoByCursor(@PathVariable Integer idProducto,
+                                                                                    @RequestParam Integer size,
+                                                                                    @RequestParam String orderBy,
+                                                                                    @RequestParam(required = false) String cursor) {
+        CursorPage<MovementDtoResponse> response = movimientoService.listByIdProductoByCursor(idProducto, size, orderBy, cursor);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
 }
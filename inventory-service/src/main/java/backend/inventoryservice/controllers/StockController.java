@@ -0,0 +1,72 @@
+package backend.inventoryservice.controllers;
+
+import backend.dto.response.StockDifferenceDtoResponse;
+import backend.dto.response.StockDtoResponse;
+import backend.inventoryservice.services.StockLedgerService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/inventory")
+@SecurityRequirement(name = "BearerAuth")
+public class StockController {
+
+    private final StockLedgerService stockLedgerService;
+
+    public StockController(StockLedgerService stockLedgerService) {
+        this.stockLedgerService = stockLedgerService;
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Obtener stock de un producto", description = "Devuelve el saldo actual del producto o, si se envía fecha, el saldo a esa fecha")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock obtenido"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "500", description = "Error interno")
+    })
+    @GetMapping("/{idProducto}/stock")
+    public ResponseEntity<StockDtoResponse> getStock(@PathVariable Integer idProducto,
+                                                     @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fecha) {
+        StockDtoResponse response = fecha == null ?
+                stockLedgerService.getStock(idProducto) :
+                stockLedgerService.getStockAt(idProducto, fecha);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reconstruir saldos", description = "Recalcula los saldos y cortes de todos los productos desde los movimientos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Saldos reconstruidos"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "500", description = "Error interno")
+    })
+    @PostMapping("/ledger/rebuild")
+    public ResponseEntity<Integer> rebuild() {
+        Integer response = stockLedgerService.rebuild();
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Verificar saldos", description = "Lista los productos cuyo saldo no coincide con la suma de sus movimientos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Diferencias listadas"),
+            @ApiResponse(responseCode = "401", description = "No autorizado"),
+            @ApiResponse(responseCode = "500", description = "Error interno")
+    })
+    @GetMapping("/ledger/check")
+    public ResponseEntity<List<StockDifferenceDtoResponse>> check() {
+        List<StockDifferenceDtoResponse> response = stockLedgerService.check();
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+}
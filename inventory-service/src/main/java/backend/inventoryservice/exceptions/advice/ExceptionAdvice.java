@@ -1,5 +1,6 @@
 package backend.inventoryservice.exceptions.advice;
 
+import backend.exception.UtilException;
 import backend.inventoryservice.exceptions.InventoryException;
 import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
@@ -19,14 +20,19 @@ public class ExceptionAdvice {
             InventoryException.INVALID_TYPE_MOVEMENT,
             InventoryException.MOVEMENT_WITHOUT_STOCK,
             InventoryException.INVALID_PRODUCT,
+            InventoryException.INVALID_MOVEMENTS,
             InventoryException.INVALID_ID,
             InventoryException.PAGE_NUMBER_INVALID,
             InventoryException.SIZE_NUMBER_INVALID,
-            InventoryException.SORT_NAME_INVALID
+            InventoryException.SORT_NAME_INVALID,
+            InventoryException.INVALID_DATE,
+            UtilException.INVALID_ID_PRODUCT,
+            UtilException.SORT_DIRECTION_INVALID,
+            UtilException.CURSOR_INVALID
     );
 
-    @ExceptionHandler(InventoryException.class)
-    public ResponseEntity<?> exceptionHandler(InventoryException e) {
+    @ExceptionHandler({InventoryException.class, UtilException.class})
+    public ResponseEntity<?> exceptionHandler(RuntimeException e) {
         log.error(e.getMessage());
         HttpStatus status = ERRORES_VALIDACION.contains(e.getMessage()) ?
                 HttpStatus.BAD_REQUEST :
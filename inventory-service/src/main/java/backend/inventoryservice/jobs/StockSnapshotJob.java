@@ -0,0 +1,25 @@
+package backend.inventoryservice.jobs;
+
+import backend.inventoryservice.services.StockLedgerService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+//corta periodicamente los saldos para que el stock a una fecha solo sume los movimientos posteriores al corte
+@Slf4j
+@Component
+public class StockSnapshotJob {
+
+    private final StockLedgerService stockLedgerService;
+
+    public StockSnapshotJob(StockLedgerService stockLedgerService) {
+        this.stockLedgerService = stockLedgerService;
+    }
+
+    @Scheduled(cron = "${inventory.ledger.snapshot-cron}")
+    public void takeSnapshot() {
+        long inicio = System.currentTimeMillis();
+        stockLedgerService.takeSnapshot();
+        log.info("Corte de saldos generado en {} ms", System.currentTimeMillis() - inicio);
+    }
+}
@@ -1,18 +1,30 @@
 package backend.inventoryservice.models.entities;
 
+import backend.pageable.SortRegistry;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
 
+import static backend.pageable.SortRegistry.field;
+
 @Entity
-@Table(name = "movimientos")
+@Table(name = "movimientos", indexes = {
+        @Index(name = "idx_movimientos_producto_id_id", columnList = "producto_id, id"),
+        @Index(name = "idx_movimientos_producto_id_fecha_registro_id", columnList = "producto_id, fecha_registro, id"),
+        @Index(name = "idx_movimientos_producto_id_secuencia", columnList = "producto_id, secuencia")
+})
 @AllArgsConstructor
 @NoArgsConstructor
 @Setter
 @Getter
 @Builder
 public class Movimiento {
+    //los movimientos siempre se listan por producto, por eso los indices empiezan por producto_id;
+    //el de secuencia es para el stock a una fecha, que suma los movimientos posteriores al ultimo corte
+    public static final SortRegistry SORTS = SortRegistry.of(
+            field("id", Integer.class),
+            field("fechaRegistro", LocalDateTime.class));
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -26,4 +38,8 @@ public class Movimiento {
     private TipoMovimiento tipoMovimiento;
 
     private LocalDateTime fechaRegistro;
+
+    //numero del movimiento dentro de su producto; lo asigna el libro de saldos con la fila del saldo bloqueada,
+    //por eso sigue el orden en que se confirman las transacciones
+    private Long secuencia;
 }
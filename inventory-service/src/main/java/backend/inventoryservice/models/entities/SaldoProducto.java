@@ -0,0 +1,33 @@
+package backend.inventoryservice.models.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+//saldo corriente por producto; se actualiza en la misma transaccion que registra los movimientos.
+//stock = inicial + entradas - salidas; movimientos es tambien la secuencia del ultimo movimiento aplicado
+@Entity
+@Table(name = "saldos_productos")
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class SaldoProducto {
+    @Id
+    private Integer productoId;
+
+    private Long stock;
+
+    //stock que el producto ya tenia en product-service cuando el libro empezo a seguirlo
+    private Long inicial;
+
+    private Long entradas;
+
+    private Long salidas;
+
+    private Long movimientos;
+
+    private LocalDateTime fechaActualizacion;
+}
@@ -0,0 +1,36 @@
+package backend.inventoryservice.models.entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+//copia del saldo de un producto con los movimientos hasta la secuencia movimientos, confirmados antes de fecha;
+//el stock en otro momento se obtiene del ultimo corte anterior mas los movimientos de secuencia posterior
+@Entity
+@Table(name = "snapshots_saldos", indexes = {
+        @Index(name = "idx_snapshots_saldos_producto_id_fecha", columnList = "producto_id, fecha"),
+        @Index(name = "idx_snapshots_saldos_producto_id_movimientos", columnList = "producto_id, movimientos")
+})
+@AllArgsConstructor
+@NoArgsConstructor
+@Setter
+@Getter
+@Builder
+public class SnapshotSaldo {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    private Integer productoId;
+
+    private LocalDateTime fecha;
+
+    private Long stock;
+
+    private Long entradas;
+
+    private Long salidas;
+
+    private Long movimientos;
+}
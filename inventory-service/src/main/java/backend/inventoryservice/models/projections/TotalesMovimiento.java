@@ -0,0 +1,12 @@
+package backend.inventoryservice.models.projections;
+
+//suma de los movimientos de un producto en un rango
+public record TotalesMovimiento(Integer productoId, Long entradas, Long salidas, Long movimientos) {
+    public static TotalesMovimiento empty(Integer productoId) {
+        return new TotalesMovimiento(productoId, 0L, 0L, 0L);
+    }
+
+    public long stock() {
+        return entradas - salidas;
+    }
+}
@@ -0,0 +1,9 @@
+package backend.inventoryservice.repositories;
+
+import backend.inventoryservice.models.entities.Movimiento;
+
+import java.util.List;
+
+public interface MovimientoBatchRepository {
+    void saveAllBatch(List<Movimiento> movimientos);
+}
@@ -0,0 +1,32 @@
+package backend.inventoryservice.repositories;
+
+import backend.inventoryservice.models.entities.Movimiento;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+
+//los ids son IDENTITY, por eso Hibernate no agrupa los inserts; se hace con un batch JDBC
+public class MovimientoBatchRepositoryImpl implements MovimientoBatchRepository {
+    private static final String INSERT_MOVIMIENTO =
+            "INSERT INTO movimientos (producto_id, cantidad, tipo_movimiento, fecha_registro, secuencia) VALUES (?, ?, ?, ?, ?)";
+    private static final int BATCH_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public MovimientoBatchRepositoryImpl(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    public void saveAllBatch(List<Movimiento> movimientos) {
+        jdbcTemplate.batchUpdate(INSERT_MOVIMIENTO, movimientos, BATCH_SIZE, (ps, movimiento) -> {
+            ps.setInt(1, movimiento.getProductoId());
+            ps.setInt(2, movimiento.getCantidad());
+            ps.setString(3, movimiento.getTipoMovimiento().name());
+            ps.setTimestamp(4, Timestamp.valueOf(movimiento.getFechaRegistro()));
+            ps.setObject(5, movimiento.getSecuencia(), Types.BIGINT);
+        });
+    }
+}
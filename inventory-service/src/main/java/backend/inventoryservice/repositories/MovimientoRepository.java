@@ -1,10 +1,45 @@
 package backend.inventoryservice.repositories;
 
 import backend.inventoryservice.models.entities.Movimiento;
+import backend.inventoryservice.models.projections.TotalesMovimiento;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+public interface MovimientoRepository extends JpaRepository<Movimiento, Integer>, MovimientoBatchRepository {
+    String TOTALES = "SELECT new backend.inventoryservice.models.projections.TotalesMovimiento(m.productoId, " +
+            "SUM(CASE WHEN m.tipoMovimiento = backend.inventoryservice.models.entities.TipoMovimiento.ENTRADA THEN m.cantidad ELSE 0 END), " +
+            "SUM(CASE WHEN m.tipoMovimiento = backend.inventoryservice.models.entities.TipoMovimiento.SALIDA THEN m.cantidad ELSE 0 END), " +
+            "COUNT(m)) FROM Movimiento m ";
 
-public interface MovimientoRepository extends JpaRepository<Movimiento, Integer> {
     Page<Movimiento> findAllByProductoId(Integer idProducto, Pageable pageable);
+
+    Window<Movimiento> findAllByProductoId(Integer idProducto, ScrollPosition position, Sort sort, Limit limit);
+
+    @Query(TOTALES + "GROUP BY m.productoId")
+    List<TotalesMovimiento> sumAllByProducto();
+
+    @Query(TOTALES + "WHERE m.productoId = :productoId AND m.secuencia > :secuencia AND m.fechaRegistro <= :hasta GROUP BY m.productoId")
+    Optional<TotalesMovimiento> sumByProductoIdAfter(@Param("productoId") Integer productoId,
+                                                     @Param("secuencia") Long secuencia,
+                                                     @Param("hasta") LocalDateTime hasta);
+
+    //numera los movimientos de cada producto por id en una sola pasada sobre la tabla (MERGE, que aceptan
+    //Postgres 15+ y H2); solo lo usa la reconstruccion del libro, que corre sin carga
+    @Modifying
+    @Query(value = "MERGE INTO movimientos m USING " +
+            "(SELECT id, ROW_NUMBER() OVER (PARTITION BY producto_id ORDER BY id) AS secuencia FROM movimientos) n " +
+            "ON m.id = n.id WHEN MATCHED THEN UPDATE SET secuencia = n.secuencia", nativeQuery = true)
+    int renumberSequences();
 }
@@ -0,0 +1,45 @@
+package backend.inventoryservice.repositories;
+
+import backend.inventoryservice.models.entities.SaldoProducto;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface SaldoProductoRepository extends JpaRepository<SaldoProducto, Integer> {
+    //suma en una sola sentencia para que dos transacciones no se pisen el saldo; devuelve las filas afectadas
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE SaldoProducto s SET s.stock = s.stock + :entradas - :salidas, s.entradas = s.entradas + :entradas, " +
+            "s.salidas = s.salidas + :salidas, s.movimientos = s.movimientos + :movimientos, s.fechaActualizacion = :fecha " +
+            "WHERE s.productoId = :productoId")
+    int addTotals(@Param("productoId") Integer productoId,
+                  @Param("entradas") Long entradas,
+                  @Param("salidas") Long salidas,
+                  @Param("movimientos") Long movimientos,
+                  @Param("fecha") LocalDateTime fecha);
+
+    @Query("SELECT s.productoId FROM SaldoProducto s")
+    List<Integer> findAllProductoIds();
+
+    @Query("SELECT s.movimientos FROM SaldoProducto s WHERE s.productoId = :productoId")
+    Long findMovimientosByProductoId(@Param("productoId") Integer productoId);
+
+    //saldo sin movimientos que parte del stock actual del producto; si la fila ya existe no hace nada
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO saldos_productos (producto_id, stock, inicial, entradas, salidas, movimientos, fecha_actualizacion) " +
+            "SELECT :productoId, :inicial, :inicial, 0, 0, 0, :fecha WHERE NOT EXISTS " +
+            "(SELECT 1 FROM saldos_productos WHERE producto_id = :productoId)", nativeQuery = true)
+    int insertIfAbsent(@Param("productoId") Integer productoId,
+                       @Param("inicial") Long inicial,
+                       @Param("fecha") LocalDateTime fecha);
+
+    //saldos con movimientos que todavia no tienen un corte con esa misma secuencia
+    @Query("SELECT s FROM SaldoProducto s WHERE s.movimientos > 0 AND NOT EXISTS " +
+            "(SELECT 1 FROM SnapshotSaldo c WHERE c.productoId = s.productoId AND c.movimientos = s.movimientos)")
+    List<SaldoProducto> findAllWithoutSnapshot();
+}
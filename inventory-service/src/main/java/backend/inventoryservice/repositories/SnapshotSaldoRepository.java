@@ -0,0 +1,11 @@
+package backend.inventoryservice.repositories;
+
+import backend.inventoryservice.models.entities.SnapshotSaldo;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+public interface SnapshotSaldoRepository extends JpaRepository<SnapshotSaldo, Integer> {
+    Optional<SnapshotSaldo> findFirstByProductoIdAndFechaLessThanEqualOrderByFechaDesc(Integer productoId, LocalDateTime fecha);
+}
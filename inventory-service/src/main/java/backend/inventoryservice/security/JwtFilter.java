@@ -1,39 +1,62 @@
 package backend.inventoryservice.security;
 
+import backend.security.HeaderAuthenticationCache;
+import backend.security.JwtValidator;
+import com.auth0.jwt.exceptions.JWTVerificationException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
 import org.springframework.lang.NonNull;
-import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.AuthorityUtils;
 import org.springframework.security.core.context.SecurityContext;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
-import java.util.Collection;
 
 public class JwtFilter extends OncePerRequestFilter {
+    private static final String BEARER = "Bearer ";
+
+    private final JwtValidator jwtValidator;
+    private final HeaderAuthenticationCache headerAuthenticationCache;
+
+    public JwtFilter(JwtValidator jwtValidator, HeaderAuthenticationCache headerAuthenticationCache) {
+        this.jwtValidator = jwtValidator;
+        this.headerAuthenticationCache = headerAuthenticationCache;
+    }
 
     @Override
     protected void doFilterInternal(@NonNull HttpServletRequest request,
                                     @NonNull HttpServletResponse response,
                                     @NonNull FilterChain filterChain) throws ServletException, IOException {
+        final String authorization = request.getHeader(HttpHeaders.AUTHORIZATION);
+
+        //si llega el token se valida aqui, asi tambien se autentican las llamadas entre servicios
+        if (authorization != null && authorization.startsWith(BEARER)) {
+            try {
+                authenticate(jwtValidator.validate(authorization.substring(BEARER.length())).authentication());
+            } catch (JWTVerificationException e) {
+                SecurityContextHolder.clearContext();
+            }
+            filterChain.doFilter(request, response);
+            return;
+        }
 
         final String user = request.getHeader("user");
         final String roles = request.getHeader("roles");
 
         if (user != null && roles != null) {
-            Collection<? extends GrantedAuthority> authorities = AuthorityUtils.commaSeparatedStringToAuthorityList(roles);
-            SecurityContext context = SecurityContextHolder.getContext();
-            Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, authorities);
-            context.setAuthentication(authentication);
-            SecurityContextHolder.setContext(context);
+            authenticate(headerAuthenticationCache.get(user, roles));
         }
 
         filterChain.doFilter(request, response);
     }
+
+    private void authenticate(Authentication authentication) {
+        SecurityContext context = SecurityContextHolder.getContext();
+        context.setAuthentication(authentication);
+        SecurityContextHolder.setContext(context);
+    }
 }
@@ -2,12 +2,19 @@ package backend.inventoryservice.services;
 
 import backend.dto.request.MovementDtoRequest;
 import backend.dto.response.MovementDtoResponse;
+import backend.pageable.CursorPage;
 import backend.pageable.Paginado;
 import org.springframework.data.domain.Page;
 
+import java.util.List;
+
 public interface MovimientoService {
 
     MovementDtoResponse add(MovementDtoRequest dto);
 
+    void addAll(List<MovementDtoRequest> dtos);
+
     Page<MovementDtoResponse> listByIdProducto(Integer idProducto, Paginado paginado);
+
+    CursorPage<MovementDtoResponse> listByIdProductoByCursor(Integer idProducto, Integer size, String orderBy, String cursor);
 }
@@ -0,0 +1,27 @@
+package backend.inventoryservice.services;
+
+import backend.dto.response.StockDifferenceDtoResponse;
+import backend.dto.response.StockDtoResponse;
+import backend.inventoryservice.models.entities.Movimiento;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface StockLedgerService {
+
+    void apply(List<Movimiento> movimientos);
+
+    Map<Integer, Long> getBalances(Collection<Integer> productoIds);
+
+    StockDtoResponse getStock(Integer productoId);
+
+    StockDtoResponse getStockAt(Integer productoId, LocalDateTime fecha);
+
+    void takeSnapshot();
+
+    int rebuild();
+
+    List<StockDifferenceDtoResponse> check();
+}
@@ -1,7 +1,7 @@
 package backend.inventoryservice.services.impl;
 
 import backend.dto.request.MovementDtoRequest;
-import backend.dto.response.ProductDtoResponse;
+import backend.inventoryservice.client.ProductCache;
 import backend.inventoryservice.client.ProductClient;
 import backend.inventoryservice.exceptions.InventoryException;
 import backend.inventoryservice.mappers.MovimientoMapper;
@@ -10,30 +10,46 @@ import backend.inventoryservice.models.entities.Movimiento;
 import backend.inventoryservice.models.entities.TipoMovimiento;
 import backend.inventoryservice.repositories.MovimientoRepository;
 import backend.inventoryservice.services.MovimientoService;
+import backend.inventoryservice.services.StockLedgerService;
+import backend.pageable.CursorPage;
 import backend.pageable.PageableUtils;
 import backend.pageable.Paginado;
 import backend.utils.Utils;
-import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
-import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Supplier;
 
+@Slf4j
 @Service
 public class MovimientoServiceImpl implements MovimientoService {
 
     private final MovimientoRepository movimientoRepository;
     private final MovimientoMapper movimientoMapper = MovimientoMapper.INSTANCE;
     private final ProductClient productClient;
+    private final ProductCache productCache;
+    private final StockLedgerService stockLedgerService;
+    private final TransactionOperations transactionOperations;
 
-    public MovimientoServiceImpl(MovimientoRepository movimientoRepository, ProductClient productClient) {
+    public MovimientoServiceImpl(MovimientoRepository movimientoRepository, ProductClient productClient, ProductCache productCache, StockLedgerService stockLedgerService, TransactionOperations transactionOperations) {
         this.movimientoRepository = movimientoRepository;
         this.productClient = productClient;
+        this.productCache = productCache;
+        this.stockLedgerService = stockLedgerService;
+        this.transactionOperations = transactionOperations;
     }
 
     @Override
@@ -41,7 +57,7 @@ public class MovimientoServiceImpl implements MovimientoService {
         PageableUtils.validatePagination(paginado);
         Utils.validateIdProduct(productId);
 
-        Pageable pageable = PageableUtils.constructPageable(paginado);
+        Pageable pageable = PageableUtils.constructPageable(paginado, Movimiento.SORTS);
 
         Page<Movimiento> movimientos = movimientoRepository.findAllByProductoId(productId, pageable);
         if (movimientos.isEmpty()) {
@@ -55,35 +71,121 @@ public class MovimientoServiceImpl implements MovimientoService {
     }
 
     @Override
-    @Transactional(rollbackOn = Exception.class)
+    public CursorPage<MovementDtoResponse> listByIdProductoByCursor(Integer productId, Integer size, String orderBy, String cursor) {
+        PageableUtils.validateCursor(size, orderBy);
+        Utils.validateIdProduct(productId);
+
+        Sort sort = PageableUtils.constructSort(orderBy, Movimiento.SORTS);
+        Window<Movimiento> movimientos = movimientoRepository.findAllByProductoId(productId,
+                PageableUtils.constructScrollPosition(cursor, sort, Movimiento.SORTS),
+                sort,
+                PageableUtils.constructLimit(size));
+
+        return PageableUtils.toCursorPage(movimientos, movimientoMapper::toListDto);
+    }
+
+    @Override
     public MovementDtoResponse add(MovementDtoRequest dto) {
         final Integer cantidad = dto.cantidad();
         final String tipoMovimiento = dto.tipoMovimiento();
         final Integer productoId = dto.productoId();
 
         validateData(cantidad, tipoMovimiento, productoId);
-        ProductDtoResponse producto = getProduct(productoId);
-        validateStock(producto.stock(), tipoMovimiento);
+        //se convierte antes de la llamada remota: un dato que no se puede registrar no debe cambiar el stock
+        Movimiento movimiento = movimientoMapper.toEntity(dto);
+        movimiento.setFechaRegistro(LocalDateTime.now());
+        validateProduct(productoId);
+        validateStock(List.of(dto));
 
         productClient.updateStock(productoId, cantidad, tipoMovimiento);
+        productCache.invalidate(productoId);
 
-        Movimiento movimiento = movimientoMapper.toEntity(dto);
-        movimiento.setFechaRegistro(LocalDateTime.now());
-        return movimientoMapper.toDto(movimientoRepository.save(movimiento));
+        Movimiento guardado = recordOrCompensate(List.of(dto), () -> {
+            stockLedgerService.apply(List.of(movimiento));
+            return movimientoRepository.save(movimiento);
+        });
+        return movimientoMapper.toDto(guardado);
     }
 
-    private void validateStock(Integer stock, String tipoMovimiento) {
-        if (Objects.equals(tipoMovimiento, TipoMovimiento.SALIDA.name()) && stock <= 0) {
-            throw new InventoryException(InventoryException.MOVEMENT_WITHOUT_STOCK);
+    @Override
+    public void addAll(List<MovementDtoRequest> dtos) {
+        if (dtos == null || dtos.isEmpty()) {
+            throw new InventoryException(InventoryException.INVALID_MOVEMENTS);
         }
+        dtos.forEach(dto -> validateData(dto.cantidad(), dto.tipoMovimiento(), dto.productoId()));
+
+        final LocalDateTime fechaRegistro = LocalDateTime.now();
+        List<Movimiento> movimientos = movimientoMapper.toListEntity(dtos);
+        movimientos.forEach(movimiento -> movimiento.setFechaRegistro(fechaRegistro));
+        validateStock(dtos);
+
+        //si product-service rechaza el lote no se registra nada local
+        productClient.updateStockBatch(dtos);
+        dtos.forEach(dto -> productCache.invalidate(dto.productoId()));
+
+        recordOrCompensate(dtos, () -> {
+            stockLedgerService.apply(movimientos);
+            movimientoRepository.saveAllBatch(movimientos);
+            return movimientos;
+        });
+    }
+
+    //el stock de product-service ya cambio; los movimientos y el saldo se registran en una transaccion propia
+    //(el saldo primero, porque numera los movimientos antes de insertarlos)
+    //despues de la llamada remota, y si esa transaccion falla se devuelve el stock con los movimientos inversos
+    private <T> T recordOrCompensate(List<MovementDtoRequest> aplicados, Supplier<T> registro) {
+        try {
+            return transactionOperations.execute(status -> registro.get());
+        } catch (RuntimeException e) {
+            compensate(aplicados);
+            throw e;
+        }
+    }
+
+    private void compensate(List<MovementDtoRequest> aplicados) {
+        List<MovementDtoRequest> inversos = aplicados.stream()
+                .map(dto -> new MovementDtoRequest(dto.productoId(), dto.cantidad(), inverse(dto.tipoMovimiento())))
+                .toList();
+        try {
+            productClient.updateStockBatch(inversos);
+        } catch (RuntimeException e) {
+            //queda la diferencia entre product-service y los movimientos; la muestra /ledger/check
+            log.error("No se pudo revertir el stock en product-service: {}", inversos, e);
+        }
+    }
+
+    private String inverse(String tipoMovimiento) {
+        return TipoMovimiento.SALIDA.name().equalsIgnoreCase(tipoMovimiento) ?
+                TipoMovimiento.ENTRADA.name() :
+                TipoMovimiento.SALIDA.name();
+    }
+
+    //validacion previa de las salidas contra el saldo del libro; product-service la vuelve a hacer al descontar.
+    //se piden los saldos de todos los productos, no solo de las salidas, para que el libro inicie con el stock
+    //de product-service los que todavia no sigue antes de que la llamada remota lo cambie
+    private void validateStock(List<MovementDtoRequest> dtos) {
+        Set<Integer> productoIds = new TreeSet<>();
+        Map<Integer, Long> salidas = new TreeMap<>();
+        dtos.forEach(dto -> {
+            productoIds.add(dto.productoId());
+            if (Objects.equals(dto.tipoMovimiento(), TipoMovimiento.SALIDA.name())) {
+                salidas.merge(dto.productoId(), dto.cantidad().longValue(), Long::sum);
+            }
+        });
+
+        Map<Integer, Long> saldos = stockLedgerService.getBalances(productoIds);
+        salidas.forEach((productoId, cantidad) -> {
+            if (saldos.getOrDefault(productoId, 0L) < cantidad) {
+                throw new InventoryException(InventoryException.MOVEMENT_WITHOUT_STOCK);
+            }
+        });
     }
 
-    private ProductDtoResponse getProduct(Integer productoId) {
-        Optional<ProductDtoResponse> producto = Optional.ofNullable(productClient.getProduct(productoId));
-        if (producto.isEmpty()) {
+    //solo comprueba que exista; el stock se valida contra el libro
+    private void validateProduct(Integer productoId) {
+        if (productCache.get(productoId, productClient::getProduct) == null) {
             throw new InventoryException(InventoryException.INVALID_PRODUCT);
         }
-        return producto.get();
     }
 
     private void validateData(Integer cantidad, String tipoMovimiento, Integer idProducto) {
@@ -0,0 +1,261 @@
+package backend.inventoryservice.services.impl;
+
+import backend.dto.response.ProductDtoResponse;
+import backend.dto.response.StockDifferenceDtoResponse;
+import backend.dto.response.StockDtoResponse;
+import backend.inventoryservice.client.ProductClient;
+import backend.inventoryservice.exceptions.InventoryException;
+import backend.inventoryservice.models.entities.Movimiento;
+import backend.inventoryservice.models.entities.SaldoProducto;
+import backend.inventoryservice.models.entities.SnapshotSaldo;
+import backend.inventoryservice.models.entities.TipoMovimiento;
+import backend.inventoryservice.models.projections.TotalesMovimiento;
+import backend.inventoryservice.repositories.MovimientoRepository;
+import backend.inventoryservice.repositories.SaldoProductoRepository;
+import backend.inventoryservice.repositories.SnapshotSaldoRepository;
+import backend.inventoryservice.services.StockLedgerService;
+import backend.utils.Utils;
+import jakarta.transaction.Transactional;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Service
+public class StockLedgerServiceImpl implements StockLedgerService {
+    private static final int PRODUCT_BATCH_SIZE = 1000;
+
+    private final MovimientoRepository movimientoRepository;
+    private final SaldoProductoRepository saldoRepository;
+    private final SnapshotSaldoRepository snapshotRepository;
+    private final ProductClient productClient;
+    private final TransactionOperations transactionOperations;
+
+    public StockLedgerServiceImpl(MovimientoRepository movimientoRepository, SaldoProductoRepository saldoRepository, SnapshotSaldoRepository snapshotRepository,
+                                  ProductClient productClient, TransactionOperations transactionOperations) {
+        this.movimientoRepository = movimientoRepository;
+        this.saldoRepository = saldoRepository;
+        this.snapshotRepository = snapshotRepository;
+        this.productClient = productClient;
+        this.transactionOperations = transactionOperations;
+    }
+
+    //se llama dentro de la transaccion que guarda los movimientos y antes de insertarlos; se agrupan por producto
+    //y se aplican en orden de id para que las transacciones concurrentes bloqueen las filas en el mismo orden.
+    //con la fila bloqueada se numeran los movimientos del producto, asi la secuencia sigue el orden de confirmacion
+    @Override
+    public void apply(List<Movimiento> movimientos) {
+        Map<Integer, List<Movimiento>> porProducto = movimientos.stream()
+                .collect(Collectors.groupingBy(Movimiento::getProductoId, TreeMap::new, Collectors.toList()));
+
+        LocalDateTime fecha = LocalDateTime.now();
+        porProducto.forEach((productoId, delProducto) -> {
+            TotalesMovimiento totales = sum(productoId, delProducto);
+            if (addTotals(totales, fecha) == 0) {
+                //getBalances inicia el saldo antes de la llamada remota; si aun asi falta (lo borro rebuild) se inicia
+                //con el stock de product-service, que ya incluye estos movimientos
+                long stock = fetchStocks(List.of(productoId)).getOrDefault(productoId, totales.stock());
+                saldoRepository.insertIfAbsent(productoId, stock - totales.stock(), fecha);
+                addTotals(totales, fecha);
+            }
+
+            long secuencia = saldoRepository.findMovimientosByProductoId(productoId) - delProducto.size();
+            for (Movimiento movimiento : delProducto) {
+                movimiento.setSecuencia(++secuencia);
+            }
+        });
+    }
+
+    //saldo actual de cada producto; los que el libro todavia no sigue se inician con su stock en product-service.
+    //si otra instancia registra un movimiento del producto mientras se inicia, rebuild vuelve a partir del stock real
+    @Override
+    public Map<Integer, Long> getBalances(Collection<Integer> productoIds) {
+        Map<Integer, Long> saldos = new HashMap<>();
+        saldoRepository.findAllById(productoIds).forEach(saldo -> saldos.put(saldo.getProductoId(), saldo.getStock()));
+
+        List<Integer> sinSaldo = productoIds.stream()
+                .filter(productoId -> !saldos.containsKey(productoId))
+                .distinct()
+                .toList();
+        if (!sinSaldo.isEmpty()) {
+            LocalDateTime fecha = LocalDateTime.now();
+            fetchStocks(sinSaldo).forEach((productoId, stock) -> {
+                try {
+                    saldoRepository.insertIfAbsent(productoId, stock, fecha);
+                } catch (DataIntegrityViolationException e) {
+                    //otra instancia lo inicio al mismo tiempo
+                }
+            });
+            saldoRepository.findAllById(sinSaldo).forEach(saldo -> saldos.put(saldo.getProductoId(), saldo.getStock()));
+        }
+        return saldos;
+    }
+
+    @Override
+    public StockDtoResponse getStock(Integer productoId) {
+        Utils.validateIdProduct(productoId);
+
+        return saldoRepository.findById(productoId)
+                .map(saldo -> new StockDtoResponse(productoId, saldo.getStock(), saldo.getEntradas(), saldo.getSalidas(),
+                        saldo.getMovimientos(), Objects.toString(saldo.getFechaActualizacion(), null)))
+                .orElse(new StockDtoResponse(productoId, 0L, 0L, 0L, 0L, null));
+    }
+
+    //ultimo corte anterior a la fecha mas los movimientos de secuencia posterior al corte registrados hasta la fecha
+    @Override
+    public StockDtoResponse getStockAt(Integer productoId, LocalDateTime fecha) {
+        Utils.validateIdProduct(productoId);
+        if (fecha == null) {
+            throw new InventoryException(InventoryException.INVALID_DATE);
+        }
+
+        Optional<SnapshotSaldo> snapshot = snapshotRepository.findFirstByProductoIdAndFechaLessThanEqualOrderByFechaDesc(productoId, fecha);
+        long desde = snapshot.map(SnapshotSaldo::getMovimientos).orElse(0L);
+        TotalesMovimiento delta = movimientoRepository.sumByProductoIdAfter(productoId, desde, fecha)
+                .orElse(TotalesMovimiento.empty(productoId));
+
+        long base = snapshot.isPresent() ?
+                snapshot.get().getStock() :
+                saldoRepository.findById(productoId).map(SaldoProducto::getInicial).orElse(0L);
+        long entradas = delta.entradas() + snapshot.map(SnapshotSaldo::getEntradas).orElse(0L);
+        long salidas = delta.salidas() + snapshot.map(SnapshotSaldo::getSalidas).orElse(0L);
+        long movimientos = delta.movimientos() + desde;
+
+        return new StockDtoResponse(productoId, base + delta.stock(), entradas, salidas, movimientos, fecha.toString());
+    }
+
+    //copia los saldos que cambiaron desde su ultimo corte. cada saldo leido ya incluye todos sus movimientos
+    //confirmados y lo que se confirme despues tendra secuencia mayor, por eso no hace falta dejar margen de tiempo;
+    //si dos instancias cortan a la vez solo se repite el mismo corte
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public void takeSnapshot() {
+        List<SaldoProducto> pendientes = saldoRepository.findAllWithoutSnapshot();
+        //la fecha se toma despues de leer, cuando todo lo leido ya estaba confirmado
+        LocalDateTime fecha = LocalDateTime.now();
+
+        snapshotRepository.saveAll(pendientes.stream()
+                .map(saldo -> SnapshotSaldo.builder()
+                        .productoId(saldo.getProductoId())
+                        .fecha(fecha)
+                        .stock(saldo.getStock())
+                        .entradas(saldo.getEntradas())
+                        .salidas(saldo.getSalidas())
+                        .movimientos(saldo.getMovimientos())
+                        .build())
+                .toList());
+    }
+
+    //recalcula secuencias, saldos y cortes desde los movimientos; el stock inicial de cada producto es lo que
+    //product-service tiene y sus movimientos no explican. los movimientos que lleguen mientras corre pueden quedar
+    //fuera, por eso conviene correrlo sin carga y revisar despues con check
+    @Override
+    public int rebuild() {
+        //el stock de product-service se pide antes de abrir la transaccion
+        Set<Integer> productoIds = new TreeSet<>(saldoRepository.findAllProductoIds());
+        movimientoRepository.sumAllByProducto().forEach(totales -> productoIds.add(totales.productoId()));
+        Map<Integer, Long> stocks = fetchStocks(new ArrayList<>(productoIds));
+
+        Integer productos = transactionOperations.execute(status -> {
+            snapshotRepository.deleteAllInBatch();
+            saldoRepository.deleteAllInBatch();
+            movimientoRepository.renumberSequences();
+
+            LocalDateTime fecha = LocalDateTime.now();
+            Map<Integer, TotalesMovimiento> totales = movimientoRepository.sumAllByProducto().stream()
+                    .collect(Collectors.toMap(TotalesMovimiento::productoId, Function.identity()));
+            List<SaldoProducto> saldos = productoIds.stream()
+                    .map(productoId -> {
+                        TotalesMovimiento delProducto = totales.getOrDefault(productoId, TotalesMovimiento.empty(productoId));
+                        long inicial = stocks.getOrDefault(productoId, delProducto.stock()) - delProducto.stock();
+                        return toSaldo(delProducto, inicial, fecha);
+                    })
+                    .toList();
+            saldoRepository.saveAll(saldos);
+
+            takeSnapshot();
+            return saldos.size();
+        });
+        return productos == null ? 0 : productos;
+    }
+
+    //compara el saldo registrado de cada producto con su stock inicial mas la suma de sus movimientos
+    @Override
+    public List<StockDifferenceDtoResponse> check() {
+        Map<Integer, TotalesMovimiento> esperados = movimientoRepository.sumAllByProducto().stream()
+                .collect(Collectors.toMap(TotalesMovimiento::productoId, Function.identity()));
+        Map<Integer, SaldoProducto> registrados = new HashMap<>();
+        saldoRepository.findAll().forEach(saldo -> registrados.put(saldo.getProductoId(), saldo));
+
+        List<StockDifferenceDtoResponse> diferencias = new ArrayList<>();
+        new TreeMap<>(esperados).forEach((productoId, esperado) -> {
+            SaldoProducto registrado = registrados.remove(productoId);
+            long inicial = registrado == null ? 0L : registrado.getInicial();
+            long stock = registrado == null ? 0L : registrado.getStock();
+            long movimientos = registrado == null ? 0L : registrado.getMovimientos();
+            if (stock != inicial + esperado.stock() || movimientos != esperado.movimientos()) {
+                diferencias.add(new StockDifferenceDtoResponse(productoId, inicial + esperado.stock(), stock, esperado.movimientos(), movimientos));
+            }
+        });
+        //saldos de productos sin movimientos
+        new TreeMap<>(registrados).forEach((productoId, registrado) -> {
+            if (!registrado.getStock().equals(registrado.getInicial()) || registrado.getMovimientos() != 0) {
+                diferencias.add(new StockDifferenceDtoResponse(productoId, registrado.getInicial(), registrado.getStock(), 0L, registrado.getMovimientos()));
+            }
+        });
+        return diferencias;
+    }
+
+    private int addTotals(TotalesMovimiento totales, LocalDateTime fecha) {
+        return saldoRepository.addTotals(totales.productoId(), totales.entradas(), totales.salidas(), totales.movimientos(), fecha);
+    }
+
+    private Map<Integer, Long> fetchStocks(List<Integer> productoIds) {
+        Map<Integer, Long> stocks = new HashMap<>();
+        for (int desde = 0; desde < productoIds.size(); desde += PRODUCT_BATCH_SIZE) {
+            List<Integer> lote = productoIds.subList(desde, Math.min(desde + PRODUCT_BATCH_SIZE, productoIds.size()));
+            for (ProductDtoResponse producto : productClient.getProducts(lote)) {
+                stocks.put(producto.id(), producto.stock().longValue());
+            }
+        }
+        return stocks;
+    }
+
+    private static TotalesMovimiento sum(Integer productoId, List<Movimiento> movimientos) {
+        long entradas = 0;
+        long salidas = 0;
+        for (Movimiento movimiento : movimientos) {
+            if (movimiento.getTipoMovimiento() == TipoMovimiento.ENTRADA) {
+                entradas += movimiento.getCantidad();
+            } else {
+                salidas += movimiento.getCantidad();
+            }
+        }
+        return new TotalesMovimiento(productoId, entradas, salidas, (long) movimientos.size());
+    }
+
+    private static SaldoProducto toSaldo(TotalesMovimiento totales, long inicial, LocalDateTime fecha) {
+        return SaldoProducto.builder()
+                .productoId(totales.productoId())
+                .stock(inicial + totales.stock())
+                .inicial(inicial)
+                .entradas(totales.entradas())
+                .salidas(totales.salidas())
+                .movimientos(totales.movimientos())
+                .fechaActualizacion(fecha)
+                .build();
+    }
+}
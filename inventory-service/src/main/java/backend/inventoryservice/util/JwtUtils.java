@@ -1,51 +0,0 @@
-package backend.inventoryservice.util;
-
-import com.auth0.jwt.JWT;
-import com.auth0.jwt.JWTVerifier;
-import com.auth0.jwt.algorithms.Algorithm;
-import com.auth0.jwt.exceptions.JWTVerificationException;
-import com.auth0.jwt.interfaces.Claim;
-import com.auth0.jwt.interfaces.DecodedJWT;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.stereotype.Component;
-
-import java.util.Map;
-
-@Component
-public class JwtUtils {
-    @Value("${security.jwt.key.private}")
-    private String key;
-
-    @Value("${security.jwt.user.generator}")
-    private String userGenerator;
-
-    //devuelve el jwt decodificado
-    public DecodedJWT validateToken(String token) {
-        try {
-            Algorithm algorithm = Algorithm.HMAC256(key);
-
-            //se verifica que el token sea valido
-            //se verifica que el token haya sido emitido por el usuario userGenerator
-            JWTVerifier verifier = JWT.require(algorithm)
-                    .withIssuer(userGenerator)
-                    .build();
-
-            DecodedJWT decodedJWT = verifier.verify(token);
-            return decodedJWT;
-        } catch (JWTVerificationException e) {
-            throw new JWTVerificationException("Token invalido");
-        }
-    }
-
-    public String extractUsername(DecodedJWT decodedJWT) {
-        return decodedJWT.getSubject();
-    }
-
-    public Claim getSpecificClaim(DecodedJWT decodedJWT, String claim) {
-        return decodedJWT.getClaim(claim);
-    }
-
-    public Map<String, Claim> getAllClaims(DecodedJWT decodedJWT) {
-        return decodedJWT.getClaims();
-    }
-}
@@ -0,0 +1,59 @@
+package backend.inventoryservice.client;
+
+import backend.dto.response.ProductDtoResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+    private final AtomicLong now = new AtomicLong(0);
+    private final List<Integer> loads = new ArrayList<>();
+
+    private final IntFunction<ProductDtoResponse> loader = id -> {
+        loads.add(id);
+        return id == 99 ? null : product(id);
+    };
+
+    @Test
+    void testObtener_DadoProductoEnCache_NoLoVuelveACargarHastaQueVence() {
+        ProductCache cache = new ProductCache(10, 1000, now::get);
+
+        cache.get(1, loader);
+        cache.get(1, loader);
+        now.set(1000);
+        cache.get(1, loader);
+
+        assertThat(loads).containsExactly(1, 1);
+    }
+
+    @Test
+    void testObtener_DadoProductoInexistente_NoSeGuarda() {
+        ProductCache cache = new ProductCache(10, 1000, now::get);
+
+        assertThat(cache.get(99, loader)).isNull();
+        assertThat(cache.get(99, loader)).isNull();
+
+        assertThat(loads).containsExactly(99, 99);
+    }
+
+    @Test
+    void testInvalidar_DadoProductoEnCache_LoVuelveACargar() {
+        ProductCache cache = new ProductCache(10, 1000, now::get);
+
+        cache.get(1, loader);
+        cache.invalidate(1);
+        cache.get(1, loader);
+
+        assertThat(loads).containsExactly(1, 1);
+    }
+
+    private ProductDtoResponse product(Integer id) {
+        return new ProductDtoResponse(id, "Producto " + id, "Producto " + id, 5.00, true, LocalDate.now(), 10);
+    }
+}
@@ -2,8 +2,10 @@ package backend.inventoryservice.controllers;
 
 import backend.dto.request.MovementDtoRequest;
 import backend.dto.response.MovementDtoResponse;
+import backend.exception.UtilException;
 import backend.inventoryservice.security.TestSecurityConfig;
 import backend.inventoryservice.services.MovimientoService;
+import backend.pageable.CursorPage;
 import backend.pageable.Paginado;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -23,7 +25,9 @@ import java.util.List;
 
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
@@ -83,6 +87,34 @@ class MovimientoControllerTest {
                 .andExpect(jsonPath("$.content[0].cantidad").value(5));
     }
 
+    @Test
+    void testListarMovimientosPorCursor_retornaPaginaSinTotal() throws Exception {
+        // Arrange
+        when(service.listByIdProductoByCursor(2, 10, "fechaRegistro", null)).thenReturn(new CursorPage<>(List.of(), 0, false, null));
+
+        // Act
+        mockMvc.perform(get("/api/inventory/2/cursor")
+                        .param("size", "10")
+                        .param("orderBy", "fechaRegistro"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(0)))
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void testListarMovimientosPorCursor_dadoCursorInvalido_retornaBadRequest() throws Exception {
+        // Arrange
+        when(service.listByIdProductoByCursor(2, 10, "id", "x")).thenThrow(new UtilException(UtilException.CURSOR_INVALID));
+
+        // Act
+        mockMvc.perform(get("/api/inventory/2/cursor")
+                        .param("size", "10")
+                        .param("orderBy", "id")
+                        .param("cursor", "x"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void testRegistrarMovimiento() throws Exception {
         // Arrange
@@ -97,4 +129,21 @@ class MovimientoControllerTest {
                         .content(json))
                 .andExpect(status().isOk());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testRegistrarMovimientosLote() throws Exception {
+        // Arrange
+        List<MovementDtoRequest> dtos = List.of(
+                new MovementDtoRequest(1, 1, "SALIDA"),
+                new MovementDtoRequest(2, 3, "SALIDA"));
+        String json = objectMapper.writeValueAsString(dtos);
+
+        // Act
+        mockMvc.perform(post("/api/inventory/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk());
+
+        verify(service).addAll(dtos);
+    }
+}
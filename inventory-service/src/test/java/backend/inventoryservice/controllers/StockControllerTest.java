@@ -0,0 +1,77 @@
+package backend.inventoryservice.controllers;
+
+import backend.dto.response.StockDifferenceDtoResponse;
+import backend.dto.response.StockDtoResponse;
+import backend.inventoryservice.security.TestSecurityConfig;
+import backend.inventoryservice.services.StockLedgerService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(StockController.class)
+@Import(TestSecurityConfig.class)
+class StockControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private StockLedgerService service;
+
+    @Test
+    void testObtenerStock_SinFecha_RetornaSaldoActual() throws Exception {
+        when(service.getStock(1)).thenReturn(new StockDtoResponse(1, 6L, 10L, 4L, 2L, null));
+
+        mockMvc.perform(get("/api/inventory/1/stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(6));
+
+        verify(service, never()).getStockAt(anyInt(), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testObtenerStock_ConFecha_RetornaSaldoAEsaFecha() throws Exception {
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 10, 0);
+        when(service.getStockAt(1, fecha)).thenReturn(new StockDtoResponse(1, 3L, 3L, 0L, 1L, fecha.toString()));
+
+        mockMvc.perform(get("/api/inventory/1/stock").param("fecha", "2025-01-01T10:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.stock").value(3));
+    }
+
+    @Test
+    void testVerificar_DadasDiferencias_LasRetorna() throws Exception {
+        when(service.check()).thenReturn(List.of(new StockDifferenceDtoResponse(1, 5L, 4L, 1L, 1L)));
+
+        mockMvc.perform(get("/api/inventory/ledger/check"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].stockEsperado").value(5));
+    }
+
+    @Test
+    void testReconstruir_RetornaProductosRecalculados() throws Exception {
+        when(service.rebuild()).thenReturn(2);
+
+        mockMvc.perform(post("/api/inventory/ledger/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").value(2));
+    }
+}
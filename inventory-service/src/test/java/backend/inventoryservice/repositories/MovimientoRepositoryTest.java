@@ -2,6 +2,9 @@ package backend.inventoryservice.repositories;
 
 import backend.inventoryservice.models.entities.Movimiento;
 import backend.inventoryservice.models.entities.TipoMovimiento;
+import backend.inventoryservice.models.projections.TotalesMovimiento;
+import backend.pageable.CursorPage;
+import backend.pageable.PageableUtils;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -11,9 +14,17 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.jdbc.core.JdbcTemplate;
 
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.junit.jupiter.api.Assertions.*;
 
 @DataJpaTest
@@ -36,6 +47,55 @@ class MovimientoRepositoryTest {
         movimientoRepository.deleteAll();
     }
 
+    @Test
+    void testPlanDeConsulta_DadoOrdenPermitido_UsaIndice() {
+        //los indices empiezan por producto_id, asi los movimientos de un producto quedan contiguos y ya ordenados;
+        //H2 solo reconoce el orden desde la primera columna, por eso se ordena tambien por producto_id
+        for (String campo : Movimiento.SORTS.fields()) {
+            for (String direccion : List.of("asc", "desc")) {
+                Sort sort = PageableUtils.constructSort(campo + "," + direccion, Movimiento.SORTS);
+                String plan = jdbcTemplate.queryForObject(
+                        "EXPLAIN SELECT * FROM movimientos ORDER BY producto_id " + direccion + ", " + toOrderBy(sort) + " LIMIT 10",
+                        String.class);
+                assertThat(plan).as("orden por %s %s", campo, direccion).contains("/* index sorted */");
+            }
+        }
+
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM movimientos ORDER BY producto_id DESC, cantidad DESC, id DESC LIMIT 10", String.class);
+        assertThat(plan).doesNotContain("/* index sorted */");
+    }
+
+    @Test
+    void testListarPorCursor_DadoMovimientosDeVariosProductos_RecorreSoloLosDelProducto() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 10, 0);
+        for (int i = 0; i < 9; i++) {
+            movimientoRepository.save(Movimiento.builder()
+                    .productoId(i % 3 == 0 ? 2 : 1)
+                    .tipoMovimiento(TipoMovimiento.ENTRADA)
+                    .cantidad(i + 1)
+                    .fechaRegistro(fecha.plusHours(i / 2))
+                    .build());
+        }
+
+        // Act
+        List<Integer> cantidades = new ArrayList<>();
+        String cursor = null;
+        do {
+            Sort sort = PageableUtils.constructSort("fechaRegistro", Movimiento.SORTS);
+            Window<Movimiento> window = movimientoRepository.findAllByProductoId(1,
+                    PageableUtils.constructScrollPosition(cursor, sort, Movimiento.SORTS),
+                    sort,
+                    PageableUtils.constructLimit(2));
+            CursorPage<Movimiento> page = PageableUtils.toCursorPage(window, list -> list);
+            page.content().forEach(movimiento -> cantidades.add(movimiento.getCantidad()));
+            cursor = page.nextCursor();
+        } while (cursor != null);
+
+        // Assert
+        assertThat(cantidades).containsExactly(9, 8, 6, 5, 3, 2);
+    }
+
     @Test
     void testFindMovimientoByProductoId_dadoProductoNoExistente_RetornaVacio() {
         // Arrange
@@ -94,4 +154,74 @@ class MovimientoRepositoryTest {
         assertEquals(10, movimientoGuardado.getCantidad());
     }
 
-}
\ No newline at end of file
+    @Test
+    void testGuardarMovimientosEnLote_DadoMovimientos_InsertaTodos() {
+        // Arrange
+        LocalDateTime fechaRegistro = LocalDateTime.of(2025, 1, 1, 10, 0);
+        List<Movimiento> movimientos = List.of(
+                Movimiento.builder().productoId(1).tipoMovimiento(TipoMovimiento.SALIDA).cantidad(10).fechaRegistro(fechaRegistro).build(),
+                Movimiento.builder().productoId(1).tipoMovimiento(TipoMovimiento.SALIDA).cantidad(5).fechaRegistro(fechaRegistro).build(),
+                Movimiento.builder().productoId(2).tipoMovimiento(TipoMovimiento.ENTRADA).cantidad(3).fechaRegistro(fechaRegistro).build());
+
+        // Act
+        movimientoRepository.saveAllBatch(movimientos);
+
+        // Assert
+        Page<Movimiento> movimientosProducto = movimientoRepository.findAllByProductoId(1, PageRequest.of(0, 10));
+        assertThat(movimientoRepository.count()).isEqualTo(3);
+        assertThat(movimientosProducto.getContent())
+                .extracting(Movimiento::getCantidad)
+                .containsExactlyInAnyOrder(10, 5);
+        assertThat(movimientosProducto.getContent())
+                .allMatch(movimiento -> movimiento.getTipoMovimiento() == TipoMovimiento.SALIDA
+                        && fechaRegistro.equals(movimiento.getFechaRegistro()));
+    }
+
+    @Test
+    void testSumarPorProducto_DadosMovimientos_SumaEntradasYSalidasPorSeparado() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 10, 0);
+        movimientoRepository.saveAll(List.of(
+                Movimiento.builder().productoId(1).tipoMovimiento(TipoMovimiento.ENTRADA).cantidad(10).fechaRegistro(fecha).secuencia(1L).build(),
+                Movimiento.builder().productoId(1).tipoMovimiento(TipoMovimiento.SALIDA).cantidad(4).fechaRegistro(fecha.plusHours(1)).secuencia(2L).build(),
+                Movimiento.builder().productoId(1).tipoMovimiento(TipoMovimiento.ENTRADA).cantidad(2).fechaRegistro(fecha.plusHours(2)).secuencia(3L).build(),
+                Movimiento.builder().productoId(2).tipoMovimiento(TipoMovimiento.SALIDA).cantidad(3).fechaRegistro(fecha.plusHours(1)).secuencia(1L).build()));
+
+        // Act
+        List<TotalesMovimiento> totales = movimientoRepository.sumAllByProducto();
+        TotalesMovimiento producto = movimientoRepository.sumByProductoIdAfter(1, 1L, fecha.plusHours(1)).orElseThrow();
+
+        // Assert
+        assertThat(totales).containsExactlyInAnyOrder(
+                new TotalesMovimiento(1, 12L, 4L, 3L),
+                new TotalesMovimiento(2, 0L, 3L, 1L));
+        //despues de la secuencia 1 y registrados hasta la fecha
+        assertThat(producto).isEqualTo(new TotalesMovimiento(1, 0L, 4L, 1L));
+        assertThat(movimientoRepository.sumByProductoIdAfter(3, 0L, fecha.plusHours(1))).isEmpty();
+    }
+
+    @Test
+    void testRenumerarSecuencias_DadosMovimientosSinSecuencia_LosNumeraPorProducto() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 10, 0);
+        movimientoRepository.saveAllBatch(List.of(
+                Movimiento.builder().productoId(1).tipoMovimiento(TipoMovimiento.ENTRADA).cantidad(10).fechaRegistro(fecha).build(),
+                Movimiento.builder().productoId(2).tipoMovimiento(TipoMovimiento.ENTRADA).cantidad(3).fechaRegistro(fecha).build(),
+                Movimiento.builder().productoId(1).tipoMovimiento(TipoMovimiento.SALIDA).cantidad(4).fechaRegistro(fecha).build()));
+
+        // Act
+        int filas = movimientoRepository.renumberSequences();
+
+        // Assert
+        assertEquals(3, filas);
+        assertThat(movimientoRepository.findAll(Sort.by("id")))
+                .extracting(Movimiento::getProductoId, Movimiento::getSecuencia)
+                .containsExactly(tuple(1, 1L), tuple(2, 1L), tuple(1, 2L));
+    }
+
+    private String toOrderBy(Sort sort) {
+        return sort.stream()
+                .map(order -> order.getProperty().replaceAll("([A-Z])", "_$1").toLowerCase() + " " + order.getDirection())
+                .collect(Collectors.joining(", "));
+    }
+}
@@ -0,0 +1,91 @@
+package backend.inventoryservice.repositories;
+
+import backend.inventoryservice.models.entities.SaldoProducto;
+import backend.inventoryservice.models.entities.SnapshotSaldo;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.ANY)
+class SaldoProductoRepositoryTest {
+
+    @Autowired
+    private SaldoProductoRepository saldoProductoRepository;
+
+    @Autowired
+    private SnapshotSaldoRepository snapshotSaldoRepository;
+
+    @Test
+    void testSumarTotales_DadoSaldoExistente_LoActualizaEnLaBase() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 10, 0);
+        saldoProductoRepository.saveAndFlush(new SaldoProducto(1, 5L, 0L, 8L, 3L, 2L, fecha));
+
+        // Act
+        int filas = saldoProductoRepository.addTotals(1, 10L, 4L, 2L, fecha.plusHours(1));
+
+        // Assert
+        SaldoProducto saldo = saldoProductoRepository.findById(1).orElseThrow();
+        assertThat(filas).isEqualTo(1);
+        assertThat(saldo.getStock()).isEqualTo(11L);
+        assertThat(saldo.getEntradas()).isEqualTo(18L);
+        assertThat(saldo.getSalidas()).isEqualTo(7L);
+        assertThat(saldo.getMovimientos()).isEqualTo(4L);
+        assertThat(saldo.getFechaActualizacion()).isEqualTo(fecha.plusHours(1));
+    }
+
+    @Test
+    void testSumarTotales_DadoProductoSinSaldo_NoActualizaFilas() {
+        int filas = saldoProductoRepository.addTotals(2, 10L, 0L, 1L, LocalDateTime.now());
+
+        assertThat(filas).isZero();
+    }
+
+    @Test
+    void testInsertarSiNoExiste_DadoSaldoExistente_NoLoPisa() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 10, 0);
+        saldoProductoRepository.saveAndFlush(new SaldoProducto(1, 5L, 0L, 8L, 3L, 2L, fecha));
+
+        // Act
+        int existente = saldoProductoRepository.insertIfAbsent(1, 40L, fecha);
+        int nuevo = saldoProductoRepository.insertIfAbsent(2, 40L, fecha);
+
+        // Assert
+        assertThat(existente).isZero();
+        assertThat(nuevo).isEqualTo(1);
+        assertThat(saldoProductoRepository.findById(1).orElseThrow().getStock()).isEqualTo(5L);
+        SaldoProducto iniciado = saldoProductoRepository.findById(2).orElseThrow();
+        assertThat(iniciado.getStock()).isEqualTo(40L);
+        assertThat(iniciado.getInicial()).isEqualTo(40L);
+        assertThat(iniciado.getMovimientos()).isZero();
+        assertThat(saldoProductoRepository.findMovimientosByProductoId(1)).isEqualTo(2L);
+    }
+
+    @Test
+    void testSaldosSinCorte_DadoCorteConLaMismaSecuencia_LoExcluye() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 10, 0);
+        saldoProductoRepository.saveAll(List.of(
+                new SaldoProducto(1, 5L, 0L, 8L, 3L, 2L, fecha),
+                new SaldoProducto(2, 7L, 0L, 7L, 0L, 1L, fecha),
+                new SaldoProducto(3, 9L, 9L, 0L, 0L, 0L, fecha)));
+        snapshotSaldoRepository.saveAll(List.of(
+                SnapshotSaldo.builder().productoId(1).fecha(fecha).stock(5L).entradas(8L).salidas(3L).movimientos(2L).build(),
+                SnapshotSaldo.builder().productoId(2).fecha(fecha).stock(0L).entradas(0L).salidas(0L).movimientos(0L).build()));
+
+        // Act
+        List<SaldoProducto> pendientes = saldoProductoRepository.findAllWithoutSnapshot();
+
+        // Assert
+        //el 1 ya tiene corte, el 2 se movio despues del suyo y el 3 no tiene movimientos
+        assertThat(pendientes).extracting(SaldoProducto::getProductoId).containsExactly(2);
+    }
+}
@@ -3,30 +3,36 @@ package backend.inventoryservice.services.impl;
 import backend.dto.request.MovementDtoRequest;
 import backend.dto.response.ProductDtoResponse;
 import backend.exception.UtilException;
+import backend.inventoryservice.client.ProductCache;
 import backend.inventoryservice.client.ProductClient;
 import backend.inventoryservice.exceptions.InventoryException;
 import backend.dto.response.MovementDtoResponse;
 import backend.inventoryservice.models.entities.Movimiento;
 import backend.inventoryservice.models.entities.TipoMovimiento;
 import backend.inventoryservice.repositories.MovimientoRepository;
+import backend.inventoryservice.services.StockLedgerService;
 import backend.pageable.Paginado;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.support.TransactionOperations;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.Mockito.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class MovimientoServiceImplTest {
@@ -40,6 +46,15 @@ class MovimientoServiceImplTest {
     @Mock
     private ProductClient productClient;
 
+    @Spy
+    private ProductCache productCache = new ProductCache(100, 60_000);
+
+    @Mock
+    private StockLedgerService stockLedgerService;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
     @Test
     void testListarMovimientosPorProducto_DadoIdEsMenorIgualZero_RetornaError() {
         // Arrange
@@ -90,6 +105,14 @@ class MovimientoServiceImplTest {
         assertEquals(movimientos.getContent().size(), listMovimientos.size());
     }
 
+    @Test
+    void testListarMovimientosPorCursor_DadoCursorInvalido_RetornaError() {
+        UtilException exception = assertThrows(UtilException.class, () -> service.listByIdProductoByCursor(1, 10, "id", "%%%"));
+
+        assertEquals(UtilException.CURSOR_INVALID, exception.getMessage());
+        verifyNoInteractions(movimientoRepository);
+    }
+
     @Test
     void testRegistrarMovimiento_tipoMovimientoSalidaSinStock_retornaMovimientoException() {
         // Arrange
@@ -102,6 +125,65 @@ class MovimientoServiceImplTest {
         // Assert
     }
 
+    @Test
+    void testRegistrarMovimiento_SalidaConSaldoEnLibro_ValidaContraElLibro() {
+        // Arrange
+        MovementDtoRequest dto = new MovementDtoRequest(1, 10, "SALIDA");
+        Movimiento movimiento = Movimiento.builder().id(1).productoId(1).cantidad(10).tipoMovimiento(TipoMovimiento.SALIDA).build();
+        //el producto en cache dice que no hay stock, pero el libro si tiene
+        when(productClient.getProduct(1)).thenReturn(new ProductDtoResponse(1, "Producto 1", "Descripcion 1", 100.0, true, LocalDate.of(2021, 10, 10), 0));
+        when(stockLedgerService.getBalances(Set.of(1))).thenReturn(Map.of(1, 10L));
+        when(movimientoRepository.save(any(Movimiento.class))).thenReturn(movimiento);
+
+        // Act
+        service.add(dto);
+
+        // Assert
+        verify(productClient).updateStock(1, 10, "SALIDA");
+    }
+
+    @Test
+    void testRegistrarMovimiento_SalidaMayorAlSaldoDelLibro_RetornaError() {
+        MovementDtoRequest dto = new MovementDtoRequest(1, 10, "SALIDA");
+        when(productClient.getProduct(1)).thenReturn(new ProductDtoResponse(1, "Producto 1", "Descripcion 1", 100.0, true, LocalDate.of(2021, 10, 10), 50));
+        when(stockLedgerService.getBalances(Set.of(1))).thenReturn(Map.of(1, 9L));
+
+        InventoryException exception = assertThrows(InventoryException.class, () -> service.add(dto));
+
+        assertEquals(InventoryException.MOVEMENT_WITHOUT_STOCK, exception.getMessage());
+        verify(productClient, never()).updateStock(any(), any(), any());
+    }
+
+    @Test
+    void testRegistrarMovimiento_DadoProductoConsultadoAntes_UsaCache() {
+        // Arrange
+        MovementDtoRequest dto = new MovementDtoRequest(1, 10, "SALIDA");
+        when(productClient.getProduct(1)).thenReturn(new ProductDtoResponse(1, "Producto 1", "Descripcion 1", 100.0, true, LocalDate.of(2021, 10, 10), 0));
+
+        // Act
+        assertThrows(InventoryException.class, () -> service.add(dto));
+        assertThrows(InventoryException.class, () -> service.add(dto));
+
+        // Assert
+        verify(productClient, times(1)).getProduct(1);
+    }
+
+    @Test
+    void testRegistrarMovimiento_DadoStockActualizado_VuelveAConsultarProducto() {
+        // Arrange
+        MovementDtoRequest dto = new MovementDtoRequest(1, 10, "ENTRADA");
+        Movimiento movimiento = Movimiento.builder().id(1).productoId(1).cantidad(10).tipoMovimiento(TipoMovimiento.ENTRADA).build();
+        when(movimientoRepository.save(any(Movimiento.class))).thenReturn(movimiento);
+        when(productClient.getProduct(1)).thenReturn(new ProductDtoResponse(1, "Producto 1", "Descripcion 1", 100.0, true, LocalDate.of(2021, 10, 10), 10));
+
+        // Act
+        service.add(dto);
+        service.add(dto);
+
+        // Assert
+        verify(productClient, times(2)).getProduct(1);
+    }
+
     @Test
     void testRegistrarMovimiento_productoNoExiste_retornaMovimientoException() {
         // Arrange
@@ -146,7 +228,127 @@ class MovimientoServiceImplTest {
         // Assert
         assertNotNull(movementDtoResponse);
         assertEquals(1, movementDtoResponse.id());
+        //el libro numera el movimiento antes de insertarlo
+        InOrder inOrder = inOrder(stockLedgerService, movimientoRepository);
+        inOrder.verify(stockLedgerService).apply(argThat(movimientos -> movimientos.size() == 1));
+        inOrder.verify(movimientoRepository).save(any(Movimiento.class));
+
+    }
 
+    @Test
+    void testRegistrarMovimiento_PrimeraEntradaDeProductoConStock_IniciaElLibroAntesDeActualizarStock() {
+        // Arrange
+        MovementDtoRequest dto = new MovementDtoRequest(1, 10, "ENTRADA");
+        Movimiento movimiento = Movimiento.builder().id(1).productoId(1).cantidad(10).tipoMovimiento(TipoMovimiento.ENTRADA).build();
+        when(productClient.getProduct(1)).thenReturn(new ProductDtoResponse(1, "Producto 1", "Descripcion 1", 100.0, true, LocalDate.of(2021, 10, 10), 15));
+        when(movimientoRepository.save(any(Movimiento.class))).thenReturn(movimiento);
+
+        // Act
+        service.add(dto);
+
+        // Assert
+        //el saldo se inicia con los 15 que ya tenia; la entrada se suma despues en apply
+        InOrder inOrder = inOrder(stockLedgerService, productClient);
+        inOrder.verify(stockLedgerService).getBalances(Set.of(1));
+        inOrder.verify(productClient).updateStock(1, 10, "ENTRADA");
+        inOrder.verify(stockLedgerService).apply(argThat(movimientos -> movimientos.size() == 1));
     }
 
-}
\ No newline at end of file
+    @Test
+    void testRegistrarMovimientosLote_MovimientosValidos_GuardaEnLoteYActualizaStock() {
+        // Arrange
+        List<MovementDtoRequest> dtos = List.of(
+                new MovementDtoRequest(1, 10, "SALIDA"),
+                new MovementDtoRequest(2, 5, "SALIDA"));
+        when(stockLedgerService.getBalances(Set.of(1, 2))).thenReturn(Map.of(1, 10L, 2, 5L));
+
+        // Act
+        service.addAll(dtos);
+
+        // Assert
+        verify(movimientoRepository).saveAllBatch(argThat(movimientos -> movimientos.size() == 2
+                && movimientos.stream().allMatch(movimiento -> movimiento.getFechaRegistro() != null)));
+        verify(productClient).updateStockBatch(dtos);
+        verify(productClient, never()).getProduct(any(Integer.class));
+        verify(stockLedgerService).apply(argThat(movimientos -> movimientos.size() == 2));
+    }
+
+    @Test
+    void testRegistrarMovimientosLote_SalidasSumanMasQueElSaldo_RetornaError() {
+        List<MovementDtoRequest> dtos = List.of(
+                new MovementDtoRequest(1, 6, "SALIDA"),
+                new MovementDtoRequest(1, 5, "SALIDA"));
+        when(stockLedgerService.getBalances(Set.of(1))).thenReturn(Map.of(1, 10L));
+
+        InventoryException exception = assertThrows(InventoryException.class, () -> service.addAll(dtos));
+
+        assertEquals(InventoryException.MOVEMENT_WITHOUT_STOCK, exception.getMessage());
+        verifyNoInteractions(productClient);
+    }
+
+    @Test
+    void testRegistrarMovimientosLote_ProductServiceRechaza_NoGuardaMovimientos() {
+        List<MovementDtoRequest> dtos = List.of(new MovementDtoRequest(1, 10, "SALIDA"));
+        when(stockLedgerService.getBalances(Set.of(1))).thenReturn(Map.of(1, 10L));
+        doThrow(new IllegalStateException("stock insuficiente")).when(productClient).updateStockBatch(dtos);
+
+        assertThrows(IllegalStateException.class, () -> service.addAll(dtos));
+
+        verify(movimientoRepository, never()).saveAllBatch(any());
+        verify(stockLedgerService, never()).apply(any());
+    }
+
+    @Test
+    void testRegistrarMovimientosLote_FallaRegistroLocal_RevierteStock() {
+        List<MovementDtoRequest> dtos = List.of(
+                new MovementDtoRequest(1, 10, "SALIDA"),
+                new MovementDtoRequest(2, 5, "ENTRADA"));
+        when(stockLedgerService.getBalances(Set.of(1, 2))).thenReturn(Map.of(1, 10L, 2, 0L));
+        doThrow(new IllegalStateException("sin conexion")).when(movimientoRepository).saveAllBatch(any());
+
+        assertThrows(IllegalStateException.class, () -> service.addAll(dtos));
+
+        verify(productClient).updateStockBatch(dtos);
+        verify(productClient).updateStockBatch(List.of(
+                new MovementDtoRequest(1, 10, "ENTRADA"),
+                new MovementDtoRequest(2, 5, "SALIDA")));
+    }
+
+    @Test
+    void testRegistrarMovimiento_FallaRegistroLocal_RevierteStock() {
+        MovementDtoRequest dto = new MovementDtoRequest(1, 10, "ENTRADA");
+        when(productClient.getProduct(1)).thenReturn(new ProductDtoResponse(1, "Producto 1", "Descripcion 1", 100.0, true, LocalDate.of(2021, 10, 10), 10));
+        when(movimientoRepository.save(any(Movimiento.class))).thenThrow(new IllegalStateException("sin conexion"));
+
+        assertThrows(IllegalStateException.class, () -> service.add(dto));
+
+        verify(productClient).updateStock(1, 10, "ENTRADA");
+        verify(productClient).updateStockBatch(List.of(new MovementDtoRequest(1, 10, "SALIDA")));
+    }
+
+    @Test
+    void testRegistrarMovimiento_TipoInvalido_NoActualizaStock() {
+        MovementDtoRequest dto = new MovementDtoRequest(1, 10, "TRASPASO");
+
+        assertThrows(IllegalArgumentException.class, () -> service.add(dto));
+
+        verifyNoInteractions(productClient, stockLedgerService);
+    }
+
+    @Test
+    void testRegistrarMovimientosLote_listaVacia_retornaMovimientoException() {
+        InventoryException exception = assertThrows(InventoryException.class, () -> service.addAll(List.of()));
+
+        assertEquals(InventoryException.INVALID_MOVEMENTS, exception.getMessage());
+    }
+
+    @Test
+    void testRegistrarMovimientosLote_cantidadMenorZero_retornaMovimientoException() {
+        List<MovementDtoRequest> dtos = List.of(
+                new MovementDtoRequest(1, 10, "SALIDA"),
+                new MovementDtoRequest(2, -5, "SALIDA"));
+
+        assertThrows(InventoryException.class, () -> service.addAll(dtos));
+        verify(productClient, never()).updateStockBatch(any());
+    }
+}
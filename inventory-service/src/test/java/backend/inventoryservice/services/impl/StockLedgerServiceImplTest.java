@@ -0,0 +1,287 @@
+package backend.inventoryservice.services.impl;
+
+import backend.dto.response.ProductDtoResponse;
+import backend.dto.response.StockDifferenceDtoResponse;
+import backend.dto.response.StockDtoResponse;
+import backend.exception.UtilException;
+import backend.inventoryservice.client.ProductClient;
+import backend.inventoryservice.exceptions.InventoryException;
+import backend.inventoryservice.models.entities.Movimiento;
+import backend.inventoryservice.models.entities.SaldoProducto;
+import backend.inventoryservice.models.entities.SnapshotSaldo;
+import backend.inventoryservice.models.entities.TipoMovimiento;
+import backend.inventoryservice.models.projections.TotalesMovimiento;
+import backend.inventoryservice.repositories.MovimientoRepository;
+import backend.inventoryservice.repositories.SaldoProductoRepository;
+import backend.inventoryservice.repositories.SnapshotSaldoRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionOperations;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class StockLedgerServiceImplTest {
+
+    @Mock
+    private MovimientoRepository movimientoRepository;
+
+    @Mock
+    private SaldoProductoRepository saldoRepository;
+
+    @Mock
+    private SnapshotSaldoRepository snapshotRepository;
+
+    @Mock
+    private ProductClient productClient;
+
+    @Spy
+    private TransactionOperations transactionOperations = TransactionOperations.withoutTransaction();
+
+    @InjectMocks
+    private StockLedgerServiceImpl service;
+
+    @Test
+    void testAplicar_DadosMovimientosDeVariosProductos_SumaUnaVezPorProductoEnOrden() {
+        // Arrange
+        when(saldoRepository.addTotals(anyInt(), anyLong(), anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(1);
+        when(saldoRepository.findMovimientosByProductoId(1)).thenReturn(7L);
+        when(saldoRepository.findMovimientosByProductoId(2)).thenReturn(3L);
+        List<Movimiento> movimientos = List.of(
+                movimiento(2, TipoMovimiento.SALIDA, 3),
+                movimiento(1, TipoMovimiento.ENTRADA, 10),
+                movimiento(1, TipoMovimiento.SALIDA, 4));
+
+        // Act
+        service.apply(movimientos);
+
+        // Assert
+        InOrder inOrder = inOrder(saldoRepository);
+        inOrder.verify(saldoRepository).addTotals(eq(1), eq(10L), eq(4L), eq(2L), any(LocalDateTime.class));
+        inOrder.verify(saldoRepository).addTotals(eq(2), eq(0L), eq(3L), eq(1L), any(LocalDateTime.class));
+        verify(saldoRepository, never()).insertIfAbsent(anyInt(), anyLong(), any(LocalDateTime.class));
+        //la secuencia continua la del saldo, en el orden en que llegaron
+        assertThat(movimientos).extracting(Movimiento::getSecuencia).containsExactly(3L, 6L, 7L);
+    }
+
+    @Test
+    void testAplicar_DadoProductoSinSaldo_CreaElSaldoDesdeElStockPrevioAlMovimiento() {
+        // Arrange
+        when(saldoRepository.addTotals(anyInt(), anyLong(), anyLong(), anyLong(), any(LocalDateTime.class))).thenReturn(0, 1);
+        when(saldoRepository.findMovimientosByProductoId(1)).thenReturn(1L);
+        //product-service ya sumo la entrada: tenia 15 y ahora 25
+        when(productClient.getProducts(List.of(1))).thenReturn(List.of(product(1, 25)));
+        Movimiento movimiento = movimiento(1, TipoMovimiento.ENTRADA, 10);
+
+        // Act
+        service.apply(List.of(movimiento));
+
+        // Assert
+        verify(saldoRepository).insertIfAbsent(eq(1), eq(15L), any(LocalDateTime.class));
+        verify(saldoRepository, times(2)).addTotals(eq(1), eq(10L), eq(0L), eq(1L), any(LocalDateTime.class));
+        assertThat(movimiento.getSecuencia()).isEqualTo(1L);
+    }
+
+    @Test
+    void testObtenerSaldos_DadoProductoSinSaldo_LoIniciaConElStockDeProductService() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.now();
+        when(saldoRepository.findAllById(Set.of(1, 2)))
+                .thenReturn(List.of(new SaldoProducto(1, 8L, 5L, 4L, 1L, 2L, fecha)));
+        when(productClient.getProducts(List.of(2))).thenReturn(List.of(product(2, 15)));
+        when(saldoRepository.findAllById(List.of(2)))
+                .thenReturn(List.of(new SaldoProducto(2, 15L, 15L, 0L, 0L, 0L, fecha)));
+
+        // Act
+        Map<Integer, Long> saldos = service.getBalances(Set.of(1, 2));
+
+        // Assert
+        assertThat(saldos).containsExactlyInAnyOrderEntriesOf(Map.of(1, 8L, 2, 15L));
+        verify(saldoRepository).insertIfAbsent(eq(2), eq(15L), any(LocalDateTime.class));
+    }
+
+    @Test
+    void testObtenerSaldos_DadosProductosConSaldo_NoConsultaProductService() {
+        when(saldoRepository.findAllById(List.of(1)))
+                .thenReturn(List.of(new SaldoProducto(1, 8L, 5L, 4L, 1L, 2L, LocalDateTime.now())));
+
+        Map<Integer, Long> saldos = service.getBalances(List.of(1));
+
+        assertThat(saldos).containsExactlyEntriesOf(Map.of(1, 8L));
+        verifyNoInteractions(productClient);
+    }
+
+    @Test
+    void testObtenerStock_DadoProductoSinSaldo_RetornaCero() {
+        when(saldoRepository.findById(1)).thenReturn(Optional.empty());
+
+        StockDtoResponse stock = service.getStock(1);
+
+        assertThat(stock.stock()).isZero();
+        assertThat(stock.movimientos()).isZero();
+    }
+
+    @Test
+    void testObtenerStock_DadoIdInvalido_RetornaError() {
+        assertThrows(UtilException.class, () -> service.getStock(0));
+        verifyNoInteractions(saldoRepository);
+    }
+
+    @Test
+    void testObtenerStockAFecha_DadoCorteAnterior_SumaSoloMovimientosPosteriores() {
+        // Arrange
+        LocalDateTime corte = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime fecha = corte.plusDays(1);
+        when(snapshotRepository.findFirstByProductoIdAndFechaLessThanEqualOrderByFechaDesc(1, fecha))
+                .thenReturn(Optional.of(snapshot(1, corte, 100L, 20L, 5L, 4L)));
+        when(movimientoRepository.sumByProductoIdAfter(1, 4L, fecha))
+                .thenReturn(Optional.of(new TotalesMovimiento(1, 3L, 6L, 2L)));
+
+        // Act
+        StockDtoResponse stock = service.getStockAt(1, fecha);
+
+        // Assert
+        assertThat(stock).isEqualTo(new StockDtoResponse(1, 97L, 23L, 11L, 6L, fecha.toString()));
+        verify(saldoRepository, never()).findById(anyInt());
+    }
+
+    @Test
+    void testObtenerStockAFecha_DadoProductoSinCorte_SumaDesdeElStockInicial() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(snapshotRepository.findFirstByProductoIdAndFechaLessThanEqualOrderByFechaDesc(1, fecha)).thenReturn(Optional.empty());
+        when(movimientoRepository.sumByProductoIdAfter(1, 0L, fecha)).thenReturn(Optional.of(new TotalesMovimiento(1, 2L, 5L, 2L)));
+        when(saldoRepository.findById(1)).thenReturn(Optional.of(new SaldoProducto(1, 7L, 10L, 2L, 5L, 2L, fecha)));
+
+        // Act
+        StockDtoResponse stock = service.getStockAt(1, fecha);
+
+        // Assert
+        assertThat(stock.stock()).isEqualTo(7L);
+        assertThat(stock.movimientos()).isEqualTo(2L);
+    }
+
+    @Test
+    void testObtenerStockAFecha_DadaFechaNula_RetornaError() {
+        InventoryException exception = assertThrows(InventoryException.class, () -> service.getStockAt(1, null));
+        assertThat(exception.getMessage()).isEqualTo(InventoryException.INVALID_DATE);
+    }
+
+    @Test
+    void testCorte_DadosSaldosSinCorte_LosCopiaConSuSecuencia() {
+        // Arrange
+        LocalDateTime antes = LocalDateTime.now();
+        when(saldoRepository.findAllWithoutSnapshot())
+                .thenReturn(List.of(new SaldoProducto(1, 14L, 4L, 15L, 5L, 6L, antes)));
+
+        // Act
+        service.takeSnapshot();
+
+        // Assert
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SnapshotSaldo>> captor = ArgumentCaptor.forClass(List.class);
+        verify(snapshotRepository).saveAll(captor.capture());
+        assertThat(captor.getValue()).singleElement().satisfies(snapshot -> {
+            assertThat(snapshot.getProductoId()).isEqualTo(1);
+            assertThat(snapshot.getStock()).isEqualTo(14L);
+            assertThat(snapshot.getEntradas()).isEqualTo(15L);
+            assertThat(snapshot.getSalidas()).isEqualTo(5L);
+            assertThat(snapshot.getMovimientos()).isEqualTo(6L);
+            assertThat(snapshot.getFecha()).isAfterOrEqualTo(antes);
+        });
+    }
+
+    @Test
+    void testVerificar_DadosSaldosDescuadrados_RetornaDiferencias() {
+        // Arrange
+        LocalDateTime fecha = LocalDateTime.now();
+        when(movimientoRepository.sumAllByProducto()).thenReturn(List.of(
+                new TotalesMovimiento(1, 10L, 4L, 2L),
+                new TotalesMovimiento(2, 5L, 0L, 1L),
+                new TotalesMovimiento(3, 1L, 0L, 1L)));
+        when(saldoRepository.findAll()).thenReturn(List.of(
+                new SaldoProducto(1, 9L, 3L, 10L, 4L, 2L, fecha),
+                new SaldoProducto(2, 4L, 0L, 4L, 0L, 1L, fecha),
+                new SaldoProducto(4, 2L, 0L, 2L, 0L, 1L, fecha),
+                new SaldoProducto(5, 7L, 7L, 0L, 0L, 0L, fecha)));
+
+        // Act
+        List<StockDifferenceDtoResponse> diferencias = service.check();
+
+        // Assert
+        assertThat(diferencias).containsExactly(
+                new StockDifferenceDtoResponse(2, 5L, 4L, 1L, 1L),
+                new StockDifferenceDtoResponse(3, 1L, 0L, 1L, 0L),
+                new StockDifferenceDtoResponse(4, 0L, 2L, 0L, 1L));
+    }
+
+    @Test
+    void testReconstruir_DadosMovimientos_RecreaSaldosDesdeElStockDeProductService() {
+        // Arrange
+        when(saldoRepository.findAllProductoIds()).thenReturn(List.of(3));
+        when(movimientoRepository.sumAllByProducto()).thenReturn(List.of(
+                new TotalesMovimiento(1, 10L, 4L, 2L),
+                new TotalesMovimiento(2, 5L, 0L, 1L)));
+        when(productClient.getProducts(List.of(1, 2, 3))).thenReturn(List.of(product(1, 20), product(2, 5), product(3, 8)));
+
+        // Act
+        int productos = service.rebuild();
+
+        // Assert
+        assertThat(productos).isEqualTo(3);
+        InOrder inOrder = inOrder(snapshotRepository, saldoRepository, movimientoRepository);
+        inOrder.verify(snapshotRepository).deleteAllInBatch();
+        inOrder.verify(saldoRepository).deleteAllInBatch();
+        inOrder.verify(movimientoRepository).renumberSequences();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<SaldoProducto>> captor = ArgumentCaptor.forClass(List.class);
+        inOrder.verify(saldoRepository).saveAll(captor.capture());
+        //el stock inicial es lo que product-service tiene y los movimientos no explican
+        assertThat(captor.getValue())
+                .extracting(SaldoProducto::getProductoId, SaldoProducto::getInicial, SaldoProducto::getStock)
+                .containsExactly(tuple(1, 14L, 20L), tuple(2, 0L, 5L), tuple(3, 8L, 8L));
+    }
+
+    private Movimiento movimiento(Integer productoId, TipoMovimiento tipo, Integer cantidad) {
+        return Movimiento.builder()
+                .productoId(productoId)
+                .tipoMovimiento(tipo)
+                .cantidad(cantidad)
+                .fechaRegistro(LocalDateTime.now())
+                .build();
+    }
+
+    private ProductDtoResponse product(Integer id, Integer stock) {
+        return new ProductDtoResponse(id, "Producto " + id, "Descripcion " + id, 100.0, true, LocalDate.of(2021, 10, 10), stock);
+    }
+
+    private SnapshotSaldo snapshot(Integer productoId, LocalDateTime fecha, Long stock, Long entradas, Long salidas, Long movimientos) {
+        return SnapshotSaldo.builder()
+                .productoId(productoId)
+                .fecha(fecha)
+                .stock(stock)
+                .entradas(entradas)
+                .salidas(salidas)
+                .movimientos(movimientos)
+                .build();
+    }
+}
@@ -0,0 +1,78 @@
+package backend.productservice.catalog;
+
+import backend.collections.IntObjectMap;
+import backend.dto.event.ProductChangedEvent;
+import backend.dto.response.ProductDtoResponse;
+import backend.productservice.mappers.ProductoMapper;
+import backend.productservice.models.entities.Producto;
+import backend.productservice.repositories.ProductoRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.function.LongSupplier;
+
+//copia en memoria de los productos para las consultas por id que hacen inventory-service y sale-service.
+//se llena al leer de la base (lectura a traves de la cache) y se actualiza con las escrituras confirmadas de esta
+//instancia. los cambios de otra instancia no llegan por evento, por eso cada entrada vence a los
+//product.catalog.ttl-ms y se vuelve a leer de la base
+@Component
+public class ProductCatalog {
+    private final ProductoMapper productoMapper = ProductoMapper.INSTANCE;
+    private final ProductoRepository productoRepository;
+    private final IntObjectMap<Entry> products = new IntObjectMap<>();
+    private final long ttlMillis;
+    private final LongSupplier clock;
+
+    @Autowired
+    public ProductCatalog(ProductoRepository productoRepository,
+                          @Value("${product.catalog.ttl-ms}") long ttlMillis) {
+        this(productoRepository, ttlMillis, System::currentTimeMillis);
+    }
+
+    ProductCatalog(ProductoRepository productoRepository, long ttlMillis, LongSupplier clock) {
+        this.productoRepository = productoRepository;
+        this.ttlMillis = ttlMillis;
+        this.clock = clock;
+    }
+
+    //null si no esta en el catalogo o la entrada vencio; quien llama debe ir a la base y devolverla con put
+    public ProductDtoResponse get(int id) {
+        Entry entry = products.get(id);
+        if (entry == null || clock.getAsLong() - entry.loadedAt() >= ttlMillis) {
+            return null;
+        }
+        return entry.product();
+    }
+
+    //momento en que empieza una lectura de la base; se pasa a put con lo leido
+    public long mark() {
+        return clock.getAsLong();
+    }
+
+    //una lectura que empezo antes de que se recargara el producto pudo ver la fila anterior a la escritura;
+    //no se guarda para no tapar el valor nuevo hasta que venza
+    public synchronized void put(Producto producto, long readAt) {
+        Entry current = products.get(producto.getId());
+        if (current != null && current.loadedAt() >= readAt) {
+            return;
+        }
+        store(producto, readAt);
+    }
+
+    //synchronized con put para que una lectura anterior no pise lo recargado
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        long readAt = clock.getAsLong();
+        productoRepository.findAllById(event.productIds()).forEach(producto -> store(producto, readAt));
+    }
+
+    private void store(Producto producto, long readAt) {
+        products.put(producto.getId(), new Entry(productoMapper.toDto(producto), readAt));
+    }
+
+    private record Entry(ProductDtoResponse product, long loadedAt) {
+    }
+}
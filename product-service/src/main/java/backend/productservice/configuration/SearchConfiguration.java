@@ -0,0 +1,26 @@
+package backend.productservice.configuration;
+
+import backend.productservice.repositories.ProductoRepository;
+import backend.productservice.search.NgramProductSearch;
+import backend.productservice.search.ProductSearch;
+import backend.productservice.search.TrigramProductSearch;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+@Configuration
+public class SearchConfiguration {
+    //por defecto se busca en la base; el indice en memoria es para H2, que no tiene pg_trgm
+    @Bean
+    @ConditionalOnProperty(name = "product.search.backend", havingValue = "trigram", matchIfMissing = true)
+    public ProductSearch trigramProductSearch(JdbcTemplate jdbcTemplate) {
+        return new TrigramProductSearch(jdbcTemplate);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "product.search.backend", havingValue = "ngram")
+    public ProductSearch ngramProductSearch(ProductoRepository productoRepository) {
+        return new NgramProductSearch(productoRepository);
+    }
+}
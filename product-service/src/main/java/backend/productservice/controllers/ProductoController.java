@@ -1,6 +1,8 @@
 package backend.productservice.controllers;
 
+import backend.pageable.CursorPage;
 import backend.pageable.Paginado;
+import backend.dto.request.MovementDtoRequest;
 import backend.dto.request.ProductDtoRequest;
 import backend.dto.response.ProductDtoResponse;
 import backend.productservice.services.ProductService;
@@ -9,11 +11,14 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/api/products")
 @SecurityRequirement(name = "BearerAuth")
@@ -38,15 +43,32 @@ public class ProductoController {
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    @Operation(summary = "Listar productos", description = "Lista todos los productos")
+    @Operation(summary = "Listar productos", description = "Lista todos los productos; con withTotal=false no se calcula el total")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Productos listados")
     })
     @GetMapping()
-    public ResponseEntity<Page<ProductDtoResponse>> list(@RequestParam Integer page,
-                                                         @RequestParam Integer size,
-                                                         @RequestParam String orderBy) {
-        return new ResponseEntity<>(productService.listAll(page, size, orderBy), HttpStatus.OK);
+    public ResponseEntity<Slice<ProductDtoResponse>> list(@RequestParam Integer page,
+                                                          @RequestParam Integer size,
+                                                          @RequestParam String orderBy,
+                                                          @RequestParam(defaultValue = "true") boolean withTotal) {
+        Slice<ProductDtoResponse> productos = withTotal
+                ? productService.listAll(page, size, orderBy)
+                : productService.listAllWithoutTotal(page, size, orderBy);
+        return new ResponseEntity<>(productos, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Listar productos por cursor", description = "Lista productos sin contar el total; se usa el cursor devuelto para pedir la siguiente pagina")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Productos listados"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos")
+    })
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<ProductDtoResponse>> listByCursor(@RequestParam Integer size,
+                                                                       @RequestParam String orderBy,
+                                                                       @RequestParam(required = false) String cursor) {
+        return new ResponseEntity<>(productService.listAllByCursor(size, orderBy, cursor), HttpStatus.OK);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
@@ -62,7 +84,18 @@ public class ProductoController {
     }
 
     @PreAuthorize("hasAnyRole('ADMIN','USER')")
-    @Operation(summary = "Buscar producto por nombre", description = "Busca un producto por su nombre")
+    @Operation(summary = "Buscar productos por ids", description = "Busca varios productos por sus ids en una sola consulta")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Productos encontrados"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos")
+    })
+    @PostMapping("/batch")
+    public ResponseEntity<List<ProductDtoResponse>> getByIds(@RequestBody List<Integer> ids) {
+        return new ResponseEntity<>(productService.getByIds(ids), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN','USER')")
+    @Operation(summary = "Buscar producto por nombre", description = "Busca un producto por su nombre; con orderBy \"relevancia\" ordena por parecido, si no por el campo indicado")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Producto encontrado"),
             @ApiResponse(responseCode = "404", description = "Producto no encontrado")
@@ -95,4 +128,16 @@ public class ProductoController {
         productService.updateStock(idProducto, cantidad, tipoMovimiento);
         return new ResponseEntity<>(HttpStatus.OK);
     }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Actualizar stock en lote", description = "Actualiza el stock de varios productos en una sola transacción")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Stock actualizado"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos")
+    })
+    @PutMapping("/stock/batch")
+    public ResponseEntity<Void> updateStockBatch(@RequestBody List<MovementDtoRequest> movimientos) {
+        productService.updateStockBatch(movimientos);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
 }
@@ -0,0 +1,111 @@
+package backend.productservice.events;
+
+import backend.dto.event.ProductChangedEvent;
+import backend.utils.ApiConstants;
+import jakarta.annotation.PreDestroy;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpHeaders;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.List;
+import java.util.concurrent.*;
+
+//avisa a cada instancia de sale-service que debe descartar los productos cacheados, solo cuando el cambio ya se confirmo
+@Slf4j
+@Component
+public class ProductChangeNotifier {
+    private static final List<String> FORWARDED_HEADERS = List.of(HttpHeaders.AUTHORIZATION, "user", "roles");
+    private static final int MAX_PENDING = 1000;
+
+    private final DiscoveryClient discoveryClient;
+    private final String saleServiceName;
+    private final RestClient restClient;
+    private final Executor executor;
+
+    @Autowired
+    public ProductChangeNotifier(DiscoveryClient discoveryClient,
+                                 RestClient.Builder restClientBuilder,
+                                 @Value("${sale.service.name}") String saleServiceName) {
+        this(discoveryClient, restClientBuilder, saleServiceName, createExecutor());
+    }
+
+    ProductChangeNotifier(DiscoveryClient discoveryClient, RestClient.Builder restClientBuilder, String saleServiceName, Executor executor) {
+        this.discoveryClient = discoveryClient;
+        this.saleServiceName = saleServiceName;
+        this.restClient = restClientBuilder.build();
+        this.executor = executor;
+    }
+
+    //un hilo y una cola acotada: el aviso no bloquea el request y si la cola se llena se descarta,
+    //la entrada igual expira por TTL en sale-service
+    private static ExecutorService createExecutor() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("product-notifier-");
+        threadFactory.setDaemon(true);
+        return new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(MAX_PENDING),
+                threadFactory,
+                (task, pool) -> log.warn("Cola de avisos llena, se descarta un aviso de productos"));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        //una baja de stock no invalida: sale-service solo usa el stock cacheado para rechazar antes
+        //y la reserva en inventario es la validacion definitiva
+        if (event.stockDecreaseOnly()) {
+            return;
+        }
+        //los headers se leen en el hilo del request, el envio ocurre en el del notificador
+        HttpHeaders headers = forwardedHeaders();
+        executor.execute(() -> notifyInstances(event.productIds(), headers));
+    }
+
+    private void notifyInstances(List<Integer> productIds, HttpHeaders headers) {
+        //cada instancia tiene su propia cache, por eso se avisa a todas y no a una balanceada
+        for (ServiceInstance instance : discoveryClient.getInstances(saleServiceName)) {
+            try {
+                restClient.post()
+                        .uri(instance.getUri() + ApiConstants.SALE_BASE + "cache/products/invalidate")
+                        .headers(httpHeaders -> httpHeaders.addAll(headers))
+                        .body(productIds)
+                        .retrieve()
+                        .toBodilessEntity();
+            } catch (RestClientException e) {
+                log.warn("No se pudo notificar a {} el cambio de productos {}: {}", instance.getUri(), productIds, e.getMessage());
+            }
+        }
+    }
+
+    private HttpHeaders forwardedHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        ServletRequestAttributes attributes = (ServletRequestAttributes) RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            HttpServletRequest request = attributes.getRequest();
+            FORWARDED_HEADERS.forEach(name -> {
+                String value = request.getHeader(name);
+                if (value != null) {
+                    headers.set(name, value);
+                }
+            });
+        }
+        return headers;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (executor instanceof ExecutorService executorService) {
+            executorService.shutdown();
+        }
+    }
+}
@@ -7,6 +7,7 @@ public class ProductException extends RuntimeException {
     public static final String AMOUNT_INVALID = "Amount can't be less than or equal to 0";
     public static final String INVALID_STOCK = "Stock can't be less than or equal to 0";
     public static final String PRODUCT_NOT_FOUND = "Product not found";
+    public static final String MOVEMENTS_EMPTY = "Movements can't be empty";
 
     public ProductException(String message) {
         super(message);
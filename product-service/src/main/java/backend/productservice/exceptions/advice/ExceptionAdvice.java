@@ -23,9 +23,12 @@ public class ExceptionAdvice {
             ProductException.AMOUNT_INVALID,
             ProductException.INVALID_STOCK,
             ProductException.PRODUCT_NOT_FOUND,
+            ProductException.MOVEMENTS_EMPTY,
             UtilException.PAGE_NUMBER_INVALID,
             UtilException.SIZE_NUMBER_INVALID,
             UtilException.SORT_NAME_INVALID,
+            UtilException.SORT_DIRECTION_INVALID,
+            UtilException.CURSOR_INVALID,
             UtilException.INVALID_ID_PRODUCT
     );
 
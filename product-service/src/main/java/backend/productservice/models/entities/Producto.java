@@ -1,11 +1,18 @@
 package backend.productservice.models.entities;
 
+import backend.pageable.SortRegistry;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDate;
 
-@Table(name = "productos")
+import static backend.pageable.SortRegistry.field;
+
+@Table(name = "productos", indexes = {
+        @Index(name = "idx_productos_nombre_id", columnList = "nombre, id"),
+        @Index(name = "idx_productos_precio_id", columnList = "precio, id"),
+        @Index(name = "idx_productos_fecha_creacion_id", columnList = "fecha_creacion, id")
+})
 @Entity
 @Setter
 @Getter
@@ -13,6 +20,11 @@ import java.time.LocalDate;
 @NoArgsConstructor
 @Builder
 public class Producto {
+    public static final SortRegistry SORTS = SortRegistry.of(
+            field("id", Integer.class),
+            field("nombre", String.class),
+            field("precio", Double.class),
+            field("fechaCreacion", LocalDate.class));
 
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
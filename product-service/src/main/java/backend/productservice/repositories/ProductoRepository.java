@@ -1,10 +1,37 @@
 package backend.productservice.repositories;
 
 import backend.productservice.models.entities.Producto;
-import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 
 public interface ProductoRepository extends JpaRepository<Producto, Integer> {
-    Page<Producto> findAllByNombreIgnoreCaseContaining(String nombre, Pageable paginado);
+    //paginacion por keyset: filtra por la clave del ultimo elemento en vez de saltar filas y no cuenta el total
+    Window<Producto> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    //trae una fila de mas para saber si hay siguiente pagina, sin ejecutar el COUNT
+    Slice<Producto> findSliceBy(Pageable pageable);
+
+    //ordena por un campo de Producto.SORTS los ids que encontro la busqueda en memoria
+    @Query("SELECT p.id FROM Producto p WHERE p.id IN :ids")
+    List<Integer> findIdsByIdIn(@Param("ids") Collection<Integer> ids, Sort sort);
+
+    //descuenta el stock en una sola sentencia, solo si alcanza; devuelve las filas afectadas
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Producto p SET p.stock = p.stock - :cantidad WHERE p.id = :id AND p.stock >= :cantidad")
+    int decreaseStock(@Param("id") Integer id, @Param("cantidad") Integer cantidad);
+
+    @Modifying(clearAutomatically = true)
+    @Query("UPDATE Producto p SET p.stock = COALESCE(p.stock, 0) + :cantidad WHERE p.id = :id")
+    int increaseStock(@Param("id") Integer id, @Param("cantidad") Integer cantidad);
 }
@@ -0,0 +1,125 @@
+package backend.productservice.search;
+
+import backend.dto.event.ProductChangedEvent;
+import backend.productservice.models.entities.Producto;
+import backend.productservice.repositories.ProductoRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+//indice de trigramas en memoria para bases sin pg_trgm (H2 en pruebas);
+//solo se verifica el "contiene" sobre los productos que tienen todos los trigramas del termino
+public class NgramProductSearch implements ProductSearch {
+    private static final int GRAM = 3;
+
+    private final ProductoRepository productoRepository;
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+    private final Map<String, Set<Integer>> postings = new ConcurrentHashMap<>();
+
+    public NgramProductSearch(ProductoRepository productoRepository) {
+        this.productoRepository = productoRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        productoRepository.findAll().forEach(this::index);
+    }
+
+    //se indexa lo confirmado: si la transaccion se deshace el indice no queda con un nombre que no existe
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onProductChanged(ProductChangedEvent event) {
+        if (event.stockDecreaseOnly()) {
+            return;
+        }
+        productoRepository.findAllById(event.productIds()).forEach(this::index);
+    }
+
+    @Override
+    public Page<Integer> search(String term, Pageable pageable) {
+        String normalized = normalize(term);
+
+        List<Integer> matches = new ArrayList<>();
+        for (Integer id : candidates(normalized)) {
+            String name = names.get(id);
+            if (name != null && name.contains(normalized)) {
+                matches.add(id);
+            }
+        }
+
+        if (pageable.getSort().isSorted()) {
+            //el indice solo tiene nombres; el orden por campo lo resuelve la base sobre los ids encontrados
+            matches = matches.isEmpty() ? matches : productoRepository.findIdsByIdIn(matches, pageable.getSort());
+        } else {
+            matches.sort(Comparator
+                    .comparing((Integer id) -> !names.get(id).startsWith(normalized))
+                    .thenComparingInt(id -> names.get(id).length())
+                    .thenComparing(Comparator.naturalOrder()));
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), matches.size());
+        int to = Math.min(from + pageable.getPageSize(), matches.size());
+        return new PageImpl<>(matches.subList(from, to), pageable, matches.size());
+    }
+
+    public synchronized void index(Producto producto) {
+        if (producto.getId() == null || producto.getNombre() == null) {
+            return;
+        }
+
+        String name = normalize(producto.getNombre());
+        String previous = names.put(producto.getId(), name);
+        if (previous != null) {
+            grams(previous).forEach(gram -> postings.computeIfPresent(gram, (key, ids) -> {
+                ids.remove(producto.getId());
+                return ids.isEmpty() ? null : ids;
+            }));
+        }
+        grams(name).forEach(gram -> postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(producto.getId()));
+    }
+
+    //con menos de tres letras no hay trigramas y se revisan todos los nombres
+    private Collection<Integer> candidates(String term) {
+        Set<String> grams = grams(term);
+        if (grams.isEmpty()) {
+            return names.keySet();
+        }
+
+        Set<Integer> smallest = null;
+        for (String gram : grams) {
+            Set<Integer> ids = postings.get(gram);
+            if (ids == null) {
+                return Set.of();
+            }
+            if (smallest == null || ids.size() < smallest.size()) {
+                smallest = ids;
+            }
+        }
+        return smallest;
+    }
+
+    private static Set<String> grams(String value) {
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + GRAM <= value.length(); i++) {
+            grams.add(value.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value.trim().toLowerCase(Locale.ROOT);
+    }
+}
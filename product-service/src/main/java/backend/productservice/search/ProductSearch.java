@@ -0,0 +1,13 @@
+package backend.productservice.search;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+//busqueda de productos por nombre: devuelve los ids de los productos cuyo nombre contiene el termino;
+//sin orden en el pageable van primero los que empiezan con el termino, luego los mas parecidos y por ultimo por id
+public interface ProductSearch {
+    //orderBy que pide el orden por relevancia en vez de un campo de Producto.SORTS
+    String RELEVANCE = "relevancia";
+
+    Page<Integer> search(String term, Pageable pageable);
+}
@@ -0,0 +1,88 @@
+package backend.productservice.search;
+
+import backend.exception.UtilException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+//busqueda en PostgreSQL con pg_trgm: el indice GIN de trigramas resuelve el ILIKE '%x%' sin recorrer
+//toda la tabla y similarity() ordena por parecido
+@Slf4j
+public class TrigramProductSearch implements ProductSearch {
+    private static final String WHERE = " FROM productos WHERE nombre ILIKE ? ESCAPE '\\'";
+    //columnas de los campos de Producto.SORTS; el orderBy ya viene validado contra ellos
+    private static final Map<String, String> COLUMNS = Map.of(
+            "id", "id",
+            "nombre", "nombre",
+            "precio", "precio",
+            "fechaCreacion", "fecha_creacion");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TrigramProductSearch(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    //se crea al arrancar porque la tabla la genera Hibernate; sin permisos para la extension se busca sin indice
+    @EventListener(ApplicationReadyEvent.class)
+    public void createIndex() {
+        try {
+            jdbcTemplate.execute("CREATE EXTENSION IF NOT EXISTS pg_trgm");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_productos_nombre_trgm ON productos USING gin (nombre gin_trgm_ops)");
+        } catch (DataAccessException e) {
+            log.warn("No se pudo crear el indice de trigramas de productos: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public Page<Integer> search(String term, Pageable pageable) {
+        String escaped = escapeLike(term.trim());
+        String contains = "%" + escaped + "%";
+        String prefix = escaped + "%";
+
+        List<Integer> ids;
+        if (pageable.getSort().isSorted()) {
+            ids = jdbcTemplate.queryForList(
+                    "SELECT id" + WHERE + " ORDER BY " + orderBy(pageable.getSort()) + " LIMIT ? OFFSET ?",
+                    Integer.class,
+                    contains, pageable.getPageSize(), pageable.getOffset());
+        } else {
+            ids = jdbcTemplate.queryForList(
+                    "SELECT id" + WHERE
+                            + " ORDER BY (nombre ILIKE ? ESCAPE '\\') DESC, similarity(nombre, ?) DESC, id"
+                            + " LIMIT ? OFFSET ?",
+                    Integer.class,
+                    contains, prefix, term.trim(), pageable.getPageSize(), pageable.getOffset());
+        }
+
+        //el COUNT solo se ejecuta si la pagina no alcanza para saber el total
+        return PageableExecutionUtils.getPage(ids, pageable,
+                () -> jdbcTemplate.queryForObject("SELECT count(*)" + WHERE, Long.class, contains));
+    }
+
+    private static String orderBy(Sort sort) {
+        return sort.stream()
+                .map(order -> {
+                    String column = COLUMNS.get(order.getProperty());
+                    if (column == null) {
+                        throw new UtilException(UtilException.SORT_NAME_INVALID);
+                    }
+                    return column + (order.isAscending() ? " ASC" : " DESC");
+                })
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+}
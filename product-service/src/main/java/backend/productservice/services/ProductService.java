@@ -1,9 +1,14 @@
 package backend.productservice.services;
 
+import backend.pageable.CursorPage;
 import backend.pageable.Paginado;
+import backend.dto.request.MovementDtoRequest;
 import backend.dto.request.ProductDtoRequest;
 import backend.dto.response.ProductDtoResponse;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+
+import java.util.List;
 
 public interface ProductService {
 
@@ -13,9 +18,17 @@ public interface ProductService {
 
     Page<ProductDtoResponse> listAll(Integer page, Integer size, String orderBy);
 
+    Slice<ProductDtoResponse> listAllWithoutTotal(Integer page, Integer size, String orderBy);
+
+    CursorPage<ProductDtoResponse> listAllByCursor(Integer size, String orderBy, String cursor);
+
     ProductDtoResponse getById(Integer id);
 
+    List<ProductDtoResponse> getByIds(List<Integer> ids);
+
     Page<ProductDtoResponse> listByname(String nombre, Paginado paginado);
 
     void updateStock(Integer idProducto, Integer cantidad, String tipoMovimiento);
+
+    void updateStockBatch(List<MovementDtoRequest> movimientos);
 }
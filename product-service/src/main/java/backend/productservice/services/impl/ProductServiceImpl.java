@@ -1,37 +1,71 @@
 package backend.productservice.services.impl;
 
+import backend.dto.event.ProductChangedEvent;
+import backend.pageable.CountCache;
+import backend.pageable.CursorPage;
 import backend.pageable.Paginado;
+import backend.productservice.catalog.ProductCatalog;
 import backend.productservice.enums.Estado;
 import backend.productservice.enums.TipoMovimiento;
 import backend.productservice.exceptions.ProductException;
 import backend.productservice.mappers.ProductoMapper;
+import backend.dto.request.MovementDtoRequest;
 import backend.dto.request.ProductDtoRequest;
 import backend.dto.response.ProductDtoResponse;
 import backend.productservice.models.entities.Producto;
 import backend.productservice.repositories.ProductoRepository;
+import backend.productservice.search.ProductSearch;
 import backend.productservice.services.ProductService;
 import backend.utils.Utils;
 import jakarta.transaction.Transactional;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.stereotype.Service;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
+import static backend.pageable.PageableUtils.constructLimit;
 import static backend.pageable.PageableUtils.constructPageable;
+import static backend.pageable.PageableUtils.constructScrollPosition;
+import static backend.pageable.PageableUtils.constructSort;
+import static backend.pageable.PageableUtils.toCursorPage;
+import static backend.pageable.PageableUtils.validateCursor;
 import static backend.pageable.PageableUtils.validatePagination;
 
 @Service
 public class ProductServiceImpl implements ProductService {
+    private static final String COUNT_KEY_ALL = "productos";
+
     private final ProductoRepository productoRepository;
     private final ProductoMapper productoMapper = ProductoMapper.INSTANCE;
+    private final ApplicationEventPublisher eventPublisher;
+    private final CountCache countCache;
+    private final ProductSearch productSearch;
+    private final ProductCatalog productCatalog;
 
-    public ProductServiceImpl(ProductoRepository productoRepository) {
+    public ProductServiceImpl(ProductoRepository productoRepository, ApplicationEventPublisher eventPublisher, CountCache countCache, ProductSearch productSearch, ProductCatalog productCatalog) {
         this.productoRepository = productoRepository;
+        this.eventPublisher = eventPublisher;
+        this.countCache = countCache;
+        this.productSearch = productSearch;
+        this.productCatalog = productCatalog;
     }
 
     @Override
@@ -48,28 +82,55 @@ public class ProductServiceImpl implements ProductService {
         producto.setPrecio(dto.precio());
 
         Producto productoGuardado = productoRepository.save(producto);
+        eventPublisher.publishEvent(new ProductChangedEvent(List.of(id), false));
         return productoMapper.toDto(productoGuardado);
     }
 
     @Override
     @Transactional(rollbackOn = Exception.class)
     public void updateStock(Integer idProducto, Integer cantidad, String tipoMovimiento) {
+        applyMovement(idProducto, cantidad, tipoMovimiento);
+        eventPublisher.publishEvent(new ProductChangedEvent(List.of(idProducto), isSalida(tipoMovimiento)));
+    }
+
+    private void applyMovement(Integer idProducto, Integer cantidad, String tipoMovimiento) {
         validateAmount(cantidad);
-        Producto productoEncontrado = productoRepository.findById(idProducto)
-                .orElseThrow(() -> new ProductException(ProductException.PRODUCT_NOT_FOUND));
 
-        final int stock = productoEncontrado.getStock();
-        int stockFinal;
-        if (Objects.equals(tipoMovimiento, TipoMovimiento.SALIDA.name())) {
-            stockFinal = stock - cantidad;
+        int filasActualizadas;
+        if (isSalida(tipoMovimiento)) {
+            filasActualizadas = productoRepository.decreaseStock(idProducto, cantidad);
         } else {
-            stockFinal = stock + cantidad;
+            filasActualizadas = productoRepository.increaseStock(idProducto, cantidad);
+        }
+
+        if (filasActualizadas == 0) {
+            if (!productoRepository.existsById(idProducto)) {
+                throw new ProductException(ProductException.PRODUCT_NOT_FOUND);
+            }
+            throw new ProductException(ProductException.INVALID_STOCK);
+        }
+    }
+
+    @Override
+    @Transactional(rollbackOn = Exception.class)
+    public void updateStockBatch(List<MovementDtoRequest> movimientos) {
+        if (movimientos == null || movimientos.isEmpty()) {
+            throw new ProductException(ProductException.MOVEMENTS_EMPTY);
         }
+        movimientos.forEach(movimiento -> Utils.validateIdProduct(movimiento.productoId()));
+
+        //se ordena por id para que las transacciones concurrentes bloqueen las filas en el mismo orden
+        movimientos.stream()
+                .sorted(Comparator.comparing(MovementDtoRequest::productoId))
+                .forEach(movimiento -> applyMovement(movimiento.productoId(), movimiento.cantidad(), movimiento.tipoMovimiento()));
 
-        validateStock(stockFinal);
-        productoEncontrado.setId(productoEncontrado.getId());
-        productoEncontrado.setStock(stockFinal);
-        productoRepository.save(productoEncontrado);
+        //un solo aviso por lote
+        List<Integer> productIds = movimientos.stream()
+                .map(MovementDtoRequest::productoId)
+                .distinct()
+                .toList();
+        boolean soloSalidas = movimientos.stream().allMatch(movimiento -> isSalida(movimiento.tipoMovimiento()));
+        eventPublisher.publishEvent(new ProductChangedEvent(productIds, soloSalidas));
     }
 
     @Override
@@ -81,13 +142,13 @@ public class ProductServiceImpl implements ProductService {
         producto.setFechaCreacion(LocalDate.now());
         producto.setStock(0);
         Producto productoGuardado = productoRepository.save(producto);
+        countCache.invalidateAll();
+        eventPublisher.publishEvent(new ProductChangedEvent(List.of(productoGuardado.getId()), false));
         return productoMapper.toDto(productoGuardado);
     }
 
-    private void validateStock(Integer stock) {
-        if (Utils.isNotPositive(stock)) {
-            throw new ProductException(ProductException.INVALID_STOCK);
-        }
+    private boolean isSalida(String tipoMovimiento) {
+        return Objects.equals(tipoMovimiento, TipoMovimiento.SALIDA.name());
     }
 
     private void validateAmount(Integer cantidad) {
@@ -130,9 +191,17 @@ public class ProductServiceImpl implements ProductService {
     public Page<ProductDtoResponse> listAll(Integer page, Integer size, String orderBy) {
         Paginado paginado = new Paginado(page, size, orderBy);
         validatePagination(paginado);
-        Pageable pageable = constructPageable(paginado);
+        Pageable pageable = constructPageable(paginado, Producto.SORTS);
+
+        //con el total en cache solo se pide la pagina; si no, la consulta con COUNT lo vuelve a llenar
+        Long total = countCache.get(COUNT_KEY_ALL);
+        if (total != null) {
+            Slice<Producto> productos = productoRepository.findSliceBy(pageable);
+            return new PageImpl<>(productoMapper.toDtoList(productos.getContent()), pageable, total);
+        }
 
         Page<Producto> productos = productoRepository.findAll(pageable);
+        countCache.put(COUNT_KEY_ALL, productos.getTotalElements());
 
         List<ProductDtoResponse> response = productos.getContent().stream()
                 .map(productoMapper::toDto)
@@ -141,36 +210,101 @@ public class ProductServiceImpl implements ProductService {
         return new PageImpl<>(response, pageable, productos.getTotalElements());
     }
 
+    @Override
+    public Slice<ProductDtoResponse> listAllWithoutTotal(Integer page, Integer size, String orderBy) {
+        Paginado paginado = new Paginado(page, size, orderBy);
+        validatePagination(paginado);
+        Pageable pageable = constructPageable(paginado, Producto.SORTS);
+
+        Slice<Producto> productos = productoRepository.findSliceBy(pageable);
+
+        return new SliceImpl<>(productoMapper.toDtoList(productos.getContent()), pageable, productos.hasNext());
+    }
+
+    @Override
+    public CursorPage<ProductDtoResponse> listAllByCursor(Integer size, String orderBy, String cursor) {
+        validateCursor(size, orderBy);
+
+        Sort sort = constructSort(orderBy, Producto.SORTS);
+        Window<Producto> productos = productoRepository.findAllBy(
+                constructScrollPosition(cursor, sort, Producto.SORTS), sort, constructLimit(size));
+
+        return toCursorPage(productos, productoMapper::toDtoList);
+    }
+
     @Override
     public ProductDtoResponse getById(Integer id) {
         Utils.validateIdProduct(id);
 
+        ProductDtoResponse cached = productCatalog.get(id);
+        if (cached != null) {
+            return cached;
+        }
+
+        long readAt = productCatalog.mark();
         Optional<Producto> producto = productoRepository.findById(id);
         if (producto.isEmpty()) {
             return null;
         }
+        productCatalog.put(producto.get(), readAt);
 
         ProductDtoResponse response = productoMapper.toDto(producto.get());
 
         return response;
     }
 
+    @Override
+    public List<ProductDtoResponse> getByIds(List<Integer> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return List.of();
+        }
+        ids.forEach(Utils::validateIdProduct);
+
+        //solo van a la base los que no estan en el catalogo o vencieron
+        List<ProductDtoResponse> response = new ArrayList<>();
+        Set<Integer> faltantes = new HashSet<>();
+        for (Integer id : new HashSet<>(ids)) {
+            ProductDtoResponse cached = productCatalog.get(id);
+            if (cached != null) {
+                response.add(cached);
+            } else {
+                faltantes.add(id);
+            }
+        }
+
+        if (!faltantes.isEmpty()) {
+            long readAt = productCatalog.mark();
+            List<Producto> productos = productoRepository.findAllById(faltantes);
+            productos.forEach(producto -> productCatalog.put(producto, readAt));
+            response.addAll(productoMapper.toDtoList(productos));
+        }
+        return response;
+    }
+
     @Override
     public Page<ProductDtoResponse> listByname(String nombre, Paginado paginado) {
         validatePagination(paginado);
         validateNombre(nombre);
 
-        Pageable pageable = constructPageable(paginado);
+        //con orderBy "relevancia" la busqueda ordena por parecido; cualquier otro se valida y se aplica con el id de desempate
+        Pageable pageable = ProductSearch.RELEVANCE.equals(paginado.orderBy())
+                ? PageRequest.of(paginado.page() - 1, paginado.size())
+                : PageRequest.of(paginado.page() - 1, paginado.size(), constructSort(paginado.orderBy(), Producto.SORTS));
 
-        Page<Producto> productos = productoRepository.findAllByNombreIgnoreCaseContaining(nombre, pageable);
+        Page<Integer> ids = productSearch.search(nombre, pageable);
 
-        if (productos.isEmpty()) {
+        if (ids.isEmpty()) {
             return null;
         }
 
-        List<ProductDtoResponse> response = productos.getContent().stream()
+        Map<Integer, Producto> productos = productoRepository.findAllById(ids.getContent()).stream()
+                .collect(Collectors.toMap(Producto::getId, Function.identity()));
+
+        List<ProductDtoResponse> response = ids.getContent().stream()
+                .map(productos::get)
+                .filter(Objects::nonNull)
                 .map(productoMapper::toDto).toList();
 
-        return new PageImpl<>(response, pageable, productos.getTotalElements());
+        return new PageImpl<>(response, pageable, ids.getTotalElements());
     }
 }
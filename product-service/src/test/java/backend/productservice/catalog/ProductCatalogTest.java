@@ -0,0 +1,106 @@
+package backend.productservice.catalog;
+
+import backend.dto.event.ProductChangedEvent;
+import backend.productservice.models.entities.Producto;
+import backend.productservice.repositories.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProductCatalogTest {
+
+    private static final long TTL = 5_000;
+
+    @Mock
+    private ProductoRepository repository;
+
+    private final AtomicLong now = new AtomicLong(1_000_000);
+
+    private ProductCatalog catalog;
+
+    @BeforeEach
+    void setUp() {
+        catalog = new ProductCatalog(repository, TTL, now::get);
+    }
+
+    @Test
+    void testCambioDeProducto_DadoStockActualizado_RecargaDesdeBD() {
+        // Arrange
+        when(repository.findAllById(List.of(1))).thenReturn(List.of(producto(1, 10)), List.of(producto(1, 4)));
+        catalog.onProductChanged(new ProductChangedEvent(List.of(1), false));
+
+        // Act
+        catalog.onProductChanged(new ProductChangedEvent(List.of(1), false));
+
+        // Assert
+        assertThat(catalog.get(1).stock()).isEqualTo(4);
+    }
+
+    @Test
+    void testObtener_DadaEntradaVencida_RetornaNullParaIrALaBase() {
+        // Arrange
+        catalog.put(producto(1, 10), catalog.mark());
+
+        // Act
+        now.addAndGet(TTL);
+
+        // Assert
+        assertThat(catalog.get(1)).isNull();
+    }
+
+    @Test
+    void testObtener_DadaEntradaVencidaYRecargada_RetornaValorNuevo() {
+        // Arrange
+        catalog.put(producto(1, 10), catalog.mark());
+        now.addAndGet(TTL);
+
+        // Act
+        catalog.put(producto(1, 3), catalog.mark());
+
+        // Assert
+        assertThat(catalog.get(1).stock()).isEqualTo(3);
+    }
+
+    @Test
+    void testGuardar_DadaLecturaAnteriorALaRecarga_NoPisaElValorNuevo() {
+        // Arrange
+        //la lectura empieza antes de confirmar la escritura y ve el stock anterior
+        long readAt = catalog.mark();
+        now.incrementAndGet();
+        when(repository.findAllById(List.of(1))).thenReturn(List.of(producto(1, 4)));
+        catalog.onProductChanged(new ProductChangedEvent(List.of(1), false));
+
+        // Act
+        catalog.put(producto(1, 10), readAt);
+
+        // Assert
+        assertThat(catalog.get(1).stock()).isEqualTo(4);
+    }
+
+    @Test
+    void testGuardar_DadaLecturaEnElMismoMilisegundoQueLaRecarga_NoPisaElValorNuevo() {
+        // Arrange
+        long readAt = catalog.mark();
+        when(repository.findAllById(List.of(1))).thenReturn(List.of(producto(1, 4)));
+        catalog.onProductChanged(new ProductChangedEvent(List.of(1), false));
+
+        // Act
+        catalog.put(producto(1, 10), readAt);
+
+        // Assert
+        assertThat(catalog.get(1).stock()).isEqualTo(4);
+    }
+
+    private static Producto producto(Integer id, Integer stock) {
+        return Producto.builder().id(id).nombre("Producto " + id).precio(10.0).stock(stock).build();
+    }
+}
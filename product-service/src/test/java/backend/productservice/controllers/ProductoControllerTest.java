@@ -1,7 +1,10 @@
 package backend.productservice.controllers;
 
+import backend.dto.request.MovementDtoRequest;
 import backend.dto.request.ProductDtoRequest;
 import backend.dto.response.ProductDtoResponse;
+import backend.exception.UtilException;
+import backend.pageable.CursorPage;
 import backend.pageable.Paginado;
 import backend.productservice.security.TestSecurityConfig;
 import backend.productservice.services.ProductService;
@@ -13,6 +16,7 @@ import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -23,6 +27,8 @@ import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
@@ -72,6 +78,25 @@ class ProductoControllerTest {
                 .andExpect(status().isOk());
     }
 
+    @Test
+    void testActualizarStockLote() throws Exception {
+        // Arrange
+        List<MovementDtoRequest> movimientos = List.of(
+                new MovementDtoRequest(1, 5, "SALIDA"),
+                new MovementDtoRequest(2, 3, "SALIDA"));
+        String json = objectMapper.writeValueAsString(movimientos);
+
+        // Act
+        doNothing().when(service).updateStockBatch(movimientos);
+
+        // Assert
+        mockMvc.perform(put("/api/products/stock/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk());
+        verify(service).updateStockBatch(movimientos);
+    }
+
     @Test
     void testBuscarPorNombre() throws Exception {
         // Arrange
@@ -115,6 +140,25 @@ class ProductoControllerTest {
                 .andExpect(jsonPath("$.estado").value(true));
     }
 
+    @Test
+    void testBuscarPorIds() throws Exception {
+        // Arrange
+        ProductDtoResponse producto1 = new ProductDtoResponse(1, "Producto 1", "Descripcion 1", 100.0, true, LocalDate.now(), 20);
+        ProductDtoResponse producto2 = new ProductDtoResponse(2, "Producto 2", "Descripcion 2", 200.0, true, LocalDate.now(), 20);
+        String json = objectMapper.writeValueAsString(List.of(1, 2));
+
+        // Act
+        when(service.getByIds(List.of(1, 2))).thenReturn(List.of(producto1, producto2));
+
+        // Assert
+        mockMvc.perform(post("/api/products/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(json))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1))
+                .andExpect(jsonPath("$[1].id").value(2));
+    }
+
     @Test
     void testListarProductos() throws Exception {
         // Arrange
@@ -146,6 +190,56 @@ class ProductoControllerTest {
                 .andExpect(jsonPath("$.content[1].estado").value(true));
     }
 
+    @Test
+    void testListarSinTotal_RetornaSliceSinTotal() throws Exception {
+        // Arrange
+        ProductDtoResponse producto = new ProductDtoResponse(1, "Producto 1", "Descripcion 1", 100.0, true, LocalDate.now(), 20);
+        when(service.listAllWithoutTotal(1, 10, "id")).thenReturn(new SliceImpl<>(List.of(producto), PageRequest.of(0, 10), false));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products")
+                        .param("page", "1")
+                        .param("size", "10")
+                        .param("orderBy", "id")
+                        .param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(service, never()).listAll(1, 10, "id");
+    }
+
+    @Test
+    void testListarPorCursor_RetornaPaginaSinTotal() throws Exception {
+        // Arrange
+        ProductDtoResponse producto = new ProductDtoResponse(2, "Producto 2", "Descripcion 2", 200.0, true, LocalDate.now(), 20);
+        when(service.listAllByCursor(1, "id", "abc")).thenReturn(new CursorPage<>(List.of(producto), 1, true, "def"));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products/cursor")
+                        .param("size", "1")
+                        .param("orderBy", "id")
+                        .param("cursor", "abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(2))
+                .andExpect(jsonPath("$.hasNext").value(true))
+                .andExpect(jsonPath("$.nextCursor").value("def"))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+
+    @Test
+    void testListar_DadoDireccionDeOrdenInvalida_Retorna400() throws Exception {
+        // Arrange
+        when(service.listAll(1, 10, "precio,arriba")).thenThrow(new UtilException(UtilException.SORT_DIRECTION_INVALID));
+
+        // Act & Assert
+        mockMvc.perform(get("/api/products")
+                        .param("page", "1")
+                        .param("size", "10")
+                        .param("orderBy", "precio,arriba"))
+                .andExpect(status().isBadRequest());
+    }
+
     // Test methods here
     @Test
     void testAgregarProducto() throws Exception {
@@ -0,0 +1,70 @@
+package backend.productservice.events;
+
+import backend.dto.event.ProductChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.http.HttpMethod;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.RestClient;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.*;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+
+class ProductChangeNotifierTest {
+    private DiscoveryClient discoveryClient;
+    private MockRestServiceServer server;
+    private ProductChangeNotifier notifier;
+
+    @BeforeEach
+    void setUp() {
+        discoveryClient = mock(DiscoveryClient.class);
+        RestClient.Builder builder = RestClient.builder();
+        server = MockRestServiceServer.bindTo(builder).build();
+        notifier = new ProductChangeNotifier(discoveryClient, builder, "sales-service", Runnable::run);
+
+        when(discoveryClient.getInstances("sales-service")).thenReturn(List.of(
+                new DefaultServiceInstance("sales-1", "sales-service", "10.0.0.1", 8080, false),
+                new DefaultServiceInstance("sales-2", "sales-service", "10.0.0.2", 8080, false)));
+    }
+
+    @Test
+    void onProductChanged_DadoCambioDeProducto_AvisaATodasLasInstancias() {
+        server.expect(requestTo("http://10.0.0.1:8080/api/sales/cache/products/invalidate"))
+                .andExpect(method(HttpMethod.POST))
+                .andExpect(content().json("[1,2]"))
+                .andRespond(withSuccess());
+        server.expect(requestTo("http://10.0.0.2:8080/api/sales/cache/products/invalidate"))
+                .andExpect(method(HttpMethod.POST))
+                .andRespond(withSuccess());
+
+        notifier.onProductChanged(new ProductChangedEvent(List.of(1, 2), false));
+
+        server.verify();
+    }
+
+    @Test
+    void onProductChanged_DadoFalloEnUnaInstancia_AvisaALasDemas() {
+        server.expect(requestTo("http://10.0.0.1:8080/api/sales/cache/products/invalidate"))
+                .andRespond(withServerError());
+        server.expect(requestTo("http://10.0.0.2:8080/api/sales/cache/products/invalidate"))
+                .andRespond(withSuccess());
+
+        notifier.onProductChanged(new ProductChangedEvent(List.of(1), false));
+
+        server.verify();
+    }
+
+    @Test
+    void onProductChanged_DadoSoloBajaDeStock_NoAvisa() {
+        notifier.onProductChanged(new ProductChangedEvent(List.of(1), true));
+
+        server.verify();
+        verifyNoInteractions(discoveryClient);
+    }
+}
@@ -1,5 +1,7 @@
 package backend.productservice.repositories;
 
+import backend.pageable.CursorPage;
+import backend.pageable.PageableUtils;
 import backend.productservice.models.entities.Producto;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -8,9 +10,24 @@ import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.domain.Sort;
-
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.*;
@@ -22,6 +39,42 @@ public class ProductoRepositoryTest {
     @Autowired
     private ProductoRepository productoRepository;
 
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testPlanDeConsulta_DadoOrdenPermitido_UsaIndice() {
+        for (String campo : Producto.SORTS.fields()) {
+            for (String direccion : List.of("asc", "desc")) {
+                Sort sort = PageableUtils.constructSort(campo + "," + direccion, Producto.SORTS);
+                String plan = jdbcTemplate.queryForObject(
+                        "EXPLAIN SELECT * FROM productos ORDER BY " + toOrderBy(sort) + " LIMIT 10",
+                        String.class);
+                assertThat(plan).as("orden por %s %s", campo, direccion).contains("/* index sorted */");
+            }
+        }
+
+        //un campo sin indice obliga a ordenar toda la tabla
+        String plan = jdbcTemplate.queryForObject("EXPLAIN SELECT * FROM productos ORDER BY stock DESC, id DESC LIMIT 10", String.class);
+        assertThat(plan).doesNotContain("/* index sorted */");
+    }
+
+    @Test
+    void testFindIdsByIdIn_DadoOrdenPorPrecio_RetornaIdsOrdenados() {
+        Producto caro = productoRepository.save(Producto.builder().nombre("Lapiz caro").descripcion("Caro").precio(30.0).stock(1).build());
+        Producto barato = productoRepository.save(Producto.builder().nombre("Lapiz barato").descripcion("Barato").precio(5.0).stock(1).build());
+        Producto medio = productoRepository.save(Producto.builder().nombre("Lapiz medio").descripcion("Medio").precio(10.0).stock(1).build());
+
+        List<Integer> ids = productoRepository.findIdsByIdIn(
+                List.of(caro.getId(), barato.getId(), medio.getId()),
+                PageableUtils.constructSort("precio,asc", Producto.SORTS));
+
+        assertThat(ids).containsExactly(barato.getId(), medio.getId(), caro.getId());
+    }
+
     @Test
     void testFindAll_ReturnProductos() {
         // Arrange
@@ -50,6 +103,69 @@ public class ProductoRepositoryTest {
         assertThat(productosEncontrados.getContent()).hasSize(2);
     }
 
+    @Test
+    void testListarSinTotal_DadoMasProductos_IndicaSiguientePagina() {
+        // Arrange
+        for (int i = 1; i <= 3; i++) {
+            productoRepository.save(Producto.builder()
+                    .nombre("Producto " + i)
+                    .descripcion("Descripcion " + i)
+                    .precio(100.0 * i)
+                    .build());
+        }
+
+        // Act
+        Slice<Producto> primera = productoRepository.findSliceBy(PageRequest.of(0, 2, Sort.by("id").descending()));
+        Slice<Producto> segunda = productoRepository.findSliceBy(PageRequest.of(1, 2, Sort.by("id").descending()));
+
+        // Assert
+        assertThat(primera.getContent()).hasSize(2);
+        assertTrue(primera.hasNext());
+        assertThat(segunda.getContent()).hasSize(1);
+        assertFalse(segunda.hasNext());
+    }
+
+    @Test
+    void testListarPorCursor_DadoPreciosRepetidos_RecorreTodosSinRepetir() {
+        // Arrange
+        for (int i = 1; i <= 25; i++) {
+            productoRepository.save(Producto.builder()
+                    .nombre("Producto " + i)
+                    .descripcion("Descripcion " + i)
+                    .precio((double) (i % 4) * 10)
+                    .build());
+        }
+
+        // Act
+        List<Producto> recorridos = new ArrayList<>();
+        String cursor = null;
+        int paginas = 0;
+        do {
+            Sort sort = PageableUtils.constructSort("precio", Producto.SORTS);
+            Window<Producto> window = productoRepository.findAllBy(
+                    PageableUtils.constructScrollPosition(cursor, sort, Producto.SORTS),
+                    sort,
+                    PageableUtils.constructLimit(10));
+            CursorPage<Producto> page = PageableUtils.toCursorPage(window, list -> list);
+            recorridos.addAll(page.content());
+            cursor = page.nextCursor();
+            paginas++;
+        } while (cursor != null);
+
+        // Assert
+        assertEquals(3, paginas);
+        assertThat(recorridos).hasSize(25);
+        Set<Integer> ids = new HashSet<>();
+        recorridos.forEach(p -> ids.add(p.getId()));
+        assertThat(ids).hasSize(25);
+        for (int i = 1; i < recorridos.size(); i++) {
+            Producto anterior = recorridos.get(i - 1);
+            Producto actual = recorridos.get(i);
+            assertTrue(anterior.getPrecio() > actual.getPrecio()
+                    || (anterior.getPrecio().equals(actual.getPrecio()) && anterior.getId() > actual.getId()));
+        }
+    }
+
     @Test
     void testActualizarProducto_DadoProductoValido_RetornaProductoActualizado() {
         // Arrange
@@ -78,26 +194,6 @@ public class ProductoRepositoryTest {
         assertEquals(200.0, productoActualizado.getPrecio());
     }
 
-    @Test
-    void testBuscarPorNombre_DadoNombreExistente_RetornaProducto() {
-        // Arrange
-        Producto producto = Producto.builder()
-                .nombre("Producto 1")
-                .descripcion("Descripcion 1")
-                .precio(100.0)
-                .build();
-        Pageable pageable = PageRequest.of(0, 10, Sort.by("id").ascending());
-
-        productoRepository.save(producto);
-
-        // Act
-        Page<Producto> productosEncontrados = productoRepository.findAllByNombreIgnoreCaseContaining("Producto 1", pageable);
-
-        // Assert
-        assertTrue(productosEncontrados.hasContent());
-        assertThat(productosEncontrados.getContent()).hasSize(1);
-    }
-
     @Test
     public void testObtenerPorId_DadoIdExistente_RetornaProducto() {
         // Arrange
@@ -166,4 +262,88 @@ public class ProductoRepositoryTest {
         assertEquals("Descripcion 1", producto.getDescripcion());
         assertEquals(100.0, producto.getPrecio());
     }
-}
\ No newline at end of file
+
+    @Test
+    void testDisminuirStock_DadoStockSuficiente_DescuentaStock() {
+        // Arrange
+        Producto producto = productoRepository.save(Producto.builder()
+                .nombre("Producto 1")
+                .descripcion("Descripcion 1")
+                .precio(100.0)
+                .stock(10)
+                .build());
+
+        // Act
+        int filas = productoRepository.decreaseStock(producto.getId(), 4);
+
+        // Assert
+        assertEquals(1, filas);
+        assertEquals(6, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    void testDisminuirStock_DadoStockInsuficiente_NoActualiza() {
+        // Arrange
+        Producto producto = productoRepository.save(Producto.builder()
+                .nombre("Producto 1")
+                .descripcion("Descripcion 1")
+                .precio(100.0)
+                .stock(3)
+                .build());
+
+        // Act
+        int filas = productoRepository.decreaseStock(producto.getId(), 4);
+
+        // Assert
+        assertEquals(0, filas);
+        assertEquals(3, productoRepository.findById(producto.getId()).orElseThrow().getStock());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void testDisminuirStock_DadoVentasConcurrentes_StockFinalExacto() throws Exception {
+        // Arrange
+        final int stockInicial = 500;
+        final int ventas = 600;
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        Producto producto = productoRepository.save(Producto.builder()
+                .nombre("Producto concurrente")
+                .descripcion("Descripcion concurrente")
+                .precio(100.0)
+                .stock(stockInicial)
+                .build());
+        final Integer id = producto.getId();
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        AtomicInteger aplicadas = new AtomicInteger();
+        List<Future<?>> tareas = new ArrayList<>();
+
+        try {
+            // Act
+            for (int i = 0; i < ventas; i++) {
+                tareas.add(executor.submit(() -> {
+                    Integer filas = transactionTemplate.execute(status -> productoRepository.decreaseStock(id, 1));
+                    if (filas != null && filas == 1) {
+                        aplicadas.incrementAndGet();
+                    }
+                }));
+            }
+            for (Future<?> tarea : tareas) {
+                tarea.get();
+            }
+
+            // Assert
+            assertEquals(stockInicial, aplicadas.get());
+            assertEquals(0, productoRepository.findById(id).orElseThrow().getStock());
+        } finally {
+            executor.shutdown();
+            productoRepository.deleteById(id);
+        }
+    }
+
+    private String toOrderBy(Sort sort) {
+        return sort.stream()
+                .map(order -> order.getProperty().replaceAll("([A-Z])", "_$1").toLowerCase() + " " + order.getDirection())
+                .collect(Collectors.joining(", "));
+    }
+}
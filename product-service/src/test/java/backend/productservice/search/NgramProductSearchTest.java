@@ -0,0 +1,120 @@
+package backend.productservice.search;
+
+import backend.dto.event.ProductChangedEvent;
+import backend.productservice.models.entities.Producto;
+import backend.productservice.repositories.ProductoRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class NgramProductSearchTest {
+
+    @Mock
+    private ProductoRepository repository;
+
+    private NgramProductSearch search;
+
+    @BeforeEach
+    void setUp() {
+        search = new NgramProductSearch(repository);
+        search.index(producto(1, "Cuaderno rayado"));
+        search.index(producto(2, "Portalapiz metalico"));
+        search.index(producto(3, "Lapiz rojo"));
+        search.index(producto(4, "Lapiz"));
+    }
+
+    @Test
+    void testBuscar_DadoTerminoContenido_RetornaPrefijosPrimero() {
+        Page<Integer> ids = search.search("LAPIZ", PageRequest.of(0, 10));
+
+        assertThat(ids.getContent()).containsExactly(4, 3, 2);
+        assertThat(ids.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void testBuscar_DadoTerminoCorto_RevisaTodosLosNombres() {
+        Page<Integer> ids = search.search("ro", PageRequest.of(0, 10));
+
+        assertThat(ids.getContent()).containsExactly(3);
+    }
+
+    @Test
+    void testBuscar_DadoTrigramasEnOtroOrden_NoRetornaFalsosPositivos() {
+        //"rayo" comparte trigramas con "rayado" pero no esta contenido
+        Page<Integer> ids = search.search("rayo", PageRequest.of(0, 10));
+
+        assertThat(ids).isEmpty();
+    }
+
+    @Test
+    void testBuscar_DadoSegundaPagina_RetornaRestoConTotal() {
+        Page<Integer> ids = search.search("lapiz", PageRequest.of(1, 2));
+
+        assertThat(ids.getContent()).containsExactly(2);
+        assertThat(ids.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void testIndexar_DadoNombreActualizado_BuscaPorNombreNuevo() {
+        search.index(producto(4, "Borrador"));
+
+        assertThat(search.search("lapiz", PageRequest.of(0, 10)).getContent()).containsExactly(3, 2);
+        assertThat(search.search("borra", PageRequest.of(0, 10)).getContent()).containsExactly(4);
+    }
+
+    @Test
+    void testCargar_DadoProductosEnBD_LosIndexa() {
+        NgramProductSearch nuevo = new NgramProductSearch(repository);
+        when(repository.findAll()).thenReturn(List.of(producto(7, "Regla 30cm")));
+
+        nuevo.load();
+
+        assertThat(nuevo.search("regla", PageRequest.of(0, 10)).getContent()).containsExactly(7);
+    }
+
+    @Test
+    void testBuscar_DadoOrdenPorCampo_OrdenaEnLaBase() {
+        when(repository.findIdsByIdIn(anyCollection(), eq(Sort.by("precio", "id")))).thenReturn(List.of(2, 3, 4));
+
+        Page<Integer> ids = search.search("lapiz", PageRequest.of(0, 2, Sort.by("precio", "id")));
+
+        assertThat(ids.getContent()).containsExactly(2, 3);
+        assertThat(ids.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void testCambioConfirmado_DadoNombreActualizado_ReindexaDesdeLaBase() {
+        when(repository.findAllById(List.of(4))).thenReturn(List.of(producto(4, "Borrador")));
+
+        search.onProductChanged(new ProductChangedEvent(List.of(4), false));
+
+        assertThat(search.search("borra", PageRequest.of(0, 10)).getContent()).containsExactly(4);
+    }
+
+    @Test
+    void testCambioConfirmado_DadoSoloBajaDeStock_NoConsultaLaBase() {
+        search.onProductChanged(new ProductChangedEvent(List.of(4), true));
+
+        verify(repository, never()).findAllById(any());
+    }
+
+    private static Producto producto(Integer id, String nombre) {
+        return Producto.builder().id(id).nombre(nombre).build();
+    }
+}
@@ -0,0 +1,95 @@
+package backend.productservice.security;
+
+import backend.security.HeaderAuthenticationCache;
+import backend.security.JwtValidator;
+import com.auth0.jwt.JWT;
+import com.auth0.jwt.algorithms.Algorithm;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtFilterTest {
+    private static final String KEY = "clave-de-prueba";
+    private static final String ISSUER = "AUTH0JWT-BACKEND";
+
+    private final JwtFilter filter = new JwtFilter(new JwtValidator(KEY, ISSUER, 100), new HeaderAuthenticationCache(100));
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testFiltrar_DadoTokenValido_AutenticaConClaimsDelToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + crearToken(KEY));
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getName()).isEqualTo("victor");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_ADMIN", "READ");
+    }
+
+    @Test
+    void testFiltrar_DadoTokenInvalido_NoAutenticaAunqueVenganCabeceras() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + crearToken("otra-clave"));
+        request.addHeader("user", "victor");
+        request.addHeader("roles", "ROLE_ADMIN");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    @Test
+    void testFiltrar_DadoSoloCabeceras_AutenticaConCabeceras() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("user", "victor");
+        request.addHeader("roles", "ROLE_USER");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        assertThat(authentication.getName()).isEqualTo("victor");
+        assertThat(authentication.getAuthorities()).extracting(GrantedAuthority::getAuthority)
+                .containsExactly("ROLE_USER");
+    }
+
+    @Test
+    void testFiltrar_DadasCabecerasRepetidas_ReutilizaAuthentication() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("user", "victor");
+        request.addHeader("roles", "ROLE_ADMIN,ROLE_USER");
+
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication primera = SecurityContextHolder.getContext().getAuthentication();
+        SecurityContextHolder.clearContext();
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+        Authentication segunda = SecurityContextHolder.getContext().getAuthentication();
+
+        assertThat(segunda).isSameAs(primera);
+        assertThat(segunda.isAuthenticated()).isTrue();
+    }
+
+    private String crearToken(String key) {
+        return JWT.create()
+                .withSubject("victor")
+                .withIssuer(ISSUER)
+                .withClaim("authorities", "ROLE_ADMIN,READ")
+                .withExpiresAt(new Date(System.currentTimeMillis() + 60_000))
+                .sign(Algorithm.HMAC256(key));
+    }
+}
@@ -1,32 +1,58 @@
 package backend.productservice.services.impl;
 
+import backend.dto.event.ProductChangedEvent;
+import backend.dto.request.MovementDtoRequest;
 import backend.dto.request.ProductDtoRequest;
 import backend.dto.response.ProductDtoResponse;
+import backend.exception.UtilException;
+import backend.pageable.CountCache;
+import backend.pageable.CursorCodec;
+import backend.pageable.CursorPage;
 import backend.pageable.Paginado;
+import backend.productservice.catalog.ProductCatalog;
 import backend.productservice.exceptions.ProductException;
 import backend.productservice.models.entities.Producto;
 import backend.productservice.repositories.ProductoRepository;
+import backend.productservice.search.ProductSearch;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 
 import java.time.LocalDate;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -35,6 +61,18 @@ class ProductServiceImplTest {
     @Mock
     private ProductoRepository repository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private CountCache countCache = new CountCache(100, 60_000);
+
+    @Mock
+    private ProductSearch productSearch;
+
+    @Mock
+    private ProductCatalog productCatalog;
+
     @InjectMocks
     private ProductServiceImpl service;
 
@@ -66,63 +104,88 @@ class ProductServiceImplTest {
         assertEquals("Descripcion 2", productDtoResponse.descripcion());
         assertEquals(200.0, productDtoResponse.precio());
         verify(repository).save(producto);
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(List.of(1), false));
     }
 
     @Test
     void testActualizarStock_dadoDatosCorrectosSalida_RetornaProductoActualizado() {
-        Producto producto = Producto.builder()
-                .id(1)
-                .stock(10)
-                .descripcion("Descripcion 1")
-                .nombre("Producto 1")
-                .estado(true)
-                .fechaCreacion(LocalDate.of(2024, 1, 1))
-                .build();
-
-        when(repository.findById(1)).thenReturn(Optional.of(producto));
+        when(repository.decreaseStock(1, 5)).thenReturn(1);
 
         service.updateStock(1, 5, "SALIDA");
 
-        assertEquals(5, producto.getStock());
-        verify(repository).save(producto);
+        verify(repository).decreaseStock(1, 5);
+        verify(repository, never()).save(any(Producto.class));
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(List.of(1), true));
     }
 
     @Test
     void testActualizarStock_DadoDatosCorrectosEntrada_RetornaProductoActualizado() {
-        Producto producto = Producto.builder()
-                .id(1)
-                .stock(10)
-                .descripcion("Descripcion 1")
-                .nombre("Producto 1")
-                .estado(true)
-                .fechaCreacion(LocalDate.of(2024, 1, 1))
-                .build();
-
-        when(repository.findById(1)).thenReturn(Optional.of(producto));
+        when(repository.increaseStock(1, 30)).thenReturn(1);
 
         service.updateStock(1, 30, "ENTRADA");
 
-        assertEquals(40, producto.getStock());
-        verify(repository).save(producto);
+        verify(repository).increaseStock(1, 30);
+        verify(repository, never()).save(any(Producto.class));
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(List.of(1), false));
     }
 
     @Test
     void testActualizarStock_DadoProductoNoEncontrado_RetornaError() {
-        when(repository.findById(1)).thenReturn(Optional.empty());
+        when(repository.increaseStock(1, 10)).thenReturn(0);
+        when(repository.existsById(1)).thenReturn(false);
 
-        assertThrows(ProductException.class, () -> service.updateStock(1, 10, "ENTRADA"));
+        ProductException exception = assertThrows(ProductException.class, () -> service.updateStock(1, 10, "ENTRADA"));
+        assertEquals(ProductException.PRODUCT_NOT_FOUND, exception.getMessage());
     }
 
     @Test
     void testActualizarStock_DadoStockFinalNegativoSalida_RetornaError() {
-        Producto producto = Producto.builder()
-                .id(1)
-                .stock(10)
-                .build();
+        when(repository.decreaseStock(1, 20)).thenReturn(0);
+        when(repository.existsById(1)).thenReturn(true);
+
+        ProductException exception = assertThrows(ProductException.class, () -> service.updateStock(1, 20, "SALIDA"));
+        assertEquals(ProductException.INVALID_STOCK, exception.getMessage());
+        verify(eventPublisher, never()).publishEvent(any(Object.class));
+    }
+
+    @Test
+    void testActualizarStockLote_DadoMovimientosValidos_ActualizaEnOrdenDeId() {
+        List<MovementDtoRequest> movimientos = List.of(
+                new MovementDtoRequest(3, 2, "SALIDA"),
+                new MovementDtoRequest(1, 5, "SALIDA"),
+                new MovementDtoRequest(2, 7, "ENTRADA"));
+
+        when(repository.decreaseStock(any(Integer.class), any(Integer.class))).thenReturn(1);
+        when(repository.increaseStock(2, 7)).thenReturn(1);
+
+        service.updateStockBatch(movimientos);
+
+        InOrder inOrder = inOrder(repository);
+        inOrder.verify(repository).decreaseStock(1, 5);
+        inOrder.verify(repository).increaseStock(2, 7);
+        inOrder.verify(repository).decreaseStock(3, 2);
+        verify(eventPublisher, times(1)).publishEvent(any(Object.class));
+        verify(eventPublisher).publishEvent(new ProductChangedEvent(List.of(3, 1, 2), false));
+    }
+
+    @Test
+    void testActualizarStockLote_DadoStockInsuficiente_RetornaError() {
+        List<MovementDtoRequest> movimientos = List.of(
+                new MovementDtoRequest(1, 5, "SALIDA"),
+                new MovementDtoRequest(2, 50, "SALIDA"));
+
+        when(repository.decreaseStock(1, 5)).thenReturn(1);
+        when(repository.decreaseStock(2, 50)).thenReturn(0);
+        when(repository.existsById(2)).thenReturn(true);
 
-        when(repository.findById(1)).thenReturn(Optional.of(producto));
+        ProductException exception = assertThrows(ProductException.class, () -> service.updateStockBatch(movimientos));
+        assertEquals(ProductException.INVALID_STOCK, exception.getMessage());
+    }
 
-        assertThrows(ProductException.class, () -> service.updateStock(1, 20, "SALIDA"));
+    @Test
+    void testActualizarStockLote_DadoListaVacia_RetornaError() {
+        ProductException exception = assertThrows(ProductException.class, () -> service.updateStockBatch(List.of()));
+        assertEquals(ProductException.MOVEMENTS_EMPTY, exception.getMessage());
     }
 
     @Test
@@ -135,7 +198,7 @@ class ProductServiceImplTest {
         Paginado paginado = new Paginado(1, 10, "id");
 
         // Arrange
-        when(repository.findAllByNombreIgnoreCaseContaining(any(String.class), any(Pageable.class))).thenReturn(Page.empty());
+        when(productSearch.search(any(String.class), any(Pageable.class))).thenReturn(Page.empty());
 
         // Act
         Page<ProductDtoResponse> producto = service.listByname("Producto 1", paginado);
@@ -163,10 +226,11 @@ class ProductServiceImplTest {
 
         Paginado paginado = new Paginado(1, 10, "id");
 
-        Page<Producto> page = new PageImpl<>(listaProductos, pageable, listaProductos.size());
+        Page<Integer> page = new PageImpl<>(List.of(1), pageable, listaProductos.size());
 
         // Act
-        when(repository.findAllByNombreIgnoreCaseContaining(any(String.class), any(Pageable.class))).thenReturn(page);
+        when(productSearch.search(any(String.class), any(Pageable.class))).thenReturn(page);
+        when(repository.findAllById(List.of(1))).thenReturn(listaProductos);
         Page<ProductDtoResponse> productoDtoResponse = service.listByname("Producto 1", paginado);
 
         // Assert
@@ -175,6 +239,52 @@ class ProductServiceImplTest {
 
     }
 
+    @Test
+    void testBuscarPorNombre_DadoVariosResultados_RespetaOrdenDeRelevancia() {
+        // Arrange
+        Producto lapiz = Producto.builder().id(1).nombre("Portalapiz").precio(10.0).build();
+        Producto lapizRojo = Producto.builder().id(2).nombre("Lapiz rojo").precio(2.0).build();
+        when(productSearch.search(any(String.class), any(Pageable.class))).thenReturn(new PageImpl<>(List.of(2, 1), PageRequest.of(0, 10), 2));
+        when(repository.findAllById(List.of(2, 1))).thenReturn(List.of(lapiz, lapizRojo));
+
+        // Act
+        Page<ProductDtoResponse> productos = service.listByname("lapiz", new Paginado(1, 10, ProductSearch.RELEVANCE));
+
+        // Assert
+        assertThat(productos.getContent()).extracting(ProductDtoResponse::id).containsExactly(2, 1);
+        verify(productSearch).search("lapiz", PageRequest.of(0, 10));
+    }
+
+    @Test
+    void testBuscarPorNombre_DadoOrderByDeCampo_OrdenaPorEseCampoConDesempatePorId() {
+        when(productSearch.search(any(String.class), any(Pageable.class))).thenReturn(Page.empty());
+
+        service.listByname("lapiz", new Paginado(2, 5, "precio,asc"));
+
+        verify(productSearch).search("lapiz", PageRequest.of(1, 5, Sort.by(Sort.Direction.ASC, "precio", "id")));
+    }
+
+    @Test
+    void testBuscarPorNombre_DadoOrderByNoPermitido_RetornaError() {
+        UtilException exception = assertThrows(UtilException.class, () -> service.listByname("lapiz", new Paginado(1, 10, "stock")));
+
+        assertEquals(UtilException.SORT_NAME_INVALID, exception.getMessage());
+        verifyNoInteractions(productSearch);
+    }
+
+    @Test
+    void testAgregarProducto_DadoParametrosValidos_AvisaParaIndexarDespuesDelCommit() {
+        // Arrange
+        when(repository.save(any(Producto.class))).thenAnswer(invocation -> guardarConId(invocation.getArgument(0)));
+
+        // Act
+        service.add(new ProductDtoRequest("Producto 1", "Descripcion 1", 100.0));
+
+        // Assert
+        verify(eventPublisher).publishEvent(any(ProductChangedEvent.class));
+        verifyNoInteractions(productSearch);
+    }
+
     @Test
     void testBuscarPorId_ProductoExiste_RetornaProducto() {
         // Arrange
@@ -195,6 +305,7 @@ class ProductServiceImplTest {
         assertThat(productDtoResponse.nombre()).isEqualTo("Producto 1");
         assertThat(productDtoResponse.descripcion()).isEqualTo("Descripcion 1");
         assertThat(productDtoResponse.precio()).isEqualTo(100.0);
+        verify(productCatalog).put(eq(producto), anyLong());
     }
 
     @Test
@@ -209,6 +320,242 @@ class ProductServiceImplTest {
         assertThat(producto).isNull();
     }
 
+    @Test
+    void testBuscarPorIds_ProductosExisten_RetornaProductos() {
+        // Arrange
+        Producto producto1 = Producto.builder()
+                .id(1)
+                .nombre("Producto 1")
+                .descripcion("Descripcion 1")
+                .precio(100.0)
+                .build();
+        Producto producto2 = Producto.builder()
+                .id(2)
+                .nombre("Producto 2")
+                .descripcion("Descripcion 2")
+                .precio(200.0)
+                .build();
+
+        // Act
+        when(repository.findAllById(any())).thenReturn(List.of(producto1, producto2));
+        List<ProductDtoResponse> productos = service.getByIds(List.of(1, 2));
+
+        // Assert
+        assertThat(productos).hasSize(2);
+        verify(repository).findAllById(Set.of(1, 2));
+        verify(productCatalog).put(eq(producto1), anyLong());
+        verify(productCatalog).put(eq(producto2), anyLong());
+    }
+
+    @Test
+    void testBuscarPorId_DadoProductoEnCatalogo_NoConsultaBD() {
+        // Arrange
+        ProductDtoResponse enCatalogo = new ProductDtoResponse(1, "Producto 1", "Descripcion 1", 100.0, true, LocalDate.of(2024, 1, 1), 20);
+        when(productCatalog.get(1)).thenReturn(enCatalogo);
+
+        // Act
+        ProductDtoResponse producto = service.getById(1);
+
+        // Assert
+        assertThat(producto).isSameAs(enCatalogo);
+        verify(repository, never()).findById(any());
+    }
+
+    @Test
+    void testBuscarPorIds_DadoAlgunosEnCatalogo_SoloConsultaFaltantes() {
+        // Arrange
+        ProductDtoResponse enCatalogo = new ProductDtoResponse(1, "Producto 1", "Descripcion 1", 100.0, true, LocalDate.of(2024, 1, 1), 20);
+        Producto producto2 = Producto.builder().id(2).nombre("Producto 2").precio(200.0).build();
+        when(productCatalog.get(1)).thenReturn(enCatalogo);
+        when(repository.findAllById(Set.of(2))).thenReturn(List.of(producto2));
+
+        // Act
+        List<ProductDtoResponse> productos = service.getByIds(List.of(1, 2, 1));
+
+        // Assert
+        assertThat(productos).extracting(ProductDtoResponse::id).containsExactlyInAnyOrder(1, 2);
+        verify(repository).findAllById(Set.of(2));
+    }
+
+    @Test
+    void testBuscarPorIds_DadoTodosEnCatalogo_NoConsultaBD() {
+        // Arrange
+        when(productCatalog.get(any(Integer.class))).thenAnswer(invocation -> new ProductDtoResponse(
+                invocation.getArgument(0), "Producto", "Descripcion", 10.0, true, LocalDate.of(2024, 1, 1), 5));
+
+        // Act
+        List<ProductDtoResponse> productos = service.getByIds(List.of(1, 2));
+
+        // Assert
+        assertThat(productos).hasSize(2);
+        verify(repository, never()).findAllById(any());
+    }
+
+    @Test
+    void testBuscarPorIds_DadoIdInvalido_RetornaError() {
+        assertThrows(UtilException.class, () -> service.getByIds(List.of(1, 0)));
+    }
+
+    @Test
+    void testBuscarPorIds_DadoListaVacia_RetornaListaVacia() {
+        // Act
+        List<ProductDtoResponse> productos = service.getByIds(List.of());
+
+        // Assert
+        assertThat(productos).isEmpty();
+        verify(repository, never()).findAllById(any());
+    }
+
+    @Test
+    void testListarPorCursor_DadoMasResultados_RetornaCursorSinContarTotal() {
+        // Arrange
+        Producto producto1 = Producto.builder().id(2).nombre("Producto 2").precio(200.0).build();
+        Producto producto2 = Producto.builder().id(1).nombre("Producto 1").precio(100.0).build();
+        List<Producto> listaProductos = List.of(producto1, producto2);
+        Window<Producto> window = Window.from(listaProductos,
+                i -> ScrollPosition.forward(Map.of("id", listaProductos.get(i).getId())), true);
+
+        when(repository.findAllBy(any(ScrollPosition.class), any(), any())).thenReturn(window);
+
+        // Act
+        CursorPage<ProductDtoResponse> productos = service.listAllByCursor(2, "id", null);
+
+        // Assert
+        assertThat(productos.content()).hasSize(2);
+        assertThat(productos.hasNext()).isTrue();
+        assertEquals(Map.of("id", 1), CursorCodec.decode(productos.nextCursor()));
+        verify(repository, never()).count();
+        verify(repository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void testListarPorCursor_DadoCursorInvalido_RetornaError() {
+        UtilException exception = assertThrows(UtilException.class, () -> service.listAllByCursor(10, "id", "no-es-un-cursor"));
+
+        assertEquals(UtilException.CURSOR_INVALID, exception.getMessage());
+        verify(repository, never()).findAllBy(any(ScrollPosition.class), any(), any());
+    }
+
+    @Test
+    void testListarPorCursor_DadoCursorDeOtroOrden_RetornaError() {
+        Map<String, Object> claves = new LinkedHashMap<>();
+        claves.put("nombre", "Producto 1");
+        claves.put("id", 1);
+        String cursor = CursorCodec.encode(claves);
+
+        UtilException exception = assertThrows(UtilException.class, () -> service.listAllByCursor(10, "precio", cursor));
+
+        assertEquals(UtilException.CURSOR_INVALID, exception.getMessage());
+        verify(repository, never()).findAllBy(any(ScrollPosition.class), any(), any());
+    }
+
+    @Test
+    void testListarPorCursor_DadoClaveConOtroTipo_RetornaError() {
+        Map<String, Object> claves = new LinkedHashMap<>();
+        claves.put("precio", "caro");
+        claves.put("id", 1);
+        String cursor = CursorCodec.encode(claves);
+
+        UtilException exception = assertThrows(UtilException.class, () -> service.listAllByCursor(10, "precio", cursor));
+
+        assertEquals(UtilException.CURSOR_INVALID, exception.getMessage());
+    }
+
+    @Test
+    void testListarPorCursor_DadoCursorDelMismoOrden_ConsultaDesdeElCursor() {
+        Map<String, Object> claves = new LinkedHashMap<>();
+        claves.put("precio", 100.0);
+        claves.put("id", 1);
+        when(repository.findAllBy(any(ScrollPosition.class), any(), any())).thenReturn(Window.from(List.of(), ScrollPosition::offset));
+
+        service.listAllByCursor(10, "precio", CursorCodec.encode(claves));
+
+        verify(repository).findAllBy(eq(ScrollPosition.forward(claves)), any(), any());
+    }
+
+    @Test
+    void testListar_DadoTotalEnCache_NoVuelveAContar() {
+        // Arrange
+        Producto producto = Producto.builder().id(1).nombre("Producto 1").precio(100.0).build();
+        when(repository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(producto), PageRequest.of(0, 1), 30));
+        when(repository.findSliceBy(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(producto), PageRequest.of(1, 1), true));
+
+        // Act
+        Page<ProductDtoResponse> primera = service.listAll(1, 1, "id");
+        Page<ProductDtoResponse> segunda = service.listAll(2, 1, "id");
+
+        // Assert
+        assertThat(primera.getTotalElements()).isEqualTo(30);
+        assertThat(segunda.getTotalElements()).isEqualTo(30);
+        assertThat(segunda.getNumber()).isEqualTo(1);
+        verify(repository, times(1)).findAll(any(Pageable.class));
+        verify(repository, times(1)).findSliceBy(any(Pageable.class));
+    }
+
+    @Test
+    void testListar_DadoProductoAgregado_VuelveAContar() {
+        // Arrange
+        when(repository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+        when(repository.save(any(Producto.class))).thenAnswer(invocation -> guardarConId(invocation.getArgument(0)));
+        service.listAll(1, 10, "id");
+
+        // Act
+        service.add(new ProductDtoRequest("Producto 1", "Descripcion 1", 100.0));
+        service.listAll(1, 10, "id");
+
+        // Assert
+        verify(repository, times(2)).findAll(any(Pageable.class));
+        verify(repository, never()).findSliceBy(any(Pageable.class));
+    }
+
+    @Test
+    void testListarSinTotal_NoEjecutaCount() {
+        // Arrange
+        Producto producto = Producto.builder().id(1).nombre("Producto 1").precio(100.0).build();
+        when(repository.findSliceBy(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(producto), PageRequest.of(0, 1), true));
+
+        // Act
+        Slice<ProductDtoResponse> productos = service.listAllWithoutTotal(1, 1, "id");
+
+        // Assert
+        assertThat(productos.getContent()).hasSize(1);
+        assertThat(productos.hasNext()).isTrue();
+        assertThat(productos).isNotInstanceOf(Page.class);
+        verify(repository, never()).findAll(any(Pageable.class));
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void testListar_DadoOrdenNoPermitido_RetornaErrorSinConsultar() {
+        UtilException exception = assertThrows(UtilException.class, () -> service.listAll(1, 10, "descripcion"));
+
+        assertEquals(UtilException.SORT_NAME_INVALID, exception.getMessage());
+        verify(repository, never()).findAll(any(Pageable.class));
+        verify(repository, never()).findSliceBy(any(Pageable.class));
+    }
+
+    @Test
+    void testListar_DadoDireccionInvalida_RetornaError() {
+        UtilException exception = assertThrows(UtilException.class, () -> service.listAll(1, 10, "precio,arriba"));
+
+        assertEquals(UtilException.SORT_DIRECTION_INVALID, exception.getMessage());
+        verify(repository, never()).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void testListar_DadoOrdenAscendente_OrdenaAscendente() {
+        // Arrange
+        when(repository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+
+        // Act
+        service.listAll(1, 10, "precio,asc");
+
+        // Assert
+        ArgumentCaptor<Pageable> captor = ArgumentCaptor.forClass(Pageable.class);
+        verify(repository).findAll(captor.capture());
+        assertThat(captor.getValue().getSort()).isEqualTo(Sort.by(Sort.Direction.ASC, "precio"));
+    }
+
     @Test
     void testListar_SinProductosEnBD_RetornaListaVacia() {
         // Arrange
@@ -314,4 +661,9 @@ class ProductServiceImplTest {
         assertThat(productDtoResponse.descripcion()).isEqualTo("Descripcion 1");
         assertThat(productDtoResponse.precio()).isEqualTo(100.0);
     }
-}
\ No newline at end of file
+
+    private static Producto guardarConId(Producto producto) {
+        producto.setId(1);
+        return producto;
+    }
+}
@@ -0,0 +1,71 @@
+package backend.saleservice.client;
+
+import backend.collections.IntCache;
+import backend.dto.response.ClientDtoResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+//cache local de clientes delante de ClientFeign para recorridos largos de ventas, donde los mismos clientes se repiten
+@Component
+public class ClientCache {
+    private final IntCache<ClientDtoResponse> entries;
+
+    @Autowired
+    public ClientCache(@Value("${sale.client-cache.max-size}") int maxSize,
+                       @Value("${sale.client-cache.ttl-ms}") long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    ClientCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.entries = new IntCache<>(maxSize, ttlMillis, clock);
+    }
+
+    //devuelve los clientes pedidos; los que no estan se cargan juntos con una sola llamada
+    public Map<Integer, ClientDtoResponse> getAll(Collection<Integer> ids, Function<List<Long>, List<ClientDtoResponse>> loader) {
+        Map<Integer, ClientDtoResponse> found = getPresent(ids);
+        List<Long> missing = getMissing(ids, found);
+
+        if (!missing.isEmpty()) {
+            found.putAll(putAll(loader.apply(missing)));
+        }
+        return found;
+    }
+
+    //solo los que estan en cache, sin cargar; para quien carga los faltantes sin bloquear
+    public Map<Integer, ClientDtoResponse> getPresent(Collection<Integer> ids) {
+        Map<Integer, ClientDtoResponse> found = new HashMap<>();
+        for (Integer id : ids) {
+            ClientDtoResponse client = entries.get(id);
+            if (client != null) {
+                found.put(id, client);
+            }
+        }
+        return found;
+    }
+
+    public List<Long> getMissing(Collection<Integer> ids, Map<Integer, ClientDtoResponse> found) {
+        List<Long> missing = new ArrayList<>();
+        for (Integer id : ids) {
+            if (!found.containsKey(id)) {
+                missing.add(id.longValue());
+            }
+        }
+        return missing;
+    }
+
+    public Map<Integer, ClientDtoResponse> putAll(List<ClientDtoResponse> clients) {
+        Map<Integer, ClientDtoResponse> loaded = new HashMap<>();
+        if (clients != null) {
+            for (ClientDtoResponse client : clients) {
+                entries.put(client.id().intValue(), client);
+                loaded.put(client.id().intValue(), client);
+            }
+        }
+        return loaded;
+    }
+}
@@ -5,9 +5,16 @@ import backend.utils.ApiConstants;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @FeignClient(name = "${client.service.name}")
 public interface ClientFeign {
     @GetMapping(ApiConstants.CLIENT_BASE + "{id}")
     ClientDtoResponse getClient(@PathVariable Long id);
+
+    @PostMapping(ApiConstants.CLIENT_BASE + "batch")
+    List<ClientDtoResponse> getClients(@RequestBody List<Long> ids);
 }
@@ -0,0 +1,63 @@
+package backend.saleservice.client;
+
+import backend.dto.response.ClientDtoResponse;
+import backend.saleservice.exceptions.SaleException;
+import backend.utils.ApiConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+//equivalente no bloqueante de ClientFeign para la lectura reactiva; el token se pasa explicito porque
+//la llamada no corre en el hilo del request y no hay RequestContextHolder del que leerlo
+@Component
+@ConditionalOnProperty(name = "sale.read.backend", havingValue = "reactive")
+public class ClientWebClient {
+    private static final ParameterizedTypeReference<List<ClientDtoResponse>> CLIENTS = new ParameterizedTypeReference<>() {
+    };
+
+    private final WebClient webClient;
+    private final Duration timeout;
+
+    public ClientWebClient(WebClient.Builder webClientBuilder,
+                           @Value("${client.service.name}") String serviceName,
+                           @Value("${sale.remote.timeout-ms}") long timeoutMillis) {
+        this.webClient = webClientBuilder.baseUrl("http://" + serviceName).build();
+        this.timeout = Duration.ofMillis(timeoutMillis);
+    }
+
+    public Mono<ClientDtoResponse> getClient(Long id, String authorization) {
+        return webClient.get()
+                .uri(ApiConstants.CLIENT_BASE + "{id}", id)
+                .headers(headers -> setAuthorization(headers, authorization))
+                .retrieve()
+                .bodyToMono(ClientDtoResponse.class)
+                .timeout(timeout)
+                .onErrorMap(TimeoutException.class, e -> new SaleException(SaleException.REMOTE_CALL_TIMEOUT));
+    }
+
+    public Mono<List<ClientDtoResponse>> getClients(List<Long> ids, String authorization) {
+        return webClient.post()
+                .uri(ApiConstants.CLIENT_BASE + "batch")
+                .headers(headers -> setAuthorization(headers, authorization))
+                .bodyValue(ids)
+                .retrieve()
+                .bodyToMono(CLIENTS)
+                .defaultIfEmpty(List.of())
+                .timeout(timeout)
+                .onErrorMap(TimeoutException.class, e -> new SaleException(SaleException.REMOTE_CALL_TIMEOUT));
+    }
+
+    private void setAuthorization(HttpHeaders headers, String authorization) {
+        if (authorization != null) {
+            headers.set(HttpHeaders.AUTHORIZATION, authorization);
+        }
+    }
+}
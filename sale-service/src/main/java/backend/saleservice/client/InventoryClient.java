@@ -5,9 +5,15 @@ import backend.utils.ApiConstants;
 import backend.dto.request.MovementDtoRequest;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @FeignClient(name = "${inventory.service.name}")
 public interface InventoryClient {
     @PostMapping(ApiConstants.INVENTORY_BASE)
     MovementDtoResponse createMovimientoDto(MovementDtoRequest movimientoDtoRequest);
+
+    @PostMapping(ApiConstants.INVENTORY_BASE + "batch")
+    void createMovimientos(@RequestBody List<MovementDtoRequest> movimientos);
 }
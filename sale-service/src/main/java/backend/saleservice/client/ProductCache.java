@@ -0,0 +1,82 @@
+package backend.saleservice.client;
+
+import backend.collections.IntCache;
+import backend.collections.IntObjectMap;
+import backend.dto.response.ProductDtoResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+//cache local de productos delante de ProductClient, acotada por tamaño y por tiempo de vida;
+//las claves se guardan como int para no crear Integer ni nodos en cada consulta
+@Component
+public class ProductCache {
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    private final IntCache<ProductDtoResponse> entries;
+
+    @Autowired
+    public ProductCache(@Value("${sale.product-cache.max-size}") int maxSize,
+                        @Value("${sale.product-cache.ttl-ms}") long ttlMillis) {
+        this(maxSize, ttlMillis, System::currentTimeMillis);
+    }
+
+    ProductCache(int maxSize, long ttlMillis, LongSupplier clock) {
+        this.entries = new IntCache<>(maxSize, ttlMillis, clock);
+    }
+
+    //devuelve los productos pedidos; los que no estan o ya vencieron se cargan juntos con una sola llamada.
+    //solo se convierten a Integer los ids que van al loader
+    public IntObjectMap<ProductDtoResponse> getAll(int[] ids, Function<List<Integer>, List<ProductDtoResponse>> loader) {
+        IntObjectMap<ProductDtoResponse> found = new IntObjectMap<>(ids.length);
+        int[] missing = new int[ids.length];
+        int missingCount = 0;
+
+        for (int id : ids) {
+            ProductDtoResponse product = entries.get(id);
+            if (product != null) {
+                found.put(id, product);
+            } else {
+                missing[missingCount++] = id;
+            }
+        }
+        hits.add(ids.length - missingCount);
+        misses.add(missingCount);
+
+        if (missingCount > 0) {
+            Integer[] boxed = new Integer[missingCount];
+            for (int i = 0; i < missingCount; i++) {
+                boxed[i] = missing[i];
+            }
+            List<ProductDtoResponse> loaded = loader.apply(Arrays.asList(boxed));
+            if (loaded != null) {
+                for (ProductDtoResponse product : loaded) {
+                    entries.put(product.id(), product);
+                    found.put(product.id(), product);
+                }
+            }
+        }
+        return found;
+    }
+
+    public void invalidate(Collection<Integer> ids) {
+        ids.forEach(entries::invalidate);
+    }
+
+    public void invalidateAll() {
+        entries.invalidateAll();
+    }
+
+    public Stats stats() {
+        return new Stats(hits.sum(), misses.sum(), entries.evictions(), entries.size());
+    }
+
+    public record Stats(long hits, long misses, long evictions, int size) {
+    }
+}
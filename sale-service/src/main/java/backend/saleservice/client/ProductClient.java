@@ -5,9 +5,16 @@ import backend.utils.ApiConstants;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+
+import java.util.List;
 
 @FeignClient(name = "${product.service.name}")
 public interface ProductClient {
     @GetMapping(ApiConstants.PRODUCT_BASE + "{id}")
     ProductDtoResponse getProduct(@PathVariable Integer id);
+
+    @PostMapping(ApiConstants.PRODUCT_BASE + "batch")
+    List<ProductDtoResponse> getProducts(@RequestBody List<Integer> ids);
 }
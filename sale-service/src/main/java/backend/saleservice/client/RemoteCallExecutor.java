@@ -0,0 +1,69 @@
+package backend.saleservice.client;
+
+import backend.saleservice.exceptions.SaleException;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.*;
+import java.util.function.Supplier;
+
+//ejecuta llamadas remotas en paralelo con un limite de concurrencia y un timeout por llamada
+//orTimeout no corta la llamada en curso; los timeouts de Feign usan el mismo sale.remote.timeout-ms para liberar el hilo
+@Component
+public class RemoteCallExecutor {
+    private final ExecutorService executor;
+    private final long timeoutMillis;
+
+    public RemoteCallExecutor(@Value("${sale.remote.max-concurrency}") int maxConcurrency,
+                              @Value("${sale.remote.timeout-ms}") long timeoutMillis) {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("sale-remote-");
+        threadFactory.setDaemon(true);
+
+        //si el pool y la cola estan llenos la llamada se ejecuta en el hilo que la pide
+        this.executor = new ThreadPoolExecutor(maxConcurrency, maxConcurrency,
+                60L, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(maxConcurrency * 4),
+                threadFactory,
+                new ThreadPoolExecutor.CallerRunsPolicy());
+        this.timeoutMillis = timeoutMillis;
+    }
+
+    public <T> CompletableFuture<T> submit(Supplier<T> call) {
+        //el interceptor de Feign lee el token del request actual, por eso se propaga al hilo del pool
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+
+        return CompletableFuture.supplyAsync(() -> {
+            RequestAttributes previous = RequestContextHolder.getRequestAttributes();
+            RequestContextHolder.setRequestAttributes(attributes);
+            try {
+                return call.get();
+            } finally {
+                RequestContextHolder.setRequestAttributes(previous);
+            }
+        }, executor).orTimeout(timeoutMillis, TimeUnit.MILLISECONDS);
+    }
+
+    public <T> T join(CompletableFuture<T> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof TimeoutException) {
+                throw new SaleException(SaleException.REMOTE_CALL_TIMEOUT);
+            }
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw e;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
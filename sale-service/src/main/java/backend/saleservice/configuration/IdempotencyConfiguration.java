@@ -0,0 +1,30 @@
+package backend.saleservice.configuration;
+
+import backend.saleservice.idempotency.IdempotencyStore;
+import backend.saleservice.idempotency.InMemoryIdempotencyStore;
+import backend.saleservice.idempotency.MongoIdempotencyStore;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.mongodb.core.MongoOperations;
+
+import java.time.Duration;
+
+@Configuration
+public class IdempotencyConfiguration {
+    @Bean
+    @ConditionalOnProperty(name = "sale.idempotency.store", havingValue = "mongo", matchIfMissing = true)
+    public IdempotencyStore mongoIdempotencyStore(MongoOperations mongoOperations,
+                                                  @Value("${sale.idempotency.ttl-ms}") long ttlMillis,
+                                                  @Value("${sale.idempotency.lease-ms}") long leaseMillis) {
+        return new MongoIdempotencyStore(mongoOperations, Duration.ofMillis(ttlMillis), Duration.ofMillis(leaseMillis));
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "sale.idempotency.store", havingValue = "memory")
+    public IdempotencyStore inMemoryIdempotencyStore(@Value("${sale.idempotency.ttl-ms}") long ttlMillis,
+                                                     @Value("${sale.idempotency.lease-ms}") long leaseMillis) {
+        return new InMemoryIdempotencyStore(Duration.ofMillis(ttlMillis), Duration.ofMillis(leaseMillis));
+    }
+}
@@ -0,0 +1,15 @@
+package backend.saleservice.configuration;
+
+import backend.pageable.CountCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class PaginationConfiguration {
+    @Bean
+    public CountCache countCache(@Value("${pagination.count-cache.max-size}") int maxSize,
+                                 @Value("${pagination.count-cache.ttl-ms}") long ttlMillis) {
+        return new CountCache(maxSize, ttlMillis);
+    }
+}
@@ -0,0 +1,35 @@
+package backend.saleservice.configuration;
+
+import backend.saleservice.repositories.ReactiveSaleRepository;
+import backend.saleservice.repositories.SaleRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.data.mongo.MongoReactiveDataAutoConfiguration;
+import org.springframework.boot.autoconfigure.mongo.MongoReactiveAutoConfiguration;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.ComponentScan;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.FilterType;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.mongodb.repository.config.EnableMongoRepositories;
+import org.springframework.data.mongodb.repository.config.EnableReactiveMongoRepositories;
+import org.springframework.web.reactive.function.client.WebClient;
+
+//lectura de ventas con Mongo reactivo y WebClient; se elige por despliegue con sale.read.backend.
+//la configuracion automatica de Mongo reactivo esta excluida en application.properties y se importa solo aca,
+//asi con el backend bloqueante no se crea el cliente reactivo ni su pool de conexiones.
+//al declarar los repositorios reactivos la configuracion automatica de los bloqueantes se retira, por eso se declaran ambos
+@Configuration
+@ConditionalOnProperty(name = "sale.read.backend", havingValue = "reactive")
+@Import({MongoReactiveAutoConfiguration.class, MongoReactiveDataAutoConfiguration.class})
+@EnableMongoRepositories(basePackageClasses = SaleRepository.class)
+@EnableReactiveMongoRepositories(basePackageClasses = ReactiveSaleRepository.class,
+        includeFilters = @ComponentScan.Filter(type = FilterType.ASSIGNABLE_TYPE, classes = ReactiveSaleRepository.class))
+public class ReactiveReadConfiguration {
+    //resuelve el nombre del servicio con Eureka, igual que Feign
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder loadBalancedWebClientBuilder() {
+        return WebClient.builder();
+    }
+}
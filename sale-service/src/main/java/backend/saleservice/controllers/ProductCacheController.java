@@ -0,0 +1,45 @@
+package backend.saleservice.controllers;
+
+import backend.saleservice.client.ProductCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sales/cache/products")
+public class ProductCacheController {
+    private final ProductCache productCache;
+
+    public ProductCacheController(ProductCache productCache) {
+        this.productCache = productCache;
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Invalida productos cacheados", description = "Descarta de la cache los productos que cambiaron en product-service")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Productos invalidados"),
+            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
+    })
+    @PostMapping("/invalidate")
+    public ResponseEntity<Void> invalidate(@RequestBody List<Integer> ids) {
+        productCache.invalidate(ids);
+        return new ResponseEntity<>(HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Estadisticas de la cache", description = "Devuelve aciertos, fallos y expulsiones de la cache de productos")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadisticas obtenidas"),
+            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
+    })
+    @GetMapping("/stats")
+    public ResponseEntity<ProductCache.Stats> stats() {
+        return new ResponseEntity<>(productCache.stats(), HttpStatus.OK);
+    }
+}
@@ -0,0 +1,65 @@
+package backend.saleservice.controllers;
+
+import backend.pageable.Paginado;
+import backend.dto.response.SaleDtoResponse;
+import backend.saleservice.services.ReactiveSaleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Mono;
+
+//mismos listados que SaleQueryController; el hilo del request se libera mientras se espera a Mongo y a clients-service
+@RestController
+@RequestMapping("/api/sales")
+@ConditionalOnProperty(name = "sale.read.backend", havingValue = "reactive")
+public class ReactiveSaleQueryController {
+    private final ReactiveSaleService service;
+
+    public ReactiveSaleQueryController(ReactiveSaleService service) {
+        this.service = service;
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Listar ventas", description = "Lista todas las ventas; con withTotal=false no se calcula el total y el detalle solo se incluye con withDetails=true")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ventas listadas"),
+            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
+    })
+    @GetMapping
+    public Mono<ResponseEntity<Slice<SaleDtoResponse>>> list(@RequestParam Integer page,
+                                                             @RequestParam Integer size,
+                                                             @RequestParam String orderBy,
+                                                             @RequestParam(defaultValue = "true") boolean withTotal,
+                                                             @RequestParam(defaultValue = "false") boolean withDetails,
+                                                             @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        Mono<? extends Slice<SaleDtoResponse>> ventas = withTotal
+                ? service.getAll(page, size, orderBy, withDetails, authorization)
+                : service.getAllWithoutTotal(page, size, orderBy, withDetails, authorization);
+        return ventas.map(slice -> new ResponseEntity<>(slice, HttpStatus.OK));
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Listar ventas por cliente", description = "Lista ventas por cliente; con withTotal=false no se calcula el total y el detalle solo se incluye con withDetails=true")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ventas listadas"),
+            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
+    })
+    @PostMapping("/client/{id}")
+    public Mono<ResponseEntity<Slice<SaleDtoResponse>>> getByClient(@RequestBody Paginado paginado,
+                                                                    @PathVariable Integer id,
+                                                                    @RequestParam(defaultValue = "true") boolean withTotal,
+                                                                    @RequestParam(defaultValue = "false") boolean withDetails,
+                                                                    @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization) {
+        Mono<? extends Slice<SaleDtoResponse>> ventas = withTotal
+                ? service.getSalesByClient(id, paginado, withDetails, authorization)
+                : service.getSalesByClientWithoutTotal(id, paginado, withDetails, authorization);
+        return ventas.map(slice -> new ResponseEntity<>(slice, HttpStatus.OK));
+    }
+}
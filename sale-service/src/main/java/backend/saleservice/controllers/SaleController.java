@@ -1,13 +1,12 @@
 package backend.saleservice.controllers;
 
-import backend.pageable.Paginado;
+import backend.pageable.CursorPage;
 import backend.dto.request.SaleDtoRequest;
 import backend.dto.response.SaleDtoResponse;
 import backend.saleservice.services.SaleService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
-import org.springframework.data.domain.Page;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -16,6 +15,8 @@ import org.springframework.web.bind.annotation.*;
 @RestController
 @RequestMapping("/api/sales")
 public class SaleController {
+    private static final String IDEMPOTENCY_KEY = "Idempotency-Key";
+
     private final SaleService service;
 
     public SaleController(SaleService service) {
@@ -23,38 +24,34 @@ public class SaleController {
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    @Operation(summary = "Registra venta", description = "Registra venta")
+    @Operation(summary = "Registra venta", description = "Registra venta; con el header Idempotency-Key una repeticion devuelve la venta ya registrada")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Registro exitoso"),
             @ApiResponse(responseCode = "400", description = "Datos inválidos"),
-            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
+            @ApiResponse(responseCode = "401", description = "Acceso no autorizado"),
+            @ApiResponse(responseCode = "409", description = "La venta con esa clave sigue en curso")
     })
     @PostMapping
-    public ResponseEntity<SaleDtoResponse> createVenta(@RequestBody SaleDtoRequest requestDto) {
-        return new ResponseEntity<>(service.add(requestDto), HttpStatus.CREATED);
-    }
-
-    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    @Operation(summary = "Listar ventas", description = "Lista todas las ventas")
-    @ApiResponses(value = {
-            @ApiResponse(responseCode = "200", description = "Ventas listadas"),
-            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
-    })
-    @GetMapping
-    public ResponseEntity<Page<SaleDtoResponse>> list(@RequestParam Integer page,
-                                                      @RequestParam Integer size,
-                                                      @RequestParam String orderBy) {
-        return new ResponseEntity<>(service.getAll(page, size, orderBy), HttpStatus.OK);
+    public ResponseEntity<SaleDtoResponse> createVenta(@RequestBody SaleDtoRequest requestDto,
+                                                      @RequestHeader(value = IDEMPOTENCY_KEY, required = false) String idempotencyKey) {
+        SaleDtoResponse venta = idempotencyKey == null
+                ? service.add(requestDto)
+                : service.add(requestDto, idempotencyKey);
+        return new ResponseEntity<>(venta, HttpStatus.CREATED);
     }
 
     @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
-    @Operation(summary = "Listar ventas por cliente", description = "Lista ventas por cliente")
+    @Operation(summary = "Listar ventas por cursor", description = "Lista ventas sin contar el total; se usa el cursor devuelto para pedir la siguiente pagina y el detalle solo se incluye con withDetails=true")
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "Ventas listadas"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
             @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
     })
-    @PostMapping("/client/{id}")
-    public ResponseEntity<Page<SaleDtoResponse>> getByClient(@RequestBody Paginado paginado, @PathVariable Integer id) {
-        return new ResponseEntity<>(service.getSalesByClient(id, paginado), HttpStatus.OK);
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<SaleDtoResponse>> listByCursor(@RequestParam Integer size,
+                                                                    @RequestParam String orderBy,
+                                                                    @RequestParam(required = false) String cursor,
+                                                                    @RequestParam(defaultValue = "false") boolean withDetails) {
+        return new ResponseEntity<>(service.getAllByCursor(size, orderBy, cursor, withDetails), HttpStatus.OK);
     }
 }
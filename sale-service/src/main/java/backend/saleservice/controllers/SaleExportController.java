@@ -0,0 +1,56 @@
+package backend.saleservice.controllers;
+
+import backend.saleservice.services.SaleExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@RestController
+@RequestMapping("/api/sales/export")
+public class SaleExportController {
+    private static final String NDJSON = "application/x-ndjson";
+    private static final int GZIP_BUFFER = 64 * 1024;
+
+    private final SaleExportService service;
+
+    public SaleExportController(SaleExportService service) {
+        this.service = service;
+    }
+
+    //se escribe en el hilo de la peticion y no con StreamingResponseBody: las llamadas a client-service
+    //reenvian el token de la peticion actual
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Exportar ventas", description = "Descarga las ventas como NDJSON, una venta por linea; con desde solo las ventas desde esa fecha y con gzip=true comprimido")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ventas exportadas"),
+            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
+    })
+    @GetMapping
+    public void export(@RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                       @RequestParam(defaultValue = "false") boolean gzip,
+                       HttpServletResponse response) throws IOException {
+        response.setContentType(NDJSON);
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ventas.ndjson\"");
+        if (gzip) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+
+        long inicio = System.currentTimeMillis();
+        try (OutputStream out = gzip ? new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER) : response.getOutputStream()) {
+            long ventas = service.export(desde, out);
+            log.info("Exportadas {} ventas en {} ms", ventas, System.currentTimeMillis() - inicio);
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package backend.saleservice.controllers;
+
+import backend.pageable.Paginado;
+import backend.dto.response.SaleDtoResponse;
+import backend.saleservice.services.SaleService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Slice;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+//listados de ventas bloqueantes; con sale.read.backend=reactive los atiende ReactiveSaleQueryController
+@RestController
+@RequestMapping("/api/sales")
+@ConditionalOnProperty(name = "sale.read.backend", havingValue = "blocking", matchIfMissing = true)
+public class SaleQueryController {
+    private final SaleService service;
+
+    public SaleQueryController(SaleService service) {
+        this.service = service;
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Listar ventas", description = "Lista todas las ventas; con withTotal=false no se calcula el total y el detalle solo se incluye con withDetails=true")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ventas listadas"),
+            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
+    })
+    @GetMapping
+    public ResponseEntity<Slice<SaleDtoResponse>> list(@RequestParam Integer page,
+                                                       @RequestParam Integer size,
+                                                       @RequestParam String orderBy,
+                                                       @RequestParam(defaultValue = "true") boolean withTotal,
+                                                       @RequestParam(defaultValue = "false") boolean withDetails) {
+        Slice<SaleDtoResponse> ventas = withTotal
+                ? service.getAll(page, size, orderBy, withDetails)
+                : service.getAllWithoutTotal(page, size, orderBy, withDetails);
+        return new ResponseEntity<>(ventas, HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Listar ventas por cliente", description = "Lista ventas por cliente; con withTotal=false no se calcula el total y el detalle solo se incluye con withDetails=true")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Ventas listadas"),
+            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
+    })
+    @PostMapping("/client/{id}")
+    public ResponseEntity<Slice<SaleDtoResponse>> getByClient(@RequestBody Paginado paginado,
+                                                              @PathVariable Integer id,
+                                                              @RequestParam(defaultValue = "true") boolean withTotal,
+                                                              @RequestParam(defaultValue = "false") boolean withDetails) {
+        Slice<SaleDtoResponse> ventas = withTotal
+                ? service.getSalesByClient(id, paginado, withDetails)
+                : service.getSalesByClientWithoutTotal(id, paginado, withDetails);
+        return new ResponseEntity<>(ventas, HttpStatus.OK);
+    }
+}
@@ -0,0 +1,77 @@
+package backend.saleservice.controllers;
+
+import backend.dto.response.SaleStatsDtoResponse;
+import backend.saleservice.services.SaleStatsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/sales/stats")
+public class SaleStatsController {
+    private final SaleStatsService service;
+
+    public SaleStatsController(SaleStatsService service) {
+        this.service = service;
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Ventas por dia", description = "Cantidad de ventas, unidades e ingresos de cada dia del rango")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadisticas obtenidas"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
+    })
+    @GetMapping("/daily")
+    public ResponseEntity<List<SaleStatsDtoResponse>> daily(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                                            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta) {
+        return new ResponseEntity<>(service.getDaily(desde, hasta), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Ventas por producto", description = "Productos con mas ingresos en el rango")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadisticas obtenidas"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
+    })
+    @GetMapping("/products")
+    public ResponseEntity<List<SaleStatsDtoResponse>> byProduct(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                                                @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                                                                @RequestParam(defaultValue = "10") Integer limit) {
+        return new ResponseEntity<>(service.getByProduct(desde, hasta, limit), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasAnyRole('ADMIN', 'USER')")
+    @Operation(summary = "Ventas por cliente", description = "Clientes con mas ingresos en el rango")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Estadisticas obtenidas"),
+            @ApiResponse(responseCode = "400", description = "Datos inválidos"),
+            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
+    })
+    @GetMapping("/clients")
+    public ResponseEntity<List<SaleStatsDtoResponse>> byClient(@RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate desde,
+                                                               @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate hasta,
+                                                               @RequestParam(defaultValue = "10") Integer limit) {
+        return new ResponseEntity<>(service.getByClient(desde, hasta, limit), HttpStatus.OK);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Reconstruir estadisticas", description = "Recalcula desde las ventas los resumenes de los dias anteriores a hoy")
+    @ApiResponses(value = {
+            @ApiResponse(responseCode = "200", description = "Resumenes reconstruidos"),
+            @ApiResponse(responseCode = "401", description = "Acceso no autorizado")
+    })
+    @PostMapping("/rebuild")
+    public ResponseEntity<Long> rebuild() {
+        return new ResponseEntity<>(service.rebuild(), HttpStatus.OK);
+    }
+}
@@ -2,6 +2,7 @@ package backend.saleservice.exceptions;
 
 public class SaleException extends RuntimeException {
     public static final String CLIENT_ID_INVALID = "Client id invalid";
+    public static final String CLIENT_NOT_FOUND = "Client not found";
     public static final String PRODUCT_ID_INVALID = "Product id invalid";
     public static final String DETAILS_INVALID = "Details invalid";
     public static final String QUANTITY_INVALID = "Quantity invalid";
@@ -12,6 +13,11 @@ public class SaleException extends RuntimeException {
     public static final String SIZE_NUMBER_INVALID = "Size number can't be less or equals than 0";
     public static final String SORT_NAME_INVALID = "Sort name is invalid";
     public static final String PRICE_INVALID = "Price is invalid";
+    public static final String REMOTE_CALL_TIMEOUT = "Remote call timed out";
+    public static final String DATE_RANGE_INVALID = "Date range is invalid";
+    public static final String IDEMPOTENCY_KEY_INVALID = "Idempotency key is invalid";
+    public static final String IDEMPOTENCY_KEY_REUSED = "Idempotency key was used with a different request";
+    public static final String IDEMPOTENCY_KEY_IN_PROGRESS = "Idempotency key is already being processed";
 
     public SaleException(String message) {
         super(message);
@@ -1,5 +1,6 @@
 package backend.saleservice.exceptions.advice;
 
+import backend.exception.UtilException;
 import backend.saleservice.exceptions.SaleException;
 import feign.FeignException;
 import lombok.extern.slf4j.Slf4j;
@@ -7,6 +8,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
 
 import java.util.Set;
 
@@ -24,16 +26,30 @@ public class ExceptionAdvice {
             SaleException.PAGE_NUMBER_INVALID,
             SaleException.SIZE_NUMBER_INVALID,
             SaleException.SORT_NAME_INVALID,
-            SaleException.QUANTITY_GREATER_THAN_STOCK
+            SaleException.QUANTITY_GREATER_THAN_STOCK,
+            SaleException.DATE_RANGE_INVALID,
+            SaleException.IDEMPOTENCY_KEY_INVALID,
+            SaleException.IDEMPOTENCY_KEY_REUSED,
+            UtilException.PAGE_NUMBER_INVALID,
+            UtilException.SIZE_NUMBER_INVALID,
+            UtilException.SORT_DIRECTION_INVALID,
+            UtilException.CURSOR_INVALID
     );
 
-    @ExceptionHandler(SaleException.class)
-    public ResponseEntity<String> handleClienteException(SaleException e) {
+    //la misma venta sigue en curso; el cliente puede reintentar despues
+    public static Set<String> conflicts = Set.of(
+            SaleException.IDEMPOTENCY_KEY_IN_PROGRESS
+    );
+
+    @ExceptionHandler({SaleException.class, UtilException.class})
+    public ResponseEntity<String> handleClienteException(RuntimeException e) {
         log.error(e.getMessage(), e);
 
         HttpStatus status = errors.contains(e.getMessage()) ?
                 HttpStatus.BAD_REQUEST :
-                HttpStatus.INTERNAL_SERVER_ERROR;
+                conflicts.contains(e.getMessage()) ?
+                        HttpStatus.CONFLICT :
+                        HttpStatus.INTERNAL_SERVER_ERROR;
 
         return ResponseEntity.status(status).body(e.getMessage());
     }
@@ -43,4 +59,10 @@ public class ExceptionAdvice {
         log.error(e.getMessage(), e);
         return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
     }
+
+    @ExceptionHandler(WebClientResponseException.class)
+    public ResponseEntity<String> handleWebClientException(WebClientResponseException e) {
+        log.error(e.getMessage(), e);
+        return new ResponseEntity<>(e.getMessage(), HttpStatus.INTERNAL_SERVER_ERROR);
+    }
 }
@@ -0,0 +1,24 @@
+package backend.saleservice.idempotency;
+
+import backend.dto.response.SaleDtoResponse;
+import backend.saleservice.models.documents.RegistroIdempotencia;
+
+import java.util.Optional;
+
+//claves Idempotency-Key de POST /api/sales. la clave se reserva antes de registrar la venta y guarda la respuesta
+//al terminar, asi una repeticion dentro del TTL recibe la misma respuesta sin volver a llamar a los otros servicios.
+//la reserva en curso dura solo un plazo corto; el TTL completo corre desde que se guarda la respuesta o desde que
+//la venta falla sin saber si se desconto el stock
+public interface IdempotencyStore {
+    //reserva la clave si esta libre o vencida; si no, devuelve el registro que la tiene
+    Optional<RegistroIdempotencia> claim(String key, String huella);
+
+    //guarda la respuesta y extiende la clave hasta el TTL completo
+    void complete(String key, SaleDtoResponse respuesta);
+
+    //mantiene en curso por el TTL completo una clave cuyo resultado no se conoce
+    void keep(String key);
+
+    //libera una clave reservada que no llego a completarse
+    void release(String key);
+}
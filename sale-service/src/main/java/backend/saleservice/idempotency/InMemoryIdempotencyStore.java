@@ -0,0 +1,71 @@
+package backend.saleservice.idempotency;
+
+import backend.dto.response.SaleDtoResponse;
+import backend.saleservice.models.documents.EstadoIdempotencia;
+import backend.saleservice.models.documents.RegistroIdempotencia;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+//claves en memoria, para pruebas o una sola instancia; las vencidas se purgan al reservar
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+    private final Duration ttl;
+    private final Duration lease;
+    private final LongSupplier clock;
+    private final Map<String, RegistroIdempotencia> entries = new ConcurrentHashMap<>();
+
+    public InMemoryIdempotencyStore(Duration ttl, Duration lease) {
+        this(ttl, lease, System::currentTimeMillis);
+    }
+
+    InMemoryIdempotencyStore(Duration ttl, Duration lease, LongSupplier clock) {
+        this.ttl = ttl;
+        this.lease = lease;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<RegistroIdempotencia> claim(String key, String huella) {
+        Instant now = Instant.ofEpochMilli(clock.getAsLong());
+        entries.values().removeIf(registro -> registro.isExpired(now));
+
+        RegistroIdempotencia registro = RegistroIdempotencia.builder()
+                .id(key)
+                .huella(huella)
+                .estado(EstadoIdempotencia.EN_CURSO)
+                .expiraEn(now.plus(lease))
+                .build();
+        return Optional.ofNullable(entries.putIfAbsent(key, registro));
+    }
+
+    @Override
+    public void complete(String key, SaleDtoResponse respuesta) {
+        Instant now = Instant.ofEpochMilli(clock.getAsLong());
+        entries.computeIfPresent(key, (k, registro) -> {
+            registro.setEstado(EstadoIdempotencia.COMPLETADO);
+            registro.setRespuesta(respuesta);
+            registro.setExpiraEn(now.plus(ttl));
+            return registro;
+        });
+    }
+
+    @Override
+    public void keep(String key) {
+        Instant now = Instant.ofEpochMilli(clock.getAsLong());
+        entries.computeIfPresent(key, (k, registro) -> {
+            if (registro.getEstado() == EstadoIdempotencia.EN_CURSO) {
+                registro.setExpiraEn(now.plus(ttl));
+            }
+            return registro;
+        });
+    }
+
+    @Override
+    public void release(String key) {
+        entries.computeIfPresent(key, (k, registro) -> registro.getEstado() == EstadoIdempotencia.EN_CURSO ? null : registro);
+    }
+}
@@ -0,0 +1,84 @@
+package backend.saleservice.idempotency;
+
+import backend.dto.response.SaleDtoResponse;
+import backend.saleservice.models.documents.EstadoIdempotencia;
+import backend.saleservice.models.documents.RegistroIdempotencia;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.function.LongSupplier;
+
+//claves en la coleccion claves_idempotencia; el _id es la clave, asi la reserva es un insert que solo gana una
+//instancia. el indice TTL sobre expiraEn borra las vencidas
+public class MongoIdempotencyStore implements IdempotencyStore {
+    private static final String ID = "_id";
+    private static final String ESTADO = "estado";
+    private static final String RESPUESTA = "respuesta";
+    private static final String EXPIRA_EN = "expiraEn";
+
+    private final MongoOperations mongoOperations;
+    private final Duration ttl;
+    private final Duration lease;
+    private final LongSupplier clock;
+
+    public MongoIdempotencyStore(MongoOperations mongoOperations, Duration ttl, Duration lease) {
+        this(mongoOperations, ttl, lease, System::currentTimeMillis);
+    }
+
+    MongoIdempotencyStore(MongoOperations mongoOperations, Duration ttl, Duration lease, LongSupplier clock) {
+        this.mongoOperations = mongoOperations;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.clock = clock;
+    }
+
+    @Override
+    public Optional<RegistroIdempotencia> claim(String key, String huella) {
+        Instant now = Instant.ofEpochMilli(clock.getAsLong());
+        RegistroIdempotencia registro = RegistroIdempotencia.builder()
+                .id(key)
+                .huella(huella)
+                .estado(EstadoIdempotencia.EN_CURSO)
+                .expiraEn(now.plus(lease))
+                .build();
+        try {
+            mongoOperations.insert(registro);
+            return Optional.empty();
+        } catch (DuplicateKeyException e) {
+            //el monitor de TTL pasa cada minuto; una clave vencida que sigue en la coleccion se vuelve a tomar
+            Query vencida = Query.query(Criteria.where(ID).is(key).and(EXPIRA_EN).lte(now));
+            if (mongoOperations.findAndReplace(vencida, registro) != null) {
+                return Optional.empty();
+            }
+            return Optional.ofNullable(mongoOperations.findById(key, RegistroIdempotencia.class));
+        }
+    }
+
+    @Override
+    public void complete(String key, SaleDtoResponse respuesta) {
+        Instant now = Instant.ofEpochMilli(clock.getAsLong());
+        mongoOperations.updateFirst(Query.query(Criteria.where(ID).is(key)),
+                new Update().set(ESTADO, EstadoIdempotencia.COMPLETADO).set(RESPUESTA, respuesta).set(EXPIRA_EN, now.plus(ttl)),
+                RegistroIdempotencia.class);
+    }
+
+    @Override
+    public void keep(String key) {
+        Instant now = Instant.ofEpochMilli(clock.getAsLong());
+        mongoOperations.updateFirst(Query.query(Criteria.where(ID).is(key).and(ESTADO).is(EstadoIdempotencia.EN_CURSO)),
+                new Update().set(EXPIRA_EN, now.plus(ttl)),
+                RegistroIdempotencia.class);
+    }
+
+    @Override
+    public void release(String key) {
+        mongoOperations.remove(Query.query(Criteria.where(ID).is(key).and(ESTADO).is(EstadoIdempotencia.EN_CURSO)),
+                RegistroIdempotencia.class);
+    }
+}
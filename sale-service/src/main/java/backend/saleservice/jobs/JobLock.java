@@ -0,0 +1,64 @@
+package backend.saleservice.jobs;
+
+import backend.saleservice.models.documents.BloqueoTarea;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.LongSupplier;
+
+//las tareas programadas corren en todas las replicas; con este bloqueo en bloqueos_tareas solo corre una.
+//el bloqueo vence solo por si la replica que lo tomo se cae sin soltarlo
+@Component
+public class JobLock {
+    private static final String ID = "_id";
+    private static final String DUENIO = "duenio";
+    private static final String HASTA = "hasta";
+
+    private final MongoOperations mongoOperations;
+    private final LongSupplier clock;
+
+    @Autowired
+    public JobLock(MongoOperations mongoOperations) {
+        this(mongoOperations, System::currentTimeMillis);
+    }
+
+    JobLock(MongoOperations mongoOperations, LongSupplier clock) {
+        this.mongoOperations = mongoOperations;
+        this.clock = clock;
+    }
+
+    //corre la tarea si toma el bloqueo; false si otra replica lo tiene
+    public boolean runExclusively(String nombre, Duration duracion, Runnable tarea) {
+        String duenio = UUID.randomUUID().toString();
+        if (!acquire(nombre, duenio, duracion)) {
+            return false;
+        }
+        try {
+            tarea.run();
+            return true;
+        } finally {
+            mongoOperations.remove(Query.query(Criteria.where(ID).is(nombre).and(DUENIO).is(duenio)), BloqueoTarea.class);
+        }
+    }
+
+    //el upsert solo encuentra el documento si ya vencio; si otra replica lo tiene intenta insertar el mismo _id y falla
+    private boolean acquire(String nombre, String duenio, Duration duracion) {
+        Instant now = Instant.ofEpochMilli(clock.getAsLong());
+        Query libre = Query.query(Criteria.where(ID).is(nombre).and(HASTA).lte(now));
+        Update toma = new Update().set(DUENIO, duenio).set(HASTA, now.plus(duracion));
+        try {
+            mongoOperations.upsert(libre, toma, BloqueoTarea.class);
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package backend.saleservice.jobs;
+
+import backend.saleservice.services.SaleStatsService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+//recalcula los resumenes de los dias cerrados desde las ventas; corrige incrementos que hayan fallado.
+//corre en una sola replica a la vez
+@Slf4j
+@Component
+public class SaleStatsRebuildJob {
+    static final String LOCK_NAME = "sale-stats-rebuild";
+
+    private final SaleStatsService saleStatsService;
+    private final JobLock jobLock;
+    private final Duration lockDuration;
+
+    public SaleStatsRebuildJob(SaleStatsService saleStatsService, JobLock jobLock,
+                               @Value("${sale.stats.rebuild-lock-ms}") long lockMillis) {
+        this.saleStatsService = saleStatsService;
+        this.jobLock = jobLock;
+        this.lockDuration = Duration.ofMillis(lockMillis);
+    }
+
+    @Scheduled(cron = "${sale.stats.rebuild-cron}")
+    public void rebuild() {
+        boolean corrio = jobLock.runExclusively(LOCK_NAME, lockDuration, () -> {
+            long inicio = System.currentTimeMillis();
+            long ventas = saleStatsService.rebuild();
+            log.info("Resumenes de ventas reconstruidos con {} ventas en {} ms", ventas, System.currentTimeMillis() - inicio);
+        });
+        if (!corrio) {
+            log.info("La reconstruccion de resumenes ya corre en otra replica");
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package backend.saleservice.models.documents;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+//bloqueo de una tarea programada; el _id es el nombre de la tarea y solo una replica lo tiene hasta que vence
+//o lo suelta. Mongo borra el documento al llegar a hasta
+@Document(collection = "bloqueos_tareas")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BloqueoTarea {
+    @Id
+    private String id;
+    //identifica a quien lo tomo para que solo el mismo lo suelte
+    private String duenio;
+    @Indexed(name = "hasta_ttl", expireAfter = "0s")
+    private Instant hasta;
+}
@@ -0,0 +1,6 @@
+package backend.saleservice.models.documents;
+
+public enum EstadoIdempotencia {
+    EN_CURSO,
+    COMPLETADO
+}
@@ -0,0 +1,32 @@
+package backend.saleservice.models.documents;
+
+import backend.dto.response.SaleDtoResponse;
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.Indexed;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.Instant;
+
+//una clave Idempotency-Key de POST /api/sales con la respuesta que se devolvio; Mongo borra el documento
+//al llegar a expiraEn
+@Document(collection = "claves_idempotencia")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RegistroIdempotencia {
+    @Id
+    private String id;
+    //hash del cuerpo; la misma clave con otro cuerpo se rechaza
+    private String huella;
+    private EstadoIdempotencia estado;
+    private SaleDtoResponse respuesta;
+    @Indexed(name = "expiraEn_ttl", expireAfter = "0s")
+    private Instant expiraEn;
+
+    public boolean isExpired(Instant now) {
+        return !expiraEn.isAfter(now);
+    }
+}
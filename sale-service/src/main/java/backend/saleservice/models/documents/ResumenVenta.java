@@ -0,0 +1,34 @@
+package backend.saleservice.models.documents;
+
+import lombok.*;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
+import org.springframework.data.mongodb.core.mapping.Document;
+
+import java.time.LocalDate;
+
+//totales de ventas por dia, y por dia y producto o cliente; se suman al registrar cada venta para que las
+//estadisticas de un rango lean un documento por dia en lugar de recorrer ventas
+@Document(collection = "resumenes_ventas")
+@CompoundIndex(name = "tipo_fecha_clave", def = "{'tipo': 1, 'fecha': 1, 'clave': 1}")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ResumenVenta {
+    @Id
+    private String id;
+    private TipoResumen tipo;
+    private LocalDate fecha;
+    //producto o cliente; null en el resumen por dia
+    private Integer clave;
+    private Long ventas;
+    private Long unidades;
+    //en centimos para que los incrementos sean exactos y coincidan con la reconstruccion
+    private Long ingresos;
+
+    public static String id(TipoResumen tipo, LocalDate fecha, Integer clave) {
+        return clave == null ? tipo + ":" + fecha : tipo + ":" + fecha + ":" + clave;
+    }
+}
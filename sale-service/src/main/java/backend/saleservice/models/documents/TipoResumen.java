@@ -0,0 +1,7 @@
+package backend.saleservice.models.documents;
+
+public enum TipoResumen {
+    DIA,
+    PRODUCTO,
+    CLIENTE
+}
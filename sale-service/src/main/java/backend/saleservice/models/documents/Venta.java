@@ -1,19 +1,36 @@
 package backend.saleservice.models.documents;
 
+import backend.pageable.SortRegistry;
 import jakarta.persistence.Id;
 import lombok.*;
+import org.springframework.data.mongodb.core.index.CompoundIndex;
 import org.springframework.data.mongodb.core.mapping.Document;
 
 import java.time.LocalDateTime;
+import java.util.Date;
 import java.util.List;
 
+import static backend.pageable.SortRegistry.field;
+
 @Document(collection = "ventas")
+@CompoundIndex(name = "date_id", def = "{'date': -1, '_id': -1}")
+@CompoundIndex(name = "total_id", def = "{'total': -1, '_id': -1}")
+@CompoundIndex(name = "clientId_id", def = "{'clientId': 1, '_id': -1}")
+@CompoundIndex(name = "clientId_date_id", def = "{'clientId': 1, 'date': -1, '_id': -1}")
+@CompoundIndex(name = "clientId_total_id", def = "{'clientId': 1, 'total': -1, '_id': -1}")
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @Builder
 public class Venta {
+    public static final SortRegistry SORTS = SortRegistry.of(
+            field("id", "_id", String.class),
+            field("date", Date.class),
+            field("total", Double.class));
+
+    //los listados no traen el detalle salvo que se pida; es la mayor parte del documento
+    public static final String SUMMARY_FIELDS = "{ 'details': 0 }";
 
     @Id
     private String id;
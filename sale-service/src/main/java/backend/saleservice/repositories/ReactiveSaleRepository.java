@@ -0,0 +1,10 @@
+package backend.saleservice.repositories;
+
+import backend.saleservice.models.documents.Venta;
+import org.springframework.data.mongodb.repository.ReactiveMongoRepository;
+import reactor.core.publisher.Mono;
+
+//lectura no bloqueante sobre la misma coleccion e indices que SaleRepository
+public interface ReactiveSaleRepository extends ReactiveMongoRepository<Venta, String>, ReactiveSaleRepositoryCustom {
+    Mono<Long> countByClientId(Integer clientId);
+}
@@ -0,0 +1,10 @@
+package backend.saleservice.repositories;
+
+import backend.saleservice.models.documents.Venta;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+
+public interface ReactiveSaleRepositoryCustom {
+    //pagina de ventas, de un cliente si clientId no es null, con una venta de mas para saber si hay siguiente
+    Flux<Venta> findSlice(Integer clientId, Pageable pageable, boolean withDetails);
+}
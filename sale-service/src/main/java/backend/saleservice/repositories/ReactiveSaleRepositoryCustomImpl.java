@@ -0,0 +1,30 @@
+package backend.saleservice.repositories;
+
+import backend.saleservice.models.documents.Venta;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+public class ReactiveSaleRepositoryCustomImpl implements ReactiveSaleRepositoryCustom {
+    private static final String CLIENT_ID = "clientId";
+    private static final String DETAILS = "details";
+
+    private final ReactiveMongoOperations operations;
+
+    public ReactiveSaleRepositoryCustomImpl(ReactiveMongoOperations operations) {
+        this.operations = operations;
+    }
+
+    //mismo filtro, orden y proyeccion que las consultas resumen de SaleRepository
+    @Override
+    public Flux<Venta> findSlice(Integer clientId, Pageable pageable, boolean withDetails) {
+        Query query = clientId == null ? new Query() : Query.query(Criteria.where(CLIENT_ID).is(clientId));
+        query.with(pageable).limit(pageable.getPageSize() + 1);
+        if (!withDetails) {
+            query.fields().exclude(DETAILS);
+        }
+        return operations.find(query, Venta.class);
+    }
+}
@@ -0,0 +1,15 @@
+package backend.saleservice.repositories;
+
+import backend.saleservice.models.documents.ResumenVenta;
+import backend.saleservice.models.documents.TipoResumen;
+import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface ResumenVentaRepository extends MongoRepository<ResumenVenta, String>, ResumenVentaRepositoryCustom {
+    //rango con ambos extremos incluidos; Between en Mongo los excluye
+    @Query(value = "{ 'tipo': ?0, 'fecha': { '$gte': ?1, '$lte': ?2 } }", sort = "{ 'fecha': 1 }")
+    List<ResumenVenta> findByTipoAndFechaRange(TipoResumen tipo, LocalDate desde, LocalDate hasta);
+}
@@ -0,0 +1,23 @@
+package backend.saleservice.repositories;
+
+import backend.saleservice.models.documents.ResumenVenta;
+import backend.saleservice.models.documents.TipoResumen;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public interface ResumenVentaRepositoryCustom {
+    //suma los totales de cada resumen en su documento, creandolo si no existe
+    void increment(Collection<ResumenVenta> resumenes);
+
+    //deja en el dia exactamente estos resumenes: primero los escribe y despues borra los que sobran,
+    //asi una lectura concurrente nunca ve el dia vacio
+    void replaceDay(LocalDate fecha, Collection<ResumenVenta> resumenes);
+
+    //borra los resumenes anteriores a hasta de los dias que no estan en conservar
+    void deleteDaysBefore(LocalDate hasta, Collection<LocalDate> conservar);
+
+    //totales del rango agrupados por clave, ordenados por ingresos de mayor a menor
+    List<ResumenVenta> sumByClave(TipoResumen tipo, LocalDate desde, LocalDate hasta, int limit);
+}
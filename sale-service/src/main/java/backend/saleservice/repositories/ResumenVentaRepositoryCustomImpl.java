@@ -0,0 +1,84 @@
+package backend.saleservice.repositories;
+
+import backend.saleservice.models.documents.ResumenVenta;
+import backend.saleservice.models.documents.TipoResumen;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.aggregation.Aggregation;
+import org.springframework.data.mongodb.core.query.Criteria;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+public class ResumenVentaRepositoryCustomImpl implements ResumenVentaRepositoryCustom {
+    private final MongoOperations mongoOperations;
+
+    public ResumenVentaRepositoryCustomImpl(MongoOperations mongoOperations) {
+        this.mongoOperations = mongoOperations;
+    }
+
+    @Override
+    public void increment(Collection<ResumenVenta> resumenes) {
+        if (resumenes.isEmpty()) {
+            return;
+        }
+        //$inc es atomico por documento, dos ventas del mismo dia no se pisan
+        BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ResumenVenta.class);
+        for (ResumenVenta resumen : resumenes) {
+            Update update = new Update()
+                    .setOnInsert("tipo", resumen.getTipo())
+                    .setOnInsert("fecha", resumen.getFecha())
+                    .setOnInsert("clave", resumen.getClave())
+                    .inc("ventas", resumen.getVentas())
+                    .inc("unidades", resumen.getUnidades())
+                    .inc("ingresos", resumen.getIngresos());
+            bulk.upsert(Query.query(Criteria.where("_id").is(resumen.getId())), update);
+        }
+        bulk.execute();
+    }
+
+    @Override
+    public void replaceDay(LocalDate fecha, Collection<ResumenVenta> resumenes) {
+        if (!resumenes.isEmpty()) {
+            BulkOperations bulk = mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ResumenVenta.class);
+            for (ResumenVenta resumen : resumenes) {
+                Update update = new Update()
+                        .set("tipo", resumen.getTipo())
+                        .set("fecha", resumen.getFecha())
+                        .set("clave", resumen.getClave())
+                        .set("ventas", resumen.getVentas())
+                        .set("unidades", resumen.getUnidades())
+                        .set("ingresos", resumen.getIngresos());
+                bulk.upsert(Query.query(Criteria.where("_id").is(resumen.getId())), update);
+            }
+            bulk.execute();
+        }
+
+        List<String> ids = resumenes.stream().map(ResumenVenta::getId).toList();
+        mongoOperations.remove(Query.query(Criteria.where("fecha").is(fecha).and("_id").nin(ids)), ResumenVenta.class);
+    }
+
+    @Override
+    public void deleteDaysBefore(LocalDate hasta, Collection<LocalDate> conservar) {
+        mongoOperations.remove(Query.query(Criteria.where("fecha").lt(hasta).nin(conservar)), ResumenVenta.class);
+    }
+
+    @Override
+    public List<ResumenVenta> sumByClave(TipoResumen tipo, LocalDate desde, LocalDate hasta, int limit) {
+        Aggregation aggregation = Aggregation.newAggregation(
+                Aggregation.match(Criteria.where("tipo").is(tipo).and("fecha").gte(desde).lte(hasta)),
+                Aggregation.group("clave")
+                        .sum("ventas").as("ventas")
+                        .sum("unidades").as("unidades")
+                        .sum("ingresos").as("ingresos"),
+                Aggregation.project("ventas", "unidades", "ingresos").and("_id").as("clave").andExclude("_id"),
+                Aggregation.sort(Sort.by(Sort.Direction.DESC, "ingresos").and(Sort.by("clave"))),
+                Aggregation.limit(limit));
+
+        return mongoOperations.aggregate(aggregation, ResumenVenta.class, ResumenVenta.class).getMappedResults();
+    }
+}
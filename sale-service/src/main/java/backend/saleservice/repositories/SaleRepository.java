@@ -1,10 +1,53 @@
 package backend.saleservice.repositories;
 
 import backend.saleservice.models.documents.Venta;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.data.mongodb.repository.Meta;
 import org.springframework.data.mongodb.repository.MongoRepository;
+import org.springframework.data.mongodb.repository.Query;
+
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
 
 public interface SaleRepository extends MongoRepository<Venta, String> {
+    //resumen sin detalle para los listados; cada filtro y orden tiene su indice declarado en Venta
+    @Query(fields = Venta.SUMMARY_FIELDS)
+    Window<Venta> findAllBy(ScrollPosition position, Sort sort, Limit limit);
+
+    @Query(fields = Venta.SUMMARY_FIELDS)
+    Page<Venta> findPageBy(Pageable pageable);
+
+    @Query(fields = Venta.SUMMARY_FIELDS)
     Page<Venta> findByClientId(Integer clientId, Pageable pageable);
+
+    @Query(fields = Venta.SUMMARY_FIELDS)
+    Slice<Venta> findSliceBy(Pageable pageable);
+
+    @Query(fields = Venta.SUMMARY_FIELDS)
+    Slice<Venta> findSliceByClientId(Integer clientId, Pageable pageable);
+
+    //documento completo, cuando se pide el detalle
+    Window<Venta> findAllWithDetailsBy(ScrollPosition position, Sort sort, Limit limit);
+
+    Page<Venta> findWithDetailsByClientId(Integer clientId, Pageable pageable);
+
+    Slice<Venta> findSliceWithDetailsBy(Pageable pageable);
+
+    Slice<Venta> findSliceWithDetailsByClientId(Integer clientId, Pageable pageable);
+
+    //recorren las ventas con un cursor de Mongo sin cargarlas todas; se debe cerrar el stream
+    @Meta(cursorBatchSize = 1000)
+    Stream<Venta> streamByDateLessThanOrderByDateAsc(LocalDateTime date);
+
+    @Meta(cursorBatchSize = 1000)
+    Stream<Venta> streamAllBy();
+
+    @Meta(cursorBatchSize = 1000)
+    Stream<Venta> streamByDateGreaterThanEqual(LocalDateTime date);
 }
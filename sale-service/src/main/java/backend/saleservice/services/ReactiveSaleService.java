@@ -0,0 +1,17 @@
+package backend.saleservice.services;
+
+import backend.dto.response.SaleDtoResponse;
+import backend.pageable.Paginado;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
+import reactor.core.publisher.Mono;
+
+public interface ReactiveSaleService {
+    Mono<Page<SaleDtoResponse>> getAll(Integer page, Integer size, String orderBy, boolean withDetails, String authorization);
+
+    Mono<Slice<SaleDtoResponse>> getAllWithoutTotal(Integer page, Integer size, String orderBy, boolean withDetails, String authorization);
+
+    Mono<Page<SaleDtoResponse>> getSalesByClient(Integer clientId, Paginado paginado, boolean withDetails, String authorization);
+
+    Mono<Slice<SaleDtoResponse>> getSalesByClientWithoutTotal(Integer clientId, Paginado paginado, boolean withDetails, String authorization);
+}
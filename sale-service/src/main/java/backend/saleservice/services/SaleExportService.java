@@ -0,0 +1,9 @@
+package backend.saleservice.services;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+
+public interface SaleExportService {
+    long export(LocalDate desde, OutputStream out) throws IOException;
+}
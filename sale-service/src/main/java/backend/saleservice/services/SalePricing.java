@@ -0,0 +1,33 @@
+package backend.saleservice.services;
+
+import backend.saleservice.exceptions.SaleException;
+import backend.saleservice.models.documents.DetalleVenta;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
+
+//calcula subtotales y total de una venta sin guardar estado, se puede usar desde varios hilos a la vez
+@Component
+public class SalePricing {
+    private static final int SCALE = 2;
+
+    public double calculateSubtotal(Double precio, Integer quantity) {
+        if (precio == null || BigDecimal.valueOf(precio).signum() <= 0) {
+            throw new SaleException(SaleException.PRICE_INVALID);
+        }
+        return BigDecimal.valueOf(precio)
+                .multiply(BigDecimal.valueOf(quantity))
+                .setScale(SCALE, RoundingMode.HALF_UP)
+                .doubleValue();
+    }
+
+    public double calculateTotal(List<DetalleVenta> details) {
+        BigDecimal total = BigDecimal.ZERO;
+        for (DetalleVenta detail : details) {
+            total = total.add(BigDecimal.valueOf(detail.getSubTotal()));
+        }
+        return total.setScale(SCALE, RoundingMode.HALF_UP).doubleValue();
+    }
+}
@@ -1,14 +1,24 @@
 package backend.saleservice.services;
 
+import backend.pageable.CursorPage;
 import backend.pageable.Paginado;
 import backend.dto.request.SaleDtoRequest;
 import backend.dto.response.SaleDtoResponse;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Slice;
 
 public interface SaleService {
-    Page<SaleDtoResponse> getAll(Integer page, Integer size, String orderBy);
+    Page<SaleDtoResponse> getAll(Integer page, Integer size, String orderBy, boolean withDetails);
+
+    Slice<SaleDtoResponse> getAllWithoutTotal(Integer page, Integer size, String orderBy, boolean withDetails);
+
+    CursorPage<SaleDtoResponse> getAllByCursor(Integer size, String orderBy, String cursor, boolean withDetails);
 
     SaleDtoResponse add(SaleDtoRequest requestDto);
 
-    Page<SaleDtoResponse> getSalesByClient(Integer clientId, Paginado paginado);
+    SaleDtoResponse add(SaleDtoRequest requestDto, String idempotencyKey);
+
+    Page<SaleDtoResponse> getSalesByClient(Integer clientId, Paginado paginado, boolean withDetails);
+
+    Slice<SaleDtoResponse> getSalesByClientWithoutTotal(Integer clientId, Paginado paginado, boolean withDetails);
 }
@@ -0,0 +1,19 @@
+package backend.saleservice.services;
+
+import backend.dto.response.SaleStatsDtoResponse;
+import backend.saleservice.models.documents.Venta;
+
+import java.time.LocalDate;
+import java.util.List;
+
+public interface SaleStatsService {
+    void record(Venta venta);
+
+    List<SaleStatsDtoResponse> getDaily(LocalDate desde, LocalDate hasta);
+
+    List<SaleStatsDtoResponse> getByProduct(LocalDate desde, LocalDate hasta, Integer limit);
+
+    List<SaleStatsDtoResponse> getByClient(LocalDate desde, LocalDate hasta, Integer limit);
+
+    long rebuild();
+}
@@ -0,0 +1,197 @@
+package backend.saleservice.services.impl;
+
+import backend.dto.response.ClientDtoResponse;
+import backend.dto.response.SaleDtoResponse;
+import backend.pageable.CountCache;
+import backend.pageable.PageableUtils;
+import backend.pageable.Paginado;
+import backend.saleservice.client.ClientCache;
+import backend.saleservice.client.ClientWebClient;
+import backend.saleservice.exceptions.SaleException;
+import backend.saleservice.models.documents.Venta;
+import backend.saleservice.models.mapper.DetailSaleMapper;
+import backend.saleservice.repositories.ReactiveSaleRepository;
+import backend.saleservice.services.ReactiveSaleService;
+import backend.utils.Utils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+//misma respuesta que los listados de SaleServiceImpl sin ocupar un hilo mientras se espera a Mongo o a clients-service
+@Service
+@ConditionalOnProperty(name = "sale.read.backend", havingValue = "reactive")
+public class ReactiveSaleServiceImpl implements ReactiveSaleService {
+    private static final String COUNT_KEY_ALL = "ventas";
+    private static final String COUNT_KEY_CLIENT = "ventas:cliente:";
+
+    private final ReactiveSaleRepository repository;
+    private final DetailSaleMapper detailSaleMapper = DetailSaleMapper.INSTANCE;
+    private final ClientWebClient clientWebClient;
+    private final ClientCache clientCache;
+    private final CountCache countCache;
+    private final int clientBatchSize;
+    private final int maxConcurrency;
+
+    public ReactiveSaleServiceImpl(ReactiveSaleRepository repository, ClientWebClient clientWebClient, ClientCache clientCache, CountCache countCache,
+                                   @Value("${sale.read.client-batch-size}") int clientBatchSize,
+                                   @Value("${sale.remote.max-concurrency}") int maxConcurrency) {
+        this.repository = repository;
+        this.clientWebClient = clientWebClient;
+        this.clientCache = clientCache;
+        this.countCache = countCache;
+        this.clientBatchSize = clientBatchSize;
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    @Override
+    public Mono<Page<SaleDtoResponse>> getAll(Integer page, Integer size, String orderBy, boolean withDetails, String authorization) {
+        return Mono.defer(() -> {
+            Pageable pageable = toPageable(new Paginado(page, size, orderBy));
+
+            Mono<List<SaleDtoResponse>> content = toResponses(repository.findSlice(null, pageable, withDetails).take(pageable.getPageSize()), authorization);
+            return content.zipWith(getTotal(COUNT_KEY_ALL, repository::count),
+                    (ventas, total) -> new PageImpl<>(ventas, pageable, total));
+        });
+    }
+
+    @Override
+    public Mono<Slice<SaleDtoResponse>> getAllWithoutTotal(Integer page, Integer size, String orderBy, boolean withDetails, String authorization) {
+        return Mono.defer(() -> {
+            Pageable pageable = toPageable(new Paginado(page, size, orderBy));
+
+            return repository.findSlice(null, pageable, withDetails).collectList()
+                    .flatMap(ventas -> toSlice(ventas, pageable, sales -> toResponses(Flux.fromIterable(sales), authorization)));
+        });
+    }
+
+    @Override
+    public Mono<Page<SaleDtoResponse>> getSalesByClient(Integer clientId, Paginado paginado, boolean withDetails, String authorization) {
+        return Mono.defer(() -> {
+            Pageable pageable = toPageable(paginado);
+            validateClientId(clientId);
+
+            //el cliente, la pagina y el total se piden a la vez
+            Mono<List<Venta>> ventas = repository.findSlice(clientId, pageable, withDetails).take(pageable.getPageSize()).collectList();
+            Mono<Long> total = getTotal(COUNT_KEY_CLIENT + clientId, () -> repository.countByClientId(clientId));
+
+            return Mono.zip(getClient(clientId, authorization), ventas, total)
+                    .map(tuple -> new PageImpl<>(toClientResponses(tuple.getT2(), tuple.getT1()), pageable, tuple.getT3()));
+        });
+    }
+
+    @Override
+    public Mono<Slice<SaleDtoResponse>> getSalesByClientWithoutTotal(Integer clientId, Paginado paginado, boolean withDetails, String authorization) {
+        return Mono.defer(() -> {
+            Pageable pageable = toPageable(paginado);
+            validateClientId(clientId);
+
+            Mono<List<Venta>> ventas = repository.findSlice(clientId, pageable, withDetails).collectList();
+
+            return Mono.zip(getClient(clientId, authorization), ventas)
+                    .flatMap(tuple -> toSlice(tuple.getT2(), pageable, sales -> Mono.just(toClientResponses(sales, tuple.getT1()))));
+        });
+    }
+
+    private Pageable toPageable(Paginado paginado) {
+        PageableUtils.validatePagination(paginado);
+        return PageableUtils.constructPageable(paginado, Venta.SORTS);
+    }
+
+    //con el total en cache no se repite el COUNT
+    private Mono<Long> getTotal(String countKey, Supplier<Mono<Long>> count) {
+        Long total = countCache.get(countKey);
+        if (total != null) {
+            return Mono.just(total);
+        }
+        return count.get().doOnNext(value -> countCache.put(countKey, value));
+    }
+
+    //la consulta trae una venta de mas; si llego hay pagina siguiente
+    private Mono<Slice<SaleDtoResponse>> toSlice(List<Venta> ventas, Pageable pageable,
+                                                 Function<List<Venta>, Mono<List<SaleDtoResponse>>> mapper) {
+        boolean hasNext = ventas.size() > pageable.getPageSize();
+        List<Venta> content = hasNext ? ventas.subList(0, pageable.getPageSize()) : ventas;
+        return mapper.apply(content).map(responses -> new SliceImpl<>(responses, pageable, hasNext));
+    }
+
+    //los clientes se resuelven por lotes con un limite de llamadas en vuelo; el orden de las ventas se conserva
+    //y Mongo no entrega mas ventas de las que los lotes pendientes pueden procesar
+    private Mono<List<SaleDtoResponse>> toResponses(Flux<Venta> ventas, String authorization) {
+        return ventas.buffer(clientBatchSize)
+                .flatMapSequential(batch -> getClients(batch, authorization).map(clients -> toResponses(batch, clients)), maxConcurrency)
+                .concatMapIterable(responses -> responses)
+                .collectList();
+    }
+
+    private List<SaleDtoResponse> toResponses(List<Venta> ventas, Map<Integer, ClientDtoResponse> clients) {
+        List<SaleDtoResponse> response = new ArrayList<>();
+        for (Venta venta : ventas) {
+            ClientDtoResponse client = clients.get(venta.getClientId());
+            if (client == null) {
+                throw new SaleException(SaleException.CLIENT_NOT_FOUND);
+            }
+            response.add(toResponse(venta, client));
+        }
+        return response;
+    }
+
+    private Mono<Map<Integer, ClientDtoResponse>> getClients(List<Venta> ventas, String authorization) {
+        List<Integer> ids = ventas.stream()
+                .map(Venta::getClientId)
+                .distinct()
+                .toList();
+
+        Map<Integer, ClientDtoResponse> found = clientCache.getPresent(ids);
+        List<Long> missing = clientCache.getMissing(ids, found);
+        if (missing.isEmpty()) {
+            return Mono.just(found);
+        }
+
+        return clientWebClient.getClients(missing, authorization)
+                .map(loaded -> {
+                    Map<Integer, ClientDtoResponse> clients = new HashMap<>(found);
+                    clients.putAll(clientCache.putAll(loaded));
+                    return clients;
+                });
+    }
+
+    private Mono<ClientDtoResponse> getClient(Integer clientId, String authorization) {
+        return clientWebClient.getClient(clientId.longValue(), authorization)
+                .switchIfEmpty(Mono.error(() -> new SaleException(SaleException.CLIENT_NOT_FOUND)));
+    }
+
+    private List<SaleDtoResponse> toClientResponses(List<Venta> ventas, ClientDtoResponse client) {
+        return ventas.stream()
+                .map(venta -> toResponse(venta, client))
+                .toList();
+    }
+
+    private SaleDtoResponse toResponse(Venta venta, ClientDtoResponse client) {
+        return new SaleDtoResponse(
+                venta.getId(),
+                client.nombre() + " " + client.apellido(),
+                venta.getDate().toString(),
+                venta.getTotal(),
+                detailSaleMapper.toDtos(venta.getDetails()));
+    }
+
+    private void validateClientId(Integer id) {
+        if (Utils.isNotPositive(id)) {
+            throw new SaleException(SaleException.CLIENT_ID_INVALID);
+        }
+    }
+}
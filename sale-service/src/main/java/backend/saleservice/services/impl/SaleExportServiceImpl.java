@@ -0,0 +1,97 @@
+package backend.saleservice.services.impl;
+
+import backend.dto.response.ClientDtoResponse;
+import backend.dto.response.SaleDtoResponse;
+import backend.saleservice.client.ClientCache;
+import backend.saleservice.client.ClientFeign;
+import backend.saleservice.models.documents.Venta;
+import backend.saleservice.models.mapper.DetailSaleMapper;
+import backend.saleservice.repositories.SaleRepository;
+import backend.saleservice.services.SaleExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Stream;
+
+//escribe las ventas como NDJSON (un JSON por linea) mientras se leen del cursor de Mongo;
+//en memoria solo queda un lote de ventas y la cache de clientes, sin importar cuantas ventas haya
+@Service
+public class SaleExportServiceImpl implements SaleExportService {
+    private final SaleRepository repository;
+    private final ClientFeign clientFeign;
+    private final ClientCache clientCache;
+    private final DetailSaleMapper detailSaleMapper = DetailSaleMapper.INSTANCE;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter writer;
+    private final int batchSize;
+
+    public SaleExportServiceImpl(SaleRepository repository, ClientFeign clientFeign, ClientCache clientCache, ObjectMapper objectMapper,
+                                 @Value("${sale.export.batch-size}") int batchSize) {
+        this.repository = repository;
+        this.clientFeign = clientFeign;
+        this.clientCache = clientCache;
+        this.objectMapper = objectMapper;
+        this.writer = objectMapper.writerFor(SaleDtoResponse.class);
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public long export(LocalDate desde, OutputStream out) throws IOException {
+        long total = 0;
+        List<Venta> batch = new ArrayList<>(batchSize);
+
+        try (Stream<Venta> ventas = desde == null ? repository.streamAllBy() : repository.streamByDateGreaterThanEqual(desde.atStartOfDay());
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+            //el stream de salida lo cierra quien lo abrio; las lineas se separan a mano
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+
+            Iterator<Venta> iterator = ventas.iterator();
+            while (iterator.hasNext()) {
+                batch.add(iterator.next());
+                if (batch.size() == batchSize) {
+                    total += writeBatch(batch, generator);
+                }
+            }
+            total += writeBatch(batch, generator);
+        }
+        return total;
+    }
+
+    //los clientes del lote se resuelven juntos; el flush por lote mantiene acotado lo que queda en buffer
+    private int writeBatch(List<Venta> batch, JsonGenerator generator) throws IOException {
+        if (batch.isEmpty()) {
+            return 0;
+        }
+
+        Set<Integer> clientIds = new HashSet<>();
+        batch.forEach(venta -> clientIds.add(venta.getClientId()));
+        Map<Integer, ClientDtoResponse> clients = clientCache.getAll(clientIds, clientFeign::getClients);
+
+        for (Venta venta : batch) {
+            ClientDtoResponse client = clients.get(venta.getClientId());
+            //un cliente borrado no corta la exportacion, la venta sale sin nombre
+            String fullName = client == null ? null : client.nombre() + " " + client.apellido();
+            writer.writeValue(generator, new SaleDtoResponse(venta.getId(), fullName, venta.getDate().toString(),
+                    venta.getTotal(), detailSaleMapper.toDtos(venta.getDetails())));
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+
+        int size = batch.size();
+        batch.clear();
+        return size;
+    }
+}
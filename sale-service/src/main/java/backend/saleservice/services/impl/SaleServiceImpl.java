@@ -1,122 +1,386 @@
 package backend.saleservice.services.impl;
 
+import backend.collections.IntObjectMap;
 import backend.dto.request.MovementDtoRequest;
 import backend.dto.request.SaleDtoRequest;
 import backend.dto.response.ClientDtoResponse;
 import backend.dto.response.DetailSaleDtoResponse;
 import backend.dto.response.ProductDtoResponse;
 import backend.dto.response.SaleDtoResponse;
+import backend.pageable.CountCache;
+import backend.pageable.CursorPage;
 import backend.pageable.PageableUtils;
 import backend.pageable.Paginado;
 import backend.saleservice.client.ClientFeign;
 import backend.saleservice.client.InventoryClient;
+import backend.saleservice.client.ProductCache;
 import backend.saleservice.client.ProductClient;
+import backend.saleservice.client.RemoteCallExecutor;
+import backend.exception.UtilException;
 import backend.saleservice.exceptions.SaleException;
+import backend.saleservice.idempotency.IdempotencyStore;
 import backend.saleservice.models.documents.DetalleVenta;
+import backend.saleservice.models.documents.EstadoIdempotencia;
+import backend.saleservice.models.documents.RegistroIdempotencia;
 import backend.saleservice.models.documents.Venta;
 import backend.saleservice.models.mapper.DetailSaleMapper;
 import backend.saleservice.models.mapper.SaleMapper;
 import backend.saleservice.repositories.SaleRepository;
+import backend.saleservice.services.SalePricing;
 import backend.saleservice.services.SaleService;
+import backend.saleservice.services.SaleStatsService;
 import backend.utils.Utils;
+import feign.FeignException;
 import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
+@Slf4j
 @Service
 public class SaleServiceImpl implements SaleService {
+    private static final String COUNT_KEY_ALL = "ventas";
+    private static final String COUNT_KEY_CLIENT = "ventas:cliente:";
+    private static final int IDEMPOTENCY_KEY_MAX_LENGTH = 255;
+    private static final String TIPO_MOVIMIENTO_SALIDA = "SALIDA";
+    private static final String TIPO_MOVIMIENTO_ENTRADA = "ENTRADA";
+
     private final SaleRepository repository;
     private final SaleMapper saleMapper = SaleMapper.INSTANCE;
     private final DetailSaleMapper detailSaleMapper = DetailSaleMapper.INSTANCE;
     private final ProductClient productClient;
     private final InventoryClient movementClient;
     private final ClientFeign clientFeign;
-
-    private double total = 0.0;
-
-    public SaleServiceImpl(SaleRepository repository, ProductClient productClient, InventoryClient movementClient, ClientFeign clientFeign) {
+    private final RemoteCallExecutor remoteCallExecutor;
+    private final SalePricing salePricing;
+    private final ProductCache productCache;
+    private final CountCache countCache;
+    private final SaleStatsService saleStatsService;
+    private final IdempotencyStore idempotencyStore;
+
+    public SaleServiceImpl(SaleRepository repository, ProductClient productClient, InventoryClient movementClient, ClientFeign clientFeign, RemoteCallExecutor remoteCallExecutor, SalePricing salePricing, ProductCache productCache, CountCache countCache, SaleStatsService saleStatsService, IdempotencyStore idempotencyStore) {
         this.repository = repository;
         this.productClient = productClient;
         this.movementClient = movementClient;
         this.clientFeign = clientFeign;
+        this.remoteCallExecutor = remoteCallExecutor;
+        this.salePricing = salePricing;
+        this.productCache = productCache;
+        this.countCache = countCache;
+        this.saleStatsService = saleStatsService;
+        this.idempotencyStore = idempotencyStore;
     }
 
     @Override
-    public Page<SaleDtoResponse> getSalesByClient(Integer clientId, Paginado paginado) {
+    public Page<SaleDtoResponse> getSalesByClient(Integer clientId, Paginado paginado, boolean withDetails) {
         PageableUtils.validatePagination(paginado);
-        ClientDtoResponse client = validateClientId(clientId);
+        Pageable pageable = PageableUtils.constructPageable(paginado, Venta.SORTS);
+
+        ClientDtoResponse client = getClient(clientId);
+
+        //con el total en cache solo se pide la pagina; si no, la consulta con COUNT lo vuelve a llenar
+        String countKey = COUNT_KEY_CLIENT + clientId;
+        Long total = countCache.get(countKey);
+        List<Venta> ventas;
+        if (total != null) {
+            ventas = findSliceByClientId(clientId, pageable, withDetails).getContent();
+        } else {
+            Page<Venta> page = withDetails
+                    ? repository.findWithDetailsByClientId(clientId, pageable)
+                    : repository.findByClientId(clientId, pageable);
+            total = page.getTotalElements();
+            countCache.put(countKey, total);
+            ventas = page.getContent();
+        }
+
+        return new PageImpl<>(toClientResponses(ventas, client), pageable, total);
+    }
 
-        Pageable pageable = PageableUtils.constructPageable(paginado);
+    @Override
+    public Slice<SaleDtoResponse> getSalesByClientWithoutTotal(Integer clientId, Paginado paginado, boolean withDetails) {
+        PageableUtils.validatePagination(paginado);
+        Pageable pageable = PageableUtils.constructPageable(paginado, Venta.SORTS);
 
-        Page<Venta> ventas = repository.findByClientId(clientId, pageable);
+        ClientDtoResponse client = getClient(clientId);
 
-        List<SaleDtoResponse> response = new ArrayList<>();
-        if (!ventas.isEmpty()) {
-            response = ventas.getContent().stream()
-                    .map(venta -> {
-                        List<DetailSaleDtoResponse> detalles = detailSaleMapper.toDtos(venta.getDetails());
-                        String fullNameClient = getFullNameClient(client.nombre(), client.apellido());
+        Slice<Venta> ventas = findSliceByClientId(clientId, pageable, withDetails);
 
-                        return new SaleDtoResponse(
-                                venta.getId(),
-                                fullNameClient,
-                                venta.getDate().toString(),
-                                venta.getTotal(),
-                                detalles);
+        return new SliceImpl<>(toClientResponses(ventas.getContent(), client), pageable, ventas.hasNext());
+    }
 
-                    }).toList();
-        }
-        return new PageImpl<>(response, pageable, ventas.getTotalElements());
+    private Slice<Venta> findSliceByClientId(Integer clientId, Pageable pageable, boolean withDetails) {
+        return withDetails
+                ? repository.findSliceWithDetailsByClientId(clientId, pageable)
+                : repository.findSliceByClientId(clientId, pageable);
+    }
+
+    private Slice<Venta> findSlice(Pageable pageable, boolean withDetails) {
+        return withDetails
+                ? repository.findSliceWithDetailsBy(pageable)
+                : repository.findSliceBy(pageable);
+    }
+
+    private List<SaleDtoResponse> toClientResponses(List<Venta> ventas, ClientDtoResponse client) {
+        return ventas.stream()
+                .map(venta -> new SaleDtoResponse(
+                        venta.getId(),
+                        getFullNameClient(client.nombre(), client.apellido()),
+                        venta.getDate().toString(),
+                        venta.getTotal(),
+                        detailSaleMapper.toDtos(venta.getDetails())))
+                .toList();
     }
 
     @Override
     @Transactional(rollbackOn = Exception.class)
     public SaleDtoResponse add(SaleDtoRequest requestDto) {
         String fullName;
-        ClientDtoResponse client = validateClientId(requestDto.clientId());
+        validateClientId(requestDto.clientId());
+        CompletableFuture<ClientDtoResponse> clientFuture = remoteCallExecutor.submit(() -> clientFeign.getClient(requestDto.clientId().longValue()));
+
+        //el error del cliente tiene prioridad sobre el de los detalles, como cuando se consultaba antes de validarlos
         Venta venta = saleMapper.toEntity(requestDto);
-        validateDetails(venta.getDetails());
+        Set<Integer> productIds;
+        try {
+            productIds = validateDetails(venta.getDetails());
+        } catch (RuntimeException e) {
+            remoteCallExecutor.join(clientFuture);
+            throw e;
+        }
+
+        //cliente y productos se consultan en paralelo; se espera primero al cliente como antes
+        CompletableFuture<IntObjectMap<ProductDtoResponse>> productsFuture = remoteCallExecutor.submit(() -> getProducts(productIds));
+
+        ClientDtoResponse client = remoteCallExecutor.join(clientFuture);
+        priceDetails(venta.getDetails(), remoteCallExecutor.join(productsFuture));
 
         venta.setDate(LocalDateTime.now());
-        venta.setTotal(total);
+        venta.setTotal(salePricing.calculateTotal(venta.getDetails()));
+
+        //la reserva de stock es la validacion definitiva, el stock cacheado solo sirve para rechazar antes
+        reserveStock(venta.getDetails(), productIds);
 
-        Venta ventaSaved = repository.save(venta);
+        Venta ventaSaved = saveOrCompensate(venta, productIds);
+        countCache.invalidateAll();
+        recordStats(ventaSaved);
 
         fullName = getFullNameClient(client.nombre(), client.apellido());
 
         List<DetailSaleDtoResponse> detalles = detailSaleMapper.toDtos(venta.getDetails());
 
-        SaleDtoResponse response = new SaleDtoResponse(ventaSaved.getId(), fullName, venta.getDate().toString(), venta.getTotal(), detalles);
-        addMovement(venta.getDetails());
+        return new SaleDtoResponse(ventaSaved.getId(), fullName, venta.getDate().toString(), venta.getTotal(), detalles);
+    }
+
+    //una repeticion con la misma clave devuelve la respuesta guardada sin volver a llamar a inventario
+    @Override
+    public SaleDtoResponse add(SaleDtoRequest requestDto, String idempotencyKey) {
+        validateIdempotencyKey(idempotencyKey);
+        String key = scopeIdempotencyKey(idempotencyKey);
+        String huella = fingerprint(requestDto);
+
+        Optional<RegistroIdempotencia> registro = idempotencyStore.claim(key, huella);
+        if (registro.isPresent()) {
+            return replay(registro.get(), huella);
+        }
+
+        SaleDtoResponse response;
+        try {
+            response = add(requestDto);
+        } catch (SaleException | UtilException e) {
+            //validaciones y consultas previas a la reserva de stock: no quedo nada registrado y se puede reintentar
+            idempotencyStore.release(key);
+            throw e;
+        } catch (FeignException e) {
+            //un 4xx es un rechazo definitivo del otro servicio, que no registro nada: se puede reintentar
+            if (isClientError(e)) {
+                idempotencyStore.release(key);
+            } else {
+                keepInProgress(key);
+            }
+            throw e;
+        } catch (RuntimeException e) {
+            keepInProgress(key);
+            throw e;
+        }
 
+        try {
+            idempotencyStore.complete(key, response);
+        } catch (RuntimeException e) {
+            log.error("No se pudo guardar la respuesta de la clave {}", key, e);
+        }
         return response;
     }
 
+    //con un 5xx, un timeout o cualquier otro error no se sabe si inventario desconto el stock; la clave queda
+    //en curso por el TTL completo y los reintentos reciben 409 en vez de volver a descontarlo
+    private void keepInProgress(String key) {
+        try {
+            idempotencyStore.keep(key);
+        } catch (RuntimeException e) {
+            log.error("No se pudo extender la clave {}", key, e);
+        }
+    }
+
+    private boolean isClientError(FeignException e) {
+        return e.status() >= 400 && e.status() < 500;
+    }
+
+    private SaleDtoResponse replay(RegistroIdempotencia registro, String huella) {
+        if (!registro.getHuella().equals(huella)) {
+            throw new SaleException(SaleException.IDEMPOTENCY_KEY_REUSED);
+        }
+        if (registro.getEstado() != EstadoIdempotencia.COMPLETADO) {
+            throw new SaleException(SaleException.IDEMPOTENCY_KEY_IN_PROGRESS);
+        }
+        return registro.getRespuesta();
+    }
+
+    private void validateIdempotencyKey(String idempotencyKey) {
+        if (Utils.isBlank(idempotencyKey) || idempotencyKey.length() > IDEMPOTENCY_KEY_MAX_LENGTH) {
+            throw new SaleException(SaleException.IDEMPOTENCY_KEY_INVALID);
+        }
+    }
+
+    //la clave es del usuario que la envia; dos usuarios con la misma clave no comparten respuesta
+    private String scopeIdempotencyKey(String idempotencyKey) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication == null ? idempotencyKey : authentication.getName() + ":" + idempotencyKey;
+    }
+
+    private String fingerprint(SaleDtoRequest requestDto) {
+        StringBuilder contenido = new StringBuilder().append(requestDto.clientId());
+        if (requestDto.details() != null) {
+            requestDto.details().forEach(detail -> contenido.append('|').append(detail.productId()).append(':').append(detail.quantity()));
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(contenido.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    //la venta y el stock ya quedaron registrados; si falla el resumen no se rechaza la venta,
+    //el job de reconstruccion corrige los totales
+    private void recordStats(Venta venta) {
+        try {
+            saleStatsService.record(venta);
+        } catch (RuntimeException e) {
+            log.error("No se pudo actualizar el resumen de la venta {}", venta.getId(), e);
+        }
+    }
+
+    private void reserveStock(List<DetalleVenta> details, Set<Integer> productIds) {
+        try {
+            addMovement(details);
+        } catch (RuntimeException e) {
+            //si la reserva falla el stock cacheado ya no es confiable
+            productCache.invalidate(productIds);
+            throw e;
+        }
+    }
+
     private void addMovement(List<DetalleVenta> details) {
-        final String TIPO_MOVIMIENTO_SALIDA = "SALIDA";
+        movementClient.createMovimientos(toMovements(details, TIPO_MOVIMIENTO_SALIDA));
+    }
 
-        for (DetalleVenta detail : details) {
-            MovementDtoRequest movimiento = new MovementDtoRequest(detail.getProductId(), detail.getQuantity(), TIPO_MOVIMIENTO_SALIDA);
+    //el stock ya se desconto; si la venta no se guarda se devuelve con las entradas inversas
+    private Venta saveOrCompensate(Venta venta, Set<Integer> productIds) {
+        try {
+            return repository.save(venta);
+        } catch (RuntimeException e) {
+            compensate(venta.getDetails(), productIds);
+            throw e;
+        }
+    }
+
+    private void compensate(List<DetalleVenta> details, Set<Integer> productIds) {
+        List<MovementDtoRequest> inversos = toMovements(details, TIPO_MOVIMIENTO_ENTRADA);
+        try {
+            movementClient.createMovimientos(inversos);
+        } catch (RuntimeException e) {
+            //queda el stock descontado sin venta; se corrige a mano con un movimiento de entrada
+            log.error("No se pudo devolver el stock de la venta no guardada: {}", inversos, e);
+        } finally {
+            productCache.invalidate(productIds);
+        }
+    }
+
+    private List<MovementDtoRequest> toMovements(List<DetalleVenta> details, String tipoMovimiento) {
+        return details.stream()
+                .map(detail -> new MovementDtoRequest(detail.getProductId(), detail.getQuantity(), tipoMovimiento))
+                .toList();
+    }
 
-            movementClient.createMovimientoDto(movimiento);
+    @Override
+    public Page<SaleDtoResponse> getAll(Integer page, Integer size, String orderBy, boolean withDetails) {
+        Paginado paginado = new Paginado(page, size, orderBy);
+        PageableUtils.validatePagination(paginado);
+        Pageable pageable = PageableUtils.constructPageable(paginado, Venta.SORTS);
+
+        Long total = countCache.get(COUNT_KEY_ALL);
+        if (total != null) {
+            Slice<Venta> ventas = findSlice(pageable, withDetails);
+            return new PageImpl<>(toResponses(ventas.getContent()), pageable, total);
         }
+
+        Page<Venta> ventas = withDetails ? repository.findAll(pageable) : repository.findPageBy(pageable);
+        countCache.put(COUNT_KEY_ALL, ventas.getTotalElements());
+
+        return new PageImpl<>(toResponses(ventas.getContent()), pageable, ventas.getTotalElements());
     }
 
     @Override
-    public Page<SaleDtoResponse> getAll(Integer page, Integer size, String orderBy) {
+    public Slice<SaleDtoResponse> getAllWithoutTotal(Integer page, Integer size, String orderBy, boolean withDetails) {
         Paginado paginado = new Paginado(page, size, orderBy);
         PageableUtils.validatePagination(paginado);
-        Pageable pageable = PageableUtils.constructPageable(paginado);
+        Pageable pageable = PageableUtils.constructPageable(paginado, Venta.SORTS);
+
+        Slice<Venta> ventas = findSlice(pageable, withDetails);
+
+        return new SliceImpl<>(toResponses(ventas.getContent()), pageable, ventas.hasNext());
+    }
+
+    @Override
+    public CursorPage<SaleDtoResponse> getAllByCursor(Integer size, String orderBy, String cursor, boolean withDetails) {
+        PageableUtils.validateCursor(size, orderBy);
+
+        Sort sort = PageableUtils.constructSort(orderBy, Venta.SORTS);
+        ScrollPosition position = PageableUtils.constructScrollPosition(cursor, sort, Venta.SORTS);
+        Limit limit = PageableUtils.constructLimit(size);
+        Window<Venta> ventas = withDetails
+                ? repository.findAllWithDetailsBy(position, sort, limit)
+                : repository.findAllBy(position, sort, limit);
+
+        return PageableUtils.toCursorPage(ventas, this::toResponses);
+    }
+
+    private List<SaleDtoResponse> toResponses(List<Venta> ventas) {
+        Map<Long, ClientDtoResponse> clients = getClients(ventas);
 
-        Page<Venta> ventas = repository.findAll(pageable);
         List<SaleDtoResponse> response = new ArrayList<>();
-        for (Venta venta : ventas.getContent()) {
-            ClientDtoResponse client = clientFeign.getClient(venta.getClientId().longValue());
+        for (Venta venta : ventas) {
+            ClientDtoResponse client = clients.get(venta.getClientId().longValue());
+            if (client == null) {
+                throw new SaleException(SaleException.CLIENT_NOT_FOUND);
+            }
             String fullNameClient = getFullNameClient(client.nombre(), client.apellido());
 
             List<DetailSaleDtoResponse> detalles = detailSaleMapper.toDtos(venta.getDetails());
@@ -124,33 +388,42 @@ public class SaleServiceImpl implements SaleService {
 
             response.add(ventaDto);
         }
-        return new PageImpl<>(response, pageable, ventas.getTotalElements());
+        return response;
+    }
+
+    private Map<Long, ClientDtoResponse> getClients(List<Venta> ventas) {
+        List<Long> clientIds = ventas.stream()
+                .map(venta -> venta.getClientId().longValue())
+                .distinct()
+                .toList();
+
+        List<ClientDtoResponse> clients = clientIds.isEmpty() ? List.of() : clientFeign.getClients(clientIds);
+
+        Map<Long, ClientDtoResponse> clientsById = new HashMap<>();
+        if (clients != null) {
+            clients.forEach(client -> clientsById.put(client.id(), client));
+        }
+        return clientsById;
     }
 
     private String getFullNameClient(String nombre, String apellido) {
         return nombre + " " + apellido;
     }
 
-    private Double calculateSubtotal(Double precio, Integer quantity) {
-        double subTotal;
-        if (Utils.isNotPositive(precio.intValue())) {
-            throw new SaleException(SaleException.PRICE_INVALID);
-        }
-        subTotal = precio * quantity;
-        total = total + subTotal;
-        return subTotal;
+    private ClientDtoResponse getClient(Integer id) {
+        validateClientId(id);
+
+        ClientDtoResponse client = clientFeign.getClient(id.longValue());
+        return client;
     }
 
-    private ClientDtoResponse validateClientId(Integer id) {
+    private void validateClientId(Integer id) {
         if (Utils.isNotPositive(id)) {
             throw new SaleException(SaleException.CLIENT_ID_INVALID);
         }
-
-        ClientDtoResponse client = clientFeign.getClient(id.longValue());
-        return client;
     }
 
-    private void validateDetails(List<DetalleVenta> details) {
+    private Set<Integer> validateDetails(List<DetalleVenta> details) {
         Set<Integer> productIds = new HashSet<>();
 
         if (details == null || details.isEmpty()) {
@@ -160,15 +433,33 @@ public class SaleServiceImpl implements SaleService {
         for (DetalleVenta detail : details) {
             validateQuantity(detail.getQuantity());
             validateProductRepeated(detail, productIds);
+        }
+        return productIds;
+    }
 
-            ProductDtoResponse product = productClient.getProduct(detail.getProductId());
+    private void priceDetails(List<DetalleVenta> details, IntObjectMap<ProductDtoResponse> products) {
+        for (DetalleVenta detail : details) {
+            Integer productId = detail.getProductId();
+            ProductDtoResponse product = productId == null ? null : products.get(productId);
             validateProduct(product);
 
             validateQuantityGreaterThanStock(detail.getQuantity(), product.stock());
 
             detail.setUnitPrice(product.precio());
-            detail.setSubTotal(calculateSubtotal(product.precio(), detail.getQuantity()));
+            detail.setSubTotal(salePricing.calculateSubtotal(product.precio(), detail.getQuantity()));
+        }
+    }
+
+    private IntObjectMap<ProductDtoResponse> getProducts(Set<Integer> productIds) {
+        int[] ids = productIds.stream()
+                .filter(Objects::nonNull)
+                .mapToInt(Integer::intValue)
+                .toArray();
+
+        if (ids.length == 0) {
+            return new IntObjectMap<>();
         }
+        return productCache.getAll(ids, productClient::getProducts);
     }
 
     private void validateProductRepeated(DetalleVenta detail, Set<Integer> productIds) {
@@ -0,0 +1,157 @@
+package backend.saleservice.services.impl;
+
+import backend.dto.response.SaleStatsDtoResponse;
+import backend.saleservice.exceptions.SaleException;
+import backend.saleservice.models.documents.DetalleVenta;
+import backend.saleservice.models.documents.ResumenVenta;
+import backend.saleservice.models.documents.TipoResumen;
+import backend.saleservice.models.documents.Venta;
+import backend.saleservice.repositories.ResumenVentaRepository;
+import backend.saleservice.repositories.SaleRepository;
+import backend.saleservice.services.SaleStatsService;
+import backend.utils.Utils;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+@Service
+public class SaleStatsServiceImpl implements SaleStatsService {
+    static final int MAX_LIMIT = 100;
+
+    private final SaleRepository saleRepository;
+    private final ResumenVentaRepository resumenRepository;
+
+    public SaleStatsServiceImpl(SaleRepository saleRepository, ResumenVentaRepository resumenRepository) {
+        this.saleRepository = saleRepository;
+        this.resumenRepository = resumenRepository;
+    }
+
+    @Override
+    public void record(Venta venta) {
+        resumenRepository.increment(toResumenes(venta));
+    }
+
+    @Override
+    public List<SaleStatsDtoResponse> getDaily(LocalDate desde, LocalDate hasta) {
+        validateRange(desde, hasta);
+
+        return resumenRepository.findByTipoAndFechaRange(TipoResumen.DIA, desde, hasta).stream()
+                .map(resumen -> toDto(resumen.getFecha().toString(), resumen))
+                .toList();
+    }
+
+    @Override
+    public List<SaleStatsDtoResponse> getByProduct(LocalDate desde, LocalDate hasta, Integer limit) {
+        return sumByClave(TipoResumen.PRODUCTO, desde, hasta, limit);
+    }
+
+    @Override
+    public List<SaleStatsDtoResponse> getByClient(LocalDate desde, LocalDate hasta, Integer limit) {
+        return sumByClave(TipoResumen.CLIENTE, desde, hasta, limit);
+    }
+
+    //recalcula los dias anteriores a hoy en una sola pasada por las ventas en orden de fecha; en memoria solo
+    //quedan los resumenes del dia que se esta recorriendo, y cada dia se reemplaza al terminarlo.
+    //El dia en curso no se toca porque sigue recibiendo incrementos
+    @Override
+    public long rebuild() {
+        LocalDate hoy = LocalDate.now();
+        Map<String, ResumenVenta> resumenes = new HashMap<>();
+        List<LocalDate> dias = new ArrayList<>();
+        LocalDate dia = null;
+        long ventas = 0;
+
+        try (Stream<Venta> stream = saleRepository.streamByDateLessThanOrderByDateAsc(hoy.atStartOfDay())) {
+            Iterator<Venta> iterator = stream.iterator();
+            while (iterator.hasNext()) {
+                Venta venta = iterator.next();
+                LocalDate fecha = venta.getDate().toLocalDate();
+                if (!fecha.equals(dia)) {
+                    replaceDay(dia, resumenes, dias);
+                    dia = fecha;
+                }
+                for (ResumenVenta resumen : toResumenes(venta)) {
+                    resumenes.merge(resumen.getId(), resumen, SaleStatsServiceImpl::sum);
+                }
+                ventas++;
+            }
+        }
+        replaceDay(dia, resumenes, dias);
+
+        //dias que tenian resumenes y ya no tienen ventas
+        resumenRepository.deleteDaysBefore(hoy, dias);
+        return ventas;
+    }
+
+    private void replaceDay(LocalDate dia, Map<String, ResumenVenta> resumenes, List<LocalDate> dias) {
+        if (dia == null) {
+            return;
+        }
+        resumenRepository.replaceDay(dia, List.copyOf(resumenes.values()));
+        dias.add(dia);
+        resumenes.clear();
+    }
+
+    private List<SaleStatsDtoResponse> sumByClave(TipoResumen tipo, LocalDate desde, LocalDate hasta, Integer limit) {
+        validateRange(desde, hasta);
+        if (Utils.isNotPositive(limit)) {
+            throw new SaleException(SaleException.SIZE_NUMBER_INVALID);
+        }
+
+        return resumenRepository.sumByClave(tipo, desde, hasta, Math.min(limit, MAX_LIMIT)).stream()
+                .map(resumen -> toDto(null, resumen))
+                .toList();
+    }
+
+    static List<ResumenVenta> toResumenes(Venta venta) {
+        LocalDate fecha = venta.getDate().toLocalDate();
+        long unidades = 0;
+        List<ResumenVenta> resumenes = new ArrayList<>();
+
+        for (DetalleVenta detail : venta.getDetails()) {
+            unidades += detail.getQuantity();
+            resumenes.add(resumen(TipoResumen.PRODUCTO, fecha, detail.getProductId(), detail.getQuantity(), detail.getSubTotal()));
+        }
+        resumenes.add(resumen(TipoResumen.DIA, fecha, null, unidades, venta.getTotal()));
+        resumenes.add(resumen(TipoResumen.CLIENTE, fecha, venta.getClientId(), unidades, venta.getTotal()));
+        return resumenes;
+    }
+
+    private static ResumenVenta resumen(TipoResumen tipo, LocalDate fecha, Integer clave, long unidades, Double importe) {
+        return ResumenVenta.builder()
+                .id(ResumenVenta.id(tipo, fecha, clave))
+                .tipo(tipo)
+                .fecha(fecha)
+                .clave(clave)
+                .ventas(1L)
+                .unidades(unidades)
+                .ingresos(BigDecimal.valueOf(importe).movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValue())
+                .build();
+    }
+
+    private static ResumenVenta sum(ResumenVenta a, ResumenVenta b) {
+        a.setVentas(a.getVentas() + b.getVentas());
+        a.setUnidades(a.getUnidades() + b.getUnidades());
+        a.setIngresos(a.getIngresos() + b.getIngresos());
+        return a;
+    }
+
+    private SaleStatsDtoResponse toDto(String fecha, ResumenVenta resumen) {
+        return new SaleStatsDtoResponse(fecha, resumen.getClave(), resumen.getVentas(), resumen.getUnidades(),
+                BigDecimal.valueOf(resumen.getIngresos(), 2).doubleValue());
+    }
+
+    private void validateRange(LocalDate desde, LocalDate hasta) {
+        if (desde == null || hasta == null || hasta.isBefore(desde)) {
+            throw new SaleException(SaleException.DATE_RANGE_INVALID);
+        }
+    }
+}
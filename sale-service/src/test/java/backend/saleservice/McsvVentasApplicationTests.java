@@ -1,15 +1,30 @@
 package backend.saleservice;
 
+import backend.saleservice.repositories.ReactiveSaleRepository;
+import com.mongodb.reactivestreams.client.MongoClient;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
 import org.springframework.test.context.ActiveProfiles;
 
+import static org.assertj.core.api.Assertions.assertThat;
+
 @SpringBootTest
 @ActiveProfiles("test-local")
 class McsvVentasApplicationTests {
 
+    @Autowired
+    private ApplicationContext context;
+
     @Test
     void contextLoads() {
     }
 
+    @Test
+    void contextLoads_whenReadBackendIsBlocking_doesNotCreateReactiveMongo() {
+        assertThat(context.getBeanNamesForType(ReactiveSaleRepository.class)).isEmpty();
+        assertThat(context.getBeanNamesForType(MongoClient.class)).isEmpty();
+    }
+
 }
@@ -0,0 +1,58 @@
+package backend.saleservice.client;
+
+import backend.dto.response.ClientDtoResponse;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientCacheTest {
+    private final AtomicLong now = new AtomicLong(0);
+    private final List<List<Long>> loads = new ArrayList<>();
+
+    //el cliente 99 no existe
+    private final Function<List<Long>, List<ClientDtoResponse>> loader = ids -> {
+        loads.add(ids);
+        return ids.stream().filter(id -> id != 99).map(this::client).toList();
+    };
+
+    @Test
+    void getAll_whenClientIsCached_doesNotLoadAgain() {
+        ClientCache cache = new ClientCache(10, 1000, now::get);
+
+        cache.getAll(List.of(1, 2), loader);
+        Map<Integer, ClientDtoResponse> clients = cache.getAll(List.of(1, 2, 3), loader);
+
+        assertThat(clients).containsOnlyKeys(1, 2, 3);
+        assertThat(loads).containsExactly(List.of(1L, 2L), List.of(3L));
+    }
+
+    @Test
+    void getAll_whenTtlExpired_loadsAgain() {
+        ClientCache cache = new ClientCache(10, 1000, now::get);
+
+        cache.getAll(List.of(1), loader);
+        now.set(1000);
+        cache.getAll(List.of(1), loader);
+
+        assertThat(loads).containsExactly(List.of(1L), List.of(1L));
+    }
+
+    @Test
+    void getAll_whenClientDoesNotExist_isLeftOut() {
+        ClientCache cache = new ClientCache(10, 1000, now::get);
+
+        Map<Integer, ClientDtoResponse> clients = cache.getAll(List.of(1, 99), loader);
+
+        assertThat(clients).containsOnlyKeys(1);
+    }
+
+    private ClientDtoResponse client(Long id) {
+        return new ClientDtoResponse(id, "CLIENTE", String.valueOf(id), "DNI", "2000-10-10", "1234567" + id);
+    }
+}
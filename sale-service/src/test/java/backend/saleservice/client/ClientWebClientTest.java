@@ -0,0 +1,87 @@
+package backend.saleservice.client;
+
+import backend.dto.response.ClientDtoResponse;
+import backend.saleservice.exceptions.SaleException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ClientWebClientTest {
+    private static final String TOKEN = "Bearer token";
+    private static final String CLIENT = "{\"id\":1,\"nombre\":\"CLIENTE\",\"apellido\":\"1\",\"tipoDocumento\":\"DNI\",\"fechaNacimiento\":\"2000-10-10\",\"numeroDocumento\":\"12345671\"}";
+
+    private final List<ClientRequest> requests = new ArrayList<>();
+
+    @Test
+    void getClients_whenCalled_postsBatchWithToken() {
+        ClientWebClient client = client(response(HttpStatus.OK, "[" + CLIENT + "]"), 1000);
+
+        StepVerifier.create(client.getClients(List.of(1L), TOKEN))
+                .assertNext(clients -> assertThat(clients).extracting(ClientDtoResponse::id).containsExactly(1L))
+                .verifyComplete();
+
+        ClientRequest request = requests.get(0);
+        assertThat(request.method()).isEqualTo(HttpMethod.POST);
+        assertThat(request.url().toString()).isEqualTo("http://clients-service/api/clients/batch");
+        assertThat(request.headers().getFirst(HttpHeaders.AUTHORIZATION)).isEqualTo(TOKEN);
+    }
+
+    @Test
+    void getClient_whenThereIsNoToken_doesNotSendHeader() {
+        ClientWebClient client = client(response(HttpStatus.OK, CLIENT), 1000);
+
+        StepVerifier.create(client.getClient(1L, null))
+                .assertNext(found -> assertThat(found.nombre()).isEqualTo("CLIENTE"))
+                .verifyComplete();
+
+        assertThat(requests.get(0).url().getPath()).isEqualTo("/api/clients/1");
+        assertThat(requests.get(0).headers()).doesNotContainKey(HttpHeaders.AUTHORIZATION);
+    }
+
+    @Test
+    void getClient_whenServiceFails_propagatesError() {
+        ClientWebClient client = client(response(HttpStatus.NOT_FOUND, ""), 1000);
+
+        StepVerifier.create(client.getClient(1L, TOKEN))
+                .expectError(WebClientResponseException.NotFound.class)
+                .verify();
+    }
+
+    @Test
+    void getClients_whenServiceIsSlow_timesOut() {
+        ClientWebClient client = client(response(HttpStatus.OK, "[]").delayElement(Duration.ofMillis(500)), 50);
+
+        StepVerifier.create(client.getClients(List.of(1L), TOKEN))
+                .expectErrorMessage(SaleException.REMOTE_CALL_TIMEOUT)
+                .verify();
+    }
+
+    private ClientWebClient client(Mono<ClientResponse> response, long timeoutMillis) {
+        WebClient.Builder builder = WebClient.builder().exchangeFunction(request -> {
+            requests.add(request);
+            return response;
+        });
+        return new ClientWebClient(builder, "clients-service", timeoutMillis);
+    }
+
+    private Mono<ClientResponse> response(HttpStatus status, String body) {
+        return Mono.just(ClientResponse.create(status)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                .body(body)
+                .build());
+    }
+}
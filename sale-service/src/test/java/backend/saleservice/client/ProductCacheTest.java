@@ -0,0 +1,76 @@
+package backend.saleservice.client;
+
+import backend.collections.IntObjectMap;
+import backend.dto.response.ProductDtoResponse;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ProductCacheTest {
+    private final AtomicLong now = new AtomicLong(0);
+    private final List<List<Integer>> loads = new ArrayList<>();
+
+    private final Function<List<Integer>, List<ProductDtoResponse>> loader = ids -> {
+        loads.add(ids);
+        return ids.stream().map(this::product).toList();
+    };
+
+    @Test
+    void getAll_whenProductIsCached_doesNotLoadAgain() {
+        ProductCache cache = new ProductCache(10, 1000, now::get);
+
+        cache.getAll(new int[]{1, 2}, loader);
+        IntObjectMap<ProductDtoResponse> products = cache.getAll(new int[]{1, 2, 3}, loader);
+
+        assertThat(products.size()).isEqualTo(3);
+        assertThat(products.get(3).id()).isEqualTo(3);
+        assertThat(loads).containsExactly(List.of(1, 2), List.of(3));
+        assertThat(cache.stats()).isEqualTo(new ProductCache.Stats(2, 3, 0, 3));
+    }
+
+    @Test
+    void getAll_whenTtlExpired_loadsAgain() {
+        ProductCache cache = new ProductCache(10, 1000, now::get);
+
+        cache.getAll(new int[]{1}, loader);
+        now.set(1000);
+        cache.getAll(new int[]{1}, loader);
+
+        assertThat(loads).containsExactly(List.of(1), List.of(1));
+        assertThat(cache.stats().evictions()).isEqualTo(1);
+    }
+
+    @Test
+    void getAll_whenMaxSizeReached_evictsLeastRecentlyUsed() {
+        ProductCache cache = new ProductCache(2, 1000, now::get);
+
+        cache.getAll(new int[]{1, 2}, loader);
+        cache.getAll(new int[]{1}, loader);
+        cache.getAll(new int[]{3}, loader);
+        cache.getAll(new int[]{1, 2}, loader);
+
+        assertThat(loads).containsExactly(List.of(1, 2), List.of(3), List.of(2));
+        assertThat(cache.stats().size()).isEqualTo(2);
+    }
+
+    @Test
+    void invalidate_whenProductChanged_loadsAgain() {
+        ProductCache cache = new ProductCache(10, 1000, now::get);
+
+        cache.getAll(new int[]{1, 2}, loader);
+        cache.invalidate(List.of(2));
+        cache.getAll(new int[]{1, 2}, loader);
+
+        assertThat(loads).containsExactly(List.of(1, 2), List.of(2));
+    }
+
+    private ProductDtoResponse product(Integer id) {
+        return new ProductDtoResponse(id, "Producto " + id, "Producto " + id, 5.00, true, LocalDate.now(), 10);
+    }
+}
@@ -0,0 +1,55 @@
+package backend.saleservice.controllers;
+
+import backend.saleservice.client.ProductCache;
+import backend.saleservice.security.TestSecurityConfig;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(ProductCacheController.class)
+@Import(TestSecurityConfig.class)
+class ProductCacheControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ProductCache productCache;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void invalidate_whenIdsAreSent_evictsProducts() throws Exception {
+        mockMvc.perform(post("/api/sales/cache/products/invalidate")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(List.of(1, 2))))
+                .andExpect(status().isOk());
+
+        verify(productCache, times(1)).invalidate(List.of(1, 2));
+    }
+
+    @Test
+    void stats_whenCalled_returnsCounters() throws Exception {
+        when(productCache.stats()).thenReturn(new ProductCache.Stats(10, 4, 1, 3));
+
+        mockMvc.perform(get("/api/sales/cache/products/stats"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hits").value(10))
+                .andExpect(jsonPath("$.misses").value(4))
+                .andExpect(jsonPath("$.evictions").value(1))
+                .andExpect(jsonPath("$.size").value(3));
+    }
+}
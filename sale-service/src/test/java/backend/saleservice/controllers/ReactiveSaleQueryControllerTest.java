@@ -0,0 +1,104 @@
+package backend.saleservice.controllers;
+
+import backend.dto.response.SaleDtoResponse;
+import backend.pageable.Paginado;
+import backend.saleservice.exceptions.SaleException;
+import backend.saleservice.security.TestSecurityConfig;
+import backend.saleservice.services.ReactiveSaleService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(value = ReactiveSaleQueryController.class, properties = "sale.read.backend=reactive")
+@Import(TestSecurityConfig.class)
+class ReactiveSaleQueryControllerTest {
+    private static final String TOKEN = "Bearer token";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private ReactiveSaleService service;
+
+    private final SaleDtoResponse sale = new SaleDtoResponse("1", "CLIENTE 1", "2025-01-10T10:00", 10.00, List.of());
+
+    @Test
+    void list_whenWithTotal_forwardsTokenAndReturnsPage() throws Exception {
+        when(service.getAll(1, 10, "date", false, TOKEN))
+                .thenReturn(Mono.just(new PageImpl<>(List.of(sale), PageRequest.of(0, 10), 1)));
+
+        MvcResult result = mockMvc.perform(get("/api/sales")
+                        .param("page", "1")
+                        .param("size", "10")
+                        .param("orderBy", "date")
+                        .header(HttpHeaders.AUTHORIZATION, TOKEN))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("1"))
+                .andExpect(jsonPath("$.content[0].client").value("CLIENTE 1"));
+    }
+
+    @Test
+    void list_whenWithoutTotal_usesSlice() throws Exception {
+        when(service.getAllWithoutTotal(1, 10, "date", true, null))
+                .thenReturn(Mono.just(new SliceImpl<>(List.of(sale), PageRequest.of(0, 10), true)));
+
+        MvcResult result = mockMvc.perform(get("/api/sales")
+                        .param("page", "1")
+                        .param("size", "10")
+                        .param("orderBy", "date")
+                        .param("withTotal", "false")
+                        .param("withDetails", "true"))
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value("1"));
+        verify(service, never()).getAll(anyInt(), anyInt(), anyString(), anyBoolean(), any());
+    }
+
+    @Test
+    void getByClient_whenServiceFails_returnsBadRequest() throws Exception {
+        Paginado paginado = new Paginado(1, 10, "date");
+        when(service.getSalesByClient(0, paginado, false, null))
+                .thenReturn(Mono.error(new SaleException(SaleException.CLIENT_ID_INVALID)));
+
+        MvcResult result = mockMvc.perform(post("/api/sales/client/{id}", 0)
+                        .content(objectMapper.writeValueAsString(paginado))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(SaleException.CLIENT_ID_INVALID));
+    }
+}
@@ -1,5 +1,7 @@
 package backend.saleservice.controllers;
 
+import backend.exception.UtilException;
+import backend.pageable.CursorPage;
 import backend.pageable.Paginado;
 import backend.saleservice.exceptions.SaleException;
 import backend.dto.request.DetailSaleDtoRequest;
@@ -17,6 +19,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
@@ -29,7 +32,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@WebMvcTest(SaleController.class)
+@WebMvcTest({SaleController.class, SaleQueryController.class})
 @Import(TestSecurityConfig.class)
 @ExtendWith(MockitoExtension.class)
 class SaleControllerTest {
@@ -155,12 +158,43 @@ class SaleControllerTest {
         verify(service, times(1)).add(eq(requestDto));
     }
 
+    @Test
+    void createVenta_whenIdempotencyKeyIsSent_passesItToService() throws Exception {
+        SaleDtoRequest requestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 10)));
+        SaleDtoResponse saleDtoResponse1 = constructSaleResponseDto("1", "Victor Orbegozo", "2025-10-10", 75.00, List.of());
+
+        when(service.add(requestDto, "clave-1")).thenReturn(saleDtoResponse1);
+
+        mockMvc.perform(post("/api/sales")
+                        .header("Idempotency-Key", "clave-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value("1"));
+
+        verify(service, never()).add(any(SaleDtoRequest.class));
+    }
+
+    @Test
+    void createVenta_whenIdempotencyKeyIsInProgress_returnsConflict() throws Exception {
+        SaleDtoRequest requestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 10)));
+
+        when(service.add(requestDto, "clave-1")).thenThrow(new SaleException(SaleException.IDEMPOTENCY_KEY_IN_PROGRESS));
+
+        mockMvc.perform(post("/api/sales")
+                        .header("Idempotency-Key", "clave-1")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(requestDto)))
+                .andExpect(status().isConflict())
+                .andExpect(content().string(SaleException.IDEMPOTENCY_KEY_IN_PROGRESS));
+    }
+
     @Test
     void getByClient_whenOrderByIsNotValid_returnsError() throws Exception {
         Paginado paginado = new Paginado(1, 10, "");
         String json = objectMapper.writeValueAsString(paginado);
 
-        when(service.getSalesByClient(1, paginado)).thenThrow(new SaleException(SaleException.SORT_NAME_INVALID));
+        when(service.getSalesByClient(1, paginado, false)).thenThrow(new SaleException(SaleException.SORT_NAME_INVALID));
 
         mockMvc.perform(post("/api/sales/client/{id}", 1)
                         .content(json)
@@ -168,7 +202,7 @@ class SaleControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(SaleException.SORT_NAME_INVALID));
 
-        verify(service, times(1)).getSalesByClient(1, paginado);
+        verify(service, times(1)).getSalesByClient(1, paginado, false);
     }
 
     @Test
@@ -176,7 +210,7 @@ class SaleControllerTest {
         Paginado paginado = new Paginado(1, 0, "id");
         String json = objectMapper.writeValueAsString(paginado);
 
-        when(service.getSalesByClient(1, paginado)).thenThrow(new SaleException(SaleException.SIZE_NUMBER_INVALID));
+        when(service.getSalesByClient(1, paginado, false)).thenThrow(new SaleException(SaleException.SIZE_NUMBER_INVALID));
 
         mockMvc.perform(post("/api/sales/client/{id}", 1)
                         .content(json)
@@ -184,7 +218,7 @@ class SaleControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(SaleException.SIZE_NUMBER_INVALID));
 
-        verify(service, times(1)).getSalesByClient(1, paginado);
+        verify(service, times(1)).getSalesByClient(1, paginado, false);
     }
 
     @Test
@@ -192,7 +226,7 @@ class SaleControllerTest {
         Paginado paginado = new Paginado(0, 10, "id");
         String json = objectMapper.writeValueAsString(paginado);
 
-        when(service.getSalesByClient(1, paginado)).thenThrow(new SaleException(SaleException.PAGE_NUMBER_INVALID));
+        when(service.getSalesByClient(1, paginado, false)).thenThrow(new SaleException(SaleException.PAGE_NUMBER_INVALID));
 
         mockMvc.perform(post("/api/sales/client/{id}", 1)
                         .content(json)
@@ -200,7 +234,7 @@ class SaleControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(SaleException.PAGE_NUMBER_INVALID));
 
-        verify(service, times(1)).getSalesByClient(1, paginado);
+        verify(service, times(1)).getSalesByClient(1, paginado, false);
     }
 
     @Test
@@ -208,7 +242,7 @@ class SaleControllerTest {
         Paginado paginado = new Paginado(1, 10, "id");
         String json = objectMapper.writeValueAsString(paginado);
 
-        when(service.getSalesByClient(0, paginado)).thenThrow(new SaleException(SaleException.CLIENT_ID_INVALID));
+        when(service.getSalesByClient(0, paginado, false)).thenThrow(new SaleException(SaleException.CLIENT_ID_INVALID));
 
         mockMvc.perform(post("/api/sales/client/{id}", 0)
                         .content(json)
@@ -216,7 +250,7 @@ class SaleControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(SaleException.CLIENT_ID_INVALID));
 
-        verify(service, times(1)).getSalesByClient(0, paginado);
+        verify(service, times(1)).getSalesByClient(0, paginado, false);
     }
 
     @Test
@@ -224,7 +258,7 @@ class SaleControllerTest {
         Paginado paginado = new Paginado(1, 10, "id");
         String json = objectMapper.writeValueAsString(paginado);
 
-        when(service.getSalesByClient(1, paginado)).thenReturn(Page.empty());
+        when(service.getSalesByClient(1, paginado, false)).thenReturn(Page.empty());
 
         mockMvc.perform(post("/api/sales/client/{id}", 1)
                         .content(json)
@@ -232,7 +266,42 @@ class SaleControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isEmpty());
 
-        verify(service, times(1)).getSalesByClient(1, paginado);
+        verify(service, times(1)).getSalesByClient(1, paginado, false);
+    }
+
+    @Test
+    void getByClient_whenWithTotalIsFalse_returnsSlice() throws Exception {
+        Paginado paginado = new Paginado(1, 10, "id");
+        String json = objectMapper.writeValueAsString(paginado);
+
+        when(service.getSalesByClientWithoutTotal(1, paginado, false)).thenReturn(new SliceImpl<>(List.of()));
+
+        mockMvc.perform(post("/api/sales/client/{id}", 1)
+                        .param("withTotal", "false")
+                        .content(json)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isArray())
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(service, never()).getSalesByClient(1, paginado, false);
+    }
+
+    @Test
+    void getByClient_whenWithDetailsIsTrue_requestsDetails() throws Exception {
+        Paginado paginado = new Paginado(1, 10, "id");
+        String json = objectMapper.writeValueAsString(paginado);
+
+        when(service.getSalesByClient(1, paginado, true)).thenReturn(Page.empty());
+
+        mockMvc.perform(post("/api/sales/client/{id}", 1)
+                        .param("withDetails", "true")
+                        .content(json)
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk());
+
+        verify(service, times(1)).getSalesByClient(1, paginado, true);
+        verify(service, never()).getSalesByClient(1, paginado, false);
     }
 
     @Test
@@ -246,7 +315,7 @@ class SaleControllerTest {
         Paginado paginado = new Paginado(1, 10, "id");
         String json = objectMapper.writeValueAsString(paginado);
 
-        when(service.getSalesByClient(1, paginado)).thenReturn(new PageImpl<>(ventas));
+        when(service.getSalesByClient(1, paginado, false)).thenReturn(new PageImpl<>(ventas));
 
         mockMvc.perform(post("/api/sales/client/{id}", 1)
                         .content(json)
@@ -254,12 +323,12 @@ class SaleControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray());
 
-        verify(service, times(1)).getSalesByClient(1, paginado);
+        verify(service, times(1)).getSalesByClient(1, paginado, false);
     }
 
     @Test
     void list_whenOrderByIsNotValid_returnsError() throws Exception {
-        when(service.getAll(1, 10, " ")).thenThrow(new SaleException(SaleException.SORT_NAME_INVALID));
+        when(service.getAll(1, 10, " ", false)).thenThrow(new SaleException(SaleException.SORT_NAME_INVALID));
 
         mockMvc.perform(get("/api/sales")
                         .param("page", "1")
@@ -269,12 +338,12 @@ class SaleControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(SaleException.SORT_NAME_INVALID));
 
-        verify(service, times(1)).getAll(1, 10, " ");
+        verify(service, times(1)).getAll(1, 10, " ", false);
     }
 
     @Test
     void list_whenSizeNumberIsNotValid_returnsError() throws Exception {
-        when(service.getAll(1, -1, "id")).thenThrow(new SaleException(SaleException.SIZE_NUMBER_INVALID));
+        when(service.getAll(1, -1, "id", false)).thenThrow(new SaleException(SaleException.SIZE_NUMBER_INVALID));
 
         mockMvc.perform(get("/api/sales")
                         .param("page", "1")
@@ -284,12 +353,12 @@ class SaleControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(SaleException.SIZE_NUMBER_INVALID));
 
-        verify(service, times(1)).getAll(1, -1, "id");
+        verify(service, times(1)).getAll(1, -1, "id", false);
     }
 
     @Test
     void list_whenPageNumberIsNotValid_returnsError() throws Exception {
-        when(service.getAll(0, 10, "id")).thenThrow(new SaleException(SaleException.PAGE_NUMBER_INVALID));
+        when(service.getAll(0, 10, "id", false)).thenThrow(new SaleException(SaleException.PAGE_NUMBER_INVALID));
 
         mockMvc.perform(get("/api/sales")
                         .param("page", "0")
@@ -299,12 +368,12 @@ class SaleControllerTest {
                 .andExpect(status().isBadRequest())
                 .andExpect(content().string(SaleException.PAGE_NUMBER_INVALID));
 
-        verify(service, times(1)).getAll(0, 10, "id");
+        verify(service, times(1)).getAll(0, 10, "id", false);
     }
 
     @Test
     void list_whenDataNoExists_returnsEmpty() throws Exception {
-        when(service.getAll(1, 10, "id")).thenReturn(Page.empty());
+        when(service.getAll(1, 10, "id", false)).thenReturn(Page.empty());
 
         mockMvc.perform(get("/api/sales")
                         .param("page", "1")
@@ -314,7 +383,7 @@ class SaleControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isEmpty());
 
-        verify(service, times(1)).getAll(1, 10, "id");
+        verify(service, times(1)).getAll(1, 10, "id", false);
     }
 
     @Test
@@ -329,7 +398,7 @@ class SaleControllerTest {
 
         List<SaleDtoResponse> ventas = List.of(saleDtoResponse1, saleDtoResponse2);
 
-        when(service.getAll(1, 10, "id")).thenReturn(new PageImpl<>(ventas));
+        when(service.getAll(1, 10, "id", false)).thenReturn(new PageImpl<>(ventas));
 
         mockMvc.perform(get("/api/sales")
                         .param("page", "1")
@@ -339,7 +408,7 @@ class SaleControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content").isArray());
 
-        verify(service, times(1)).getAll(1, 10, "id");
+        verify(service, times(1)).getAll(1, 10, "id", false);
 
     }
 
@@ -350,4 +419,28 @@ class SaleControllerTest {
     private SaleDtoResponse constructSaleResponseDto(String id, String client, String date, Double total, List<DetailSaleDtoResponse> details) {
         return new SaleDtoResponse(id, client, date, total, details);
     }
-}
\ No newline at end of file
+
+    @Test
+    void listByCursor_whenCursorIsNotValid_returnsBadRequest() throws Exception {
+        when(service.getAllByCursor(10, "date", "x", false)).thenThrow(new UtilException(UtilException.CURSOR_INVALID));
+
+        mockMvc.perform(get("/api/sales/cursor")
+                        .param("size", "10")
+                        .param("orderBy", "date")
+                        .param("cursor", "x"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(UtilException.CURSOR_INVALID));
+    }
+
+    @Test
+    void listByCursor_returnsPageWithoutTotal() throws Exception {
+        when(service.getAllByCursor(10, "date", null, false)).thenReturn(new CursorPage<>(List.of(), 0, false, null));
+
+        mockMvc.perform(get("/api/sales/cursor")
+                        .param("size", "10")
+                        .param("orderBy", "date"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.hasNext").value(false))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+    }
+}
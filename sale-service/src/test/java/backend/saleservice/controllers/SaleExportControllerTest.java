@@ -0,0 +1,71 @@
+package backend.saleservice.controllers;
+
+import backend.saleservice.security.TestSecurityConfig;
+import backend.saleservice.services.SaleExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.zip.GZIPInputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SaleExportController.class)
+@Import(TestSecurityConfig.class)
+class SaleExportControllerTest {
+    private static final String LINES = "{\"id\":\"1\"}\n{\"id\":\"2\"}\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SaleExportService service;
+
+    @Test
+    void export_whenGzipIsFalse_writesNdjson() throws Exception {
+        when(service.export(isNull(), any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write(LINES.getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        mockMvc.perform(get("/api/sales/export"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, "application/x-ndjson"))
+                .andExpect(header().doesNotExist(HttpHeaders.CONTENT_ENCODING))
+                .andExpect(content().string(LINES));
+    }
+
+    @Test
+    void export_whenGzipIsTrue_compressesOutput() throws Exception {
+        LocalDate desde = LocalDate.of(2025, 1, 10);
+        when(service.export(eq(desde), any(OutputStream.class))).thenAnswer(invocation -> {
+            invocation.<OutputStream>getArgument(1).write(LINES.getBytes(StandardCharsets.UTF_8));
+            return 2L;
+        });
+
+        MvcResult result = mockMvc.perform(get("/api/sales/export").param("desde", "2025-01-10").param("gzip", "true"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_ENCODING, "gzip"))
+                .andReturn();
+
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(result.getResponse().getContentAsByteArray()))) {
+            assertThat(new String(in.readAllBytes(), StandardCharsets.UTF_8)).isEqualTo(LINES);
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package backend.saleservice.controllers;
+
+import backend.dto.response.SaleStatsDtoResponse;
+import backend.saleservice.exceptions.SaleException;
+import backend.saleservice.security.TestSecurityConfig;
+import backend.saleservice.services.SaleStatsService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@WebMvcTest(SaleStatsController.class)
+@Import(TestSecurityConfig.class)
+class SaleStatsControllerTest {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SaleStatsService service;
+
+    @Test
+    void daily_whenRangeIsValid_returnsStats() throws Exception {
+        LocalDate desde = LocalDate.of(2025, 1, 1);
+        LocalDate hasta = LocalDate.of(2025, 1, 31);
+        when(service.getDaily(desde, hasta)).thenReturn(List.of(new SaleStatsDtoResponse("2025-01-10", null, 2L, 8L, 11.05)));
+
+        mockMvc.perform(get("/api/sales/stats/daily").param("desde", "2025-01-01").param("hasta", "2025-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].date").value("2025-01-10"))
+                .andExpect(jsonPath("$[0].revenue").value(11.05));
+    }
+
+    @Test
+    void daily_whenRangeIsInvalid_returnsBadRequest() throws Exception {
+        when(service.getDaily(any(LocalDate.class), any(LocalDate.class))).thenThrow(new SaleException(SaleException.DATE_RANGE_INVALID));
+
+        mockMvc.perform(get("/api/sales/stats/daily").param("desde", "2025-01-31").param("hasta", "2025-01-01"))
+                .andExpect(status().isBadRequest())
+                .andExpect(content().string(SaleException.DATE_RANGE_INVALID));
+    }
+
+    @Test
+    void byProduct_whenLimitIsMissing_usesDefault() throws Exception {
+        when(service.getByProduct(any(LocalDate.class), any(LocalDate.class), eq(10))).thenReturn(List.of(new SaleStatsDtoResponse(null, 3, 1L, 5L, 25.00)));
+
+        mockMvc.perform(get("/api/sales/stats/products").param("desde", "2025-01-01").param("hasta", "2025-01-31"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].key").value(3));
+    }
+
+    @Test
+    void rebuild_whenCalled_returnsProcessedSales() throws Exception {
+        when(service.rebuild()).thenReturn(42L);
+
+        mockMvc.perform(post("/api/sales/stats/rebuild"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("42"));
+    }
+}
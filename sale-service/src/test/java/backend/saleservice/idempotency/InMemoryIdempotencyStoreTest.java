@@ -0,0 +1,72 @@
+package backend.saleservice.idempotency;
+
+import backend.dto.response.SaleDtoResponse;
+import backend.saleservice.models.documents.EstadoIdempotencia;
+import backend.saleservice.models.documents.RegistroIdempotencia;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class InMemoryIdempotencyStoreTest {
+    private final AtomicLong now = new AtomicLong(0);
+    private final InMemoryIdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofMillis(1000), Duration.ofMillis(100), now::get);
+
+    @Test
+    void claim_whenKeyIsCompleted_returnsResponse() {
+        SaleDtoResponse respuesta = new SaleDtoResponse("1", "VICTOR ORBEGOZO", "2025-01-10T10:00", 10.00, List.of());
+
+        assertThat(store.claim("clave", "huella")).isEmpty();
+        store.complete("clave", respuesta);
+
+        RegistroIdempotencia registro = store.claim("clave", "huella").orElseThrow();
+        assertThat(registro.getEstado()).isEqualTo(EstadoIdempotencia.COMPLETADO);
+        assertThat(registro.getRespuesta()).isEqualTo(respuesta);
+    }
+
+    @Test
+    void claim_whenInProgressLeaseExpired_isClaimedAgain() {
+        store.claim("clave", "huella");
+        now.set(100);
+
+        assertThat(store.claim("clave", "otra")).isEmpty();
+    }
+
+    @Test
+    void complete_whenCalled_keepsKeyForFullTtl() {
+        store.claim("clave", "huella");
+        now.set(50);
+        store.complete("clave", new SaleDtoResponse("1", "VICTOR ORBEGOZO", "2025-01-10T10:00", 10.00, List.of()));
+
+        now.set(1049);
+        assertThat(store.claim("clave", "huella")).isPresent();
+        now.set(1050);
+        assertThat(store.claim("clave", "huella")).isEmpty();
+    }
+
+    @Test
+    void release_whenKeyIsCompleted_keepsIt() {
+        store.claim("clave", "huella");
+        store.release("clave");
+        assertThat(store.claim("clave", "huella")).isEmpty();
+
+        store.complete("clave", new SaleDtoResponse("1", "VICTOR ORBEGOZO", "2025-01-10T10:00", 10.00, List.of()));
+        store.release("clave");
+        assertThat(store.claim("clave", "huella")).isPresent();
+    }
+
+    @Test
+    void keep_whenKeyIsInProgress_extendsItToFullTtl() {
+        store.claim("clave", "huella");
+        store.keep("clave");
+
+        now.set(999);
+        RegistroIdempotencia registro = store.claim("clave", "huella").orElseThrow();
+        assertThat(registro.getEstado()).isEqualTo(EstadoIdempotencia.EN_CURSO);
+        now.set(1000);
+        assertThat(store.claim("clave", "huella")).isEmpty();
+    }
+}
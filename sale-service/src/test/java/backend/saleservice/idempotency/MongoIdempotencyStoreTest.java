@@ -0,0 +1,101 @@
+package backend.saleservice.idempotency;
+
+import backend.dto.response.SaleDtoResponse;
+import backend.saleservice.models.documents.EstadoIdempotencia;
+import backend.saleservice.models.documents.RegistroIdempotencia;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class MongoIdempotencyStoreTest {
+    private static final long NOW = 1_000_000L;
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final MongoIdempotencyStore store = new MongoIdempotencyStore(mongoOperations, Duration.ofMillis(1000), Duration.ofMillis(100), () -> NOW);
+
+    @Test
+    void claim_whenKeyIsFree_insertsItInProgress() {
+        assertThat(store.claim("clave", "huella")).isEmpty();
+
+        ArgumentCaptor<RegistroIdempotencia> captor = ArgumentCaptor.forClass(RegistroIdempotencia.class);
+        verify(mongoOperations).insert(captor.capture());
+        assertThat(captor.getValue().getId()).isEqualTo("clave");
+        assertThat(captor.getValue().getEstado()).isEqualTo(EstadoIdempotencia.EN_CURSO);
+        //en curso solo dura el plazo corto
+        assertThat(captor.getValue().getExpiraEn()).isEqualTo(Instant.ofEpochMilli(NOW + 100));
+    }
+
+    @Test
+    void complete_whenCalled_storesResponseForFullTtl() {
+        SaleDtoResponse respuesta = new SaleDtoResponse("1", "VICTOR ORBEGOZO", "2025-01-10T10:00", 10.00, List.of());
+
+        store.complete("clave", respuesta);
+
+        ArgumentCaptor<Update> captor = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).updateFirst(any(Query.class), captor.capture(), eq(RegistroIdempotencia.class));
+        Document set = captor.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set.get("estado")).isEqualTo(EstadoIdempotencia.COMPLETADO);
+        assertThat(set.get("respuesta")).isEqualTo(respuesta);
+        assertThat(set.get("expiraEn")).isEqualTo(Instant.ofEpochMilli(NOW + 1000));
+    }
+
+    @Test
+    void claim_whenKeyExists_returnsExistingRecord() {
+        RegistroIdempotencia existente = RegistroIdempotencia.builder().id("clave").huella("huella").estado(EstadoIdempotencia.COMPLETADO).build();
+        when(mongoOperations.insert(any(RegistroIdempotencia.class))).thenThrow(new DuplicateKeyException("E11000"));
+        when(mongoOperations.findById("clave", RegistroIdempotencia.class)).thenReturn(existente);
+
+        assertThat(store.claim("clave", "huella")).contains(existente);
+
+        //solo se reemplaza si ya vencio
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).findAndReplace(captor.capture(), any(RegistroIdempotencia.class));
+        assertThat(captor.getValue().getQueryObject())
+                .isEqualTo(new Document("_id", "clave").append("expiraEn", new Document("$lte", Instant.ofEpochMilli(NOW))));
+    }
+
+    @Test
+    void claim_whenExistingKeyExpired_takesItOver() {
+        when(mongoOperations.insert(any(RegistroIdempotencia.class))).thenThrow(new DuplicateKeyException("E11000"));
+        when(mongoOperations.findAndReplace(any(Query.class), any(RegistroIdempotencia.class))).thenReturn(new RegistroIdempotencia());
+
+        assertThat(store.claim("clave", "huella")).isEmpty();
+        verify(mongoOperations, never()).findById(any(), eq(RegistroIdempotencia.class));
+    }
+
+    @Test
+    void release_whenCalled_onlyRemovesInProgressKey() {
+        store.release("clave");
+
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).remove(captor.capture(), eq(RegistroIdempotencia.class));
+        assertThat(captor.getValue().getQueryObject())
+                .isEqualTo(new Document("_id", "clave").append("estado", EstadoIdempotencia.EN_CURSO));
+    }
+
+    @Test
+    void keep_whenCalled_extendsOnlyInProgressKeyToFullTtl() {
+        store.keep("clave");
+
+        ArgumentCaptor<Query> query = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).updateFirst(query.capture(), update.capture(), eq(RegistroIdempotencia.class));
+        assertThat(query.getValue().getQueryObject())
+                .isEqualTo(new Document("_id", "clave").append("estado", EstadoIdempotencia.EN_CURSO));
+        assertThat(update.getValue().getUpdateObject())
+                .isEqualTo(new Document("$set", new Document("expiraEn", Instant.ofEpochMilli(NOW + 1000))));
+    }
+}
@@ -0,0 +1,71 @@
+package backend.saleservice.jobs;
+
+import backend.saleservice.models.documents.BloqueoTarea;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class JobLockTest {
+    private static final long NOW = 1_000_000L;
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final JobLock jobLock = new JobLock(mongoOperations, () -> NOW);
+
+    @Test
+    void runExclusively_whenLockIsFree_runsTaskAndReleasesIt() {
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertThat(jobLock.runExclusively("tarea", Duration.ofMinutes(1), () -> ran.set(true))).isTrue();
+
+        assertThat(ran).isTrue();
+        ArgumentCaptor<Query> taken = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> update = ArgumentCaptor.forClass(Update.class);
+        verify(mongoOperations).upsert(taken.capture(), update.capture(), eq(BloqueoTarea.class));
+        //solo se toma si no existe o ya vencio
+        assertThat(taken.getValue().getQueryObject())
+                .isEqualTo(new Document("_id", "tarea").append("hasta", new Document("$lte", Instant.ofEpochMilli(NOW))));
+        Document set = update.getValue().getUpdateObject().get("$set", Document.class);
+        assertThat(set.get("hasta")).isEqualTo(Instant.ofEpochMilli(NOW + 60_000));
+
+        //lo suelta solo quien lo tomo
+        ArgumentCaptor<Query> released = ArgumentCaptor.forClass(Query.class);
+        verify(mongoOperations).remove(released.capture(), eq(BloqueoTarea.class));
+        assertThat(released.getValue().getQueryObject())
+                .isEqualTo(new Document("_id", "tarea").append("duenio", set.get("duenio")));
+    }
+
+    @Test
+    void runExclusively_whenAnotherReplicaHoldsIt_skipsTask() {
+        when(mongoOperations.upsert(any(Query.class), any(Update.class), eq(BloqueoTarea.class)))
+                .thenThrow(new DuplicateKeyException("E11000"));
+        AtomicBoolean ran = new AtomicBoolean();
+
+        assertThat(jobLock.runExclusively("tarea", Duration.ofMinutes(1), () -> ran.set(true))).isFalse();
+
+        assertThat(ran).isFalse();
+        verify(mongoOperations, never()).remove(any(Query.class), eq(BloqueoTarea.class));
+    }
+
+    @Test
+    void runExclusively_whenTaskFails_releasesLock() {
+        assertThatThrownBy(() -> jobLock.runExclusively("tarea", Duration.ofMinutes(1), () -> {
+            throw new IllegalStateException("fallo");
+        })).isInstanceOf(IllegalStateException.class);
+
+        verify(mongoOperations).remove(any(Query.class), eq(BloqueoTarea.class));
+    }
+}
@@ -0,0 +1,52 @@
+package backend.saleservice.models.documents;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.util.TypeInformation;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VentaTest {
+
+    @Test
+    void indexes_whenSortIsWhitelisted_existWithIdTiebreaker() {
+        List<List<String>> keys = new ArrayList<>();
+        for (IndexDefinition index : resolveIndexes()) {
+            keys.add(new ArrayList<>(index.getIndexKeys().keySet()));
+        }
+
+        //listado general y por cliente: cada campo ordenable seguido de _id como desempate
+        for (String field : Venta.SORTS.fields()) {
+            if (field.equals("id")) {
+                assertThat(keys).as("sort by id for a client").contains(List.of("clientId", "_id"));
+                continue;
+            }
+            assertThat(keys).as("sort by %s", field).contains(List.of(field, "_id"));
+            assertThat(keys).as("sort by %s for a client", field).contains(List.of("clientId", field, "_id"));
+        }
+    }
+
+    @Test
+    void indexes_whenResolved_haveUniqueNames() {
+        Map<String, Object> names = new LinkedHashMap<>();
+        for (IndexDefinition index : resolveIndexes()) {
+            assertThat(names.put((String) index.getIndexOptions().get("name"), index)).isNull();
+        }
+        assertThat(names).hasSize(5);
+    }
+
+    private Iterable<? extends IndexDefinition> resolveIndexes() {
+        //mismo mapeo que usa Spring al crear los indices con auto-index-creation
+        MongoMappingContext mappingContext = new MongoMappingContext();
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        return new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(TypeInformation.of(Venta.class));
+    }
+}
@@ -0,0 +1,53 @@
+package backend.saleservice.repositories;
+
+import backend.saleservice.models.documents.Venta;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ReactiveMongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import reactor.core.publisher.Flux;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ReactiveSaleRepositoryCustomImplTest {
+    private final ReactiveMongoOperations operations = mock(ReactiveMongoOperations.class);
+    private final ReactiveSaleRepositoryCustomImpl repository = new ReactiveSaleRepositoryCustomImpl(operations);
+
+    @Test
+    void findSlice_whenClientIsSent_filtersAndReadsOneMoreWithoutDetails() {
+        when(operations.find(any(Query.class), eq(Venta.class))).thenReturn(Flux.empty());
+
+        repository.findSlice(1, PageRequest.of(2, 10, Sort.by(Sort.Direction.DESC, "date")), false);
+
+        Query query = capturedQuery();
+        assertThat(query.getQueryObject()).isEqualTo(new Document("clientId", 1));
+        assertThat(query.getSortObject()).isEqualTo(new Document("date", -1));
+        assertThat(query.getSkip()).isEqualTo(20);
+        assertThat(query.getLimit()).isEqualTo(11);
+        assertThat(query.getFieldsObject()).isEqualTo(new Document("details", 0));
+    }
+
+    @Test
+    void findSlice_whenDetailsAreRequested_loadsFullDocument() {
+        when(operations.find(any(Query.class), eq(Venta.class))).thenReturn(Flux.empty());
+
+        repository.findSlice(null, PageRequest.of(0, 5, Sort.by("total")), true);
+
+        Query query = capturedQuery();
+        assertThat(query.getQueryObject()).isEmpty();
+        assertThat(query.getLimit()).isEqualTo(6);
+        assertThat(query.getFieldsObject()).isEmpty();
+    }
+
+    private Query capturedQuery() {
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(operations).find(captor.capture(), eq(Venta.class));
+        return captor.getValue();
+    }
+}
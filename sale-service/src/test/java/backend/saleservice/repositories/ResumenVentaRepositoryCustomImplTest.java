@@ -0,0 +1,98 @@
+package backend.saleservice.repositories;
+
+import backend.saleservice.models.documents.ResumenVenta;
+import backend.saleservice.models.documents.TipoResumen;
+import org.bson.Document;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.springframework.data.mongodb.core.BulkOperations;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.core.query.Update;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+class ResumenVentaRepositoryCustomImplTest {
+
+    private final MongoOperations mongoOperations = mock(MongoOperations.class);
+    private final BulkOperations bulk = mock(BulkOperations.class);
+    private final ResumenVentaRepositoryCustomImpl repository = new ResumenVentaRepositoryCustomImpl(mongoOperations);
+
+    @Test
+    void increment_whenResumenesAreSent_upsertsWithIncInOneBulk() {
+        when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ResumenVenta.class)).thenReturn(bulk);
+        LocalDate fecha = LocalDate.of(2025, 1, 10);
+        ResumenVenta dia = ResumenVenta.builder()
+                .id(ResumenVenta.id(TipoResumen.DIA, fecha, null))
+                .tipo(TipoResumen.DIA)
+                .fecha(fecha)
+                .ventas(1L)
+                .unidades(3L)
+                .ingresos(1035L)
+                .build();
+        ResumenVenta producto = ResumenVenta.builder()
+                .id(ResumenVenta.id(TipoResumen.PRODUCTO, fecha, 1))
+                .tipo(TipoResumen.PRODUCTO)
+                .fecha(fecha)
+                .clave(1)
+                .ventas(1L)
+                .unidades(2L)
+                .ingresos(1010L)
+                .build();
+
+        repository.increment(List.of(dia, producto));
+
+        ArgumentCaptor<Query> queries = ArgumentCaptor.forClass(Query.class);
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        verify(bulk, times(2)).upsert(queries.capture(), updates.capture());
+        verify(bulk, times(1)).execute();
+
+        assertThat(queries.getAllValues().get(0).getQueryObject()).isEqualTo(new Document("_id", "DIA:2025-01-10"));
+        Document update = updates.getAllValues().get(1).getUpdateObject();
+        assertThat(update.get("$inc", Document.class)).isEqualTo(new Document("ventas", 1L).append("unidades", 2L).append("ingresos", 1010L));
+        assertThat(update.get("$setOnInsert", Document.class)).containsEntry("clave", 1);
+    }
+
+    @Test
+    void increment_whenNothingToWrite_skipsMongo() {
+        repository.increment(List.of());
+
+        verifyNoInteractions(mongoOperations);
+    }
+
+    @Test
+    void replaceDay_whenResumenesAreSent_setsThemAndRemovesTheRestOfTheDay() {
+        when(mongoOperations.bulkOps(BulkOperations.BulkMode.UNORDERED, ResumenVenta.class)).thenReturn(bulk);
+        LocalDate fecha = LocalDate.of(2025, 1, 10);
+        ResumenVenta dia = ResumenVenta.builder()
+                .id(ResumenVenta.id(TipoResumen.DIA, fecha, null))
+                .tipo(TipoResumen.DIA)
+                .fecha(fecha)
+                .ventas(2L)
+                .unidades(3L)
+                .ingresos(1035L)
+                .build();
+
+        repository.replaceDay(fecha, List.of(dia));
+
+        ArgumentCaptor<Update> updates = ArgumentCaptor.forClass(Update.class);
+        InOrder inOrder = inOrder(bulk, mongoOperations);
+        inOrder.verify(bulk).upsert(any(Query.class), updates.capture());
+        inOrder.verify(bulk).execute();
+        ArgumentCaptor<Query> removed = ArgumentCaptor.forClass(Query.class);
+        inOrder.verify(mongoOperations).remove(removed.capture(), eq(ResumenVenta.class));
+
+        //se reemplazan los totales, no se suman
+        assertThat(updates.getValue().getUpdateObject().get("$set", Document.class))
+                .containsEntry("ventas", 2L).containsEntry("ingresos", 1035L);
+        assertThat(removed.getValue().getQueryObject()).isEqualTo(new Document("fecha", fecha)
+                .append("_id", new Document("$nin", List.of("DIA:2025-01-10"))));
+    }
+}
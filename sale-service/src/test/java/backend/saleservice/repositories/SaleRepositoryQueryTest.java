@@ -0,0 +1,160 @@
+package backend.saleservice.repositories;
+
+import backend.pageable.PageableUtils;
+import backend.saleservice.models.documents.Venta;
+import org.bson.Document;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.mongodb.core.ExecutableFindOperation.ExecutableFind;
+import org.springframework.data.mongodb.core.ExecutableFindOperation.TerminatingFind;
+import org.springframework.data.mongodb.core.MongoOperations;
+import org.springframework.data.mongodb.core.convert.MappingMongoConverter;
+import org.springframework.data.mongodb.core.convert.MongoCustomConversions;
+import org.springframework.data.mongodb.core.convert.NoOpDbRefResolver;
+import org.springframework.data.mongodb.core.convert.QueryMapper;
+import org.springframework.data.mongodb.core.index.IndexDefinition;
+import org.springframework.data.mongodb.core.index.MongoPersistentEntityIndexResolver;
+import org.springframework.data.mongodb.core.mapping.MongoMappingContext;
+import org.springframework.data.mongodb.core.mapping.MongoPersistentEntity;
+import org.springframework.data.mongodb.core.query.Query;
+import org.springframework.data.mongodb.repository.support.MongoRepositoryFactory;
+import org.springframework.data.util.TypeInformation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+//sin Mongo: se ejecutan los metodos del repositorio contra MongoOperations simulado y se revisa la consulta
+//que llegaria al servidor; es la forma que tiene el plan: filtro y orden deben ser prefijo de un indice declarado
+class SaleRepositoryQueryTest {
+
+    private final MongoMappingContext mappingContext = new MongoMappingContext();
+    private final MongoOperations operations = mock(MongoOperations.class);
+    @SuppressWarnings("unchecked")
+    private final ExecutableFind<Venta> find = mock(ExecutableFind.class);
+    @SuppressWarnings("unchecked")
+    private final TerminatingFind<Venta> terminatingFind = mock(TerminatingFind.class);
+
+    private MappingMongoConverter converter;
+    private SaleRepository repository;
+
+    @BeforeEach
+    void setUp() {
+        mappingContext.setSimpleTypeHolder(new MongoCustomConversions(List.of()).getSimpleTypeHolder());
+        converter = new MappingMongoConverter(NoOpDbRefResolver.INSTANCE, mappingContext);
+        converter.afterPropertiesSet();
+
+        when(operations.getConverter()).thenReturn(converter);
+        when(operations.query(Venta.class)).thenReturn(find);
+        when(find.inCollection(anyString())).thenReturn(find);
+        when(find.as(Venta.class)).thenReturn(find);
+        when(find.matching(any(Query.class))).thenReturn(terminatingFind);
+        when(terminatingFind.all()).thenReturn(List.of());
+
+        repository = new MongoRepositoryFactory(operations).getRepository(SaleRepository.class);
+    }
+
+    @Test
+    void findByClientId_whenSortedByDate_isServedByClientDateIndexWithoutDetails() {
+        repository.findSliceByClientId(1, PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "date", "id")));
+
+        Query query = capturedQuery();
+        assertThat(query.getFieldsObject()).isEqualTo(new Document("details", 0));
+        assertThat(indexKeys(query)).isEqualTo(List.of("clientId", "date", "_id"));
+        assertServedByIndex(query);
+    }
+
+    @Test
+    void findAllBy_whenSortedByDate_isServedByDateIndexWithoutDetails() {
+        repository.findAllBy(ScrollPosition.keyset(), PageableUtils.constructSort("date", Venta.SORTS), Limit.of(10));
+
+        Query query = capturedQuery();
+        assertThat(query.getFieldsObject()).isEqualTo(new Document("details", 0));
+        assertThat(indexKeys(query)).isEqualTo(List.of("date", "_id"));
+        assertServedByIndex(query);
+    }
+
+    @Test
+    void summaryQueries_whenSortIsWhitelisted_areIndexServedWithoutDetails() {
+        for (String field : Venta.SORTS.fields()) {
+            Sort sort = field.equals("id") ? Sort.by("id") : Sort.by(field, "id");
+            PageRequest pageable = PageRequest.of(0, 10, sort);
+
+            repository.findPageBy(pageable);
+            repository.findSliceBy(pageable);
+            repository.findByClientId(1, pageable);
+            repository.findSliceByClientId(1, pageable);
+        }
+
+        List<Query> queries = capturedQueries();
+        assertThat(queries).isNotEmpty();
+        for (Query query : queries) {
+            assertThat(query.getFieldsObject()).as("fields of %s", query).isEqualTo(new Document("details", 0));
+            //el count de la pagina no tiene orden y se resuelve con el mismo prefijo de filtro
+            assertServedByIndex(query);
+        }
+    }
+
+    @Test
+    void withDetailsQueries_whenDetailsAreRequested_loadFullDocument() {
+        repository.findWithDetailsByClientId(1, PageRequest.of(0, 10, Sort.by("date", "id")));
+        repository.findSliceWithDetailsBy(PageRequest.of(0, 10, Sort.by("total", "id")));
+        repository.findAllWithDetailsBy(ScrollPosition.keyset(), PageableUtils.constructSort("date", Venta.SORTS), Limit.of(10));
+
+        for (Query query : capturedQueries()) {
+            assertThat(query.getFieldsObject()).isEmpty();
+            assertServedByIndex(query);
+        }
+    }
+
+    private void assertServedByIndex(Query query) {
+        List<String> keys = indexKeys(query);
+        assertThat(declaredIndexes())
+                .as("index for %s", keys)
+                .anyMatch(index -> index.size() >= keys.size() && index.subList(0, keys.size()).equals(keys));
+    }
+
+    private Query capturedQuery() {
+        List<Query> queries = capturedQueries();
+        return queries.get(queries.size() - 1);
+    }
+
+    private List<Query> capturedQueries() {
+        ArgumentCaptor<Query> captor = ArgumentCaptor.forClass(Query.class);
+        verify(find, atLeastOnce()).matching(captor.capture());
+        return captor.getAllValues();
+    }
+
+    //igualdades del filtro y luego el orden, con los nombres que ve Mongo
+    private List<String> indexKeys(Query query) {
+        MongoPersistentEntity<?> entity = mappingContext.getRequiredPersistentEntity(Venta.class);
+        QueryMapper queryMapper = new QueryMapper(converter);
+
+        List<String> keys = new ArrayList<>(queryMapper.getMappedObject(query.getQueryObject(), entity).keySet());
+        for (String key : queryMapper.getMappedSort(query.getSortObject(), entity).keySet()) {
+            if (!keys.contains(key)) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+
+    private List<List<String>> declaredIndexes() {
+        List<List<String>> indexes = new ArrayList<>();
+        for (IndexDefinition index : new MongoPersistentEntityIndexResolver(mappingContext).resolveIndexFor(TypeInformation.of(Venta.class))) {
+            indexes.add(new ArrayList<>(index.getIndexKeys().keySet()));
+        }
+        //_id siempre tiene indice
+        indexes.add(List.of("_id"));
+        return indexes;
+    }
+}
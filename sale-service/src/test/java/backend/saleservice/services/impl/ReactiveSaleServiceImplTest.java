@@ -0,0 +1,159 @@
+package backend.saleservice.services.impl;
+
+import backend.dto.response.ClientDtoResponse;
+import backend.dto.response.SaleDtoResponse;
+import backend.exception.UtilException;
+import backend.pageable.CountCache;
+import backend.pageable.Paginado;
+import backend.saleservice.client.ClientCache;
+import backend.saleservice.client.ClientWebClient;
+import backend.saleservice.exceptions.SaleException;
+import backend.saleservice.models.documents.Venta;
+import backend.saleservice.repositories.ReactiveSaleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Pageable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.*;
+
+class ReactiveSaleServiceImplTest {
+    private static final String TOKEN = "Bearer token";
+    private static final int CLIENT_BATCH_SIZE = 5;
+    private static final int MAX_CONCURRENCY = 2;
+
+    private final ReactiveSaleRepository repository = mock(ReactiveSaleRepository.class);
+    private final ClientWebClient clientWebClient = mock(ClientWebClient.class);
+    private final CountCache countCache = new CountCache(10, 60_000);
+    private final ReactiveSaleServiceImpl service = new ReactiveSaleServiceImpl(repository, clientWebClient,
+            new ClientCache(100, 60_000), countCache, CLIENT_BATCH_SIZE, MAX_CONCURRENCY);
+
+    @Test
+    void getAll_whenPageHasManyClients_resolvesThemInBatchesWithLimitedConcurrency() {
+        //20 ventas de clientes distintos (la consulta trae una de mas): 4 lotes, nunca mas de 2 llamadas en vuelo
+        List<Venta> ventas = IntStream.rangeClosed(1, 21).mapToObj(i -> venta(String.valueOf(i), i)).toList();
+        when(repository.findSlice(isNull(), any(Pageable.class), eq(false))).thenReturn(Flux.fromIterable(ventas));
+        when(repository.count()).thenReturn(Mono.just(40L));
+
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        when(clientWebClient.getClients(anyList(), eq(TOKEN))).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return Mono.defer(() -> {
+                        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                        return Mono.just(ids.stream().map(this::client).toList());
+                    })
+                    .delayElement(Duration.ofMillis(20))
+                    .doOnTerminate(inFlight::decrementAndGet);
+        });
+
+        StepVerifier.create(service.getAll(1, 20, "date", false, TOKEN))
+                .assertNext(page -> {
+                    assertThat(page.getTotalElements()).isEqualTo(40);
+                    assertThat(page.getContent()).hasSize(20);
+                    assertThat(page.getContent()).extracting(SaleDtoResponse::id)
+                            .containsExactlyElementsOf(IntStream.rangeClosed(1, 20).mapToObj(String::valueOf).toList());
+                    assertThat(page.getContent().get(0).client()).isEqualTo("CLIENTE 1");
+                })
+                .verifyComplete();
+
+        verify(clientWebClient, times(4)).getClients(anyList(), eq(TOKEN));
+        assertThat(maxInFlight.get()).isLessThanOrEqualTo(MAX_CONCURRENCY);
+    }
+
+    @Test
+    void getAll_whenTotalAndClientsAreCached_doesNotCallAgain() {
+        when(repository.findSlice(isNull(), any(Pageable.class), eq(false))).thenAnswer(invocation -> Flux.just(venta("1", 1)));
+        when(repository.count()).thenReturn(Mono.just(1L));
+        when(clientWebClient.getClients(List.of(1L), TOKEN)).thenReturn(Mono.just(List.of(client(1L))));
+
+        StepVerifier.create(service.getAll(1, 10, "date", false, TOKEN)).expectNextCount(1).verifyComplete();
+        StepVerifier.create(service.getAll(1, 10, "date", false, TOKEN)).expectNextCount(1).verifyComplete();
+
+        verify(repository, times(1)).count();
+        verify(clientWebClient, times(1)).getClients(anyList(), any());
+    }
+
+    @Test
+    void getAllWithoutTotal_whenThereIsAnExtraSale_hasNext() {
+        when(repository.findSlice(isNull(), any(Pageable.class), eq(true))).thenReturn(Flux.just(venta("1", 1), venta("2", 1), venta("3", 1)));
+        when(clientWebClient.getClients(List.of(1L), null)).thenReturn(Mono.just(List.of(client(1L))));
+
+        StepVerifier.create(service.getAllWithoutTotal(1, 2, "date", true, null))
+                .assertNext(slice -> {
+                    assertThat(slice.hasNext()).isTrue();
+                    assertThat(slice.getContent()).extracting(SaleDtoResponse::id).containsExactly("1", "2");
+                })
+                .verifyComplete();
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void getAll_whenClientDoesNotExist_fails() {
+        when(repository.findSlice(isNull(), any(Pageable.class), eq(false))).thenReturn(Flux.just(venta("1", 99)));
+        when(repository.count()).thenReturn(Mono.just(1L));
+        when(clientWebClient.getClients(List.of(99L), TOKEN)).thenReturn(Mono.just(List.of()));
+
+        StepVerifier.create(service.getAll(1, 10, "date", false, TOKEN))
+                .expectErrorMessage(SaleException.CLIENT_NOT_FOUND)
+                .verify();
+    }
+
+    @Test
+    void getAll_whenOrderByIsNotValid_failsWithoutQuerying() {
+        StepVerifier.create(service.getAll(1, 10, "nombre", false, TOKEN))
+                .expectErrorMessage(UtilException.SORT_NAME_INVALID)
+                .verify();
+
+        verifyNoInteractions(repository, clientWebClient);
+    }
+
+    @Test
+    void getSalesByClient_whenClientExists_usesItsName() {
+        when(repository.findSlice(eq(1), any(Pageable.class), eq(false))).thenReturn(Flux.just(venta("1", 1), venta("2", 1)));
+        when(repository.countByClientId(1)).thenReturn(Mono.just(2L));
+        when(clientWebClient.getClient(1L, TOKEN)).thenReturn(Mono.just(client(1L)));
+
+        StepVerifier.create(service.getSalesByClient(1, new Paginado(1, 10, "date"), false, TOKEN))
+                .assertNext(page -> {
+                    assertThat(page.getTotalElements()).isEqualTo(2);
+                    assertThat(page.getContent()).extracting(SaleDtoResponse::client).containsOnly("CLIENTE 1");
+                })
+                .verifyComplete();
+        verify(clientWebClient, never()).getClients(anyList(), any());
+    }
+
+    @Test
+    void getSalesByClientWithoutTotal_whenClientIdIsNotValid_fails() {
+        StepVerifier.create(service.getSalesByClientWithoutTotal(0, new Paginado(1, 10, "date"), false, TOKEN))
+                .expectErrorMessage(SaleException.CLIENT_ID_INVALID)
+                .verify();
+
+        verifyNoInteractions(repository, clientWebClient);
+    }
+
+    private Venta venta(String id, Integer clientId) {
+        return Venta.builder()
+                .id(id)
+                .clientId(clientId)
+                .date(LocalDateTime.of(2025, 1, 10, 10, 0))
+                .total(10.00)
+                .build();
+    }
+
+    private ClientDtoResponse client(Long id) {
+        return new ClientDtoResponse(id, "CLIENTE", String.valueOf(id), "DNI", "2000-10-10", "1234567" + id);
+    }
+}
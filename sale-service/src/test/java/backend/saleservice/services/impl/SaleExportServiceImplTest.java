@@ -0,0 +1,96 @@
+package backend.saleservice.services.impl;
+
+import backend.dto.response.ClientDtoResponse;
+import backend.dto.response.SaleDtoResponse;
+import backend.saleservice.client.ClientCache;
+import backend.saleservice.client.ClientFeign;
+import backend.saleservice.models.documents.DetalleVenta;
+import backend.saleservice.models.documents.Venta;
+import backend.saleservice.repositories.SaleRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+class SaleExportServiceImplTest {
+    private static final int BATCH_SIZE = 1000;
+
+    private final SaleRepository repository = mock(SaleRepository.class);
+    private final ClientFeign clientFeign = mock(ClientFeign.class);
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private final SaleExportServiceImpl service = new SaleExportServiceImpl(repository, clientFeign, new ClientCache(100, 60_000), objectMapper, BATCH_SIZE);
+
+    @Test
+    void export_whenManySales_writesOneLinePerSaleResolvingClientsPerBatch() throws IOException {
+        //7 clientes que existen y el 99 que no
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Venta> ventas = IntStream.range(0, 2_500)
+                .mapToObj(i -> venta(String.valueOf(i), i % 100 == 0 ? 99 : i % 7 + 1))
+                .onClose(() -> closed.set(true));
+        when(repository.streamAllBy()).thenReturn(ventas);
+        when(clientFeign.getClients(anyList())).thenAnswer(invocation -> {
+            List<Long> ids = invocation.getArgument(0);
+            return ids.stream().filter(id -> id != 99).map(this::client).toList();
+        });
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long total = service.export(null, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertThat(total).isEqualTo(2_500);
+        assertThat(lines).hasSize(2_500);
+        assertThat(closed).isTrue();
+
+        SaleDtoResponse first = objectMapper.readValue(lines[0], SaleDtoResponse.class);
+        SaleDtoResponse second = objectMapper.readValue(lines[1], SaleDtoResponse.class);
+        assertThat(first.client()).isNull();
+        assertThat(second.id()).isEqualTo("1");
+        assertThat(second.client()).isEqualTo("CLIENTE 2");
+        assertThat(second.details()).hasSize(1);
+
+        //el primer lote trae todos los clientes; los siguientes solo vuelven a pedir el que no existe
+        verify(clientFeign, times(1)).getClients(argThat(ids -> ids.size() == 8));
+        verify(clientFeign, times(2)).getClients(List.of(99L));
+    }
+
+    @Test
+    void export_whenDesdeIsSent_streamsFromThatDay() throws IOException {
+        LocalDate desde = LocalDate.of(2025, 1, 10);
+        when(repository.streamByDateGreaterThanEqual(desde.atStartOfDay())).thenReturn(Stream.empty());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long total = service.export(desde, out);
+
+        assertThat(total).isZero();
+        assertThat(out.size()).isZero();
+        verify(repository, never()).streamAllBy();
+        verifyNoInteractions(clientFeign);
+    }
+
+    private Venta venta(String id, Integer clientId) {
+        return Venta.builder()
+                .id(id)
+                .clientId(clientId)
+                .date(LocalDateTime.of(2025, 1, 10, 10, 0))
+                .total(10.00)
+                .details(List.of(DetalleVenta.builder().productId(1).quantity(2).unitPrice(5.00).subTotal(10.00).build()))
+                .build();
+    }
+
+    private ClientDtoResponse client(Long id) {
+        return new ClientDtoResponse(id, "CLIENTE", String.valueOf(id), "DNI", "2000-10-10", "1234567" + id);
+    }
+}
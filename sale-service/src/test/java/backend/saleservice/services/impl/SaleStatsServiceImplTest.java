@@ -0,0 +1,167 @@
+package backend.saleservice.services.impl;
+
+import backend.dto.response.SaleStatsDtoResponse;
+import backend.saleservice.exceptions.SaleException;
+import backend.saleservice.models.documents.DetalleVenta;
+import backend.saleservice.models.documents.ResumenVenta;
+import backend.saleservice.models.documents.TipoResumen;
+import backend.saleservice.models.documents.Venta;
+import backend.saleservice.repositories.ResumenVentaRepository;
+import backend.saleservice.repositories.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SaleStatsServiceImplTest {
+    private static final LocalDate DIA = LocalDate.of(2025, 1, 10);
+
+    @Mock
+    private SaleRepository saleRepository;
+
+    @Mock
+    private ResumenVentaRepository resumenRepository;
+
+    @InjectMocks
+    private SaleStatsServiceImpl service;
+
+    @Test
+    void record_whenSaleHasDetails_incrementsDayClientAndEachProduct() {
+        service.record(venta(7, DIA.atTime(10, 0), detalle(1, 2, 10.10), detalle(2, 1, 0.25)));
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<ResumenVenta>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(resumenRepository).increment(captor.capture());
+        Map<String, ResumenVenta> resumenes = captor.getValue().stream()
+                .collect(Collectors.toMap(ResumenVenta::getId, Function.identity()));
+
+        assertThat(resumenes).containsOnlyKeys("DIA:2025-01-10", "CLIENTE:2025-01-10:7", "PRODUCTO:2025-01-10:1", "PRODUCTO:2025-01-10:2");
+        assertResumen(resumenes.get("DIA:2025-01-10"), 1, 3, 1035);
+        assertResumen(resumenes.get("CLIENTE:2025-01-10:7"), 1, 3, 1035);
+        assertResumen(resumenes.get("PRODUCTO:2025-01-10:1"), 1, 2, 1010);
+        assertResumen(resumenes.get("PRODUCTO:2025-01-10:2"), 1, 1, 25);
+    }
+
+    @Test
+    void rebuild_whenSalesExist_replacesEachClosedDayAsItEnds() {
+        AtomicBoolean closed = new AtomicBoolean();
+        Stream<Venta> ventas = Stream.of(
+                        venta(1, DIA.atTime(9, 0), detalle(1, 2, 4.00)),
+                        venta(2, DIA.atTime(18, 0), detalle(1, 1, 2.00), detalle(3, 5, 5.00)),
+                        venta(1, DIA.plusDays(1).atTime(9, 0), detalle(3, 1, 1.00)))
+                .onClose(() -> closed.set(true));
+        when(saleRepository.streamByDateLessThanOrderByDateAsc(LocalDate.now().atStartOfDay())).thenReturn(ventas);
+
+        long total = service.rebuild();
+
+        assertThat(total).isEqualTo(3);
+        assertThat(closed).isTrue();
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<ResumenVenta>> primerDia = ArgumentCaptor.forClass(Collection.class);
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Collection<ResumenVenta>> segundoDia = ArgumentCaptor.forClass(Collection.class);
+        InOrder inOrder = inOrder(resumenRepository);
+        inOrder.verify(resumenRepository).replaceDay(eq(DIA), primerDia.capture());
+        inOrder.verify(resumenRepository).replaceDay(eq(DIA.plusDays(1)), segundoDia.capture());
+        inOrder.verify(resumenRepository).deleteDaysBefore(LocalDate.now(), List.of(DIA, DIA.plusDays(1)));
+
+        Map<String, ResumenVenta> resumenes = primerDia.getValue().stream()
+                .collect(Collectors.toMap(ResumenVenta::getId, Function.identity()));
+        assertResumen(resumenes.get("DIA:2025-01-10"), 2, 8, 1100);
+        assertResumen(resumenes.get("PRODUCTO:2025-01-10:1"), 2, 3, 600);
+        assertResumen(resumenes.get("CLIENTE:2025-01-10:1"), 1, 2, 400);
+        assertThat(resumenes).hasSize(5);
+        assertThat(segundoDia.getValue()).extracting(ResumenVenta::getId)
+                .containsExactlyInAnyOrder("DIA:2025-01-11", "CLIENTE:2025-01-11:1", "PRODUCTO:2025-01-11:3");
+    }
+
+    @Test
+    void rebuild_whenNoSales_deletesClosedDays() {
+        when(saleRepository.streamByDateLessThanOrderByDateAsc(LocalDate.now().atStartOfDay())).thenReturn(Stream.empty());
+
+        assertThat(service.rebuild()).isZero();
+
+        verify(resumenRepository, never()).replaceDay(any(), any());
+        verify(resumenRepository).deleteDaysBefore(LocalDate.now(), List.of());
+    }
+
+    @Test
+    void getDaily_whenRangeIsValid_returnsRevenueInCurrencyUnits() {
+        when(resumenRepository.findByTipoAndFechaRange(TipoResumen.DIA, DIA, DIA.plusDays(1))).thenReturn(List.of(
+                ResumenVenta.builder().tipo(TipoResumen.DIA).fecha(DIA).ventas(2L).unidades(8L).ingresos(1105L).build()));
+
+        List<SaleStatsDtoResponse> stats = service.getDaily(DIA, DIA.plusDays(1));
+
+        assertThat(stats).containsExactly(new SaleStatsDtoResponse("2025-01-10", null, 2L, 8L, 11.05));
+    }
+
+    @Test
+    void getDaily_whenRangeIsInverted_returnsError() {
+        SaleException exception = assertThrows(SaleException.class, () -> service.getDaily(DIA, DIA.minusDays(1)));
+
+        assertThat(exception.getMessage()).isEqualTo(SaleException.DATE_RANGE_INVALID);
+        verifyNoInteractions(resumenRepository);
+    }
+
+    @Test
+    void getByProduct_whenLimitIsTooLarge_capsIt() {
+        when(resumenRepository.sumByClave(TipoResumen.PRODUCTO, DIA, DIA, SaleStatsServiceImpl.MAX_LIMIT)).thenReturn(List.of(
+                ResumenVenta.builder().clave(3).ventas(1L).unidades(5L).ingresos(2500L).build()));
+
+        List<SaleStatsDtoResponse> stats = service.getByProduct(DIA, DIA, 10_000);
+
+        assertThat(stats).containsExactly(new SaleStatsDtoResponse(null, 3, 1L, 5L, 25.00));
+    }
+
+    @Test
+    void getByClient_whenLimitIsNotPositive_returnsError() {
+        assertThrows(SaleException.class, () -> service.getByClient(DIA, DIA, 0));
+
+        verify(resumenRepository, never()).sumByClave(any(), any(), any(), anyInt());
+    }
+
+    private void assertResumen(ResumenVenta resumen, long ventas, long unidades, long ingresos) {
+        assertThat(resumen.getVentas()).isEqualTo(ventas);
+        assertThat(resumen.getUnidades()).isEqualTo(unidades);
+        assertThat(resumen.getIngresos()).isEqualTo(ingresos);
+    }
+
+    private Venta venta(Integer clientId, LocalDateTime date, DetalleVenta... detalles) {
+        return Venta.builder()
+                .clientId(clientId)
+                .date(date)
+                .total(Stream.of(detalles).mapToDouble(DetalleVenta::getSubTotal).sum())
+                .details(List.of(detalles))
+                .build();
+    }
+
+    private DetalleVenta detalle(Integer productId, Integer quantity, Double subTotal) {
+        return DetalleVenta.builder()
+                .productId(productId)
+                .quantity(quantity)
+                .unitPrice(subTotal / quantity)
+                .subTotal(subTotal)
+                .build();
+    }
+}
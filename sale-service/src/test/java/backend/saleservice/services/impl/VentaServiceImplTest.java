@@ -1,14 +1,20 @@
 package backend.saleservice.services.impl;
 
 import backend.dto.response.ClientDtoResponse;
-import backend.dto.response.MovementDtoResponse;
 import backend.dto.response.ProductDtoResponse;
 import backend.exception.UtilException;
+import backend.pageable.CountCache;
+import backend.pageable.CursorCodec;
+import backend.pageable.CursorPage;
 import backend.pageable.Paginado;
 import backend.saleservice.client.ClientFeign;
 import backend.saleservice.client.InventoryClient;
+import backend.saleservice.client.ProductCache;
 import backend.saleservice.client.ProductClient;
+import backend.saleservice.client.RemoteCallExecutor;
 import backend.saleservice.exceptions.SaleException;
+import backend.saleservice.idempotency.IdempotencyStore;
+import backend.saleservice.idempotency.InMemoryIdempotencyStore;
 import backend.saleservice.models.documents.DetalleVenta;
 import backend.saleservice.models.documents.Venta;
 import backend.dto.request.DetailSaleDtoRequest;
@@ -16,24 +22,49 @@ import backend.dto.request.MovementDtoRequest;
 import backend.dto.request.SaleDtoRequest;
 import backend.dto.response.SaleDtoResponse;
 import backend.saleservice.repositories.SaleRepository;
+import backend.saleservice.services.SalePricing;
+import backend.saleservice.services.SaleStatsService;
+import feign.FeignException;
+import feign.Request;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.springframework.boot.test.autoconfigure.data.mongo.DataMongoTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.test.context.ActiveProfiles;
 
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.*;
+import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.when;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
 
 @DataMongoTest
 @ActiveProfiles("test-local")
@@ -51,6 +82,24 @@ class VentaServiceImplTest {
     @Mock
     private InventoryClient movementClient;
 
+    @Spy
+    private RemoteCallExecutor remoteCallExecutor = new RemoteCallExecutor(4, 5000);
+
+    @Spy
+    private SalePricing salePricing = new SalePricing();
+
+    @Spy
+    private ProductCache productCache = new ProductCache(100, 60000);
+
+    @Spy
+    private CountCache countCache = new CountCache(100, 60000);
+
+    @Mock
+    private SaleStatsService saleStatsService;
+
+    @Spy
+    private IdempotencyStore idempotencyStore = new InMemoryIdempotencyStore(Duration.ofHours(1), Duration.ofMinutes(1));
+
     @InjectMocks
     private SaleServiceImpl service;
 
@@ -73,7 +122,7 @@ class VentaServiceImplTest {
                 10
         );
 
-        when(productClient.getProduct(any(Integer.class))).thenReturn(productoDtoResponse);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
 
         SaleException exception = assertThrows(SaleException.class, () -> service.add(ventaRequestDto));
         assertThat(exception.getMessage()).isEqualTo(SaleException.PRICE_INVALID);
@@ -93,7 +142,7 @@ class VentaServiceImplTest {
                 0
         );
 
-        when(productClient.getProduct(any(Integer.class))).thenReturn(productoDtoResponse);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
 
         SaleException exception = assertThrows(SaleException.class, () -> service.add(ventaRequestDto));
         assertThat(exception.getMessage()).isEqualTo(SaleException.QUANTITY_GREATER_THAN_STOCK);
@@ -115,7 +164,7 @@ class VentaServiceImplTest {
                 10
         );
 
-        when(productClient.getProduct(any(Integer.class))).thenReturn(productoDtoResponse);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
 
         SaleException exception = assertThrows(SaleException.class, () -> service.add(ventaRequestDto));
 
@@ -177,31 +226,422 @@ class VentaServiceImplTest {
                 10
         );
 
-        MovementDtoResponse movimientoDtoResponse = new MovementDtoResponse(1, 1, 10, "SALIDA", "2025-10-10");
-
         when(repository.save(any(Venta.class))).thenReturn(venta1);
         when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
-        when(productClient.getProduct(any(Integer.class))).thenReturn(productoDtoResponse);
-        when(movementClient.createMovimientoDto(any(MovementDtoRequest.class))).thenReturn(movimientoDtoResponse);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
 
         SaleDtoResponse response = service.add(ventaRequestDto);
 
         assertThat(response).isNotNull();
+        verify(movementClient, times(1)).createMovimientos(List.of(new MovementDtoRequest(1, 10, "SALIDA")));
+        verify(movementClient, never()).createMovimientoDto(any(MovementDtoRequest.class));
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 100})
+    void add_whenBasketHasManyLines_fetchesProductsInOneCall(int lines) {
+        List<DetailSaleDtoRequest> detalles = IntStream.rangeClosed(1, lines)
+                .mapToObj(productId -> new DetailSaleDtoRequest(productId, 1))
+                .toList();
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, detalles);
+
+        List<ProductDtoResponse> productos = IntStream.rangeClosed(1, lines)
+                .mapToObj(productId -> new ProductDtoResponse(productId, "Producto " + productId, "Producto " + productId, 5.00, true, LocalDate.now(), 10))
+                .toList();
+
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(productos);
+        when(repository.save(any(Venta.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        SaleDtoResponse response = service.add(ventaRequestDto);
+
+        assertThat(response.details()).hasSize(lines);
+        verify(productClient, times(1)).getProducts(anyList());
+        verify(productClient, never()).getProduct(any(Integer.class));
+        verify(movementClient, times(1)).createMovimientos(argThat(movimientos -> movimientos.size() == lines));
+    }
+
+    @Test
+    void add_whenSaleIsSaved_recordsStats() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 2)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
+        when(repository.save(any(Venta.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.add(ventaRequestDto);
+
+        verify(saleStatsService, times(1)).record(argThat(venta -> venta.getTotal() == 10.00 && venta.getClientId() == 1));
+    }
+
+    @Test
+    void add_whenStatsFail_keepsSale() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 2)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
+        when(repository.save(any(Venta.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        doThrow(new IllegalStateException("mongo")).when(saleStatsService).record(any(Venta.class));
+
+        SaleDtoResponse response = service.add(ventaRequestDto);
+
+        assertThat(response.total()).isEqualTo(10.00);
+        verify(movementClient, times(1)).createMovimientos(anyList());
+    }
+
+    @Test
+    void add_whenIdempotencyKeyIsRepeated_returnsSameSaleWithoutRemoteCalls() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 2)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
+        when(repository.save(any(Venta.class))).thenAnswer(invocation -> {
+            Venta venta = invocation.getArgument(0);
+            venta.setId("1");
+            return venta;
+        });
+
+        SaleDtoResponse first = service.add(ventaRequestDto, "clave-1");
+        SaleDtoResponse second = service.add(new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 2))), "clave-1");
+
+        assertThat(second).isEqualTo(first);
+        verify(repository, times(1)).save(any(Venta.class));
+        verify(movementClient, times(1)).createMovimientos(anyList());
+        verify(clientFeign, times(1)).getClient(any(Long.class));
+    }
+
+    @Test
+    void add_whenIdempotencyKeyIsReusedWithOtherRequest_returnsError() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 2)));
+        idempotencyStore.claim("clave-1", "otra");
+
+        SaleException exception = assertThrows(SaleException.class, () -> service.add(ventaRequestDto, "clave-1"));
+
+        assertThat(exception.getMessage()).isEqualTo(SaleException.IDEMPOTENCY_KEY_REUSED);
+        verifyNoInteractions(clientFeign, productClient, movementClient);
+        verify(repository, never()).save(any(Venta.class));
+    }
+
+    @Test
+    void add_whenIdempotencyKeyIsInProgress_returnsError() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 2)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        //la primera venta falla despues de reservar stock: no se sabe si inventario desconto
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
+        doThrow(new RuntimeException("Read timed out")).when(movementClient).createMovimientos(anyList());
+        assertThrows(RuntimeException.class, () -> service.add(ventaRequestDto, "clave-1"));
+
+        SaleException exception = assertThrows(SaleException.class, () -> service.add(ventaRequestDto, "clave-1"));
+
+        assertThat(exception.getMessage()).isEqualTo(SaleException.IDEMPOTENCY_KEY_IN_PROGRESS);
+        verify(movementClient, times(1)).createMovimientos(anyList());
+    }
+
+    @Test
+    void add_whenInventoryRejectsWithClientError_releasesIdempotencyKey() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 2)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+        Request request = Request.create(Request.HttpMethod.POST, "/api/movimientos/batch", Map.of(), null, StandardCharsets.UTF_8, null);
+
+        //un 409 de inventario es un rechazo definitivo: no desconto nada y la misma clave se puede reintentar
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
+        doThrow(new FeignException.Conflict("Stock is invalid", request, null, null)).when(movementClient).createMovimientos(anyList());
+
+        assertThrows(FeignException.class, () -> service.add(ventaRequestDto, "clave-1"));
+        assertThrows(FeignException.class, () -> service.add(ventaRequestDto, "clave-1"));
+
+        verify(idempotencyStore, times(2)).release("clave-1");
+        verify(movementClient, times(2)).createMovimientos(anyList());
+    }
+
+    @Test
+    void add_whenInventoryFailsWithServerError_keepsIdempotencyKeyInProgress() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 2)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+        Request request = Request.create(Request.HttpMethod.POST, "/api/movimientos/batch", Map.of(), null, StandardCharsets.UTF_8, null);
+
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
+        doThrow(new FeignException.ServiceUnavailable("Unavailable", request, null, null)).when(movementClient).createMovimientos(anyList());
+
+        assertThrows(FeignException.class, () -> service.add(ventaRequestDto, "clave-1"));
+        SaleException exception = assertThrows(SaleException.class, () -> service.add(ventaRequestDto, "clave-1"));
+
+        assertThat(exception.getMessage()).isEqualTo(SaleException.IDEMPOTENCY_KEY_IN_PROGRESS);
+        verify(idempotencyStore, never()).release("clave-1");
+        verify(movementClient, times(1)).createMovimientos(anyList());
+    }
+
+    @Test
+    void add_whenOutcomeIsUnknownAndLeaseExpired_keepsIdempotencyKeyInProgress() {
+        //sin plazo de reserva: solo la extension al TTL completo evita que el reintento vuelva a vender
+        IdempotencyStore store = new InMemoryIdempotencyStore(Duration.ofHours(1), Duration.ZERO);
+        SaleServiceImpl serviceWithoutLease = new SaleServiceImpl(repository, productClient, movementClient, clientFeign, remoteCallExecutor, salePricing, productCache, countCache, saleStatsService, store);
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 2)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
+        doThrow(new RuntimeException("Read timed out")).when(movementClient).createMovimientos(anyList());
+        assertThrows(RuntimeException.class, () -> serviceWithoutLease.add(ventaRequestDto, "clave-1"));
+
+        SaleException exception = assertThrows(SaleException.class, () -> serviceWithoutLease.add(ventaRequestDto, "clave-1"));
+
+        assertThat(exception.getMessage()).isEqualTo(SaleException.IDEMPOTENCY_KEY_IN_PROGRESS);
+        verify(movementClient, times(1)).createMovimientos(anyList());
+    }
+
+    @Test
+    void add_whenSaveFails_returnsReservedStock() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 2)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
+        when(repository.save(any(Venta.class))).thenThrow(new RuntimeException("Mongo no disponible"));
+
+        assertThrows(RuntimeException.class, () -> service.add(ventaRequestDto, "clave-1"));
+
+        InOrder inOrder = inOrder(movementClient);
+        inOrder.verify(movementClient).createMovimientos(List.of(new MovementDtoRequest(1, 2, "SALIDA")));
+        inOrder.verify(movementClient).createMovimientos(List.of(new MovementDtoRequest(1, 2, "ENTRADA")));
+        verify(idempotencyStore).keep("clave-1");
+        assertThat(productCache.stats().size()).isZero();
+    }
+
+    @Test
+    void add_whenValidationFails_releasesIdempotencyKey() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 20)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
+
+        assertThrows(SaleException.class, () -> service.add(ventaRequestDto, "clave-1"));
+        assertThrows(SaleException.class, () -> service.add(ventaRequestDto, "clave-1"));
+
+        verify(idempotencyStore, times(2)).release("clave-1");
+        verify(clientFeign, times(2)).getClient(any(Long.class));
+        verifyNoInteractions(movementClient);
+    }
+
+    @Test
+    void add_whenIdempotencyKeyIsBlank_returnsError() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 2)));
+
+        SaleException exception = assertThrows(SaleException.class, () -> service.add(ventaRequestDto, " "));
+
+        assertThat(exception.getMessage()).isEqualTo(SaleException.IDEMPOTENCY_KEY_INVALID);
+        verify(idempotencyStore, never()).claim(any(), any());
+    }
+
+    @Test
+    void add_whenProductIsCached_skipsProductService() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 1)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
+        when(repository.save(any(Venta.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        service.add(ventaRequestDto);
+        service.add(ventaRequestDto);
+
+        verify(productClient, times(1)).getProducts(anyList());
+        verify(movementClient, times(2)).createMovimientos(anyList());
+        assertThat(productCache.stats().hits()).isEqualTo(1);
+    }
+
+    @Test
+    void add_whenReservationFails_doesNotSaveAndEvictsProducts() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 5)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
+        doThrow(new RuntimeException("Stock is invalid")).when(movementClient).createMovimientos(anyList());
+
+        assertThrows(RuntimeException.class, () -> service.add(ventaRequestDto));
+
+        verify(repository, never()).save(any(Venta.class));
+        assertThat(productCache.stats().size()).isZero();
+    }
+
+    @Test
+    void add_whenRemoteCallsAreSlow_fetchesClientAndProductsInParallel() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 1)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(any(Long.class))).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return clienteResponseDTO;
+        });
+        when(productClient.getProducts(anyList())).thenAnswer(invocation -> {
+            Thread.sleep(300);
+            return List.of(productoDtoResponse);
+        });
+        when(repository.save(any(Venta.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        long start = System.nanoTime();
+        SaleDtoResponse response = service.add(ventaRequestDto);
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertThat(response.total()).isEqualTo(5.00);
+        assertThat(elapsedMillis).isLessThan(550);
+    }
+
+    @Test
+    void add_whenClientFails_propagatesOriginalException() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 1)));
+        ProductDtoResponse productoDtoResponse = new ProductDtoResponse(1, "Coca Cola", "Coca Cola", 5.00, true, LocalDate.now(), 10);
+
+        when(clientFeign.getClient(any(Long.class))).thenThrow(new SaleException(SaleException.CLIENT_NOT_FOUND));
+        when(productClient.getProducts(anyList())).thenReturn(List.of(productoDtoResponse));
+
+        SaleException exception = assertThrows(SaleException.class, () -> service.add(ventaRequestDto));
+
+        assertThat(exception.getMessage()).isEqualTo(SaleException.CLIENT_NOT_FOUND);
+        verify(repository, never()).save(any(Venta.class));
+    }
+
+    @Test
+    void add_whenClientFailsAndDetailsAreInvalid_returnsClientError() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, null);
+
+        when(clientFeign.getClient(any(Long.class))).thenThrow(new SaleException(SaleException.CLIENT_NOT_FOUND));
+
+        SaleException exception = assertThrows(SaleException.class, () -> service.add(ventaRequestDto));
+
+        assertThat(exception.getMessage()).isEqualTo(SaleException.CLIENT_NOT_FOUND);
+        verify(productClient, never()).getProducts(anyList());
+    }
+
+    @Test
+    void add_whenRemoteCallExceedsTimeout_returnsError() {
+        SaleServiceImpl serviceWithTimeout = new SaleServiceImpl(repository, productClient, movementClient, clientFeign, new RemoteCallExecutor(4, 50), salePricing, productCache, countCache, saleStatsService, idempotencyStore);
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 1)));
+
+        when(clientFeign.getClient(any(Long.class))).thenAnswer(invocation -> {
+            Thread.sleep(500);
+            return null;
+        });
+
+        SaleException exception = assertThrows(SaleException.class, () -> serviceWithTimeout.add(ventaRequestDto));
+
+        assertThat(exception.getMessage()).isEqualTo(SaleException.REMOTE_CALL_TIMEOUT);
+    }
+
+    @Test
+    void add_whenPriceHasCents_totalIsExact() {
+        SaleDtoRequest ventaRequestDto = new SaleDtoRequest(1, List.of(new DetailSaleDtoRequest(1, 3), new DetailSaleDtoRequest(2, 1)));
+        ProductDtoResponse producto1 = new ProductDtoResponse(1, "Caramelo", "Caramelo", 0.10, true, LocalDate.now(), 10);
+        ProductDtoResponse producto2 = new ProductDtoResponse(2, "Chicle", "Chicle", 0.20, true, LocalDate.now(), 10);
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(List.of(producto1, producto2));
+        when(repository.save(any(Venta.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        SaleDtoResponse response = service.add(ventaRequestDto);
+
+        assertThat(response.details().get(0).subTotal()).isEqualTo(0.30);
+        assertThat(response.total()).isEqualTo(0.50);
+    }
+
+    @Test
+    void add_whenManySalesRunConcurrently_totalsDoNotMix() throws Exception {
+        final int SALES = 2000;
+        ClientDtoResponse clienteResponseDTO = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+        List<ProductDtoResponse> productos = IntStream.rangeClosed(1, 5)
+                .mapToObj(productId -> new ProductDtoResponse(productId, "Producto " + productId, "Producto " + productId, productId * 1.10, true, LocalDate.now(), 1000))
+                .toList();
+        Queue<Venta> saved = new ConcurrentLinkedQueue<>();
+
+        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        when(productClient.getProducts(anyList())).thenReturn(productos);
+        when(repository.save(any(Venta.class))).thenAnswer(invocation -> {
+            Venta venta = invocation.getArgument(0);
+            saved.add(venta);
+            return venta;
+        });
+
+        ExecutorService pool = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<SaleDtoResponse>> futures = IntStream.range(0, SALES)
+                    .mapToObj(i -> pool.submit(() -> service.add(new SaleDtoRequest(1, List.of(
+                            new DetailSaleDtoRequest(1 + i % 5, 1 + i % 7),
+                            new DetailSaleDtoRequest(1 + (i + 1) % 5, 1 + i % 3))))))
+                    .toList();
+            for (Future<SaleDtoResponse> future : futures) {
+                future.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+
+        assertThat(saved).hasSize(SALES);
+        for (Venta venta : saved) {
+            double sumSubTotals = venta.getDetails().stream()
+                    .map(detail -> BigDecimal.valueOf(detail.getSubTotal()))
+                    .reduce(BigDecimal.ZERO, BigDecimal::add)
+                    .doubleValue();
+            assertThat(venta.getTotal()).isEqualTo(sumSubTotals);
+        }
     }
 
     @Test
     void getSalesByClient_whenOrderByIsNotValid_returnsError() {
         Paginado paginado = new Paginado(1, 10, null);
 
-        UtilException exception = assertThrows(UtilException.class, () -> service.getSalesByClient(1, paginado));
+        UtilException exception = assertThrows(UtilException.class, () -> service.getSalesByClient(1, paginado, false));
 
         assertThat(exception.getMessage()).isEqualTo(UtilException.SORT_NAME_INVALID);
     }
 
+    @Test
+    void getSalesByClient_whenSortIsNotWhitelisted_returnsErrorBeforeQuerying() {
+        Paginado paginado = new Paginado(1, 10, "clientId");
+
+        UtilException exception = assertThrows(UtilException.class, () -> service.getSalesByClient(1, paginado, false));
+
+        assertThat(exception.getMessage()).isEqualTo(UtilException.SORT_NAME_INVALID);
+        verifyNoInteractions(clientFeign);
+        verify(repository, never()).findByClientId(anyInt(), any(Pageable.class));
+    }
+
+    @Test
+    void getSalesByClient_whenSortHasDirection_usesIt() {
+        when(repository.findByClientId(anyInt(), any(Pageable.class))).thenReturn(Page.empty());
+
+        service.getSalesByClient(1, new Paginado(1, 10, "total,asc"), false);
+
+        verify(repository).findByClientId(1, PageRequest.of(0, 10, Sort.by(Sort.Direction.ASC, "total")));
+    }
+
     @Test
     void getSalesByClient_whenSizeIsNotValid_returnsError() {
         Paginado paginado = new Paginado(1, null, "id");
-        UtilException exception = assertThrows(UtilException.class, () -> service.getSalesByClient(1, paginado));
+        UtilException exception = assertThrows(UtilException.class, () -> service.getSalesByClient(1, paginado, false));
         assertThat(exception.getMessage()).isEqualTo(UtilException.SIZE_NUMBER_INVALID);
     }
 
@@ -209,7 +649,7 @@ class VentaServiceImplTest {
     void getSalesByClient_whenPageIsNotValid_returnsError() {
         Paginado paginado = new Paginado(0, 10, "id");
 
-        UtilException exception = assertThrows(UtilException.class, () -> service.getSalesByClient(1, paginado));
+        UtilException exception = assertThrows(UtilException.class, () -> service.getSalesByClient(1, paginado, false));
 
         assertThat(exception.getMessage()).isEqualTo(UtilException.PAGE_NUMBER_INVALID);
     }
@@ -218,7 +658,7 @@ class VentaServiceImplTest {
     void getSalesByClient_whenClientIdIsNotValid_returnsError() {
         Paginado paginado = new Paginado(1, 10, "id");
 
-        assertThrows(SaleException.class, () -> service.getSalesByClient(0, paginado));
+        assertThrows(SaleException.class, () -> service.getSalesByClient(0, paginado, false));
     }
 
     @Test
@@ -226,7 +666,7 @@ class VentaServiceImplTest {
         Paginado paginado = new Paginado(1, 10, "id");
         when(repository.findByClientId(any(Integer.class), any(Pageable.class))).thenReturn(Page.empty());
 
-        Page<SaleDtoResponse> response = service.getSalesByClient(1, paginado);
+        Page<SaleDtoResponse> response = service.getSalesByClient(1, paginado, false);
 
         assertThat(response.getContent()).isEmpty();
     }
@@ -255,37 +695,112 @@ class VentaServiceImplTest {
         when(repository.findByClientId(any(Integer.class), any(Pageable.class))).thenReturn(new PageImpl<>(ventas));
         when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
 
-        Page<SaleDtoResponse> response = service.getSalesByClient(1, paginado);
+        Page<SaleDtoResponse> response = service.getSalesByClient(1, paginado, false);
 
         assertThat(response.getContent().size()).isEqualTo(2);
     }
 
+    @Test
+    void getSalesByClient_whenTotalIsCached_skipsCount() {
+        List<DetalleVenta> detalles = List.of(createDetalleVenta(1, 10, 10.00, 100.00));
+        List<Venta> ventas = List.of(createVenta("1", 1, detalles));
+        ClientDtoResponse cliente = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(1L)).thenReturn(cliente);
+        when(repository.findByClientId(any(Integer.class), any(Pageable.class))).thenReturn(new PageImpl<>(ventas, PageRequest.of(0, 1), 15));
+        when(repository.findSliceByClientId(any(Integer.class), any(Pageable.class))).thenReturn(new SliceImpl<>(ventas, PageRequest.of(1, 1), true));
+
+        service.getSalesByClient(1, new Paginado(1, 1, "id"), false);
+        Page<SaleDtoResponse> response = service.getSalesByClient(1, new Paginado(2, 1, "id"), false);
+
+        assertThat(response.getTotalElements()).isEqualTo(15);
+        assertThat(response.getContent().get(0).client()).isEqualTo("VICTOR ORBEGOZO");
+        verify(repository, times(1)).findByClientId(any(Integer.class), any(Pageable.class));
+        verify(repository, times(1)).findSliceByClientId(any(Integer.class), any(Pageable.class));
+    }
+
+    @Test
+    void getSalesByClientWithoutTotal_returnsSliceWithoutCount() {
+        List<DetalleVenta> detalles = List.of(createDetalleVenta(1, 10, 10.00, 100.00));
+        ClientDtoResponse cliente = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(1L)).thenReturn(cliente);
+        when(repository.findSliceByClientId(any(Integer.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(createVenta("1", 1, detalles)), PageRequest.of(0, 1), true));
+
+        Slice<SaleDtoResponse> response = service.getSalesByClientWithoutTotal(1, new Paginado(1, 1, "id"), false);
+
+        assertThat(response.getContent()).hasSize(1);
+        assertThat(response.hasNext()).isTrue();
+        verify(repository, never()).findByClientId(any(Integer.class), any(Pageable.class));
+        verify(repository, never()).count();
+    }
+
+    @Test
+    void getSalesByClientWithoutTotal_whenDetailsRequested_loadsFullDocuments() {
+        List<DetalleVenta> detalles = List.of(createDetalleVenta(1, 10, 10.00, 100.00));
+        ClientDtoResponse cliente = new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678");
+
+        when(clientFeign.getClient(1L)).thenReturn(cliente);
+        when(repository.findSliceWithDetailsByClientId(any(Integer.class), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(createVenta("1", 1, detalles)), PageRequest.of(0, 1), false));
+
+        Slice<SaleDtoResponse> response = service.getSalesByClientWithoutTotal(1, new Paginado(1, 1, "id"), true);
+
+        assertThat(response.getContent().get(0).details()).hasSize(1);
+        verify(repository, never()).findSliceByClientId(any(Integer.class), any(Pageable.class));
+    }
+
+    @Test
+    void getAll_whenDetailsAreNotRequested_usesSummaryQuery() {
+        when(repository.findPageBy(any(Pageable.class))).thenReturn(Page.empty());
+        when(repository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+
+        service.getAll(1, 10, "id", false);
+        countCache.invalidateAll();
+        service.getAll(1, 10, "id", true);
+
+        verify(repository, times(1)).findPageBy(any(Pageable.class));
+        verify(repository, times(1)).findAll(any(Pageable.class));
+    }
+
+    @Test
+    void getAllWithoutTotal_returnsSliceWithoutCount() {
+        when(repository.findSliceBy(any(Pageable.class))).thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 10), false));
+
+        Slice<SaleDtoResponse> response = service.getAllWithoutTotal(1, 10, "id", false);
+
+        assertThat(response.getContent()).isEmpty();
+        verify(repository, never()).findPageBy(any(Pageable.class));
+        verify(clientFeign, never()).getClients(anyList());
+    }
+
     @Test
     void getAll_whenOrderByIsNotValid_returnsError() {
-        UtilException exception = assertThrows(UtilException.class, () -> service.getAll(1, 10, "   "));
+        UtilException exception = assertThrows(UtilException.class, () -> service.getAll(1, 10, "   ", false));
 
         assertThat(exception.getMessage()).isEqualTo(UtilException.SORT_NAME_INVALID);
     }
 
     @Test
     void getAll_whenSizeIsNotValid_returnsError() {
-        UtilException exception = assertThrows(UtilException.class, () -> service.getAll(1, 0, "id"));
+        UtilException exception = assertThrows(UtilException.class, () -> service.getAll(1, 0, "id", false));
 
         assertThat(exception.getMessage()).isEqualTo(UtilException.SIZE_NUMBER_INVALID);
     }
 
     @Test
     void getAll_whenPageIsNotValid_returnsError() {
-        UtilException exception = assertThrows(UtilException.class, () -> service.getAll(0, 10, "id"));
+        UtilException exception = assertThrows(UtilException.class, () -> service.getAll(0, 10, "id", false));
 
         assertThat(exception.getMessage()).isEqualTo(UtilException.PAGE_NUMBER_INVALID);
     }
 
     @Test
     void getAll_whenVentaNoExists_returnsEmptyList() {
-        when(repository.findAll(any(Pageable.class))).thenReturn(Page.empty());
+        when(repository.findPageBy(any(Pageable.class))).thenReturn(Page.empty());
 
-        Page<SaleDtoResponse> response = service.getAll(1, 10, "id");
+        Page<SaleDtoResponse> response = service.getAll(1, 10, "id", false);
 
         assertThat(response.getContent()).isEmpty();
     }
@@ -310,13 +825,92 @@ class VentaServiceImplTest {
                 "2000-10-10",
                 "12345678");
 
-        when(repository.findAll(any(Pageable.class))).thenReturn(new PageImpl<>(ventas));
-        when(clientFeign.getClient(any(Long.class))).thenReturn(clienteResponseDTO);
+        ClientDtoResponse clienteResponseDTO2 = new ClientDtoResponse(
+                2L,
+                "JUAN",
+                "PEREZ",
+                "DNI",
+                "1990-01-01",
+                "87654321");
 
-        Page<SaleDtoResponse> response = service.getAll(1, 10, "id");
+        when(repository.findPageBy(any(Pageable.class))).thenReturn(new PageImpl<>(ventas));
+        when(clientFeign.getClients(anyList())).thenReturn(List.of(clienteResponseDTO, clienteResponseDTO2));
+
+        Page<SaleDtoResponse> response = service.getAll(1, 10, "id", false);
 
         assertThat(response).isNotNull();
         assertThat(response.getContent().size()).isEqualTo(2);
+        assertThat(response.getContent().get(1).client()).isEqualTo("JUAN PEREZ");
+    }
+
+    @Test
+    void getAll_whenVentasShareClients_resolvesClientsInOneCall() {
+        DetalleVenta detalleVenta1 = createDetalleVenta(1, 10, 10.00, 100.00);
+        List<DetalleVenta> detalles = List.of(detalleVenta1);
+
+        List<Venta> ventas = IntStream.rangeClosed(1, 100)
+                .mapToObj(i -> createVenta(String.valueOf(i), i % 5 + 1, detalles))
+                .toList();
+
+        List<ClientDtoResponse> clientes = IntStream.rangeClosed(1, 5)
+                .mapToObj(i -> new ClientDtoResponse((long) i, "CLIENTE", String.valueOf(i), "DNI", "2000-10-10", "1234567" + i))
+                .toList();
+
+        when(repository.findPageBy(any(Pageable.class))).thenReturn(new PageImpl<>(ventas));
+        when(clientFeign.getClients(anyList())).thenReturn(clientes);
+
+        Page<SaleDtoResponse> response = service.getAll(1, 100, "id", false);
+
+        assertThat(response.getContent()).hasSize(100);
+        verify(clientFeign, times(1)).getClients(argThat(ids -> ids.size() == 5));
+        verify(clientFeign, never()).getClient(any(Long.class));
+    }
+
+    @Test
+    void getAllByCursor_whenMoreVentas_returnsCursorWithoutCount() {
+        List<DetalleVenta> detalles = List.of(createDetalleVenta(1, 10, 10.00, 100.00));
+        List<Venta> ventas = List.of(createVenta("665f1c2e9b1e8a3d4c5b6a79", 1, detalles), createVenta("665f1c2e9b1e8a3d4c5b6a78", 2, detalles));
+        Date ultimaFecha = new Date(1_700_000_000_000L);
+
+        Map<String, Object> ultimaClave = new LinkedHashMap<>();
+        ultimaClave.put("date", ultimaFecha);
+        ultimaClave.put("_id", "665f1c2e9b1e8a3d4c5b6a78");
+
+        when(repository.findAllBy(any(ScrollPosition.class), any(), any()))
+                .thenReturn(Window.from(ventas, i -> ScrollPosition.forward(ultimaClave), true));
+        when(clientFeign.getClients(anyList())).thenReturn(List.of(
+                new ClientDtoResponse(1L, "VICTOR", "ORBEGOZO", "DNI", "2000-10-10", "12345678"),
+                new ClientDtoResponse(2L, "JUAN", "PEREZ", "DNI", "1990-01-01", "87654321")));
+
+        CursorPage<SaleDtoResponse> response = service.getAllByCursor(2, "date", null, false);
+
+        assertThat(response.content()).hasSize(2);
+        assertThat(response.content().get(1).client()).isEqualTo("JUAN PEREZ");
+        assertThat(response.hasNext()).isTrue();
+        assertThat(CursorCodec.decode(response.nextCursor())).isEqualTo(ultimaClave);
+        verify(clientFeign, times(1)).getClients(anyList());
+        verify(repository, never()).count();
+        verify(repository, never()).findPageBy(any(Pageable.class));
+    }
+
+    @Test
+    void getAllByCursor_whenCursorIsNotValid_returnsError() {
+        UtilException exception = assertThrows(UtilException.class, () -> service.getAllByCursor(10, "date", "!!", false));
+
+        assertThat(exception.getMessage()).isEqualTo(UtilException.CURSOR_INVALID);
+        verify(repository, never()).findAllBy(any(ScrollPosition.class), any(), any());
+    }
+
+    @Test
+    void getAllByCursor_whenCursorIsFromAnotherSort_returnsError() {
+        Map<String, Object> claves = new LinkedHashMap<>();
+        claves.put("total", 10.0);
+        claves.put("_id", "665f1c2e9b1e8a3d4c5b6a78");
+
+        UtilException exception = assertThrows(UtilException.class, () -> service.getAllByCursor(10, "date", CursorCodec.encode(claves), false));
+
+        assertThat(exception.getMessage()).isEqualTo(UtilException.CURSOR_INVALID);
+        verify(repository, never()).findAllBy(any(ScrollPosition.class), any(), any());
     }
 
     private DetalleVenta createDetalleVenta(Integer productId, Integer quantity, Double unitPrice, Double subTotal) {